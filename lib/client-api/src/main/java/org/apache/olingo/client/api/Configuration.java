@@ -98,6 +98,7 @@ public interface Configuration {
 
   /**
    * Gets the HttpClient factory to be used for executing requests.
+   * The default implementation keeps a pool of persistent connections shared by all clients of the process.
    *
    * @return provided implementation (if configured via <tt>setHttpClientFactory</tt> or default.
    */
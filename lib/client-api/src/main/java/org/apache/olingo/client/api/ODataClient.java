@@ -75,4 +75,13 @@ public interface ODataClient {
   CUDRequestFactory getCUDRequestFactory();
 
   BatchRequestFactory getBatchRequestFactory();
+
+  /**
+   * Releases the resources the client has created itself, i.e., the threads of the default executor.
+   * An executor set in the configuration is not shut down. The connection pool of the default
+   * HttpClient factory is shared by all clients of the process and is not closed; its idle
+   * connections are closed after a timeout.
+   * The client must not be used afterwards.
+   */
+  void close();
 }
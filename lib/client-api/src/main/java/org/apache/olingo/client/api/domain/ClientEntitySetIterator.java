@@ -18,20 +18,19 @@
  */
 package org.apache.olingo.client.api.domain;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.retrieve.ODataEntitySetIteratorRequest;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.serialization.EntitySetReader;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
-import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.ResWrap;
 import org.apache.olingo.commons.api.format.ContentType;
@@ -41,6 +40,9 @@ import org.slf4j.LoggerFactory;
 /**
  * OData entity set iterator class.
  * <br/>
+ * Entities are read one at a time from the response stream. If enabled via {@link #setFollowNextLink(boolean)},
+ * the iterator continues with the next page once all entities of the current page have been read.
+ * <br/>
  * <b>Please don't forget to call the <tt>close()>/</tt> method when not needed any more.</b>
  *
  * @param <E> concrete ODataEntity implementation
@@ -58,17 +60,23 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
 
   protected ResWrap<Entity> cached;
 
-  private final InputStream stream;
+  private InputStream stream;
 
   private final ContentType contentType;
 
+  private EntitySetReader reader;
+
   private ES entitySet;
 
-  private final ByteArrayOutputStream osEntitySet;
+  private boolean available = true;
 
-  private final String namespaces;
+  private boolean followNextLink;
 
-  private boolean available = true;
+  private boolean prefetch;
+
+  private URI nextLink;
+
+  private Future<ODataRetrieveResponse<ClientEntitySetIterator<ClientEntitySet, ClientEntity>>> nextPage;
 
   /**
    * Constructor.
@@ -83,46 +91,45 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
     this.odataClient = odataClient;
     this.stream = stream;
     this.contentType = contentType;
-    this.osEntitySet = new ByteArrayOutputStream();
-    
-    if(contentType.isCompatible(ContentType.APPLICATION_ATOM_SVC)
-        || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML)) {
-      namespaces = getAllElementAttributes(stream, "feed", osEntitySet);
-    } else {
-      namespaces = null;
-      try {
-        if (consume(stream, "\"value\":", osEntitySet, true) >= 0) {
-          int c = 0;
-          while (c != '[' && (c = stream.read()) >= 0) {
-            osEntitySet.write(c);
-          }
-        }
-      } catch (IOException e) {
-        LOG.error("Error parsing entity set", e);
-        throw new IllegalStateException(e);
-      }
+    try {
+      this.reader = odataClient.getDeserializer(contentType).toEntitySetReader(stream);
+    } catch (final ODataDeserializerException e) {
+      LOG.error("Error parsing entity set", e);
+      IOUtils.closeQuietly(stream);
+      throw new IllegalStateException(e);
     }
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * Sets whether the next link of each page is followed, so that the iterator returns the entities of all pages.
+   * Default is <tt>false</tt>.
+   *
+   * @param followNextLink whether to follow next links
+   */
+  public void setFollowNextLink(final boolean followNextLink) {
+    this.followNextLink = followNextLink;
+  }
+
+  /**
+   * Sets whether the next page is requested in the background while the entities of the current page are
+   * processed; only relevant when following next links. Default is <tt>false</tt>.
+   * <br/>
+   * To that end, the iterator reads one entity ahead within the current page; the next page is requested as soon as
+   * the next link has been read.
+   *
+   * @param prefetch whether to prefetch the next page
+   */
+  public void setPrefetch(final boolean prefetch) {
+    this.prefetch = prefetch;
+  }
+
   @Override
   public boolean hasNext() {
     if (available && cached == null) {
-      if (contentType.isCompatible(ContentType.APPLICATION_ATOM_SVC)
-          || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML)) {
-        cached = nextAtomEntityFromEntitySet(stream, osEntitySet, namespaces);
-      } else {
-        cached = nextJSONEntityFromEntitySet(stream, osEntitySet);
-      }
+      cached = read(true);
 
       if (cached == null) {
         available = false;
-        try {
-          entitySet = (ES) odataClient.getReader().
-                  readEntitySet(new ByteArrayInputStream(osEntitySet.toByteArray()), contentType);
-        } catch (final ODataDeserializerException e) {
-          available = false;
-        }
         close();
       }
     }
@@ -136,6 +143,9 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
       @SuppressWarnings("unchecked")
       final E res = (E) odataClient.getBinder().getODataEntity(cached);
       cached = null;
+      if (prefetch && followNextLink) {
+        cached = read(false);
+      }
       return res;
     }
 
@@ -154,12 +164,31 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
    * Closes the current iterator.
    */
   public void close() {
+    if (reader != null) {
+      reader.close();
+    }
     IOUtils.closeQuietly(stream);
-    IOUtils.closeQuietly(osEntitySet);
+    // A running request cannot be stopped, and cancelling its future would only discard the response;
+    // therefore the prefetched page is awaited and closed, so that its connection is released.
+    if (nextPage != null) {
+      try {
+        nextPage.get().close();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOG.debug("Interrupted while closing prefetched page", e);
+      } catch (final ExecutionException e) {
+        LOG.debug("Error closing prefetched page", e);
+      } catch (final RuntimeException e) {
+        LOG.debug("Error closing prefetched page", e);
+      }
+    }
+    nextPage = null;
   }
 
   /**
    * Gets the next link if exists.
+   * <br/>
+   * When following next links, this is the next link of the last page which has been read.
    *
    * @return next link if exists; null otherwise.
    */
@@ -170,142 +199,79 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
     return entitySet.getNext();
   }
 
-  private ResWrap<Entity> nextJSONEntityFromEntitySet(final InputStream input, final OutputStream osEntitySet) {
-    final ByteArrayOutputStream entity = new ByteArrayOutputStream();
-
-    ResWrap<Entity> jsonEntity = null;
+  /**
+   * Reads the next entity.
+   *
+   * @param openNextPage whether the next page may be opened if the current one has been read completely
+   * @return the next entity; <tt>null</tt> if none is available
+   */
+  private ResWrap<Entity> read(final boolean openNextPage) {
     try {
-      int c;
-
-      boolean foundNewOne = false;
-
-      do {
-        c = input.read();
-        if (c == '{') {
-          entity.write(c);
-          c = -1;
-          foundNewOne = true;
-        }
-        if (c == ']') {
-          osEntitySet.write(c);
-          c = -1;
-        }
-      } while (c >= 0);
-
-      if (foundNewOne) {
-        int count = 1;
-        c = 0;
-
-        while (count > 0 && c >= 0) {
-          c = input.read();
-          if (c == '{') {
-            count++;
-          } else if (c == '}') {
-            count--;
+      while (true) {
+        if (reader == null) {
+          if (!openNextPage || nextLink == null) {
+            return null;
           }
-          entity.write(c);
+          openNextPage();
         }
 
-        if (c >= 0) {
-          jsonEntity = odataClient.getDeserializer(ContentType.JSON).toEntity(
-                  new ByteArrayInputStream(entity.toByteArray()));
-        }
-      } else {
-        while ((c = input.read()) >= 0) {
-          osEntitySet.write(c);
+        final ResWrap<Entity> entity = reader.next();
+        if (entity != null) {
+          return entity;
         }
+        endPage();
       }
-    } catch (Exception e) {
+    } catch (final ODataDeserializerException e) {
       LOG.error("Error retrieving entities from EntitySet", e);
+      return null;
     }
-
-    return jsonEntity;
   }
 
-  private ResWrap<Entity> nextAtomEntityFromEntitySet(
-          final InputStream input, final OutputStream osEntitySet, final String namespaces) {
-
-    final ByteArrayOutputStream entity = new ByteArrayOutputStream();
-
-    ResWrap<Entity> atomEntity = null;
+  @SuppressWarnings("unchecked")
+  private void endPage() {
+    entitySet = (ES) odataClient.getBinder().getODataEntitySet(reader.getEntitySet());
+    reader.close();
+    reader = null;
+    IOUtils.closeQuietly(stream);
+    stream = null;
 
-    try {
-      if (consume(input, "<entry>", osEntitySet, false) >= 0) {
-        entity.write("<entry ".getBytes(Constants.UTF8));
-        entity.write(namespaces.getBytes(Constants.UTF8));
-        entity.write(">".getBytes(Constants.UTF8));
-
-        if (consume(input, "</entry>", entity, true) >= 0) {
-          atomEntity = odataClient.getDeserializer(ContentType.APPLICATION_ATOM_XML).
-                  toEntity(new ByteArrayInputStream(entity.toByteArray()));
-        }
+    if (followNextLink && entitySet.getNext() != null) {
+      nextLink = entitySet.getNext();
+      if (prefetch) {
+        nextPage = request(nextLink).asyncExecute();
       }
-    } catch (Exception e) {
-      LOG.error("Error retrieving entities from EntitySet", e);
     }
-
-    return atomEntity;
   }
 
-  private String getAllElementAttributes(final InputStream input, final String name, final OutputStream os) {
-    final ByteArrayOutputStream attrs = new ByteArrayOutputStream();
-
-    String res;
-
-    try {
-      byte[] attrsDeclaration = null;
-
-      final String key = "<" + name + " ";
-      if (consume(input, key, os, true) >= 0 && consume(input, ">", attrs, false) >= 0) {
-        attrsDeclaration = attrs.toByteArray();
-        os.write(attrsDeclaration);
-        os.write('>');
+  private void openNextPage() throws ODataDeserializerException {
+    final ODataRetrieveResponse<ClientEntitySetIterator<ClientEntitySet, ClientEntity>> response;
+    if (nextPage == null) {
+      response = request(nextLink).execute();
+    } else {
+      try {
+        response = nextPage.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new IllegalStateException(e.getCause());
+      } finally {
+        nextPage = null;
       }
-
-      res = attrsDeclaration == null
-              ? StringUtils.EMPTY
-              : new String(attrsDeclaration, Constants.UTF8).trim();
-    } catch (Exception e) {
-      LOG.error("Error retrieving entities from EntitySet", e);
-      res = StringUtils.EMPTY;
     }
+    nextLink = null;
 
-    return res.endsWith("/") ? res.substring(0, res.length() - 1) : res;
+    stream = response.getRawResponse();
+    reader = odataClient.getDeserializer(contentType).toEntitySetReader(stream);
   }
 
-  private int consume(
-          final InputStream input, final String end, final OutputStream os, final boolean includeEndKey)
-          throws IOException {
-
-    final char[] endKey = end.toCharArray();
-    final char[] endLowerKey = end.toLowerCase().toCharArray();
-    final char[] endUpperKey = end.toUpperCase().toCharArray();
-
-    int pos = 0;
-    int c = 0;
-    while (pos < endKey.length && (c = input.read()) >= 0) {
-      if (c == endLowerKey[pos] || c == endUpperKey[pos]) {
-        pos++;
-        if (includeEndKey && os != null) {
-          os.write(c);
-        }
-      } else if (pos > 0) {
-        if (!includeEndKey && os != null) {
-          for (int i = 0; i < pos; i++) {
-            os.write(endKey[i]);
-          }
-        }
-        if (os != null) {
-          os.write(c);
-        }
-        pos = 0;
-      } else {
-        if (os != null) {
-          os.write(c);
-        }
-      }
-    }
-
-    return c;
+  private ODataEntitySetIteratorRequest<ClientEntitySet, ClientEntity> request(final URI uri) {
+    final ODataEntitySetIteratorRequest<ClientEntitySet, ClientEntity> request =
+        odataClient.getRetrieveRequestFactory().getEntitySetIteratorRequest(uri);
+    request.setFormat(contentType);
+    return request;
   }
 }
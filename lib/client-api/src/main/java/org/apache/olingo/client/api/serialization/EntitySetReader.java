@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.api.serialization;
+
+import java.io.Closeable;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.ResWrap;
+
+/**
+ * Reads the entities of an entity set one at a time from the underlying stream.
+ * <br/>
+ * <b>Please don't forget to call the <tt>close()</tt> method when not needed any more.</b>
+ */
+public interface EntitySetReader extends Closeable {
+
+  /**
+   * Reads the next entity.
+   *
+   * @return the next entity, together with the context URL and metadata ETag of the entity set;
+   * <tt>null</tt> if there are no more entities
+   * @throws ODataDeserializerException
+   */
+  ResWrap<Entity> next() throws ODataDeserializerException;
+
+  /**
+   * Gets the entity set read so far, without its entities.
+   * <br/>
+   * Information following the entities in the stream, e.g. the next link, is available only after
+   * {@link #next()} has returned <tt>null</tt>.
+   *
+   * @return entity set without entities
+   */
+  ResWrap<EntityCollection> getEntitySet();
+
+  /**
+   * Closes the reader and the underlying stream.
+   */
+  @Override
+  void close();
+}
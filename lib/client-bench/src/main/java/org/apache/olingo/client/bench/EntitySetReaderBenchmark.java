@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.bench;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.api.serialization.ODataDeserializerException;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.ResWrap;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the client-side reading of an entity-set response of the technical service
+ * (entity set <code>ESAllPrim</code>), once into the data objects and once into the domain objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntitySetReaderBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  public int size;
+
+  @Param({ "json;odata.metadata=minimal", "json;odata.metadata=none", "xml" })
+  public String format;
+
+  private ODataClient client;
+  private ContentType contentType;
+  private byte[] payload;
+
+  @Setup
+  public void setup() {
+    client = ODataClientFactory.getClient();
+    contentType = ContentType.create("application/" + format);
+    payload = Payloads.entityCollection("ESAllPrim", size, contentType);
+  }
+
+  @Benchmark
+  public ResWrap<EntityCollection> toEntitySet() throws ODataDeserializerException {
+    return client.getDeserializer(contentType).toEntitySet(new ByteArrayInputStream(payload));
+  }
+
+  @Benchmark
+  public ClientEntitySet readEntitySet() throws ODataDeserializerException {
+    return client.getReader().readEntitySet(new ByteArrayInputStream(payload), contentType);
+  }
+}
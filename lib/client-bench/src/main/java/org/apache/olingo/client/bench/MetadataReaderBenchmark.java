@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.edm.xml.XMLMetadata;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.client.core.edm.xml.ClientCsdlEdmx;
+import org.apache.olingo.client.core.serialization.ClientODataDeserializerImpl;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+/**
+ * Throughput of the client-side reading of the metadata document of the technical service.
+ * <br/>
+ * Besides building the whole EDM, the reading of the document into the CSDL object tree is measured both with the
+ * StAX reader used by the client and with the former XmlMapper bean binding, as baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataReaderBenchmark {
+
+  /** Gives access to the XmlMapper bean binding of the metadata document. */
+  private static class XmlMapperDeserializer extends ClientODataDeserializerImpl {
+
+    XmlMapperDeserializer() {
+      super(false, ContentType.APPLICATION_XML);
+    }
+
+    XmlMapper xmlMapper() {
+      return getXmlMapper();
+    }
+  }
+
+  private ODataClient client;
+  private XmlMapper xmlMapper;
+  private byte[] payload;
+
+  @Setup
+  public void setup() {
+    client = ODataClientFactory.getClient();
+    xmlMapper = new XmlMapperDeserializer().xmlMapper();
+    payload = Payloads.metadata();
+  }
+
+  @Benchmark
+  public Edm readMetadata() {
+    return client.getReader().readMetadata(new ByteArrayInputStream(payload));
+  }
+
+  @Benchmark
+  public XMLMetadata readCsdl() {
+    return client.getDeserializer(ContentType.APPLICATION_XML).toMetadata(new ByteArrayInputStream(payload));
+  }
+
+  @Benchmark
+  public ClientCsdlEdmx readCsdlWithXmlMapper() throws IOException {
+    return xmlMapper.readValue(new ByteArrayInputStream(payload), ClientCsdlEdmx.class);
+  }
+}
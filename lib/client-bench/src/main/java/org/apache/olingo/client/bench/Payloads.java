@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.ODataRuntimeException;
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+
+/**
+ * Creates response payloads of the technical service with the server library,
+ * as input for the client benchmarks.
+ */
+public final class Payloads {
+
+  private static final OData ODATA = OData.newInstance();
+  private static final ServiceMetadata METADATA =
+      ODATA.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+
+  private Payloads() {}
+
+  /**
+   * Serializes the given number of entities of the entity set, repeating
+   * the entities created by the technical service as needed.
+   */
+  public static byte[] entityCollection(final String entitySetName, final int size, final ContentType contentType) {
+    try {
+      final EdmEntitySet edmEntitySet = METADATA.getEdm().getEntityContainer().getEntitySet(entitySetName);
+      final List<Entity> source = new DataProvider(METADATA.getEdm()).readAll(edmEntitySet).getEntities();
+      EntityCollection collection = new EntityCollection();
+      for (int i = 0; i < size; i++) {
+        collection.getEntities().add(source.get(i % source.size()));
+      }
+      return toByteArray(ODATA.createSerializer(contentType)
+          .entityCollection(METADATA, edmEntitySet.getEntityType(), collection,
+              EntityCollectionSerializerOptions.with()
+                  .contextURL(ContextURL.with().serviceRoot(URI.create("http://localhost/odata/"))
+                      .entitySet(edmEntitySet).build())
+                  .setId("http://localhost/odata/" + entitySetName)
+                  .build())
+          .getContent());
+    } catch (final ODataApplicationException e) {
+      throw new ODataRuntimeException(e);
+    } catch (final ODataLibraryException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  /** Serializes the metadata document of the technical service. */
+  public static byte[] metadata() {
+    try {
+      return toByteArray(ODATA.createSerializer(ContentType.APPLICATION_XML).metadataDocument(METADATA).getContent());
+    } catch (final ODataLibraryException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  private static byte[] toByteArray(final InputStream content) {
+    try {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      int read;
+      while ((read = content.read(buffer)) >= 0) {
+        output.write(buffer, 0, read);
+      }
+      return output.toByteArray();
+    } catch (final IOException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+}
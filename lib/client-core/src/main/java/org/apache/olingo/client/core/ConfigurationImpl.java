@@ -26,8 +26,8 @@ import java.util.concurrent.Executors;
 import org.apache.olingo.client.api.Configuration;
 import org.apache.olingo.client.api.http.HttpClientFactory;
 import org.apache.olingo.client.api.http.HttpUriRequestFactory;
-import org.apache.olingo.client.core.http.DefaultHttpClientFactory;
 import org.apache.olingo.client.core.http.DefaultHttpUriRequestFactory;
+import org.apache.olingo.client.core.http.PoolingHttpClientFactory;
 import org.apache.olingo.commons.api.format.ContentType;
 
 public class ConfigurationImpl implements Configuration {
@@ -60,7 +60,17 @@ public class ConfigurationImpl implements Configuration {
 
   private final Map<String, Object> CONF = new HashMap<String, Object>();
 
-  private transient ExecutorService executor = Executors.newFixedThreadPool(10);
+  private final ExecutorService defaultExecutor = Executors.newFixedThreadPool(10);
+
+  private transient ExecutorService executor = defaultExecutor;
+
+  /**
+   * Holds the default HttpClient factory. Its connection pool is shared by all configurations
+   * of the process and is created when the first of them uses it.
+   */
+  private static final class DefaultHttpClientFactoryHolder {
+    private static final PoolingHttpClientFactory INSTANCE = new PoolingHttpClientFactory();
+  }
 
   /**
    * Gets given configuration property.
@@ -130,9 +140,15 @@ public class ConfigurationImpl implements Configuration {
     setProperty(DEFAULT_MEDIA_FORMAT, contentType);
   }
 
+  /**
+   * {@inheritDoc}
+   * <br/>Unless a factory has been set, a {@link PoolingHttpClientFactory} is returned whose connection pool is
+   * shared by all configurations of the process; it must not be closed by the application.
+   */
   @Override
   public HttpClientFactory getHttpClientFactory() {
-    return (HttpClientFactory) getProperty(HTTP_CLIENT_FACTORY, new DefaultHttpClientFactory());
+    final HttpClientFactory factory = (HttpClientFactory) getProperty(HTTP_CLIENT_FACTORY, null);
+    return factory == null ? DefaultHttpClientFactoryHolder.INSTANCE : factory;
   }
 
   @Override
@@ -229,4 +245,12 @@ public class ConfigurationImpl implements Configuration {
   public void setExecutor(final ExecutorService executorService) {
     executor = executorService;
   }
+
+  /**
+   * Shuts down the default executor. Executors set by the application are left alone, since they may be shared;
+   * the default HttpClient factory is shared by all configurations and stays open.
+   */
+  void close() {
+    defaultExecutor.shutdown();
+  }
 }
@@ -24,6 +24,7 @@ import org.apache.olingo.client.api.communication.request.retrieve.EdmMetadataRe
 import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
 import org.apache.olingo.client.api.uri.URIBuilder;
 import org.apache.olingo.client.core.communication.request.invoke.EdmEnabledInvokeRequestFactoryImpl;
+import org.apache.olingo.client.core.edm.EdmMetadataCache;
 import org.apache.olingo.client.core.uri.URIBuilderImpl;
 import org.apache.olingo.commons.api.edm.Edm;
 
@@ -35,14 +36,37 @@ public class EdmEnabledODataClientImpl extends ODataClientImpl implements EdmEna
 
   private String metadataETag;
 
+  private final EdmMetadataCache metadataCache;
+
   private EdmEnabledInvokeRequestFactory edmEnabledInvokeRequestFactory;
 
+  /**
+   * Constructor; metadata are shared through the process-wide cache and revalidated once they are older than its
+   * maximum age.
+   * @param serviceRoot service root
+   * @param edm metadata; fetched on demand if <tt>null</tt>
+   * @param metadataETag ETag of the given metadata
+   * @see EdmMetadataCache#getInstance()
+   */
   public EdmEnabledODataClientImpl(final String serviceRoot, final Edm edm, final String metadataETag) {
+    this(serviceRoot, edm, metadataETag, EdmMetadataCache.getInstance());
+  }
+
+  /**
+   * Constructor.
+   * @param serviceRoot service root
+   * @param edm metadata; fetched on demand if <tt>null</tt>
+   * @param metadataETag ETag of the given metadata
+   * @param metadataCache cache shared with other clients; if <tt>null</tt>, metadata are fetched by this client only
+   */
+  public EdmEnabledODataClientImpl(final String serviceRoot, final Edm edm, final String metadataETag,
+      final EdmMetadataCache metadataCache) {
     super();
 
     this.serviceRoot = serviceRoot;
     this.edm = edm;
     this.metadataETag = metadataETag;
+    this.metadataCache = metadataCache;
   }
 
   @Override
@@ -54,10 +78,16 @@ public class EdmEnabledODataClientImpl extends ODataClientImpl implements EdmEna
   public Edm getEdm(final String metadataETag) {
     synchronized (this) {
       if (this.edm == null || (metadataETag != null && !metadataETag.equals(this.metadataETag))) {
-        final EdmMetadataRequest metadataReq = getRetrieveRequestFactory().getMetadataRequest(serviceRoot);
-        final ODataRetrieveResponse<Edm> metadataRes = metadataReq.execute();
-        this.metadataETag = metadataRes.getETag();
-        this.edm = metadataRes.getBody();
+        if (metadataCache == null) {
+          final EdmMetadataRequest metadataReq = getRetrieveRequestFactory().getMetadataRequest(serviceRoot);
+          final ODataRetrieveResponse<Edm> metadataRes = metadataReq.execute();
+          this.metadataETag = metadataRes.getETag();
+          this.edm = metadataRes.getBody();
+        } else {
+          final EdmMetadataCache.Entry entry = metadataCache.get(this, serviceRoot, metadataETag);
+          this.metadataETag = entry.getMetadataETag();
+          this.edm = entry.getEdm();
+        }
       }
     }
     return this.edm;
@@ -86,6 +86,11 @@ public class ODataClientImpl implements ODataClient {
     return configuration;
   }
 
+  @Override
+  public void close() {
+    ((ConfigurationImpl) configuration).close();
+  }
+
   @Override
   public ODataPreferences newPreferences() {
     return new ODataPreferences();
@@ -33,6 +33,7 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.DecompressingHttpClient;
+import org.apache.http.util.EntityUtils;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.header.ODataHeaders;
 import org.apache.olingo.client.api.communication.request.ODataRequest;
@@ -307,6 +308,7 @@ public abstract class AbstractODataRequest extends AbstractRequest implements OD
     try {
       checkResponse(odataClient, response, getAccept());
     } catch (ODataRuntimeException e) {
+      EntityUtils.consumeQuietly(response.getEntity());
       odataClient.getConfiguration().getHttpClientFactory().close(httpClient);
       throw e;
     }
@@ -102,6 +102,7 @@ public class ODataEntityCreateRequestImpl<E extends ClientEntity>
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     /**
@@ -115,6 +115,7 @@ public class ODataEntityUpdateRequestImpl<E extends ClientEntity>
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
@@ -103,6 +103,7 @@ public class ODataPropertyUpdateRequestImpl extends AbstractODataBasicRequest<OD
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
@@ -100,6 +100,7 @@ public class ODataValueUpdateRequestImpl extends AbstractODataBasicRequest<OData
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
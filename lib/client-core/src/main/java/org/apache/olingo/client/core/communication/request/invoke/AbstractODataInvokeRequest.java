@@ -183,6 +183,7 @@ public abstract class AbstractODataInvokeRequest<T extends ClientInvokeResult>
         final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     /**
@@ -59,6 +59,7 @@ public class ODataDeltaRequestImpl extends AbstractODataRetrieveRequest<ClientDe
         final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
@@ -68,6 +68,7 @@ public class ODataEntityRequestImpl<E extends ClientEntity>
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
@@ -71,6 +71,7 @@ public class ODataEntitySetRequestImpl<ES extends ClientEntitySet>
         final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
@@ -68,6 +68,7 @@ public class ODataPropertyRequestImpl<T extends ClientProperty>
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
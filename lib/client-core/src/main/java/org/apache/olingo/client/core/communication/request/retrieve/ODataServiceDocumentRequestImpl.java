@@ -69,6 +69,7 @@ public class ODataServiceDocumentRequestImpl extends AbstractODataRetrieveReques
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
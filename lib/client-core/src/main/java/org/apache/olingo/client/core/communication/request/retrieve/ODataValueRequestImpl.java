@@ -69,6 +69,7 @@ public class ODataValueRequestImpl extends AbstractODataRetrieveRequest<ClientPr
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
@@ -103,6 +103,7 @@ public class ODataMediaEntityCreateRequestImpl<E extends ClientEntity>
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
@@ -104,6 +104,7 @@ public class ODataMediaEntityUpdateRequestImpl<E extends ClientEntity>
             final HttpResponse res) {
 
       super(odataClient, httpClient, res);
+      bufferPayload();
     }
 
     @Override
@@ -34,6 +34,7 @@ import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
+import org.apache.http.util.EntityUtils;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.request.ODataStreamer;
 import org.apache.olingo.client.api.communication.request.batch.ODataBatchLineIterator;
@@ -239,8 +240,30 @@ public abstract class AbstractODataResponse implements ODataResponse {
     }
   }
 
+  /**
+   * Reads the payload into memory, which releases the connection of the response.
+   * Used by responses whose payload is parsed into their body, so that the connection is
+   * given back to the pool even if the body is never requested.
+   */
+  protected void bufferPayload() {
+    if (res != null && payload != null) {
+      try {
+        payload = new ByteArrayInputStream(IOUtils.toByteArray(payload));
+      } catch (final IOException e) {
+        LOG.error("Error retrieving payload", e);
+        throw new ODataRuntimeException(e);
+      } finally {
+        EntityUtils.consumeQuietly(res.getEntity());
+      }
+    }
+  }
+
   @Override
   public void close() {
+    // Reading the rest of the response releases a pooled connection for reuse.
+    if (res != null) {
+      EntityUtils.consumeQuietly(res.getEntity());
+    }
     odataClient.getConfiguration().getHttpClientFactory().close(httpClient);
 
     if (batchInfo != null) {
@@ -30,10 +30,8 @@ import org.apache.olingo.client.core.serialization.JsonDeserializer;
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.ResWrap;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class JSONServiceDocumentDeserializer extends JsonDeserializer {
@@ -93,7 +91,7 @@ public class JSONServiceDocumentDeserializer extends JsonDeserializer {
 
   public ResWrap<ServiceDocument> toServiceDocument(final InputStream input) throws ODataDeserializerException {
     try {
-      JsonParser parser = new JsonFactory(new ObjectMapper()).createParser(input);
+      JsonParser parser = FACTORY.createParser(input);
       return doDeserialize(parser);
     } catch (final IOException e) {
       throw new ODataDeserializerException(e);
@@ -0,0 +1,458 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.edm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.retrieve.XMLMetadataRequest;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.edm.xml.XMLMetadata;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.api.http.HttpUriRequestFactory;
+import org.apache.olingo.client.core.http.DefaultHttpClientFactory;
+import org.apache.olingo.client.core.http.DefaultHttpUriRequestFactory;
+import org.apache.olingo.client.core.http.PoolingHttpClientFactory;
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide cache of service metadata, keyed by service root and HTTP configuration of the client.
+ * <br/>
+ * The metadata document of a service is fetched and parsed once and shared by all clients using this cache
+ * with the same HTTP configuration. Clients with their own HttpClient or HttpUriRequest factory, e.g., carrying
+ * credentials, share metadata only with clients using the same factory instances.
+ * When a different metadata ETag is requested or the cached metadata are older than the maximum age,
+ * they are revalidated with a conditional request (<tt>If-None-Match</tt>), so that unchanged metadata are
+ * neither transferred nor parsed again.
+ * <br/>
+ * If a snapshot directory is set, the parsed CSDL schemas of clients without own factories are also stored there
+ * in binary form, so that short-lived processes can start without fetching and parsing the metadata document.
+ * Snapshots are subject to the maximum age as well, counted from their last validation.
+ */
+public final class EdmMetadataCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EdmMetadataCache.class);
+
+  private static final int SNAPSHOT_VERSION = 1;
+
+  private static final String SNAPSHOT_SUFFIX = ".edm";
+
+  /** Packages and classes which may occur in a snapshot; anything else is rejected when reading it. */
+  private static final String[] SNAPSHOT_PACKAGES = {
+      "org.apache.olingo.commons.api.edm.", "org.apache.olingo.client.core.edm.xml." };
+
+  private static final Set<String> SNAPSHOT_CLASSES = new HashSet<String>(Arrays.asList(
+      String.class.getName(), Boolean.class.getName(), Integer.class.getName(), Long.class.getName(),
+      Number.class.getName(), Enum.class.getName(),
+      "java.util.ArrayList", "java.util.Arrays$ArrayList", "java.util.HashMap", "java.util.LinkedHashMap",
+      "java.util.Collections$EmptyList", "java.util.Collections$UnmodifiableList",
+      "java.util.Collections$UnmodifiableRandomAccessList", "java.util.Collections$UnmodifiableCollection"));
+
+  private static final int LOCK_STRIPES = 32;
+
+  public static final long DEFAULT_MAX_AGE_MILLIS = 5 * 60 * 1000L;
+
+  private static final EdmMetadataCache INSTANCE = new EdmMetadataCache();
+
+  private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<Key, Entry>();
+
+  private final Object[] locks = new Object[LOCK_STRIPES];
+
+  private volatile File snapshotDirectory;
+
+  private volatile long maxAge = DEFAULT_MAX_AGE_MILLIS;
+
+  /**
+   * Creates a cache independent of the process-wide one.
+   */
+  public EdmMetadataCache() {
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  /**
+   * Gets the process-wide cache instance.
+   * @return cache shared by all EDM-enabled clients
+   */
+  public static EdmMetadataCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Cached metadata of a service.
+   */
+  public static final class Entry {
+
+    private final Edm edm;
+
+    private final String metadataETag;
+
+    private final long validated;
+
+    private Entry(final Edm edm, final String metadataETag, final long validated) {
+      this.edm = edm;
+      this.metadataETag = metadataETag;
+      this.validated = validated;
+    }
+
+    public Edm getEdm() {
+      return edm;
+    }
+
+    public String getMetadataETag() {
+      return metadataETag;
+    }
+  }
+
+  /**
+   * Sets the directory where snapshots of the parsed metadata are stored; <tt>null</tt> disables snapshots.
+   * @param snapshotDirectory directory, created if it does not exist
+   */
+  public void setSnapshotDirectory(final File snapshotDirectory) {
+    this.snapshotDirectory = snapshotDirectory;
+  }
+
+  public File getSnapshotDirectory() {
+    return snapshotDirectory;
+  }
+
+  /**
+   * Sets the time after which cached metadata are revalidated before they are handed to a client;
+   * <tt>0</tt> revalidates them whenever a client requests metadata.
+   * @param maxAge maximum age in milliseconds
+   */
+  public void setMaxAge(final long maxAge) {
+    this.maxAge = maxAge;
+  }
+
+  public long getMaxAge() {
+    return maxAge;
+  }
+
+  /**
+   * Gets the metadata of a service.
+   * <br/>
+   * Cached metadata are returned if there are any, their ETag matches, and they are not older than the
+   * maximum age; otherwise they are revalidated.
+   * @param client client used to fetch the metadata
+   * @param serviceRoot service root
+   * @param metadataETag expected metadata ETag; <tt>null</tt> accepts any cached metadata
+   * @return metadata of the service
+   */
+  public Entry get(final ODataClient client, final String serviceRoot, final String metadataETag) {
+    final Key key = new Key(client, serviceRoot);
+    Entry entry = entries.get(key);
+    if (matches(entry, metadataETag)) {
+      return entry;
+    }
+
+    synchronized (lock(key)) {
+      entry = entries.get(key);
+      if (entry == null) {
+        entry = readSnapshot(client, key);
+        if (entry != null) {
+          entries.put(key, entry);
+        }
+      }
+      if (!matches(entry, metadataETag)) {
+        entry = fetch(client, key, entry);
+      }
+      return entry;
+    }
+  }
+
+  /**
+   * Revalidates the metadata of a service, regardless of any ETag.
+   * @param client client used to fetch the metadata
+   * @param serviceRoot service root
+   * @return current metadata of the service
+   */
+  public Entry revalidate(final ODataClient client, final String serviceRoot) {
+    final Key key = new Key(client, serviceRoot);
+    synchronized (lock(key)) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        entry = readSnapshot(client, key);
+      }
+      return fetch(client, key, entry);
+    }
+  }
+
+  /**
+   * Removes the metadata of a service from the cache, for all HTTP configurations, and its snapshot.
+   * @param serviceRoot service root
+   */
+  public void invalidate(final String serviceRoot) {
+    for (final Iterator<Key> iterator = entries.keySet().iterator(); iterator.hasNext();) {
+      if (iterator.next().serviceRoot.equals(serviceRoot)) {
+        iterator.remove();
+      }
+    }
+    final File snapshot = getSnapshot(serviceRoot);
+    if (snapshot != null) {
+      synchronized (lock(new Key(serviceRoot, null, null))) {
+        if (snapshot.exists() && !snapshot.delete()) {
+          LOG.warn("Could not delete metadata snapshot {}", snapshot);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all metadata from the cache; snapshots are kept.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  private boolean matches(final Entry entry, final String metadataETag) {
+    return entry != null && (metadataETag == null || metadataETag.equals(entry.getMetadataETag()))
+        && System.currentTimeMillis() - entry.validated < maxAge;
+  }
+
+  /** Striped locks, so that metadata of different services are loaded concurrently without keeping a lock each. */
+  private Object lock(final Key key) {
+    return locks[(key.serviceRoot.hashCode() & Integer.MAX_VALUE) % locks.length];
+  }
+
+  private Entry fetch(final ODataClient client, final Key key, final Entry cached) {
+    final XMLMetadataRequest request = client.getRetrieveRequestFactory().getXMLMetadataRequest(key.serviceRoot);
+    if (cached != null && cached.getMetadataETag() != null) {
+      request.setIfNoneMatch(cached.getMetadataETag());
+    }
+    final ODataRetrieveResponse<XMLMetadata> response = request.execute();
+    final long now = System.currentTimeMillis();
+    if (cached != null && response.getStatusCode() == HttpStatusCode.NOT_MODIFIED.getStatusCode()) {
+      response.close();
+      final Entry entry = new Entry(cached.getEdm(), cached.getMetadataETag(), now);
+      entries.put(key, entry);
+      final File snapshot = key.isShareable() ? getSnapshot(key.serviceRoot) : null;
+      if (snapshot != null && snapshot.isFile() && !snapshot.setLastModified(now)) {
+        LOG.debug("Could not update validation time of metadata snapshot {}", snapshot);
+      }
+      return entry;
+    }
+
+    final Map<String, CsdlSchema> schemas = response.getBody().getSchemaByNsOrAlias();
+    final Entry entry = new Entry(client.getReader().readMetadata(schemas), response.getETag(), now);
+    entries.put(key, entry);
+    if (key.isShareable()) {
+      writeSnapshot(key.serviceRoot, entry.getMetadataETag(), schemas);
+    }
+    return entry;
+  }
+
+  private File getSnapshot(final String serviceRoot) {
+    final File directory = snapshotDirectory;
+    if (directory == null) {
+      return null;
+    }
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(serviceRoot.getBytes(Charset.forName(Constants.UTF8)));
+      final StringBuilder name = new StringBuilder(digest.length * 2 + SNAPSHOT_SUFFIX.length());
+      for (final byte b : digest) {
+        name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return new File(directory, name.append(SNAPSHOT_SUFFIX).toString());
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Entry readSnapshot(final ODataClient client, final Key key) {
+    final File snapshot = key.isShareable() ? getSnapshot(key.serviceRoot) : null;
+    if (snapshot == null || !snapshot.isFile()) {
+      return null;
+    }
+
+    ObjectInputStream input = null;
+    try {
+      final long validated = snapshot.lastModified();
+      input = new SnapshotInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(snapshot))));
+      if (input.readInt() != SNAPSHOT_VERSION || !key.serviceRoot.equals(input.readUTF())) {
+        return null;
+      }
+      final String metadataETag = (String) input.readObject();
+      final Map<String, CsdlSchema> schemas = (Map<String, CsdlSchema>) input.readObject();
+      return new Entry(client.getReader().readMetadata(schemas), metadataETag, validated);
+    } catch (final IOException e) {
+      LOG.warn("Could not read metadata snapshot " + snapshot, e);
+      return null;
+    } catch (final ClassNotFoundException e) {
+      LOG.warn("Could not read metadata snapshot " + snapshot, e);
+      return null;
+    } catch (final ClassCastException e) {
+      LOG.warn("Could not read metadata snapshot " + snapshot, e);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  private void writeSnapshot(final String serviceRoot, final String metadataETag,
+      final Map<String, CsdlSchema> schemas) {
+    final File snapshot = getSnapshot(serviceRoot);
+    if (snapshot == null) {
+      return;
+    }
+
+    ObjectOutputStream output = null;
+    File temporary = null;
+    try {
+      if (!snapshot.getParentFile().isDirectory() && !snapshot.getParentFile().mkdirs()) {
+        throw new IOException("Could not create directory " + snapshot.getParentFile());
+      }
+      // Written to a temporary file first so that concurrent processes never read a partial snapshot.
+      temporary = File.createTempFile("snapshot", ".tmp", snapshot.getParentFile());
+      output = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temporary))));
+      output.writeInt(SNAPSHOT_VERSION);
+      output.writeUTF(serviceRoot);
+      output.writeObject(metadataETag);
+      output.writeObject(new HashMap<String, CsdlSchema>(schemas));
+      output.close();
+      output = null;
+      if (!temporary.renameTo(snapshot) && !(snapshot.delete() && temporary.renameTo(snapshot))) {
+        throw new IOException("Could not replace " + snapshot);
+      }
+      temporary = null;
+    } catch (final IOException e) {
+      LOG.warn("Could not write metadata snapshot " + snapshot, e);
+    } finally {
+      IOUtils.closeQuietly(output);
+      if (temporary != null && !temporary.delete()) {
+        temporary.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * Cache key: service root and the HTTP configuration used to fetch the metadata.
+   * Factories of the default types carry no state affecting the response and are therefore not part of the key;
+   * any other factory is compared by identity.
+   */
+  private static final class Key {
+
+    private final String serviceRoot;
+
+    private final HttpClientFactory httpClientFactory;
+
+    private final HttpUriRequestFactory httpUriRequestFactory;
+
+    private Key(final ODataClient client, final String serviceRoot) {
+      this(serviceRoot, specific(client.getConfiguration().getHttpClientFactory()),
+          specific(client.getConfiguration().getHttpUriRequestFactory()));
+    }
+
+    private Key(final String serviceRoot, final HttpClientFactory httpClientFactory,
+        final HttpUriRequestFactory httpUriRequestFactory) {
+      this.serviceRoot = serviceRoot;
+      this.httpClientFactory = httpClientFactory;
+      this.httpUriRequestFactory = httpUriRequestFactory;
+    }
+
+    private static HttpClientFactory specific(final HttpClientFactory factory) {
+      return factory == null || factory.getClass() == PoolingHttpClientFactory.class
+          || factory.getClass() == DefaultHttpClientFactory.class ? null : factory;
+    }
+
+    private static HttpUriRequestFactory specific(final HttpUriRequestFactory factory) {
+      return factory == null || factory.getClass() == DefaultHttpUriRequestFactory.class ? null : factory;
+    }
+
+    /** Whether metadata fetched with this key may be shared through snapshots. */
+    private boolean isShareable() {
+      return httpClientFactory == null && httpUriRequestFactory == null;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return serviceRoot.equals(other.serviceRoot)
+          && httpClientFactory == other.httpClientFactory
+          && httpUriRequestFactory == other.httpUriRequestFactory;
+    }
+
+    @Override
+    public int hashCode() {
+      return serviceRoot.hashCode() * 31 * 31
+          + System.identityHashCode(httpClientFactory) * 31 + System.identityHashCode(httpUriRequestFactory);
+    }
+  }
+
+  /**
+   * Reads snapshots, resolving only the classes which make up CSDL schemas,
+   * so that a tampered snapshot cannot instantiate arbitrary serializable classes.
+   */
+  private static final class SnapshotInputStream extends ObjectInputStream {
+
+    private SnapshotInputStream(final InputStream input) throws IOException {
+      super(input);
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass description) throws IOException, ClassNotFoundException {
+      final String name = description.getName();
+      if (!SNAPSHOT_CLASSES.contains(name)) {
+        boolean allowed = false;
+        for (final String snapshotPackage : SNAPSHOT_PACKAGES) {
+          allowed |= name.startsWith(snapshotPackage);
+        }
+        if (!allowed) {
+          throw new InvalidClassException(name, "Not allowed in metadata snapshots");
+        }
+      }
+      return super.resolveClass(description);
+    }
+  }
+}
@@ -0,0 +1,1129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.edm.xml;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.olingo.commons.api.edm.geo.SRID;
+import org.apache.olingo.commons.api.edm.provider.CsdlAnnotation;
+import org.apache.olingo.commons.api.edm.provider.CsdlEnumMember;
+import org.apache.olingo.commons.api.edm.provider.CsdlOnDeleteAction;
+import org.apache.olingo.commons.api.edm.provider.CsdlPropertyRef;
+import org.apache.olingo.commons.api.edm.provider.annotation.AnnotationExpression;
+import org.apache.olingo.commons.api.edm.provider.annotation.ConstantAnnotationExpression;
+import org.apache.olingo.commons.api.edm.provider.annotation.TwoParamsOpDynamicAnnotationExpression;
+
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+
+/**
+ * Single-pass StAX reader of metadata documents, producing the same {@link ClientCsdlEdmx} object tree as the
+ * Jackson-bound deserializers of this package without building any intermediate token buffer.
+ * <br/>
+ * Attribute values naming types, terms, paths and so on are shared within one document, so that the many
+ * repetitions found in large annotated metadata documents are retained only once.
+ */
+public final class ClientCsdlEdmxReader {
+
+  private static final XMLInputFactory FACTORY = createFactory();
+
+  private static final String[] EL_OR_ATTR = {
+      "AnnotationPath", "NavigationPropertyPath", "Path", "PropertyPath", "LabeledElementReference"
+  };
+
+  private final XMLStreamReader reader;
+
+  private final Map<String, String> values = new HashMap<String, String>();
+
+  private ClientCsdlEdmxReader(final XMLStreamReader reader) {
+    this.reader = reader;
+  }
+
+  private static XMLInputFactory createFactory() {
+    final XMLInputFactory factory = new InputFactoryImpl();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  /**
+   * Reads the given metadata document; the input stream is not closed.
+   *
+   * @param input metadata document
+   * @return Edmx object tree
+   * @throws XMLStreamException if the input is not well-formed XML
+   */
+  public static ClientCsdlEdmx read(final InputStream input) throws XMLStreamException {
+    final XMLStreamReader reader = FACTORY.createXMLStreamReader(input);
+    try {
+      reader.nextTag();
+      return new ClientCsdlEdmxReader(reader).edmx();
+    } finally {
+      reader.close();
+    }
+  }
+
+  private ClientCsdlEdmx edmx() throws XMLStreamException {
+    final ClientCsdlEdmx edmx = new ClientCsdlEdmx();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      if ("Version".equals(reader.getAttributeLocalName(i))) {
+        edmx.setVersion(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("DataServices".equals(name)) {
+        edmx.setDataServices(dataServices());
+      } else if ("Reference".equals(name)) {
+        edmx.getReferences().add(reference());
+      } else {
+        skip();
+      }
+    }
+    return edmx;
+  }
+
+  private ClientCsdlDataServices dataServices() throws XMLStreamException {
+    final ClientCsdlDataServices dataServices = new ClientCsdlDataServices();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("DataServiceVersion".equals(name)) {
+        dataServices.setDataServiceVersion(attribute(i));
+      } else if ("MaxDataServiceVersion".equals(name)) {
+        dataServices.setMaxDataServiceVersion(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      if ("Schema".equals(reader.getLocalName())) {
+        dataServices.getSchemas().add(schema());
+      } else {
+        skip();
+      }
+    }
+    return dataServices;
+  }
+
+  private ClientCsdlReference reference() throws XMLStreamException {
+    final ClientCsdlReference reference = new ClientCsdlReference();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      if ("Uri".equals(reader.getAttributeLocalName(i))) {
+        reference.setUri(URI.create(reader.getAttributeValue(i)));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("Include".equals(name)) {
+        final ClientCsdlInclude include = new ClientCsdlInclude();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+          final String attribute = reader.getAttributeLocalName(i);
+          if ("Namespace".equals(attribute)) {
+            include.setNamespace(attribute(i));
+          } else if ("Alias".equals(attribute)) {
+            include.setAlias(attribute(i));
+          }
+        }
+        reference.getIncludes().add(include);
+        skip();
+      } else if ("IncludeAnnotations".equals(name)) {
+        final ClientCsdlIncludeAnnotations include = new ClientCsdlIncludeAnnotations();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+          final String attribute = reader.getAttributeLocalName(i);
+          if ("TermNamespace".equals(attribute)) {
+            include.setTermNamespace(attribute(i));
+          } else if ("Qualifier".equals(attribute)) {
+            include.setQualifier(attribute(i));
+          } else if ("TargetNamespace".equals(attribute)) {
+            include.setTargetNamespace(attribute(i));
+          }
+        }
+        reference.getIncludeAnnotations().add(include);
+        skip();
+      } else if ("Annotation".equals(name)) {
+        reference.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return reference;
+  }
+
+  private ClientCsdlSchema schema() throws XMLStreamException {
+    final ClientCsdlSchema schema = new ClientCsdlSchema();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Namespace".equals(name)) {
+        schema.setNamespace(attribute(i));
+      } else if ("Alias".equals(name)) {
+        schema.setAlias(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("ComplexType".equals(name)) {
+        schema.getComplexTypes().add(complexType());
+      } else if ("EntityType".equals(name)) {
+        schema.getEntityTypes().add(entityType());
+      } else if ("EnumType".equals(name)) {
+        schema.getEnumTypes().add(enumType());
+      } else if ("EntityContainer".equals(name)) {
+        schema.setEntityContainer(entityContainer());
+      } else if ("Action".equals(name)) {
+        schema.getActions().add(action());
+      } else if ("Function".equals(name)) {
+        schema.getFunctions().add(function());
+      } else if ("TypeDefinition".equals(name)) {
+        schema.getTypeDefinitions().add(typeDefinition());
+      } else if ("Annotations".equals(name)) {
+        schema.getAnnotationGroups().add(annotations());
+      } else if ("Annotation".equals(name)) {
+        schema.getAnnotations().add(annotation());
+      } else if ("Term".equals(name)) {
+        schema.getTerms().add(term());
+      } else {
+        skip();
+      }
+    }
+    return schema;
+  }
+
+  private ClientCsdlComplexType complexType() throws XMLStreamException {
+    final ClientCsdlComplexType complexType = new ClientCsdlComplexType();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        complexType.setName(attribute(i));
+      } else if ("Abstract".equals(name)) {
+        complexType.setAbstract(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      } else if ("BaseType".equals(name)) {
+        complexType.setBaseType(attribute(i));
+      } else if ("OpenType".equals(name)) {
+        complexType.setOpenType(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("Property".equals(name)) {
+        complexType.getProperties().add(property());
+      } else if ("NavigationProperty".equals(name)) {
+        complexType.getNavigationProperties().add(navigationProperty());
+      } else if ("Annotation".equals(name)) {
+        complexType.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return complexType;
+  }
+
+  private ClientCsdlEntityType entityType() throws XMLStreamException {
+    final ClientCsdlEntityType entityType = new ClientCsdlEntityType();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        entityType.setName(attribute(i));
+      } else if ("Abstract".equals(name)) {
+        entityType.setAbstract(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      } else if ("BaseType".equals(name)) {
+        entityType.setBaseType(attribute(i));
+      } else if ("OpenType".equals(name)) {
+        entityType.setOpenType(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      } else if ("HasStream".equals(name)) {
+        entityType.setHasStream(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("Key".equals(name)) {
+        entityType.setKey(key());
+      } else if ("Property".equals(name)) {
+        entityType.getProperties().add(property());
+      } else if ("NavigationProperty".equals(name)) {
+        entityType.getNavigationProperties().add(navigationProperty());
+      } else if ("Annotation".equals(name)) {
+        entityType.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return entityType;
+  }
+
+  private List<CsdlPropertyRef> key() throws XMLStreamException {
+    final List<CsdlPropertyRef> key = new ArrayList<CsdlPropertyRef>();
+    while (nextChild()) {
+      if ("PropertyRef".equals(reader.getLocalName())) {
+        final ClientCsdlPropertyRef propertyRef = new ClientCsdlPropertyRef();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+          final String name = reader.getAttributeLocalName(i);
+          if ("Name".equals(name)) {
+            propertyRef.setName(attribute(i));
+          } else if ("Alias".equals(name)) {
+            propertyRef.setAlias(attribute(i));
+          }
+        }
+        key.add(propertyRef);
+      }
+      skip();
+    }
+    return key;
+  }
+
+  private ClientCsdlProperty property() throws XMLStreamException {
+    final ClientCsdlProperty property = new ClientCsdlProperty();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      final String value = reader.getAttributeValue(i);
+      if ("Name".equals(name)) {
+        property.setName(share(value));
+      } else if ("Type".equals(name)) {
+        property.setType(typeName(value));
+        property.setCollection(isCollection(value));
+      } else if ("Nullable".equals(name)) {
+        property.setNullable(BooleanUtils.toBoolean(value));
+      } else if ("DefaultValue".equals(name)) {
+        property.setDefaultValue(value);
+      } else if ("MaxLength".equals(name)) {
+        property.setMaxLength(maxLength(value));
+      } else if ("Precision".equals(name)) {
+        property.setPrecision(Integer.valueOf(value));
+      } else if ("Scale".equals(name)) {
+        property.setScale(scale(value));
+      } else if ("Unicode".equals(name)) {
+        property.setUnicode(BooleanUtils.toBoolean(value));
+      } else if ("SRID".equals(name)) {
+        property.setSrid(SRID.valueOf(value));
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        property.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return property;
+  }
+
+  private ClientCsdlNavigationProperty navigationProperty() throws XMLStreamException {
+    final ClientCsdlNavigationProperty property = new ClientCsdlNavigationProperty();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      final String value = reader.getAttributeValue(i);
+      if ("Name".equals(name)) {
+        property.setName(share(value));
+      } else if ("Type".equals(name)) {
+        property.setType(typeName(value));
+        property.setCollection(isCollection(value));
+      } else if ("Nullable".equals(name)) {
+        property.setNullable(BooleanUtils.toBoolean(value));
+      } else if ("Partner".equals(name)) {
+        property.setPartner(share(value));
+      } else if ("ContainsTarget".equals(name)) {
+        property.setContainsTarget(BooleanUtils.toBoolean(value));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("ReferentialConstraint".equals(name)) {
+        final ClientCsdlReferentialConstraint constraint = new ClientCsdlReferentialConstraint();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+          final String attribute = reader.getAttributeLocalName(i);
+          if ("Property".equals(attribute)) {
+            constraint.setProperty(attribute(i));
+          } else if ("ReferencedProperty".equals(attribute)) {
+            constraint.setReferencedProperty(attribute(i));
+          }
+        }
+        property.getReferentialConstraints().add(constraint);
+        skip();
+      } else if ("OnDelete".equals(name)) {
+        final ClientCsdlOnDelete onDelete = new ClientCsdlOnDelete();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+          if ("Action".equals(reader.getAttributeLocalName(i))) {
+            onDelete.setAction(CsdlOnDeleteAction.valueOf(reader.getAttributeValue(i)));
+          }
+        }
+        property.setOnDelete(onDelete);
+        skip();
+      } else if ("Annotation".equals(name)) {
+        property.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return property;
+  }
+
+  private ClientCsdlEnumType enumType() throws XMLStreamException {
+    final ClientCsdlEnumType enumType = new ClientCsdlEnumType();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        enumType.setName(attribute(i));
+      } else if ("UnderlyingType".equals(name)) {
+        enumType.setUnderlyingType(attribute(i));
+      } else if ("IsFlags".equals(name)) {
+        enumType.setFlags(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("Member".equals(name)) {
+        enumType.getMembers().add(enumMember());
+      } else if ("Annotation".equals(name)) {
+        enumType.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return enumType;
+  }
+
+  private CsdlEnumMember enumMember() throws XMLStreamException {
+    final CsdlEnumMember member = new CsdlEnumMember();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        member.setName(attribute(i));
+      } else if ("Value".equals(name)) {
+        member.setValue(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        member.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return member;
+  }
+
+  private ClientCsdlTypeDefinition typeDefinition() throws XMLStreamException {
+    final ClientCsdlTypeDefinition typeDefinition = new ClientCsdlTypeDefinition();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      final String value = reader.getAttributeValue(i);
+      if ("Name".equals(name)) {
+        typeDefinition.setName(share(value));
+      } else if ("UnderlyingType".equals(name)) {
+        typeDefinition.setUnderlyingType(share(value));
+      } else if ("MaxLength".equals(name)) {
+        typeDefinition.setMaxLength(maxLength(value));
+      } else if ("Unicode".equals(name)) {
+        typeDefinition.setUnicode(BooleanUtils.toBoolean(value));
+      } else if ("Precision".equals(name)) {
+        typeDefinition.setPrecision(Integer.valueOf(value));
+      } else if ("Scale".equals(name)) {
+        typeDefinition.setScale(scale(value));
+      } else if ("SRID".equals(name)) {
+        typeDefinition.setSrid(SRID.valueOf(value));
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        typeDefinition.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return typeDefinition;
+  }
+
+  private ClientCsdlTerm term() throws XMLStreamException {
+    final ClientCsdlTerm term = new ClientCsdlTerm();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      final String value = reader.getAttributeValue(i);
+      if ("Name".equals(name)) {
+        term.setName(share(value));
+      } else if ("Type".equals(name)) {
+        term.setType(share(value));
+      } else if ("BaseTerm".equals(name)) {
+        term.setBaseTerm(share(value));
+      } else if ("DefaultValue".equals(name)) {
+        term.setDefaultValue(value);
+      } else if ("Nullable".equals(name)) {
+        term.setNullable(BooleanUtils.toBoolean(value));
+      } else if ("MaxLength".equals(name)) {
+        term.setMaxLength(maxLength(value));
+      } else if ("Precision".equals(name)) {
+        term.setPrecision(Integer.valueOf(value));
+      } else if ("Scale".equals(name)) {
+        term.setScale(scale(value));
+      } else if ("SRID".equals(name)) {
+        term.setSrid(SRID.valueOf(value));
+      } else if ("AppliesTo".equals(name)) {
+        for (String appliesTo : StringUtils.split(value)) {
+          term.getAppliesTo().add(share(appliesTo));
+        }
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        term.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return term;
+  }
+
+  private ClientCsdlEntityContainer entityContainer() throws XMLStreamException {
+    final ClientCsdlEntityContainer entityContainer = new ClientCsdlEntityContainer();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        entityContainer.setName(attribute(i));
+      } else if ("Extends".equals(name)) {
+        entityContainer.setExtendsContainer(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("EntitySet".equals(name)) {
+        entityContainer.getEntitySets().add(entitySet());
+      } else if ("Singleton".equals(name)) {
+        entityContainer.getSingletons().add(singleton());
+      } else if ("ActionImport".equals(name)) {
+        entityContainer.getActionImports().add(actionImport());
+      } else if ("FunctionImport".equals(name)) {
+        entityContainer.getFunctionImports().add(functionImport());
+      } else if ("Annotation".equals(name)) {
+        entityContainer.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return entityContainer;
+  }
+
+  private ClientCsdlEntitySet entitySet() throws XMLStreamException {
+    final ClientCsdlEntitySet entitySet = new ClientCsdlEntitySet();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        entitySet.setName(attribute(i));
+      } else if ("EntityType".equals(name)) {
+        entitySet.setType(attribute(i));
+      } else if ("IncludeInServiceDocument".equals(name)) {
+        entitySet.setIncludeInServiceDocument(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("NavigationPropertyBinding".equals(name)) {
+        entitySet.getNavigationPropertyBindings().add(navigationPropertyBinding());
+      } else if ("Annotation".equals(name)) {
+        entitySet.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return entitySet;
+  }
+
+  private ClientCsdlSingleton singleton() throws XMLStreamException {
+    final ClientCsdlSingleton singleton = new ClientCsdlSingleton();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        singleton.setName(attribute(i));
+      } else if ("Type".equals(name)) {
+        singleton.setType(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("NavigationPropertyBinding".equals(name)) {
+        singleton.getNavigationPropertyBindings().add(navigationPropertyBinding());
+      } else if ("Annotation".equals(name)) {
+        singleton.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return singleton;
+  }
+
+  private ClientCsdlNavigationPropertyBinding navigationPropertyBinding() throws XMLStreamException {
+    final ClientCsdlNavigationPropertyBinding binding = new ClientCsdlNavigationPropertyBinding();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Path".equals(name)) {
+        binding.setPath(attribute(i));
+      } else if ("Target".equals(name)) {
+        binding.setTarget(attribute(i));
+      }
+    }
+    skip();
+    return binding;
+  }
+
+  private ClientCsdlActionImport actionImport() throws XMLStreamException {
+    final ClientCsdlActionImport actionImport = new ClientCsdlActionImport();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Action".equals(name)) {
+        actionImport.setAction(attribute(i));
+      } else if ("Name".equals(name)) {
+        actionImport.setName(attribute(i));
+      } else if ("EntitySet".equals(name)) {
+        actionImport.setEntitySet(attribute(i));
+      }
+    }
+    skip();
+    return actionImport;
+  }
+
+  private ClientCsdlFunctionImport functionImport() throws XMLStreamException {
+    final ClientCsdlFunctionImport functionImport = new ClientCsdlFunctionImport();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        functionImport.setName(attribute(i));
+      } else if ("Function".equals(name)) {
+        functionImport.setFunction(attribute(i));
+      } else if ("EntitySet".equals(name)) {
+        functionImport.setEntitySet(attribute(i));
+      } else if ("IncludeInServiceDocument".equals(name)) {
+        functionImport.setIncludeInServiceDocument(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        functionImport.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return functionImport;
+  }
+
+  private ClientCsdlAction action() throws XMLStreamException {
+    final ClientCsdlAction action = new ClientCsdlAction();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        action.setName(attribute(i));
+      } else if ("IsBound".equals(name)) {
+        action.setBound(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      } else if ("EntitySetPath".equals(name)) {
+        action.setEntitySetPath(attribute(i));
+      } else if ("ReturnType".equals(name)) {
+        action.setReturnType(returnType(reader.getAttributeValue(i)));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("Parameter".equals(name)) {
+        action.getParameters().add(parameter());
+      } else if ("ReturnType".equals(name)) {
+        action.setReturnType(returnType());
+      } else if ("Annotation".equals(name)) {
+        action.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return action;
+  }
+
+  private ClientCsdlFunction function() throws XMLStreamException {
+    final ClientCsdlFunction function = new ClientCsdlFunction();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        function.setName(attribute(i));
+      } else if ("IsBound".equals(name)) {
+        function.setBound(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      } else if ("IsComposable".equals(name)) {
+        function.setComposable(BooleanUtils.toBoolean(reader.getAttributeValue(i)));
+      } else if ("EntitySetPath".equals(name)) {
+        function.setEntitySetPath(attribute(i));
+      } else if ("ReturnType".equals(name)) {
+        function.setReturnType(returnType(reader.getAttributeValue(i)));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("Parameter".equals(name)) {
+        function.getParameters().add(parameter());
+      } else if ("ReturnType".equals(name)) {
+        function.setReturnType(returnType());
+      } else if ("Annotation".equals(name)) {
+        function.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return function;
+  }
+
+  private ClientCsdlParameter parameter() throws XMLStreamException {
+    final ClientCsdlParameter parameter = new ClientCsdlParameter();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      final String value = reader.getAttributeValue(i);
+      if ("Name".equals(name)) {
+        parameter.setName(share(value));
+      } else if ("Type".equals(name)) {
+        parameter.setType(typeName(value));
+        parameter.setCollection(isCollection(value));
+      } else if ("Nullable".equals(name)) {
+        parameter.setNullable(BooleanUtils.toBoolean(value));
+      } else if ("MaxLength".equals(name)) {
+        parameter.setMaxLength(maxLength(value));
+      } else if ("Precision".equals(name)) {
+        parameter.setPrecision(Integer.valueOf(value));
+      } else if ("Scale".equals(name)) {
+        parameter.setScale(scale(value));
+      } else if ("SRID".equals(name)) {
+        parameter.setSrid(SRID.valueOf(value));
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        parameter.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return parameter;
+  }
+
+  private ClientCsdlReturnType returnType(final String type) {
+    final ClientCsdlReturnType returnType = new ClientCsdlReturnType();
+    returnType.setType(typeName(type));
+    returnType.setCollection(isCollection(type));
+    return returnType;
+  }
+
+  private ClientCsdlReturnType returnType() throws XMLStreamException {
+    final ClientCsdlReturnType returnType = new ClientCsdlReturnType();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      final String value = reader.getAttributeValue(i);
+      if ("Type".equals(name)) {
+        returnType.setType(typeName(value));
+        returnType.setCollection(isCollection(value));
+      } else if ("Nullable".equals(name)) {
+        returnType.setNullable(BooleanUtils.toBoolean(value));
+      } else if ("MaxLength".equals(name)) {
+        returnType.setMaxLength(maxLength(value));
+      } else if ("Precision".equals(name)) {
+        returnType.setPrecision(Integer.valueOf(value));
+      } else if ("Scale".equals(name)) {
+        returnType.setScale(scale(value));
+      } else if ("SRID".equals(name)) {
+        returnType.setSrid(SRID.valueOf(value));
+      }
+    }
+    skip();
+    return returnType;
+  }
+
+  private ClientCsdlAnnotations annotations() throws XMLStreamException {
+    final ClientCsdlAnnotations annotations = new ClientCsdlAnnotations();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Target".equals(name)) {
+        annotations.setTarget(attribute(i));
+      } else if ("Qualifier".equals(name)) {
+        annotations.setQualifier(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        annotations.getAnnotations().add(annotation());
+      } else {
+        skip();
+      }
+    }
+    return annotations;
+  }
+
+  private ClientCsdlAnnotation annotation() throws XMLStreamException {
+    final ClientCsdlAnnotation annotation = new ClientCsdlAnnotation();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Term".equals(name)) {
+        annotation.setTerm(attribute(i));
+      } else if ("Qualifier".equals(name)) {
+        annotation.setQualifier(attribute(i));
+      } else {
+        final AnnotationExpression expression = attributeExpression(i);
+        if (expression != null) {
+          annotation.setExpression(expression);
+        }
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        annotation.getAnnotations().add(annotation());
+      } else {
+        final AnnotationExpression expression = expression();
+        if (expression != null) {
+          annotation.setExpression(expression);
+        }
+      }
+    }
+    return annotation;
+  }
+
+  /**
+   * Reads the constant or dynamic expression in attribute notation of the current element, if any.
+   */
+  private AnnotationExpression attributeExpression(final int index) {
+    final String name = reader.getAttributeLocalName(index);
+    final ConstantAnnotationExpression.Type type = ConstantAnnotationExpression.Type.fromString(name);
+    if (type != null) {
+      final ClientCsdlConstantAnnotationExpression constant = new ClientCsdlConstantAnnotationExpression();
+      constant.setType(type);
+      constant.setValue(reader.getAttributeValue(index));
+      return constant;
+    }
+    return ArrayUtils.contains(EL_OR_ATTR, name) ? elementOrAttribute(name, attribute(index)) : null;
+  }
+
+  /**
+   * Reads the constant or dynamic expression in element notation starting at the current element.
+   */
+  private AnnotationExpression expression() throws XMLStreamException {
+    final ConstantAnnotationExpression.Type type = ConstantAnnotationExpression.Type.fromString(reader.getLocalName());
+    if (type == null) {
+      return dynamicExpression();
+    }
+    final ClientCsdlConstantAnnotationExpression constant = new ClientCsdlConstantAnnotationExpression();
+    constant.setType(type);
+    constant.setValue(reader.getElementText());
+    return constant;
+  }
+
+  /**
+   * Reads the dynamic expression in element notation starting at the current element; unknown elements are
+   * skipped and give <tt>null</tt>.
+   */
+  private AbstractClientCsdlDynamicAnnotationExpression dynamicExpression() throws XMLStreamException {
+    final String name = reader.getLocalName();
+    final TwoParamsOpDynamicAnnotationExpression.Type operator =
+        TwoParamsOpDynamicAnnotationExpression.Type.fromString(name);
+    AbstractClientCsdlDynamicAnnotationExpression expression = null;
+    if ("Not".equals(name)) {
+      final ClientCsdlNot not = new ClientCsdlNot();
+      while (nextChild()) {
+        if (not.getExpression() == null) {
+          not.setExpression(dynamicExpression());
+        } else {
+          skip();
+        }
+      }
+      expression = not;
+    } else if (operator != null) {
+      final ClientCsdlTwoParamsOpDynamicAnnotationExpression twoParamsOp =
+          new ClientCsdlTwoParamsOpDynamicAnnotationExpression();
+      twoParamsOp.setType(operator);
+      while (nextChild()) {
+        if (twoParamsOp.getLeftExpression() == null) {
+          twoParamsOp.setLeftExpression(dynamicExpression());
+        } else if (twoParamsOp.getRightExpression() == null) {
+          twoParamsOp.setRightExpression(dynamicExpression());
+        } else {
+          skip();
+        }
+      }
+      expression = twoParamsOp;
+    } else if (ArrayUtils.contains(EL_OR_ATTR, name)) {
+      expression = elementOrAttribute(name, share(reader.getElementText()));
+    } else if ("Apply".equals(name)) {
+      expression = apply();
+    } else if ("Cast".equals(name)) {
+      final ClientCsdlCast cast = new ClientCsdlCast();
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+        final String attribute = reader.getAttributeLocalName(i);
+        final String value = reader.getAttributeValue(i);
+        if ("Type".equals(attribute)) {
+          cast.setType(share(value));
+        } else if ("MaxLength".equals(attribute)) {
+          cast.setMaxLength(maxLength(value));
+        } else if ("Precision".equals(attribute)) {
+          cast.setPrecision(Integer.valueOf(value));
+        } else if ("Scale".equals(attribute)) {
+          cast.setScale(scale(value));
+        } else if ("SRID".equals(attribute)) {
+          cast.setSrid(SRID.valueOf(value));
+        }
+      }
+      while (nextChild()) {
+        if ("Annotation".equals(reader.getLocalName())) {
+          cast.getAnnotations().add(annotation());
+        } else {
+          cast.setValue(dynamicExpression());
+        }
+      }
+      expression = cast;
+    } else if ("Collection".equals(name)) {
+      final ClientCsdlCollection collection = new ClientCsdlCollection();
+      while (nextChild()) {
+        final AnnotationExpression item = expression();
+        if (item != null) {
+          collection.getItems().add(item);
+        }
+      }
+      expression = collection;
+    } else if ("If".equals(name)) {
+      final ClientCsdlIf ifExpression = new ClientCsdlIf();
+      while (nextChild()) {
+        if (ifExpression.getGuard() == null) {
+          ifExpression.setGuard(expression());
+        } else if (ifExpression.getThen() == null) {
+          ifExpression.setThen(expression());
+        } else if (ifExpression.getElse() == null) {
+          ifExpression.setElse(expression());
+        } else {
+          skip();
+        }
+      }
+      expression = ifExpression;
+    } else if ("IsOf".equals(name)) {
+      final ClientCsdlIsOf isOf = new ClientCsdlIsOf();
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+        final String attribute = reader.getAttributeLocalName(i);
+        final String value = reader.getAttributeValue(i);
+        if ("Type".equals(attribute)) {
+          isOf.setType(share(value));
+        } else if ("MaxLength".equals(attribute)) {
+          isOf.setMaxLength(maxLength(value));
+        } else if ("Precision".equals(attribute)) {
+          isOf.setPrecision(Integer.valueOf(value));
+        } else if ("Scale".equals(attribute)) {
+          isOf.setScale(scale(value));
+        } else if ("SRID".equals(attribute)) {
+          isOf.setSrid(SRID.valueOf(value));
+        }
+      }
+      while (nextChild()) {
+        if ("Annotation".equals(reader.getLocalName())) {
+          isOf.getAnnotations().add(annotation());
+        } else {
+          isOf.setValue(dynamicExpression());
+        }
+      }
+      expression = isOf;
+    } else if ("LabeledElement".equals(name)) {
+      expression = labeledElement();
+    } else if ("Null".equals(name)) {
+      final ClientCsdlNull nullExpression = new ClientCsdlNull();
+      while (nextChild()) {
+        if ("Annotation".equals(reader.getLocalName())) {
+          nullExpression.getAnnotations().add(annotation());
+        } else {
+          skip();
+        }
+      }
+      expression = nullExpression;
+    } else if ("Record".equals(name)) {
+      expression = record();
+    } else if ("UrlRef".equals(name)) {
+      final ClientCsdlUrlRef urlRef = new ClientCsdlUrlRef();
+      while (nextChild()) {
+        urlRef.setValue(expression());
+      }
+      expression = urlRef;
+    } else {
+      skip();
+    }
+    return expression;
+  }
+
+  private ClientCsdlApply apply() throws XMLStreamException {
+    final ClientCsdlApply apply = new ClientCsdlApply();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      if ("Function".equals(reader.getAttributeLocalName(i))) {
+        apply.setFunction(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        apply.getAnnotations().add(annotation());
+      } else {
+        final AnnotationExpression parameter = expression();
+        if (parameter != null) {
+          apply.getParameters().add(parameter);
+        }
+      }
+    }
+    return apply;
+  }
+
+  private ClientCsdlLabeledElement labeledElement() throws XMLStreamException {
+    final ClientCsdlLabeledElement labeledElement = new ClientCsdlLabeledElement();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String name = reader.getAttributeLocalName(i);
+      if ("Name".equals(name)) {
+        labeledElement.setName(attribute(i));
+      } else if (ArrayUtils.contains(EL_OR_ATTR, name)) {
+        labeledElement.setValue(elementOrAttribute(name, attribute(i)));
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        labeledElement.getAnnotations().add(annotation());
+      } else {
+        labeledElement.setValue(dynamicExpression());
+      }
+    }
+    return labeledElement;
+  }
+
+  private ClientCsdlRecord record() throws XMLStreamException {
+    final ClientCsdlRecord record = new ClientCsdlRecord();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      if ("Type".equals(reader.getAttributeLocalName(i))) {
+        record.setType(attribute(i));
+      }
+    }
+    while (nextChild()) {
+      final String name = reader.getLocalName();
+      if ("Annotation".equals(name)) {
+        record.getAnnotations().add(annotation());
+      } else if ("PropertyValue".equals(name)) {
+        record.getPropertyValues().add(propertyValue());
+      } else {
+        skip();
+      }
+    }
+    return record;
+  }
+
+  private ClientCsdlPropertyValue propertyValue() throws XMLStreamException {
+    final ClientCsdlPropertyValue propertyValue = new ClientCsdlPropertyValue();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      if ("Property".equals(reader.getAttributeLocalName(i))) {
+        propertyValue.setProperty(attribute(i));
+      } else {
+        final AnnotationExpression value = attributeExpression(i);
+        if (value != null) {
+          propertyValue.setValue(value);
+        }
+      }
+    }
+    while (nextChild()) {
+      if ("Annotation".equals(reader.getLocalName())) {
+        propertyValue.getAnnotations().add(annotation());
+      } else {
+        final AnnotationExpression value = expression();
+        if (value != null) {
+          propertyValue.setValue(value);
+        }
+      }
+    }
+    return propertyValue;
+  }
+
+  private AbstractClientCsdlElementOrAttributeExpression elementOrAttribute(final String name, final String value) {
+    final AbstractClientCsdlElementOrAttributeExpression expression;
+    if ("AnnotationPath".equals(name)) {
+      expression = new ClientCsdlAnnotationPath();
+    } else if ("NavigationPropertyPath".equals(name)) {
+      expression = new ClientCsdlNavigationPropertyPath();
+    } else if ("Path".equals(name)) {
+      expression = new ClientCsdlPath();
+    } else if ("PropertyPath".equals(name)) {
+      expression = new ClientCsdlPropertyPath();
+    } else {
+      expression = new ClientCsdlLabeledElementReference();
+    }
+    expression.setValue(value);
+    return expression;
+  }
+
+  /**
+   * Moves to the next child element of the current element.
+   *
+   * @return <tt>false</tt> if the end tag of the current element has been reached instead
+   */
+  private boolean nextChild() throws XMLStreamException {
+    while (reader.hasNext()) {
+      final int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        return true;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Moves to the end tag of the current element, skipping all of its remaining content.
+   */
+  private void skip() throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      final int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  private String attribute(final int index) {
+    return share(reader.getAttributeValue(index));
+  }
+
+  private String share(final String value) {
+    final String shared = values.get(value);
+    if (shared == null) {
+      values.put(value, value);
+      return value;
+    }
+    return shared;
+  }
+
+  private String typeName(final String type) {
+    return share(isCollection(type) ? type.substring(type.indexOf('(') + 1, type.length() - 1) : type);
+  }
+
+  private static boolean isCollection(final String type) {
+    return type.startsWith("Collection(");
+  }
+
+  private static Integer maxLength(final String maxLength) {
+    return maxLength.equalsIgnoreCase("max") ? Integer.MAX_VALUE : Integer.valueOf(maxLength);
+  }
+
+  private static Integer scale(final String scale) {
+    return scale.equalsIgnoreCase("variable") ? 0 : Integer.valueOf(scale);
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreProtocolPNames;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.olingo.commons.api.http.HttpMethod;
+
+/**
+ * <p>Implementation returning HttpClients which share one pool of persistent connections,
+ * so that subsequent requests to the same host reuse connections instead of opening new ones.</p>
+ * <p>A connection goes back to the pool once the response has been read completely or closed;
+ * therefore {@link #close(HttpClient)} does nothing. Responses whose body is streamed to the caller
+ * must be closed. If all connections to a host are in use, a request waits at most for the
+ * connection request timeout and then fails instead of blocking forever.
+ * Connections the server does not keep alive explicitly are kept for a default time;
+ * idle connections are evicted whenever a client is created. {@link #close()} shuts down the pool.</p>
+ */
+public class PoolingHttpClientFactory extends AbstractHttpClientFactory implements Closeable {
+
+  public static final int DEFAULT_MAX_TOTAL = 100;
+  public static final int DEFAULT_MAX_PER_ROUTE = 20;
+  public static final long DEFAULT_KEEP_ALIVE_MILLIS = 30 * 1000L;
+  public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 1000L;
+  public static final long DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS = 30 * 1000L;
+
+  private final PoolingClientConnectionManager connectionManager;
+
+  private final ConnectionKeepAliveStrategy keepAliveStrategy;
+
+  private final long idleTimeout;
+
+  private final long connectionRequestTimeout;
+
+  private volatile long lastEviction = System.currentTimeMillis();
+
+  public PoolingHttpClientFactory() {
+    this(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_KEEP_ALIVE_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * @param maxTotal maximum number of connections in the pool
+   * @param maxPerRoute maximum number of connections to the same host
+   * @param keepAlive time in milliseconds to keep a connection if the server does not say otherwise
+   * @param idleTimeout time in milliseconds after which unused connections are closed
+   */
+  public PoolingHttpClientFactory(final int maxTotal, final int maxPerRoute, final long keepAlive,
+      final long idleTimeout) {
+    this(maxTotal, maxPerRoute, keepAlive, idleTimeout, DEFAULT_CONNECTION_REQUEST_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * @param maxTotal maximum number of connections in the pool
+   * @param maxPerRoute maximum number of connections to the same host
+   * @param keepAlive time in milliseconds to keep a connection if the server does not say otherwise
+   * @param idleTimeout time in milliseconds after which unused connections are closed
+   * @param connectionRequestTimeout time in milliseconds to wait for a connection from the pool
+   */
+  public PoolingHttpClientFactory(final int maxTotal, final int maxPerRoute, final long keepAlive,
+      final long idleTimeout, final long connectionRequestTimeout) {
+    connectionManager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault());
+    connectionManager.setMaxTotal(maxTotal);
+    connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+    keepAliveStrategy = new DefaultConnectionKeepAliveStrategy() {
+      @Override
+      public long getKeepAliveDuration(final HttpResponse response, final HttpContext context) {
+        final long duration = super.getKeepAliveDuration(response, context);
+        return duration < 0 ? keepAlive : duration;
+      }
+    };
+    this.idleTimeout = idleTimeout;
+    this.connectionRequestTimeout = connectionRequestTimeout;
+  }
+
+  @Override
+  public DefaultHttpClient create(final HttpMethod method, final URI uri) {
+    evictIdleConnections();
+    final DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+    client.getParams().setParameter(CoreProtocolPNames.USER_AGENT, USER_AGENT);
+    client.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, connectionRequestTimeout);
+    client.setKeepAliveStrategy(keepAliveStrategy);
+    return client;
+  }
+
+  @Override
+  public void close(final HttpClient httpClient) {
+    // The connection is released to the pool when the response entity is consumed.
+  }
+
+  /**
+   * Returns the current state of the connection pool: the number of leased and available connections,
+   * the number of requests waiting for a connection, and the maximum number of connections.
+   */
+  public PoolStats getStats() {
+    return connectionManager.getTotalStats();
+  }
+
+  /** Closes all connections and shuts down the pool; no clients can be created afterwards. */
+  @Override
+  public void close() {
+    connectionManager.shutdown();
+  }
+
+  private void evictIdleConnections() {
+    final long now = System.currentTimeMillis();
+    // Checking the pool on every request would contend for its lock; once per second is sufficient.
+    if (now - lastEviction > 1000) {
+      lastEviction = now;
+      connectionManager.closeExpiredConnections();
+      connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+    }
+  }
+}
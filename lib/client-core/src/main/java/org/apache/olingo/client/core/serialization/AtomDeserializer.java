@@ -36,7 +36,9 @@ import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.olingo.client.api.serialization.EntitySetReader;
 import org.apache.olingo.client.api.serialization.ODataDeserializer;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
 import org.apache.olingo.commons.api.Constants;
@@ -740,57 +742,13 @@ public class AtomDeserializer extends AbstractAtomDealer implements ODataDeseria
     if (!Constants.QNAME_ATOM_ELEM_FEED.equals(start.getName())) {
       return null;
     }
-    final EntityCollection entitySet = new EntityCollection();
-    final Attribute xmlBase = start.getAttributeByName(Constants.QNAME_ATTR_XML_BASE);
-    if (xmlBase != null) {
-      entitySet.setBaseURI(URI.create(xmlBase.getValue()));
+    final Reader entitySetReader = new Reader(null, reader, start);
+    Entity entity;
+    while ((entity = entitySetReader.nextEntity()) != null) {
+      entitySetReader.entitySet.getEntities().add(entity);
     }
 
-    boolean foundEndFeed = false;
-    while (reader.hasNext() && !foundEndFeed) {
-      final XMLEvent event = reader.nextEvent();
-      if (event.isStartElement()) {
-        if (countQName.equals(event.asStartElement().getName())) {
-          count(reader, event.asStartElement(), entitySet);
-        } else if (Constants.QNAME_ATOM_ELEM_ID.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "id");
-        } else if (Constants.QNAME_ATOM_ELEM_TITLE.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "title");
-        } else if (Constants.QNAME_ATOM_ELEM_SUMMARY.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "summary");
-        } else if (Constants.QNAME_ATOM_ELEM_UPDATED.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "updated");
-        } else if (Constants.QNAME_ATOM_ELEM_LINK.equals(event.asStartElement().getName())) {
-          final Attribute rel = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_REL));
-          if (rel != null) {
-            if (Constants.NEXT_LINK_REL.equals(rel.getValue())) {
-              final Attribute href = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
-              if (href != null) {
-                entitySet.setNext(URI.create(href.getValue()));
-              }
-            }
-            if (Constants.NS_DELTA_LINK_REL.equals(rel.getValue())) {
-              final Attribute href = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
-              if (href != null) {
-                entitySet.setDeltaLink(URI.create(href.getValue()));
-              }
-            }
-          }
-        } else if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(event.asStartElement().getName())) {
-          entitySet.getEntities().add(entity(reader, event.asStartElement()));
-        } else if (entryRefQName.equals(event.asStartElement().getName())) {
-          entitySet.getEntities().add(entityRef(event.asStartElement()));
-        } else if (annotationQName.equals(event.asStartElement().getName())) {
-          entitySet.getAnnotations().add(annotation(reader, event.asStartElement()));
-        }
-      }
-
-      if (event.isEndElement() && start.getName().equals(event.asEndElement().getName())) {
-        foundEndFeed = true;
-      }
-    }
-
-    return entitySet;
+    return entitySetReader.entitySet;
   }
 
   @Override
@@ -806,6 +764,118 @@ public class AtomDeserializer extends AbstractAtomDealer implements ODataDeseria
     }
   }
 
+  /**
+   * Gets a reader pulling the entries of a feed from the given stream one at a time.
+   */
+  public EntitySetReader toEntitySetReader(final InputStream input) throws ODataDeserializerException {
+    try {
+      final XMLEventReader reader = getReader(input);
+      final StartElement start = skipBeforeFirstStartElement(reader);
+      if (!Constants.QNAME_ATOM_ELEM_FEED.equals(start.getName())) {
+        throw new ODataDeserializerException("No feed found!");
+      }
+      return new Reader(input, reader, start);
+    } catch (XMLStreamException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
+  /**
+   * Pulls the entries of a feed from the event stream one at a time;
+   * all other elements of the feed are collected while reading.
+   */
+  protected class Reader implements EntitySetReader {
+
+    private final InputStream input;
+
+    private final XMLEventReader reader;
+
+    private final StartElement start;
+
+    private final EntityCollection entitySet = new EntityCollection();
+
+    private boolean foundEndFeed;
+
+    protected Reader(final InputStream input, final XMLEventReader reader, final StartElement start) {
+      this.input = input;
+      this.reader = reader;
+      this.start = start;
+
+      final Attribute xmlBase = start.getAttributeByName(Constants.QNAME_ATTR_XML_BASE);
+      if (xmlBase != null) {
+        entitySet.setBaseURI(URI.create(xmlBase.getValue()));
+      }
+    }
+
+    @Override
+    public ResWrap<Entity> next() throws ODataDeserializerException {
+      try {
+        final Entity entity = nextEntity();
+        return entity == null ? null : getContainer(start, entity);
+      } catch (XMLStreamException e) {
+        throw new ODataDeserializerException(e);
+      } catch (final EdmPrimitiveTypeException e) {
+        throw new ODataDeserializerException(e);
+      }
+    }
+
+    protected Entity nextEntity() throws XMLStreamException, EdmPrimitiveTypeException {
+      while (reader.hasNext() && !foundEndFeed) {
+        final XMLEvent event = reader.nextEvent();
+        if (event.isStartElement()) {
+          if (countQName.equals(event.asStartElement().getName())) {
+            count(reader, event.asStartElement(), entitySet);
+          } else if (Constants.QNAME_ATOM_ELEM_ID.equals(event.asStartElement().getName())) {
+            common(reader, event.asStartElement(), entitySet, "id");
+          } else if (Constants.QNAME_ATOM_ELEM_TITLE.equals(event.asStartElement().getName())) {
+            common(reader, event.asStartElement(), entitySet, "title");
+          } else if (Constants.QNAME_ATOM_ELEM_SUMMARY.equals(event.asStartElement().getName())) {
+            common(reader, event.asStartElement(), entitySet, "summary");
+          } else if (Constants.QNAME_ATOM_ELEM_UPDATED.equals(event.asStartElement().getName())) {
+            common(reader, event.asStartElement(), entitySet, "updated");
+          } else if (Constants.QNAME_ATOM_ELEM_LINK.equals(event.asStartElement().getName())) {
+            final Attribute rel = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_REL));
+            if (rel != null) {
+              if (Constants.NEXT_LINK_REL.equals(rel.getValue())) {
+                final Attribute href = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
+                if (href != null) {
+                  entitySet.setNext(URI.create(href.getValue()));
+                }
+              }
+              if (Constants.NS_DELTA_LINK_REL.equals(rel.getValue())) {
+                final Attribute href = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
+                if (href != null) {
+                  entitySet.setDeltaLink(URI.create(href.getValue()));
+                }
+              }
+            }
+          } else if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(event.asStartElement().getName())) {
+            return entity(reader, event.asStartElement());
+          } else if (entryRefQName.equals(event.asStartElement().getName())) {
+            return entityRef(event.asStartElement());
+          } else if (annotationQName.equals(event.asStartElement().getName())) {
+            entitySet.getAnnotations().add(annotation(reader, event.asStartElement()));
+          }
+        }
+
+        if (event.isEndElement() && start.getName().equals(event.asEndElement().getName())) {
+          foundEndFeed = true;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public ResWrap<EntityCollection> getEntitySet() {
+      return getContainer(start, entitySet);
+    }
+
+    @Override
+    public void close() {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
   private ODataError error(final XMLEventReader reader, final StartElement start) throws XMLStreamException {
     final ODataError error = new ODataError();
 
@@ -26,12 +26,13 @@ import javax.xml.stream.XMLStreamException;
 import org.apache.olingo.client.api.data.ServiceDocument;
 import org.apache.olingo.client.api.edm.xml.XMLMetadata;
 import org.apache.olingo.client.api.serialization.ClientODataDeserializer;
+import org.apache.olingo.client.api.serialization.EntitySetReader;
 import org.apache.olingo.client.api.serialization.ODataDeserializer;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
 import org.apache.olingo.client.core.data.JSONServiceDocumentDeserializer;
 import org.apache.olingo.client.core.data.XMLServiceDocumentDeserializer;
 import org.apache.olingo.client.core.edm.ClientCsdlXMLMetadata;
-import org.apache.olingo.client.core.edm.xml.ClientCsdlEdmx;
+import org.apache.olingo.client.core.edm.xml.ClientCsdlEdmxReader;
 import org.apache.olingo.commons.api.ODataError;
 import org.apache.olingo.commons.api.data.Delta;
 import org.apache.olingo.commons.api.data.Entity;
@@ -72,6 +73,30 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
     return deserializer.toEntitySet(input);
   }
 
+  /**
+   * Reads an entity set, handing its entities to the handler one at a time.
+   * @return the entity set without entities
+   */
+  public ResWrap<EntityCollection> toEntitySet(final InputStream input, final EntityHandler handler)
+      throws ODataDeserializerException {
+    if (deserializer instanceof JsonDeserializer) {
+      return ((JsonDeserializer) deserializer).toEntitySet(input, handler);
+    }
+    final EntitySetReader reader = toEntitySetReader(input);
+    ResWrap<Entity> entity;
+    while ((entity = reader.next()) != null) {
+      handler.handle(entity);
+    }
+    return reader.getEntitySet();
+  }
+
+  @Override
+  public EntitySetReader toEntitySetReader(final InputStream input) throws ODataDeserializerException {
+    return deserializer instanceof JsonDeserializer
+        ? ((JsonDeserializer) deserializer).toEntitySetReader(input)
+        : ((AtomDeserializer) deserializer).toEntitySetReader(input);
+  }
+
   @Override
   public ResWrap<Entity> toEntity(final InputStream input) throws ODataDeserializerException {
     return deserializer.toEntity(input);
@@ -87,7 +112,7 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
     return deserializer.toError(input);
   }
 
-  protected XmlMapper getXmlMapper() {
+  private static XmlMapper createXmlMapper() {
     final XmlMapper xmlMapper = new XmlMapper(
         new XmlFactory(new InputFactoryImpl(), new OutputFactoryImpl()), new JacksonXmlModule());
 
@@ -108,10 +133,23 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
     return xmlMapper;
   }
 
+  /**
+   * Holds the XmlMapper, which is thread-safe once configured; it is built on first use only,
+   * since metadata are no longer read through it and most clients never need it.
+   */
+  private static final class XmlMapperHolder {
+
+    private static final XmlMapper XML_MAPPER = createXmlMapper();
+  }
+
+  protected XmlMapper getXmlMapper() {
+    return XmlMapperHolder.XML_MAPPER;
+  }
+
   @Override
   public XMLMetadata toMetadata(final InputStream input) {
     try {
-      return new ClientCsdlXMLMetadata(getXmlMapper().readValue(input, ClientCsdlEdmx.class));
+      return new ClientCsdlXMLMetadata(ClientCsdlEdmxReader.read(input));
     } catch (Exception e) {
       throw new IllegalArgumentException("Could not parse as Edmx document", e);
     }
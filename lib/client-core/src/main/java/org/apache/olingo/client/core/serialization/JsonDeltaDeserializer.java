@@ -31,10 +31,8 @@ import org.apache.olingo.commons.api.data.Delta;
 import org.apache.olingo.commons.api.data.DeltaLink;
 import org.apache.olingo.commons.api.data.ResWrap;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class JsonDeltaDeserializer extends JsonDeserializer {
@@ -75,7 +73,7 @@ public class JsonDeltaDeserializer extends JsonDeserializer {
 
         if (itemContextURL == null || itemContextURL.isEntity()) {
           delta.getEntities().add(
-              entityDeserializer.doDeserialize(item.traverse(parser.getCodec())).getPayload());
+              entityDeserializer.doDeserialize(item, parser.getCodec()).getPayload());
         } else if (itemContextURL.isDeltaDeletedEntity()) {
           delta.getDeletedEntities().add(parser.getCodec().treeToValue(item, DeletedEntity.class));
         } else if (itemContextURL.isDeltaLink()) {
@@ -91,7 +89,7 @@ public class JsonDeltaDeserializer extends JsonDeserializer {
 
   public ResWrap<Delta> toDelta(final InputStream input) throws ODataDeserializerException {
     try {
-      JsonParser parser = new JsonFactory(new ObjectMapper()).createParser(input);
+      JsonParser parser = FACTORY.createParser(input);
       return doDeserialize(parser);
     } catch (final IOException e) {
       throw new ODataDeserializerException(e);
@@ -31,6 +31,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.olingo.client.api.serialization.EntitySetReader;
 import org.apache.olingo.client.api.serialization.ODataDeserializer;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
 import org.apache.olingo.commons.api.Constants;
@@ -63,6 +64,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class JsonDeserializer implements ODataDeserializer {
 
+  /** Shared by all deserializers; its ObjectMapper codec reads the parts of a payload handled as trees. */
+  protected static final JsonFactory FACTORY = new JsonFactory(new ObjectMapper());
+
   protected final Pattern CUSTOM_ANNOTATION = Pattern.compile("(.+)@(.+)\\.(.+)");
 
   protected final boolean serverMode;
@@ -100,14 +104,15 @@ public class JsonDeserializer implements ODataDeserializer {
 
       if (inline instanceof ObjectNode) {
         link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
-        link.setInlineEntity(entityDeserializer.doDeserialize(inline.traverse(codec)).getPayload());
+        link.setInlineEntity(entityDeserializer.doDeserialize((ObjectNode) inline, codec).getPayload());
 
       } else if (inline instanceof ArrayNode) {
         link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
 
         final EntityCollection entitySet = new EntityCollection();
         for (final Iterator<JsonNode> entries = inline.elements(); entries.hasNext();) {
-          entitySet.getEntities().add(entityDeserializer.doDeserialize(entries.next().traverse(codec)).getPayload());
+          entitySet.getEntities().add(
+              entityDeserializer.doDeserialize((ObjectNode) entries.next(), codec).getPayload());
         }
 
         link.setInlineEntitySet(entitySet);
@@ -382,17 +387,44 @@ public class JsonDeserializer implements ODataDeserializer {
   @Override
   public ResWrap<EntityCollection> toEntitySet(final InputStream input) throws ODataDeserializerException {
     try {
-      parser = new JsonFactory(new ObjectMapper()).createParser(input);
+      parser = FACTORY.createParser(input);
       return new JsonEntitySetDeserializer(serverMode).doDeserialize(parser);
     } catch (final IOException e) {
       throw new ODataDeserializerException(e);
     }
   }
 
+  /**
+   * Reads an entity set, handing its entities to the handler one at a time.
+   * @return the entity set without entities
+   * @see JsonEntitySetDeserializer#doDeserialize(JsonParser, EntityHandler)
+   */
+  public ResWrap<EntityCollection> toEntitySet(final InputStream input, final EntityHandler handler)
+      throws ODataDeserializerException {
+    try {
+      parser = FACTORY.createParser(input);
+      return new JsonEntitySetDeserializer(serverMode).doDeserialize(parser, handler);
+    } catch (final IOException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
+  /**
+   * Gets a reader pulling the entities of an entity set from the given stream one at a time.
+   */
+  public EntitySetReader toEntitySetReader(final InputStream input) throws ODataDeserializerException {
+    try {
+      parser = FACTORY.createParser(input);
+      return new JsonEntitySetDeserializer(serverMode).new Reader(parser);
+    } catch (final IOException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
   @Override
   public ResWrap<Entity> toEntity(final InputStream input) throws ODataDeserializerException {
     try {
-      parser = new JsonFactory(new ObjectMapper()).createParser(input);
+      parser = FACTORY.createParser(input);
       return new JsonEntityDeserializer(serverMode).doDeserialize(parser);
     } catch (final IOException e) {
       throw new ODataDeserializerException(e);
@@ -402,7 +434,7 @@ public class JsonDeserializer implements ODataDeserializer {
   @Override
   public ResWrap<Property> toProperty(final InputStream input) throws ODataDeserializerException {
     try {
-      parser = new JsonFactory(new ObjectMapper()).createParser(input);
+      parser = FACTORY.createParser(input);
       return new JsonPropertyDeserializer(serverMode).doDeserialize(parser);
     } catch (final IOException e) {
       throw new ODataDeserializerException(e);
@@ -412,7 +444,7 @@ public class JsonDeserializer implements ODataDeserializer {
   @Override
   public ODataError toError(final InputStream input) throws ODataDeserializerException {
     try {
-      parser = new JsonFactory(new ObjectMapper()).createParser(input);
+      parser = FACTORY.createParser(input);
       return new JsonODataErrorDeserializer(serverMode).doDeserialize(parser);
     } catch (final IOException e) {
       throw new ODataDeserializerException(e);
@@ -41,6 +41,7 @@ import org.apache.olingo.commons.core.edm.EdmTypeInfo;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -63,6 +64,15 @@ public class JsonEntityDeserializer extends JsonDeserializer {
       throw new JsonParseException("Expected OData Entity, found EntitySet", parser.getCurrentLocation());
     }
 
+    return doDeserialize(tree, parser.getCodec());
+  }
+
+  /**
+   * Reads an entity from a tree which has been read already, e.g., as part of an enclosing entity.
+   * The tree is modified while it is read.
+   */
+  protected ResWrap<Entity> doDeserialize(final ObjectNode tree, final ObjectCodec codec) throws IOException {
+
     final Entity entity = new Entity();
 
     final URI contextURL;
@@ -147,7 +157,7 @@ public class JsonEntityDeserializer extends JsonDeserializer {
       final Map.Entry<String, JsonNode> field = itor.next();
       final Matcher customAnnotation = CUSTOM_ANNOTATION.matcher(field.getKey());
 
-      links(field, entity, toRemove, tree, parser.getCodec());
+      links(field, entity, toRemove, tree, codec);
       if (field.getKey().endsWith(getJSONAnnotation(Constants.JSON_MEDIA_EDIT_LINK))) {
         final Link link = new Link();
         link.setTitle(getTitle(field));
@@ -162,8 +172,8 @@ public class JsonEntityDeserializer extends JsonDeserializer {
         }
 
         toRemove.add(field.getKey());
-        toRemove.add(setInline(field.getKey(), getJSONAnnotation(Constants.JSON_MEDIA_EDIT_LINK), tree, parser
-            .getCodec(), link));
+        toRemove.add(setInline(field.getKey(), getJSONAnnotation(Constants.JSON_MEDIA_EDIT_LINK), tree, codec,
+            link));
       } else if (field.getKey().endsWith(getJSONAnnotation(Constants.JSON_MEDIA_CONTENT_TYPE))) {
         final String linkTitle = getTitle(field);
         for (Link link : entity.getMediaEditLinks()) {
@@ -187,7 +197,7 @@ public class JsonEntityDeserializer extends JsonDeserializer {
         final Annotation annotation = new Annotation();
         annotation.setTerm(customAnnotation.group(2) + "." + customAnnotation.group(3));
         try {
-          value(annotation, field.getValue(), parser.getCodec());
+          value(annotation, field.getValue(), codec);
         } catch (final EdmPrimitiveTypeException e) {
           throw new IOException(e);
         }
@@ -219,7 +229,7 @@ public class JsonEntityDeserializer extends JsonDeserializer {
     tree.remove(toRemove);
 
     try {
-      populate(entity, entity.getProperties(), tree, parser.getCodec());
+      populate(entity, entity.getProperties(), tree, codec);
     } catch (final EdmPrimitiveTypeException e) {
       throw new IOException(e);
     }
@@ -20,19 +20,22 @@ package org.apache.olingo.client.core.serialization;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.Iterator;
-import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.olingo.client.api.serialization.EntitySetReader;
+import org.apache.olingo.client.api.serialization.ODataDeserializerException;
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.Annotation;
+import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.ResWrap;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
  * Reads JSON string into an entity set.
@@ -46,68 +49,130 @@ public class JsonEntitySetDeserializer extends JsonDeserializer {
   }
 
   protected ResWrap<EntityCollection> doDeserialize(final JsonParser parser) throws IOException {
+    return doDeserialize(parser, null);
+  }
 
-    final ObjectNode tree = (ObjectNode) parser.getCodec().readTree(parser);
-
-    if (!tree.has(Constants.VALUE)) {
-      return null;
+  /**
+   * Reads the entity set from the token stream without building a tree of the whole document;
+   * only the entities are read one at a time.
+   * @param parser the parser
+   * @param handler receives the entities instead of the returned entity collection if not <code>null</code>;
+   *                the context URL and the metadata ETag are expected before the entities, as they
+   *                must be the first properties of the response
+   */
+  protected ResWrap<EntityCollection> doDeserialize(final JsonParser parser, final EntityHandler handler)
+      throws IOException {
+
+    final Reader reader = new Reader(parser);
+    final EntityCollection entitySet = reader.entitySet;
+    Entity entity;
+    while ((entity = reader.nextEntity()) != null) {
+      if (handler == null) {
+        entitySet.getEntities().add(entity);
+      } else {
+        handler.handle(new ResWrap<Entity>(reader.contextURL, reader.metadataETag, entity));
+      }
     }
 
-    final EntityCollection entitySet = new EntityCollection();
-
-    URI contextURL;
-    if (tree.hasNonNull(Constants.JSON_CONTEXT)) {
-      contextURL = URI.create(tree.get(Constants.JSON_CONTEXT).textValue());
-      tree.remove(Constants.JSON_CONTEXT);
-    } else if (tree.hasNonNull(Constants.JSON_METADATA)) {
-      contextURL = URI.create(tree.get(Constants.JSON_METADATA).textValue());
-      tree.remove(Constants.JSON_METADATA);
-    } else {
-      contextURL = null;
-    }
-    if (contextURL != null) {
-      entitySet.setBaseURI(URI.create(StringUtils.substringBefore(contextURL.toASCIIString(), Constants.METADATA)));
-    }
+    return reader.hasValue ? reader.getEntitySet() : null;
+  }
 
-    final String metadataETag;
-    if (tree.hasNonNull(Constants.JSON_METADATA_ETAG)) {
-      metadataETag = tree.get(Constants.JSON_METADATA_ETAG).textValue();
-      tree.remove(Constants.JSON_METADATA_ETAG);
-    } else {
-      metadataETag = null;
-    }
+  /**
+   * Pulls the entities of an entity set from the token stream one at a time;
+   * all other properties of the entity set are collected while reading.
+   */
+  protected class Reader implements EntitySetReader {
 
-    if (tree.hasNonNull(Constants.JSON_COUNT)) {
-      entitySet.setCount(tree.get(Constants.JSON_COUNT).asInt());
-      tree.remove(Constants.JSON_COUNT);
-    }
-    if (tree.hasNonNull(Constants.JSON_NEXT_LINK)) {
-      entitySet.setNext(URI.create(tree.get(Constants.JSON_NEXT_LINK).textValue()));
-      tree.remove(Constants.JSON_NEXT_LINK);
+    private final JsonParser parser;
+
+    private final JsonEntityDeserializer entityDeserializer = new JsonEntityDeserializer(serverMode);
+
+    private final EntityCollection entitySet = new EntityCollection();
+
+    private URI contextURL;
+
+    private String metadataETag;
+
+    private boolean hasValue;
+
+    private boolean inValue;
+
+    private boolean finished;
+
+    protected Reader(final JsonParser parser) throws IOException {
+      this.parser = parser;
+      if (parser.getCurrentToken() == null) {
+        parser.nextToken();
+      }
+      if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException("Expected OData Entity Set", parser.getCurrentLocation());
+      }
     }
-    if (tree.hasNonNull(Constants.JSON_DELTA_LINK)) {
-      entitySet.setDeltaLink(URI.create(tree.get(Constants.JSON_DELTA_LINK).textValue()));
-      tree.remove(Constants.JSON_DELTA_LINK);
+
+    @Override
+    public ResWrap<Entity> next() throws ODataDeserializerException {
+      try {
+        final Entity entity = nextEntity();
+        return entity == null ? null : new ResWrap<Entity>(contextURL, metadataETag, entity);
+      } catch (final IOException e) {
+        throw new ODataDeserializerException(e);
+      }
     }
 
-    if (tree.hasNonNull(Constants.VALUE)) {
-      final JsonEntityDeserializer entityDeserializer = new JsonEntityDeserializer(serverMode);
-      for (JsonNode jsonNode : tree.get(Constants.VALUE)) {
-        entitySet.getEntities().add(
-            entityDeserializer.doDeserialize(jsonNode.traverse(parser.getCodec())).getPayload());
+    protected Entity nextEntity() throws IOException {
+      while (!finished) {
+        if (inValue) {
+          final JsonToken token = parser.nextToken();
+          if (token == JsonToken.START_OBJECT) {
+            return entityDeserializer.doDeserialize(parser).getPayload();
+          } else if (token == JsonToken.END_ARRAY) {
+            inValue = false;
+          } else {
+            throw new JsonParseException("Expected OData Entity", parser.getCurrentLocation());
+          }
+        } else if (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String field = parser.getCurrentName();
+          parser.nextToken();
+          if (Constants.VALUE.equals(field)) {
+            hasValue = true;
+            if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+              inValue = true;
+            } else {
+              parser.skipChildren();
+            }
+          } else {
+            final JsonNode node = parser.getCodec().readTree(parser);
+            field(field, node);
+          }
+        } else {
+          finished = true;
+        }
       }
-      tree.remove(Constants.VALUE);
+      return null;
     }
 
-    // any remaining entry is supposed to be an annotation or is ignored
-    for (final Iterator<Map.Entry<String, JsonNode>> itor = tree.fields(); itor.hasNext();) {
-      final Map.Entry<String, JsonNode> field = itor.next();
-      if (field.getKey().charAt(0) == '@') {
+    private void field(final String field, final JsonNode node) throws IOException {
+      final boolean hasNonNull = node != null && !node.isNull();
+      if (hasNonNull && (Constants.JSON_CONTEXT.equals(field) || Constants.JSON_METADATA.equals(field))) {
+        if (contextURL == null || Constants.JSON_CONTEXT.equals(field)) {
+          contextURL = URI.create(node.textValue());
+          entitySet.setBaseURI(URI.create(StringUtils.substringBefore(contextURL.toASCIIString(),
+              Constants.METADATA)));
+        }
+      } else if (hasNonNull && Constants.JSON_METADATA_ETAG.equals(field)) {
+        metadataETag = node.textValue();
+      } else if (hasNonNull && Constants.JSON_COUNT.equals(field)) {
+        entitySet.setCount(node.asInt());
+      } else if (hasNonNull && Constants.JSON_NEXT_LINK.equals(field)) {
+        entitySet.setNext(URI.create(node.textValue()));
+      } else if (hasNonNull && Constants.JSON_DELTA_LINK.equals(field)) {
+        entitySet.setDeltaLink(URI.create(node.textValue()));
+      } else if (field.charAt(0) == '@') {
+        // any other entry is supposed to be an annotation or is ignored
         final Annotation annotation = new Annotation();
-        annotation.setTerm(field.getKey().substring(1));
-
+        annotation.setTerm(field.substring(1));
         try {
-          value(annotation, field.getValue(), parser.getCodec());
+          value(annotation, node, parser.getCodec());
         } catch (final EdmPrimitiveTypeException e) {
           throw new IOException(e);
         }
@@ -115,6 +180,14 @@ public class JsonEntitySetDeserializer extends JsonDeserializer {
       }
     }
 
-    return new ResWrap<EntityCollection>(contextURL, metadataETag, entitySet);
+    @Override
+    public ResWrap<EntityCollection> getEntitySet() {
+      return new ResWrap<EntityCollection>(contextURL, metadataETag, entitySet);
+    }
+
+    @Override
+    public void close() {
+      IOUtils.closeQuietly(parser);
+    }
   }
 }
@@ -54,6 +54,9 @@ import com.fasterxml.jackson.core.JsonGenerator;
 
 public class JsonSerializer implements ODataSerializer {
 
+  /** Shared by all client serializers, which never change its configuration. */
+  private static final JsonFactory FACTORY = new JsonFactory();
+
   private static final EdmPrimitiveTypeKind[] NUMBER_TYPES = {
     EdmPrimitiveTypeKind.Byte, EdmPrimitiveTypeKind.SByte,
     EdmPrimitiveTypeKind.Single, EdmPrimitiveTypeKind.Double,
@@ -76,7 +79,7 @@ public class JsonSerializer implements ODataSerializer {
   @Override
   public <T> void write(final Writer writer, final T obj) throws ODataSerializerException {
     try {
-      final JsonGenerator json = new JsonFactory().createGenerator(writer);
+      final JsonGenerator json = FACTORY.createGenerator(writer);
       if (obj instanceof EntityCollection) {
         new JsonEntitySetSerializer(serverMode, contentType).doSerialize((EntityCollection) obj, json);
       } else if (obj instanceof Entity) {
@@ -108,7 +111,7 @@ public class JsonSerializer implements ODataSerializer {
   public <T> void write(final Writer writer, final ResWrap<T> container) throws ODataSerializerException {
     final T obj = container == null ? null : container.getPayload();
     try {
-      final JsonGenerator json = new JsonFactory().createGenerator(writer);
+      final JsonGenerator json = FACTORY.createGenerator(writer);
       if (obj instanceof EntityCollection) {
         new JsonEntitySetSerializer(serverMode, contentType).doContainerSerialize(
             (ResWrap<EntityCollection>) container, json);
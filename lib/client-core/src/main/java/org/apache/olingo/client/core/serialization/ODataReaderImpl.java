@@ -20,6 +20,8 @@ package org.apache.olingo.client.core.serialization;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.io.IOUtils;
@@ -32,6 +34,8 @@ import org.apache.olingo.client.api.domain.ClientProperty;
 import org.apache.olingo.client.api.domain.ClientServiceDocument;
 import org.apache.olingo.client.api.domain.ClientValue;
 import org.apache.olingo.client.api.edm.xml.XMLMetadata;
+import org.apache.olingo.client.api.serialization.ClientODataDeserializer;
+import org.apache.olingo.client.api.serialization.ODataBinder;
 import org.apache.olingo.client.api.serialization.ODataDeserializerException;
 import org.apache.olingo.client.api.serialization.ODataReader;
 import org.apache.olingo.client.core.edm.ClientCsdlEdmProvider;
@@ -98,12 +102,12 @@ public class ODataReaderImpl implements ODataReader {
             reference.cast(new ClientEntitySetIterator<ClientEntitySet, ClientEntity>(
                 client, src, ContentType.parse(format))));
       } else if (ClientEntitySet.class.isAssignableFrom(reference)) {
-        final ResWrap<EntityCollection> resource = client.getDeserializer(ContentType.parse(format))
-            .toEntitySet(src);
+        final List<ClientEntity> entities = new ArrayList<ClientEntity>();
+        final ResWrap<EntityCollection> resource = readEntitySet(src, ContentType.parse(format), entities);
         res = new ResWrap<T>(
             resource.getContextURL(),
             resource.getMetadataETag(),
-            reference.cast(client.getBinder().getODataEntitySet(resource)));
+            reference.cast(bindEntitySet(resource, entities)));
       } else if (ClientEntity.class.isAssignableFrom(reference)) {
         final ResWrap<Entity> container = client.getDeserializer(ContentType.parse(format)).toEntity(src);
         res = new ResWrap<T>(
@@ -160,7 +164,42 @@ public class ODataReaderImpl implements ODataReader {
   @Override
   public ClientEntitySet readEntitySet(final InputStream input, final ContentType contentType)
       throws ODataDeserializerException {
-    return client.getBinder().getODataEntitySet(client.getDeserializer(contentType).toEntitySet(input));
+    final List<ClientEntity> entities = new ArrayList<ClientEntity>();
+    return bindEntitySet(readEntitySet(input, contentType, entities), entities);
+  }
+
+  /**
+   * Reads an entity set and binds each entity as soon as it has been read, so that the
+   * intermediate entities need not be kept until the whole entity set has been read.
+   * @param entities receives the bound entities
+   * @return the entity set without entities
+   */
+  private ResWrap<EntityCollection> readEntitySet(final InputStream input, final ContentType contentType,
+      final List<ClientEntity> entities) throws ODataDeserializerException {
+    final ClientODataDeserializer deserializer = client.getDeserializer(contentType);
+    if (deserializer instanceof ClientODataDeserializerImpl) {
+      return ((ClientODataDeserializerImpl) deserializer).toEntitySet(input, new EntityHandler() {
+        @Override
+        public void handle(final ResWrap<Entity> entity) {
+          entities.add(client.getBinder().getODataEntity(entity));
+        }
+      });
+    }
+    return deserializer.toEntitySet(input);
+  }
+
+  /** Adds the entities bound while reading through the binder, as the binder does for the entities it binds. */
+  private ClientEntitySet bindEntitySet(final ResWrap<EntityCollection> resource, final List<ClientEntity> entities) {
+    final ODataBinder binder = client.getBinder();
+    final ClientEntitySet entitySet = binder.getODataEntitySet(resource);
+    for (final ClientEntity entity : entities) {
+      if (binder instanceof ODataBinderImpl) {
+        ((ODataBinderImpl) binder).add(entitySet, entity);
+      } else {
+        entitySet.getEntities().add(entity);
+      }
+    }
+    return entitySet;
   }
 
   @Override
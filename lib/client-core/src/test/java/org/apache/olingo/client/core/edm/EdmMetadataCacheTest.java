@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.edm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.client.api.EdmEnabledODataClient;
+import org.apache.olingo.client.core.EdmEnabledODataClientImpl;
+import org.apache.olingo.client.core.http.BasicAuthHttpClientFactory;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class EdmMetadataCacheTest {
+
+  private static final String ETAG = "W/\"1\"";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private HttpServer server;
+  private String serviceRoot;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger notModified = new AtomicInteger();
+
+  @Before
+  public void startServer() throws IOException {
+    final byte[] metadata = IOUtils.toByteArray(
+        getClass().getResourceAsStream("/org/apache/olingo/client/core/v4/demo-metadata.xml"));
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getResponseHeaders().add(HttpHeader.ETAG, ETAG);
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst(HttpHeader.IF_NONE_MATCH))) {
+          notModified.incrementAndGet();
+          exchange.sendResponseHeaders(304, -1);
+        } else {
+          exchange.getResponseHeaders().add(HttpHeader.CONTENT_TYPE, "application/xml");
+          exchange.sendResponseHeaders(200, metadata.length);
+          final OutputStream output = exchange.getResponseBody();
+          output.write(metadata);
+          output.close();
+        }
+        exchange.close();
+      }
+    });
+    server.start();
+    serviceRoot = "http://localhost:" + server.getAddress().getPort() + "/service";
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  private EdmEnabledODataClient client(final EdmMetadataCache cache) {
+    return new EdmEnabledODataClientImpl(serviceRoot, null, null, cache);
+  }
+
+  private void assertDemo(final Edm edm) {
+    assertNotNull(edm.getEntityType(new FullQualifiedName("ODataDemo", "Product")));
+  }
+
+  @Test
+  public void sharedBetweenClients() {
+    final EdmMetadataCache cache = new EdmMetadataCache();
+    final Edm edm = client(cache).getCachedEdm();
+    assertDemo(edm);
+    assertSame(edm, client(cache).getCachedEdm());
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void revalidateWithETag() {
+    final EdmMetadataCache cache = new EdmMetadataCache();
+    final EdmEnabledODataClient client = client(cache);
+    final Edm edm = client.getCachedEdm();
+    assertSame(edm, client.getEdm(ETAG));
+    assertEquals(1, requests.get());
+
+    // A different ETag causes a conditional request; the server reports the metadata as unchanged.
+    assertSame(edm, client(cache).getEdm("W/\"2\""));
+    assertEquals(2, requests.get());
+    assertEquals(1, notModified.get());
+
+    assertSame(edm, cache.revalidate(client, serviceRoot).getEdm());
+    assertEquals(2, notModified.get());
+  }
+
+  @Test
+  public void snapshot() throws Exception {
+    final EdmMetadataCache cache = new EdmMetadataCache();
+    cache.setSnapshotDirectory(folder.getRoot());
+    client(cache).getCachedEdm();
+    assertEquals(1, requests.get());
+    assertEquals(1, folder.getRoot().listFiles().length);
+
+    // A new cache, e.g. in another process, starts from the snapshot.
+    final EdmMetadataCache other = new EdmMetadataCache();
+    other.setSnapshotDirectory(folder.getRoot());
+    final EdmEnabledODataClient client = client(other);
+    assertDemo(client.getCachedEdm());
+    assertEquals(1, requests.get());
+    assertEquals(ETAG, other.get(client, serviceRoot, null).getMetadataETag());
+
+    other.invalidate(serviceRoot);
+    assertEquals(0, folder.getRoot().listFiles().length);
+  }
+
+  @Test
+  public void corruptSnapshot() throws Exception {
+    final EdmMetadataCache cache = new EdmMetadataCache();
+    cache.setSnapshotDirectory(folder.getRoot());
+    client(cache).getCachedEdm();
+    final File snapshot = folder.getRoot().listFiles()[0];
+    final OutputStream output = new FileOutputStream(snapshot);
+    output.write("garbage".getBytes("UTF-8"));
+    output.close();
+
+    final EdmMetadataCache other = new EdmMetadataCache();
+    other.setSnapshotDirectory(folder.getRoot());
+    assertDemo(client(other).getCachedEdm());
+    assertEquals(2, requests.get());
+    assertTrue(snapshot.length() > "garbage".length());
+  }
+
+  @Test
+  public void maxAge() {
+    final EdmMetadataCache cache = new EdmMetadataCache();
+    cache.setMaxAge(0);
+    final Edm edm = client(cache).getCachedEdm();
+
+    // Every new client revalidates the cached metadata.
+    assertSame(edm, client(cache).getCachedEdm());
+    assertEquals(2, requests.get());
+    assertEquals(1, notModified.get());
+  }
+
+  @Test
+  public void separatedByConfiguration() {
+    final EdmMetadataCache cache = new EdmMetadataCache();
+    cache.setSnapshotDirectory(folder.getRoot());
+    final Edm edm = client(cache).getCachedEdm();
+
+    final EdmEnabledODataClient authenticated = client(cache);
+    authenticated.getConfiguration().setHttpClientFactory(new BasicAuthHttpClientFactory("user", "password"));
+    final Edm authenticatedEdm = authenticated.getCachedEdm();
+    assertNotSame(edm, authenticatedEdm);
+    assertEquals(2, requests.get());
+    assertSame(authenticatedEdm, cache.get(authenticated, serviceRoot, null).getEdm());
+    assertEquals(1, folder.getRoot().listFiles().length);
+
+    cache.invalidate(serviceRoot);
+    assertNotSame(authenticatedEdm, cache.get(authenticated, serviceRoot, null).getEdm());
+    assertEquals(3, requests.get());
+  }
+
+  @Test
+  public void snapshotWithUnexpectedClass() throws Exception {
+    final EdmMetadataCache cache = new EdmMetadataCache();
+    cache.setSnapshotDirectory(folder.getRoot());
+    client(cache).getCachedEdm();
+    final File snapshot = folder.getRoot().listFiles()[0];
+    final ObjectOutputStream output = new ObjectOutputStream(new GZIPOutputStream(new FileOutputStream(snapshot)));
+    output.writeInt(1);
+    output.writeUTF(serviceRoot);
+    output.writeObject(ETAG);
+    output.writeObject(new HashMap<String, Object>(Collections.singletonMap("ODataDemo", new Date())));
+    output.close();
+
+    final EdmMetadataCache other = new EdmMetadataCache();
+    other.setSnapshotDirectory(folder.getRoot());
+    assertDemo(client(other).getCachedEdm());
+    assertEquals(2, requests.get());
+  }
+}
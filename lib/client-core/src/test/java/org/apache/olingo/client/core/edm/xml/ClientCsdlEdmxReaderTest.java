@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.edm.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.client.core.serialization.ClientODataDeserializerImpl;
+import org.apache.olingo.commons.api.edm.provider.CsdlAnnotation;
+import org.apache.olingo.commons.api.edm.provider.CsdlAnnotations;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.edm.provider.CsdlTypeDefinition;
+import org.apache.olingo.commons.api.edm.provider.annotation.AnnotationExpression;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.junit.Test;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+public class ClientCsdlEdmxReaderTest {
+
+  private static final String[] METADATA = {
+      "metadata.xml", "demo-metadata.xml", "northwind-metadata.xml", "staticservice-metadata.xml",
+      "Metadata-With-Capabilities.xml", "fromdoc1-metadata.xml", "fromdoc3-metadata.xml"
+  };
+
+  /** Gives access to the Jackson-bound reading of metadata documents. */
+  private static class XmlMapperDeserializer extends ClientODataDeserializerImpl {
+
+    XmlMapperDeserializer() {
+      super(false, ContentType.APPLICATION_XML);
+    }
+
+    XmlMapper xmlMapper() {
+      return getXmlMapper();
+    }
+  }
+
+  private InputStream getResource(final String name) {
+    return getClass().getResourceAsStream("/org/apache/olingo/client/core/v4/" + name);
+  }
+
+  @Test
+  public void sameAsXmlMapper() throws Exception {
+    final XmlMapper xmlMapper = new XmlMapperDeserializer().xmlMapper();
+    for (String name : METADATA) {
+      InputStream input = getResource(name);
+      final ClientCsdlEdmx expected = xmlMapper.readValue(input, ClientCsdlEdmx.class);
+      IOUtils.closeQuietly(input);
+
+      input = getResource(name);
+      final ClientCsdlEdmx actual = ClientCsdlEdmxReader.read(input);
+      IOUtils.closeQuietly(input);
+
+      assertEquals(name, expected, actual);
+    }
+  }
+
+  private ClientCsdlEdmx read(final String name) throws Exception {
+    final InputStream input = getResource(name);
+    try {
+      return ClientCsdlEdmxReader.read(input);
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
+  private List<AnnotationExpression> getExpressions(final ClientCsdlEdmx edmx, final String term) {
+    final List<AnnotationExpression> expressions = new ArrayList<AnnotationExpression>();
+    for (CsdlAnnotations group : edmx.getDataServices().getSchemas().get(0).getAnnotationGroups()) {
+      for (CsdlAnnotation annotation : group.getAnnotations()) {
+        if (term.equals(annotation.getTerm())) {
+          expressions.add(annotation.getExpression());
+        }
+      }
+    }
+    return expressions;
+  }
+
+  @Test
+  public void emptyAndReferenceExpressions() throws Exception {
+    // both were read as null by the XmlMapper-bound deserializers
+    final AnnotationExpression email = getExpressions(read("fromdoc2-metadata.xml"), "Vocabulary1.EMail").get(0);
+    assertTrue(email.asDynamic().isNull());
+
+    final ClientCsdlEdmx edmx = read("fromdoc4-metadata.xml");
+    final AnnotationExpression eq = getExpressions(edmx, "Eq").get(0);
+    assertTrue(eq.asDynamic().asTwoParamsOp().getLeftExpression().isNull());
+    final AnnotationExpression displayName = getExpressions(edmx, "org.example.display.DisplayName").get(3);
+    assertEquals("Model.CustomerFirstName", displayName.asDynamic().asLabeledElementReference().getValue());
+  }
+
+  @Test
+  public void sharedAttributeValues() throws Exception {
+    final CsdlSchema schema = read("northwind-metadata.xml").getDataServices().getSchemas().get(0);
+    final CsdlProperty categoryName = schema.getEntityType("Category").getProperty("CategoryName");
+    final CsdlProperty productName = schema.getEntityType("Product").getProperty("ProductName");
+    assertEquals("Edm.String", categoryName.getType());
+    assertSame(categoryName.getType(), productName.getType());
+  }
+
+  @Test
+  public void typeDefinitionFacets() throws Exception {
+    final String metadata = "<edmx:Edmx xmlns:edmx=\"http://docs.oasis-open.org/odata/ns/edmx\" Version=\"4.0\">"
+        + "<edmx:DataServices><Schema xmlns=\"http://docs.oasis-open.org/odata/ns/edm\" Namespace=\"NS\">"
+        + "<TypeDefinition Name=\"Code\" UnderlyingType=\"Edm.String\" MaxLength=\"12\"/>"
+        + "<TypeDefinition Name=\"Amount\" UnderlyingType=\"Edm.Decimal\" Precision=\"10\" Scale=\"variable\"/>"
+        + "</Schema></edmx:DataServices></edmx:Edmx>";
+    final ClientCsdlEdmx edmx = ClientCsdlEdmxReader.read(new ByteArrayInputStream(metadata.getBytes("UTF-8")));
+    assertNotNull(edmx.getDataServices());
+
+    final CsdlSchema schema = edmx.getDataServices().getSchemas().get(0);
+    final CsdlTypeDefinition code = schema.getTypeDefinition("Code");
+    assertEquals(Integer.valueOf(12), code.getMaxLength());
+    final CsdlTypeDefinition amount = schema.getTypeDefinition("Amount");
+    assertEquals(Integer.valueOf(10), amount.getPrecision());
+    assertEquals(Integer.valueOf(0), amount.getScale());
+  }
+}
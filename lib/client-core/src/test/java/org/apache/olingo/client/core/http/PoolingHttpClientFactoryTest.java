@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.util.EntityUtils;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.core.ConfigurationImpl;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class PoolingHttpClientFactoryTest {
+
+  private HttpServer server;
+  private URI uri;
+  private final Set<InetSocketAddress> clientAddresses =
+      Collections.synchronizedSet(new HashSet<InetSocketAddress>());
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        clientAddresses.add(exchange.getRemoteAddress());
+        final byte[] body = "content".getBytes("UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        final OutputStream output = exchange.getResponseBody();
+        output.write(body);
+        output.close();
+      }
+    });
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/service");
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  public void connectionIsReused() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    try {
+      for (int i = 0; i < 3; i++) {
+        final HttpClient client = factory.create(HttpMethod.GET, uri);
+        final HttpResponse response = client.execute(new HttpGet(uri));
+        assertEquals(1, factory.getStats().getLeased());
+        assertEquals("content", EntityUtils.toString(response.getEntity()));
+        factory.close(client);
+        assertEquals(0, factory.getStats().getLeased());
+        assertEquals(1, factory.getStats().getAvailable());
+      }
+      // All requests have been sent over the same connection.
+      assertEquals(1, clientAddresses.size());
+    } finally {
+      factory.close();
+    }
+  }
+
+  @Test
+  public void limits() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory(5, 2, 1000, 1000);
+    try {
+      assertEquals(5, factory.getStats().getMax());
+      final HttpResponse first = factory.create(HttpMethod.GET, uri).execute(new HttpGet(uri));
+      final HttpResponse second = factory.create(HttpMethod.GET, uri).execute(new HttpGet(uri));
+      assertEquals(2, factory.getStats().getLeased());
+      EntityUtils.consume(first.getEntity());
+      EntityUtils.consume(second.getEntity());
+      assertEquals(0, factory.getStats().getLeased());
+      assertEquals(2, factory.getStats().getAvailable());
+    } finally {
+      factory.close();
+    }
+  }
+
+  @Test
+  public void exhaustedPoolTimesOut() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory(5, 1, 1000, 1000, 100);
+    try {
+      final HttpResponse unread = factory.create(HttpMethod.GET, uri).execute(new HttpGet(uri));
+      try {
+        factory.create(HttpMethod.GET, uri).execute(new HttpGet(uri));
+        fail("Expected exception");
+      } catch (final ConnectionPoolTimeoutException e) {
+        // expected
+      }
+      EntityUtils.consume(unread.getEntity());
+      assertEquals("content",
+          EntityUtils.toString(factory.create(HttpMethod.GET, uri).execute(new HttpGet(uri)).getEntity()));
+    } finally {
+      factory.close();
+    }
+  }
+
+  @Test
+  public void closedFactory() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    factory.close();
+    try {
+      factory.create(HttpMethod.GET, uri).execute(new HttpGet(uri));
+      fail("Expected exception");
+    } catch (final IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void defaultFactoryIsShared() {
+    final HttpClientFactory factory = new ConfigurationImpl().getHttpClientFactory();
+    assertTrue(factory instanceof PoolingHttpClientFactory);
+    assertSame(factory, new ConfigurationImpl().getHttpClientFactory());
+  }
+
+  @Test
+  public void unreadRetrieveResponseReleasesConnection() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    try {
+      final ODataClient client = ODataClientFactory.getClient();
+      client.getConfiguration().setHttpClientFactory(factory);
+      final ODataRetrieveResponse<ClientEntity> response =
+          client.getRetrieveRequestFactory().getEntityRequest(uri).execute();
+      assertEquals(200, response.getStatusCode());
+      assertEquals(0, factory.getStats().getLeased());
+      assertEquals(1, factory.getStats().getAvailable());
+    } finally {
+      factory.close();
+    }
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.v4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.retrieve.ODataEntitySetIteratorRequest;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.api.domain.ClientEntitySetIterator;
+import org.apache.olingo.client.core.AbstractTest;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.client.core.http.PoolingHttpClientFactory;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class EntitySetIteratorTest extends AbstractTest {
+
+  private HttpServer server;
+  private String serviceRoot;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final CountDownLatch received = new CountDownLatch(2);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private volatile boolean delaySecondPage;
+
+  @Override
+  protected ODataClient getClient() {
+    return v4Client;
+  }
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        final String query = exchange.getRequestURI().getQuery();
+        final int page = query == null ? 1 : Integer.parseInt(query.substring(query.indexOf('=') + 1));
+        received.countDown();
+        if (page == 2 && delaySecondPage) {
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        final byte[] body = page(page).getBytes("UTF-8");
+        exchange.getResponseHeaders().add(HttpHeader.CONTENT_TYPE, ContentType.JSON.toContentTypeString());
+        exchange.sendResponseHeaders(200, body.length);
+        final OutputStream output = exchange.getResponseBody();
+        output.write(body);
+        output.close();
+      }
+    });
+    server.start();
+    serviceRoot = "http://localhost:" + server.getAddress().getPort() + "/service";
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  private String page(final int page) {
+    return "{\"@odata.context\":\"" + serviceRoot + "/$metadata#ESTwoPrim\","
+        + "\"value\":[{\"PropertyInt16\":" + (2 * page - 1) + "},{\"PropertyInt16\":" + 2 * page + "}]"
+        + (page < 3 ? ",\"@odata.nextLink\":\"" + serviceRoot + "/ESTwoPrim?page=" + (page + 1) + "\"" : "")
+        + "}";
+  }
+
+  private void iterate(final ContentType contentType) throws Exception {
+    final String name = "Customers." + getSuffix(contentType);
+    final ClientEntitySet entitySet =
+        getClient().getReader().readEntitySet(getClass().getResourceAsStream(name), contentType);
+
+    final ClientEntitySetIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetIterator<ClientEntitySet, ClientEntity>(
+            getClient(), getClass().getResourceAsStream(name), contentType);
+    final List<ClientEntity> entities = new ArrayList<ClientEntity>();
+    while (iterator.hasNext()) {
+      entities.add(iterator.next());
+    }
+    assertEquals(entitySet.getEntities(), entities);
+    assertNull(iterator.getNext());
+  }
+
+  @Test
+  public void fromJSON() throws Exception {
+    iterate(ContentType.JSON);
+  }
+
+  @Test
+  public void fromAtom() throws Exception {
+    iterate(ContentType.APPLICATION_ATOM_XML);
+  }
+
+  private List<Object> readAll(final boolean followNextLink, final boolean prefetch) {
+    final ODataClient client = ODataClientFactory.getClient();
+    try {
+      final ODataEntitySetIteratorRequest<ClientEntitySet, ClientEntity> request =
+          client.getRetrieveRequestFactory().getEntitySetIteratorRequest(URI.create(serviceRoot + "/ESTwoPrim"));
+      request.setFormat(ContentType.JSON);
+      final ClientEntitySetIterator<ClientEntitySet, ClientEntity> iterator = request.execute().getBody();
+      iterator.setFollowNextLink(followNextLink);
+      iterator.setPrefetch(prefetch);
+
+      final List<Object> values = new ArrayList<Object>();
+      while (iterator.hasNext()) {
+        values.add(iterator.next().getProperty("PropertyInt16").getPrimitiveValue().toValue());
+      }
+      assertFalse(iterator.hasNext());
+      if (followNextLink) {
+        assertNull(iterator.getNext());
+      } else {
+        assertEquals(URI.create(serviceRoot + "/ESTwoPrim?page=2"), iterator.getNext());
+      }
+      return values;
+    } finally {
+      client.close();
+    }
+  }
+
+  @Test
+  public void singlePage() {
+    assertEquals(2, readAll(false, false).size());
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void followNextLink() {
+    final List<Object> values = readAll(true, false);
+    assertEquals(6, values.size());
+    assertEquals(3, requests.get());
+    assertEquals("6", values.get(5).toString());
+  }
+
+  @Test
+  public void prefetch() {
+    final List<Object> values = readAll(true, true);
+    assertEquals(6, values.size());
+    assertEquals(3, requests.get());
+    for (int i = 0; i < values.size(); i++) {
+      assertEquals(String.valueOf(i + 1), values.get(i).toString());
+    }
+  }
+
+  @Test
+  public void prefetchWithoutFollowing() {
+    assertEquals(2, readAll(false, true).size());
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void closeWhilePrefetching() throws Exception {
+    delaySecondPage = true;
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(factory);
+    try {
+      final ODataEntitySetIteratorRequest<ClientEntitySet, ClientEntity> request =
+          client.getRetrieveRequestFactory().getEntitySetIteratorRequest(URI.create(serviceRoot + "/ESTwoPrim"));
+      request.setFormat(ContentType.JSON);
+      final ClientEntitySetIterator<ClientEntitySet, ClientEntity> iterator = request.execute().getBody();
+      iterator.setFollowNextLink(true);
+      iterator.setPrefetch(true);
+      iterator.next();
+      iterator.next();
+      assertTrue(received.await(5, TimeUnit.SECONDS));
+
+      new Thread() {
+        @Override
+        public void run() {
+          try {
+            Thread.sleep(100);
+          } catch (final InterruptedException e) {
+            // continue
+          }
+          release.countDown();
+        }
+      }.start();
+      iterator.close();
+      assertEquals(0, factory.getStats().getLeased());
+    } finally {
+      release.countDown();
+      client.close();
+      factory.close();
+    }
+  }
+}
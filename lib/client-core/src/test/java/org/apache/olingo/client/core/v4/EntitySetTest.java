@@ -22,14 +22,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.domain.ClientEntity;
 import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.api.serialization.ODataBinder;
 import org.apache.olingo.client.core.AbstractTest;
+import org.apache.olingo.client.core.ODataClientImpl;
+import org.apache.olingo.client.core.serialization.ODataBinderImpl;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.ResWrap;
 import org.apache.olingo.commons.api.format.ContentType;
@@ -94,4 +100,70 @@ public class EntitySetTest extends AbstractTest {
   public void jsonRef() throws Exception {
     ref(ContentType.JSON);
   }
+
+  private void readerSameAsBinder(final String name, final ContentType contentType) throws Exception {
+    final ClientEntitySet expected = getClient().getBinder().getODataEntitySet(
+        getClient().getDeserializer(contentType).toEntitySet(getClass().getResourceAsStream(name)));
+    final ClientEntitySet actual = getClient().getReader().readEntitySet(
+        getClass().getResourceAsStream(name), contentType);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void readerSameAsBinder() throws Exception {
+    readerSameAsBinder("Customers.json", ContentType.JSON);
+    readerSameAsBinder("collectionOfEntityReferences.json", ContentType.JSON);
+    readerSameAsBinder("Customers.xml", ContentType.APPLICATION_ATOM_XML);
+  }
+
+  @Test
+  public void readerAddsThroughBinder() throws Exception {
+    final List<ClientEntity> added = new ArrayList<ClientEntity>();
+    final ODataClient client = new ODataClientImpl() {
+      private final ODataBinder binder = new ODataBinderImpl(this) {
+        @Override
+        protected boolean add(final ClientEntitySet entitySet, final ClientEntity entity) {
+          added.add(entity);
+          return super.add(entitySet, entity);
+        }
+      };
+
+      @Override
+      public ODataBinder getBinder() {
+        return binder;
+      }
+    };
+    final ClientEntitySet entitySet = client.getReader().readEntitySet(
+        getClass().getResourceAsStream("Customers.json"), ContentType.JSON);
+    assertEquals(2, added.size());
+    assertEquals(added, entitySet.getEntities());
+  }
+
+  @Test
+  public void readerWithEntitySetProperties() throws Exception {
+    final String json = "{\"@odata.context\":\"http://host/service/$metadata#ESTwoPrim\","
+        + "\"@odata.metadataEtag\":\"W/\\\"1\\\"\","
+        + "\"@odata.count\":3,"
+        + "\"value\":[{\"PropertyInt16\":1,\"PropertyString\":\"First\"},"
+        + "{\"PropertyInt16\":2,\"PropertyString\":null}],"
+        + "\"@odata.nextLink\":\"ESTwoPrim?$skiptoken=2\","
+        + "\"@com.example.note\":\"text\"}";
+    final ClientEntitySet entitySet = getClient().getReader().readEntitySet(
+        new ByteArrayInputStream(json.getBytes("UTF-8")), ContentType.JSON);
+    assertEquals(2, entitySet.getEntities().size());
+    assertEquals(Integer.valueOf(3), entitySet.getCount());
+    assertEquals(URI.create("http://host/service/ESTwoPrim?$skiptoken=2"), entitySet.getNext());
+    assertEquals("First",
+        entitySet.getEntities().get(0).getProperty("PropertyString").getPrimitiveValue().toValue());
+    assertEquals(1, entitySet.getAnnotations().size());
+    assertEquals("com.example.note", entitySet.getAnnotations().get(0).getTerm());
+
+    final ResWrap<ClientEntitySet> resource = getClient().getReader().read(
+        new ByteArrayInputStream(json.getBytes("UTF-8")), ContentType.JSON.toContentTypeString(),
+        ClientEntitySet.class);
+    assertEquals("W/\"1\"", resource.getMetadataETag());
+    assertEquals(entitySet.getEntities(), resource.getPayload().getEntities());
+    assertEquals(entitySet.getCount(), resource.getPayload().getCount());
+    assertEquals(entitySet.getNext(), resource.getPayload().getNext());
+  }
 }
@@ -18,14 +18,40 @@
  */
 package org.apache.olingo.commons.api.data;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ComplexValue extends Linked {
 
-  private final List<Property> value = new ArrayList<Property>();
+  private final NamedList<Property> value = new NamedList.Properties();
 
   public List<Property> getValue() {
     return value;
   }
+
+  /**
+   * Gets the first property with the given name.
+   *
+   * @param name property name
+   * @return property, or <tt>null</tt> if there is no property with this name
+   */
+  public Property getProperty(final String name) {
+    return value.get(name);
+  }
+
+  /**
+   * Gets the property with the given ordinal of the property index this value is bound to.
+   *
+   * @param ordinal property ordinal, see {@link PropertyIndex#getPropertyOrdinal(String)}
+   * @return property, or <tt>null</tt> if this value has no value for it
+   * @throws IllegalStateException if no property index has been set
+   */
+  public Property getProperty(final int ordinal) {
+    return value.getByOrdinal(ordinal);
+  }
+
+  @Override
+  public void setPropertyIndex(final PropertyIndex propertyIndex) {
+    super.setPropertyIndex(propertyIndex);
+    value.setIndex(propertyIndex);
+  }
 }
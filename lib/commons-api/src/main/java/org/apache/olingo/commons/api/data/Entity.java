@@ -33,7 +33,7 @@ public class Entity extends Linked {
   private final List<Link> mediaEditLinks = new ArrayList<Link>();
   private final List<Operation> operations = new ArrayList<Operation>();
 
-  private final List<Property> properties = new ArrayList<Property>();
+  private final NamedList<Property> properties = new NamedList.Properties();
 
   private URI mediaContentSource;
   private String mediaContentType;
@@ -145,22 +145,30 @@ public class Entity extends Linked {
   }
 
   /**
-   * Gets property with given name.
+   * Gets the first property with the given name.
    *
    * @param name property name
-   * @return property with given name if found, null otherwise
+   * @return property, or <tt>null</tt> if there is no property with this name
    */
   public Property getProperty(final String name) {
-    Property result = null;
+    return properties.get(name);
+  }
 
-    for (Property property : properties) {
-      if (name.equals(property.getName())) {
-        result = property;
-        break;
-      }
-    }
+  /**
+   * Gets the property with the given ordinal of the property index this entity is bound to.
+   *
+   * @param ordinal property ordinal, see {@link PropertyIndex#getPropertyOrdinal(String)}
+   * @return property, or <tt>null</tt> if this entity has no value for it
+   * @throws IllegalStateException if no property index has been set
+   */
+  public Property getProperty(final int ordinal) {
+    return properties.getByOrdinal(ordinal);
+  }
 
-    return result;
+  @Override
+  public void setPropertyIndex(final PropertyIndex propertyIndex) {
+    super.setPropertyIndex(propertyIndex);
+    properties.setIndex(propertyIndex);
   }
 
   /**
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.net.URI;
+import java.util.Iterator;
+
+/**
+ * Source of the entities of an entity collection which are read one after another,
+ * e.g., from a database cursor, so that the collection never has to be held in memory completely.
+ * <br />
+ * Count and next link are requested by the serializer only after the last entity has been read,
+ * unless the count is already available before the first entity is read.
+ */
+public abstract class EntityIterator implements Iterator<Entity> {
+
+  /**
+   * Gets the number of entities in the complete entity set - if it was requested.
+   * Implementations may return <code>null</code> until all entities have been read.
+   *
+   * @return number of entities or <code>null</code>
+   */
+  public Integer getCount() {
+    return null;
+  }
+
+  /**
+   * Gets the next link - if server-side paging applies.
+   *
+   * @return next link or <code>null</code>
+   */
+  public URI getNext() {
+    return null;
+  }
+
+  /**
+   * Not supported.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Entities cannot be removed from an entity iterator.");
+  }
+}
@@ -24,7 +24,7 @@ import java.util.List;
 public abstract class Linked extends AbstractODataObject {
 
   private final List<Link> associationLinks = new ArrayList<Link>();
-  private final List<Link> navigationLinks = new ArrayList<Link>();
+  private final NamedList<Link> navigationLinks = new NamedList.Links();
   private final List<Link> bindingLinks = new ArrayList<Link>();
 
   protected Link getOneByTitle(final String name, final List<Link> links) {
@@ -65,7 +65,7 @@ public abstract class Linked extends AbstractODataObject {
    * @return navigation link with given name, if available, otherwise <tt>null</tt>
    */
   public Link getNavigationLink(final String name) {
-    return getOneByTitle(name, navigationLinks);
+    return navigationLinks.get(name);
   }
 
   /**
@@ -77,6 +77,25 @@ public abstract class Linked extends AbstractODataObject {
     return navigationLinks;
   }
 
+  /**
+   * Binds this object to the given property index, so that navigation links
+   * are found by their title without scanning all links.
+   *
+   * @param propertyIndex the property index of the type of this object, or <tt>null</tt> to remove the binding
+   */
+  public void setPropertyIndex(final PropertyIndex propertyIndex) {
+    navigationLinks.setIndex(propertyIndex);
+  }
+
+  /**
+   * Gets the property index this object is bound to.
+   *
+   * @return property index or <tt>null</tt>
+   */
+  public PropertyIndex getPropertyIndex() {
+    return navigationLinks.getIndex();
+  }
+
   /**
    * Gets binding link with given name, if available, otherwise <tt>null</tt>.
    * @param name candidate link name
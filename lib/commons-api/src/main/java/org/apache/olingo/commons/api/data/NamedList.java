@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * List of named elements which can be bound to a {@link PropertyIndex}.
+ * <br/>While bound, the list keeps one slot per ordinal pointing to the element with that name,
+ * so that look-ups by name or ordinal need not scan the list.
+ * Elements with names unknown to the index, and elements renamed after they have been added,
+ * are still found by scanning.
+ * @param <E> the element type
+ */
+abstract class NamedList<E> extends AbstractList<E> implements RandomAccess {
+
+  private final List<E> elements = new ArrayList<E>();
+  private final boolean lastWins;
+  private PropertyIndex index;
+  private Object[] slots;
+  private boolean slotsStale;
+
+  /**
+   * @param lastWins whether the last of several elements with the same name is the one found by name
+   *                 (otherwise it is the first one)
+   */
+  protected NamedList(final boolean lastWins) {
+    this.lastWins = lastWins;
+  }
+
+  protected abstract String getName(E element);
+
+  protected abstract int getOrdinal(PropertyIndex index, String name);
+
+  protected abstract String getName(PropertyIndex index, int ordinal);
+
+  protected abstract int getCount(PropertyIndex index);
+
+  PropertyIndex getIndex() {
+    return index;
+  }
+
+  void setIndex(final PropertyIndex index) {
+    this.index = index;
+    slots = index == null ? null : new Object[getCount(index)];
+    slotsStale = index != null;
+  }
+
+  /** Returns the element with the given name or <code>null</code>. */
+  E get(final String name) {
+    if (index != null) {
+      final int ordinal = getOrdinal(index, name);
+      if (ordinal >= 0) {
+        final E element = getSlot(ordinal);
+        if (element != null && name.equals(getName(element))) {
+          return element;
+        }
+      }
+    }
+    return find(name);
+  }
+
+  /**
+   * Returns the element with the name of the given ordinal or <code>null</code>.
+   * @throws IllegalStateException if the list is not bound to a property index
+   */
+  E getByOrdinal(final int ordinal) {
+    if (index == null) {
+      throw new IllegalStateException("No property index has been set.");
+    }
+    final E element = getSlot(ordinal);
+    final String name = getName(index, ordinal);
+    return element != null && name.equals(getName(element)) ? element : find(name);
+  }
+
+  @SuppressWarnings("unchecked")
+  private E getSlot(final int ordinal) {
+    if (slotsStale) {
+      fillSlots();
+    }
+    return (E) slots[ordinal];
+  }
+
+  private void fillSlots() {
+    // Concurrent readers of an unchanged list see either the old or the complete new slots.
+    Object[] newSlots = new Object[slots.length];
+    for (final E element : elements) {
+      putSlot(newSlots, element);
+    }
+    slots = newSlots;
+    slotsStale = false;
+  }
+
+  private void putSlot(final Object[] target, final E element) {
+    final String name = element == null ? null : getName(element);
+    final int ordinal = name == null ? -1 : getOrdinal(index, name);
+    if (ordinal >= 0 && (lastWins || target[ordinal] == null)) {
+      target[ordinal] = element;
+    }
+  }
+
+  private E find(final String name) {
+    E result = null;
+    for (final E element : elements) {
+      if (element != null && name.equals(getName(element))) {
+        result = element;
+        if (!lastWins) {
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public E get(final int position) {
+    return elements.get(position);
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public void add(final int position, final E element) {
+    if (index != null && !slotsStale) {
+      if (position == elements.size()) {
+        putSlot(slots, element);
+      } else {
+        slotsStale = true;
+      }
+    }
+    elements.add(position, element);
+    modCount++;
+  }
+
+  @Override
+  public E set(final int position, final E element) {
+    slotsStale = index != null;
+    return elements.set(position, element);
+  }
+
+  @Override
+  public E remove(final int position) {
+    slotsStale = index != null;
+    modCount++;
+    return elements.remove(position);
+  }
+
+  @Override
+  public void clear() {
+    elements.clear();
+    modCount++;
+    slotsStale = index != null;
+  }
+
+  /** List of properties; the first property with a name is the one found by name. */
+  static final class Properties extends NamedList<Property> {
+
+    Properties() {
+      super(false);
+    }
+
+    @Override
+    protected String getName(final Property element) {
+      return element.getName();
+    }
+
+    @Override
+    protected int getOrdinal(final PropertyIndex index, final String name) {
+      return index.getPropertyOrdinal(name);
+    }
+
+    @Override
+    protected String getName(final PropertyIndex index, final int ordinal) {
+      return index.getPropertyName(ordinal);
+    }
+
+    @Override
+    protected int getCount(final PropertyIndex index) {
+      return index.getPropertyCount();
+    }
+  }
+
+  /** List of links, indexed by title; the last link with a title is the one found by title. */
+  static final class Links extends NamedList<Link> {
+
+    Links() {
+      super(true);
+    }
+
+    @Override
+    protected String getName(final Link element) {
+      return element.getTitle();
+    }
+
+    @Override
+    protected int getOrdinal(final PropertyIndex index, final String name) {
+      return index.getNavigationPropertyOrdinal(name);
+    }
+
+    @Override
+    protected String getName(final PropertyIndex index, final int ordinal) {
+      return index.getNavigationPropertyName(ordinal);
+    }
+
+    @Override
+    protected int getCount(final PropertyIndex index) {
+      return index.getNavigationPropertyCount();
+    }
+  }
+}
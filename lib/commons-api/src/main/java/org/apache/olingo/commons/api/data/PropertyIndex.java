@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+
+/**
+ * Assigns ordinals to the structural and navigation properties of a structured type.
+ * <br/>An {@link Entity} or {@link ComplexValue} bound to a property index finds its properties
+ * and navigation links by ordinal or by a single hash lookup instead of scanning its lists.
+ * Instances are immutable and shared by all values of the same type.
+ */
+public final class PropertyIndex {
+
+  private static final Map<EdmStructuredType, PropertyIndex> INDEXES =
+      Collections.synchronizedMap(new WeakHashMap<EdmStructuredType, PropertyIndex>());
+
+  private final String[] propertyNames;
+  private final Map<String, Integer> propertyOrdinals;
+  private final String[] navigationPropertyNames;
+  private final Map<String, Integer> navigationPropertyOrdinals;
+
+  /**
+   * Creates a property index.
+   * @param propertyNames           names of the structural properties in the order of their ordinals
+   * @param navigationPropertyNames names of the navigation properties in the order of their ordinals
+   */
+  public PropertyIndex(final List<String> propertyNames, final List<String> navigationPropertyNames) {
+    this.propertyNames = propertyNames.toArray(new String[propertyNames.size()]);
+    propertyOrdinals = createOrdinals(this.propertyNames);
+    this.navigationPropertyNames = navigationPropertyNames.toArray(new String[navigationPropertyNames.size()]);
+    navigationPropertyOrdinals = createOrdinals(this.navigationPropertyNames);
+  }
+
+  /**
+   * Returns the shared property index of the given type.
+   * The ordinals follow the order of {@link EdmStructuredType#getPropertyNames()}
+   * and {@link EdmStructuredType#getNavigationPropertyNames()}.
+   * @param type structured type
+   * @return the property index
+   */
+  public static PropertyIndex of(final EdmStructuredType type) {
+    PropertyIndex index = INDEXES.get(type);
+    if (index == null) {
+      index = new PropertyIndex(type.getPropertyNames(), type.getNavigationPropertyNames());
+      INDEXES.put(type, index);
+    }
+    return index;
+  }
+
+  private static Map<String, Integer> createOrdinals(final String[] names) {
+    Map<String, Integer> ordinals = new HashMap<String, Integer>();
+    for (int ordinal = names.length - 1; ordinal >= 0; ordinal--) {
+      ordinals.put(names[ordinal], ordinal);
+    }
+    return ordinals;
+  }
+
+  /** Returns the number of structural properties. */
+  public int getPropertyCount() {
+    return propertyNames.length;
+  }
+
+  /**
+   * Returns the name of the structural property with the given ordinal.
+   * @throws IndexOutOfBoundsException if there is no property with this ordinal
+   */
+  public String getPropertyName(final int ordinal) {
+    return propertyNames[ordinal];
+  }
+
+  /**
+   * Returns the ordinal of the structural property with the given name
+   * or <code>-1</code> if the type has no such property.
+   */
+  public int getPropertyOrdinal(final String name) {
+    final Integer ordinal = propertyOrdinals.get(name);
+    return ordinal == null ? -1 : ordinal;
+  }
+
+  /** Returns the number of navigation properties. */
+  public int getNavigationPropertyCount() {
+    return navigationPropertyNames.length;
+  }
+
+  /**
+   * Returns the name of the navigation property with the given ordinal.
+   * @throws IndexOutOfBoundsException if there is no navigation property with this ordinal
+   */
+  public String getNavigationPropertyName(final int ordinal) {
+    return navigationPropertyNames[ordinal];
+  }
+
+  /**
+   * Returns the ordinal of the navigation property with the given name
+   * or <code>-1</code> if the type has no such navigation property.
+   */
+  public int getNavigationPropertyOrdinal(final String name) {
+    final Integer ordinal = navigationPropertyOrdinals.get(name);
+    return ordinal == null ? -1 : ordinal;
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class EntityTest {
+
+  private static final PropertyIndex INDEX =
+      new PropertyIndex(Arrays.asList("A", "B", "C"), Collections.singletonList("Nav"));
+
+  @Test
+  public void propertiesByNameAndOrdinal() {
+    final Property a = new Property(null, "A");
+    final Property c = new Property(null, "C");
+    final Property x = new Property(null, "X");
+    Entity entity = new Entity().addProperty(c).addProperty(x).addProperty(a);
+    entity.setPropertyIndex(INDEX);
+
+    assertSame(a, entity.getProperty("A"));
+    assertSame(a, entity.getProperty(0));
+    assertNull(entity.getProperty(1));
+    assertSame(c, entity.getProperty(INDEX.getPropertyOrdinal("C")));
+    assertSame(x, entity.getProperty("X"));
+    assertEquals(Arrays.asList(c, x, a), entity.getProperties());
+  }
+
+  @Test
+  public void propertiesAfterChanges() {
+    final Property a1 = new Property(null, "A");
+    final Property a2 = new Property(null, "A");
+    final Property b = new Property(null, "B");
+    Entity entity = new Entity();
+    entity.setPropertyIndex(INDEX);
+    entity.addProperty(a1).addProperty(a2).addProperty(b);
+    assertSame(a1, entity.getProperty(0));
+
+    entity.getProperties().remove(a1);
+    assertSame(a2, entity.getProperty("A"));
+    entity.getProperties().set(0, b);
+    assertNull(entity.getProperty(0));
+
+    b.setName("C");
+    assertNull(entity.getProperty("B"));
+    assertSame(b, entity.getProperty("C"));
+
+    entity.getProperties().clear();
+    assertNull(entity.getProperty(2));
+  }
+
+  @Test
+  public void propertiesWithoutIndex() {
+    final Property a = new Property(null, "A");
+    Entity entity = new Entity().addProperty(a).addProperty(new Property(null, "A"));
+    assertSame(a, entity.getProperty("A"));
+    assertNull(entity.getPropertyIndex());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void ordinalWithoutIndex() {
+    new Entity().getProperty(0);
+  }
+
+  @Test
+  public void navigationLinks() {
+    Link first = new Link();
+    first.setTitle("Nav");
+    Link last = new Link();
+    last.setTitle("Nav");
+    Entity entity = new Entity();
+    entity.setPropertyIndex(INDEX);
+    entity.getNavigationLinks().add(first);
+    entity.getNavigationLinks().add(last);
+    assertSame(last, entity.getNavigationLink("Nav"));
+    entity.getNavigationLinks().remove(1);
+    assertSame(first, entity.getNavigationLink("Nav"));
+  }
+
+  @Test
+  public void complexValue() {
+    final Property b = new Property(null, "B");
+    ComplexValue value = new ComplexValue();
+    value.getValue().add(b);
+    value.setPropertyIndex(INDEX);
+    assertSame(b, value.getProperty(1));
+    assertSame(b, value.getProperty("B"));
+    assertNull(value.getProperty("A"));
+  }
+}
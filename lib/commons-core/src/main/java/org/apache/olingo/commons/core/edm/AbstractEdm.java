@@ -20,9 +20,11 @@ package org.apache.olingo.commons.core.edm;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmAction;
@@ -40,51 +42,54 @@ import org.apache.olingo.commons.api.edm.FullQualifiedName;
 
 public abstract class AbstractEdm implements Edm {
 
-  protected Map<String, EdmSchema> schemas;
+  protected volatile Map<String, EdmSchema> schemas;
 
-  protected List<EdmSchema> schemaList;
+  protected volatile List<EdmSchema> schemaList;
 
   private final Map<FullQualifiedName, EdmEntityContainer> entityContainers =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityContainer>());
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityContainer>();
 
   private final Map<FullQualifiedName, EdmEnumType> enumTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEnumType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmEnumType>();
 
   private final Map<FullQualifiedName, EdmTypeDefinition> typeDefinitions =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmTypeDefinition>());
+      new ConcurrentHashMap<FullQualifiedName, EdmTypeDefinition>();
 
   private final Map<FullQualifiedName, EdmEntityType> entityTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityType>();
 
   private final Map<FullQualifiedName, EdmComplexType> complexTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmComplexType>());
+      new ConcurrentHashMap<FullQualifiedName, EdmComplexType>();
 
   private final Map<FullQualifiedName, EdmAction> unboundActions =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmAction>());
+      new ConcurrentHashMap<FullQualifiedName, EdmAction>();
 
-  private final Map<FullQualifiedName, List<EdmFunction>> unboundFunctionsByName =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<EdmFunction>>());
+  private final ConcurrentMap<FullQualifiedName, List<EdmFunction>> unboundFunctionsByName =
+      new ConcurrentHashMap<FullQualifiedName, List<EdmFunction>>();
 
   private final Map<FunctionMapKey, EdmFunction> unboundFunctionsByKey =
-      Collections.synchronizedMap(new HashMap<FunctionMapKey, EdmFunction>());
+      new ConcurrentHashMap<FunctionMapKey, EdmFunction>();
 
   private final Map<ActionMapKey, EdmAction> boundActions =
-      Collections.synchronizedMap(new HashMap<ActionMapKey, EdmAction>());
+      new ConcurrentHashMap<ActionMapKey, EdmAction>();
 
   private final Map<FunctionMapKey, EdmFunction> boundFunctions =
-      Collections.synchronizedMap(new HashMap<FunctionMapKey, EdmFunction>());
+      new ConcurrentHashMap<FunctionMapKey, EdmFunction>();
 
   private final Map<FullQualifiedName, EdmTerm> terms =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmTerm>());
+      new ConcurrentHashMap<FullQualifiedName, EdmTerm>();
 
   private final Map<FullQualifiedName, EdmAnnotations> annotationGroups =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmAnnotations>());
+      new ConcurrentHashMap<FullQualifiedName, EdmAnnotations>();
 
   private final Map<FullQualifiedName, List<EdmAnnotation>> annotations =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<EdmAnnotation>>());
+      new ConcurrentHashMap<FullQualifiedName, List<EdmAnnotation>>();
 
-  private Map<String, String> aliasToNamespaceInfo = Collections.synchronizedMap(new HashMap<String, String>());
-  private boolean aliasToNamespaceInfoCreated = false;
+  /** Cached entity container for lookups without a name; concurrent maps do not allow <code>null</code> keys. */
+  private volatile EdmEntityContainer defaultEntityContainer;
+
+  private volatile Map<String, String> aliasToNamespaceInfo = new ConcurrentHashMap<String, String>();
+  private volatile boolean aliasToNamespaceInfoCreated = false;
 
   @Override
   public List<EdmSchema> getSchemas() {
@@ -102,23 +107,26 @@ public abstract class AbstractEdm implements Edm {
 
     EdmSchema schema = schemas.get(namespace);
     if (schema == null) {
-      if (!aliasToNamespaceInfoCreated) {
-        aliasToNamespaceInfo = createAliasToNamespaceInfo();
-      }
-      schema = schemas.get(aliasToNamespaceInfo.get(namespace));
+      final String resolved = getCached(getAliasToNamespaceInfo(), namespace);
+      schema = resolved == null ? null : schemas.get(resolved);
     }
 
     return schema;
   }
 
-  private void initSchemas() {
-    schemas = createSchemas();
+  /** Creates the schemas once; creating them also fills the caches of this class. */
+  private synchronized void initSchemas() {
+    if (schemaList != null) {
+      return;
+    }
+    Map<String, EdmSchema> createdSchemas = createSchemas();
     aliasToNamespaceInfoCreated = true;
 
-    if (schemas == null) {
-      schemas = Collections.emptyMap();
+    if (createdSchemas == null) {
+      createdSchemas = Collections.emptyMap();
     }
-    schemaList = Collections.unmodifiableList(new ArrayList<EdmSchema>(schemas.values()));
+    schemas = createdSchemas;
+    schemaList = Collections.unmodifiableList(new ArrayList<EdmSchema>(createdSchemas.values()));
   }
 
   @Override
@@ -129,11 +137,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityContainer getEntityContainer(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityContainer container = entityContainers.get(fqn);
+    EdmEntityContainer container = fqn == null ? defaultEntityContainer : entityContainers.get(fqn);
     if (container == null) {
       container = createEntityContainer(fqn);
       if (container != null) {
-        entityContainers.put(fqn, container);
+        cacheEntityContainer(fqn, container);
         if (fqn == null) {
           entityContainers.put(new FullQualifiedName(container.getNamespace(), container.getName()), container);
         }
@@ -145,11 +153,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEnumType getEnumType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEnumType enumType = enumTypes.get(fqn);
+    EdmEnumType enumType = getCached(enumTypes, fqn);
     if (enumType == null) {
       enumType = createEnumType(fqn);
       if (enumType != null) {
-        enumTypes.put(fqn, enumType);
+        putCached(enumTypes, fqn, enumType);
       }
     }
     return enumType;
@@ -158,11 +166,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTypeDefinition getTypeDefinition(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmTypeDefinition typeDefinition = typeDefinitions.get(fqn);
+    EdmTypeDefinition typeDefinition = getCached(typeDefinitions, fqn);
     if (typeDefinition == null) {
       typeDefinition = createTypeDefinition(fqn);
       if (typeDefinition != null) {
-        typeDefinitions.put(fqn, typeDefinition);
+        putCached(typeDefinitions, fqn, typeDefinition);
       }
     }
     return typeDefinition;
@@ -171,11 +179,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityType getEntityType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityType entityType = entityTypes.get(fqn);
+    EdmEntityType entityType = getCached(entityTypes, fqn);
     if (entityType == null) {
       entityType = createEntityType(fqn);
       if (entityType != null) {
-        entityTypes.put(fqn, entityType);
+        putCached(entityTypes, fqn, entityType);
       }
     }
     return entityType;
@@ -184,11 +192,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmComplexType getComplexType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmComplexType complexType = complexTypes.get(fqn);
+    EdmComplexType complexType = getCached(complexTypes, fqn);
     if (complexType == null) {
       complexType = createComplexType(fqn);
       if (complexType != null) {
-        complexTypes.put(fqn, complexType);
+        putCached(complexTypes, fqn, complexType);
       }
     }
     return complexType;
@@ -196,11 +204,11 @@ public abstract class AbstractEdm implements Edm {
 
   @Override
   public EdmAction getUnboundAction(final FullQualifiedName actionName) {
-    EdmAction action = unboundActions.get(actionName);
+    EdmAction action = getCached(unboundActions, actionName);
     if (action == null) {
       action = createUnboundAction(resolvePossibleAlias(actionName));
       if (action != null) {
-        unboundActions.put(actionName, action);
+        putCached(unboundActions, actionName, action);
       }
     }
 
@@ -229,11 +237,11 @@ public abstract class AbstractEdm implements Edm {
   public List<EdmFunction> getUnboundFunctions(final FullQualifiedName functionName) {
     final FullQualifiedName functionFqn = resolvePossibleAlias(functionName);
 
-    List<EdmFunction> functions = unboundFunctionsByName.get(functionFqn);
+    List<EdmFunction> functions = getCached(unboundFunctionsByName, functionFqn);
     if (functions == null) {
       functions = createUnboundFunctions(functionFqn);
       if (functions != null) {
-        unboundFunctionsByName.put(functionFqn, functions);
+        putCached(unboundFunctionsByName, functionFqn, functions);
 
         for (EdmFunction unbound : functions) {
           final FunctionMapKey key = new FunctionMapKey(
@@ -289,11 +297,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTerm getTerm(final FullQualifiedName termName) {
     final FullQualifiedName fqn = resolvePossibleAlias(termName);
-    EdmTerm term = terms.get(fqn);
+    EdmTerm term = getCached(terms, fqn);
     if (term == null) {
       term = createTerm(fqn);
       if (term != null) {
-        terms.put(fqn, term);
+        putCached(terms, fqn, term);
       }
     }
     return term;
@@ -301,11 +309,11 @@ public abstract class AbstractEdm implements Edm {
 
   @Override
   public EdmAnnotations getAnnotationGroup(final FullQualifiedName targetName) {
-    EdmAnnotations _annotations = annotationGroups.get(targetName);
+    EdmAnnotations _annotations = getCached(annotationGroups, targetName);
     if (_annotations == null) {
       _annotations = createAnnotationGroup(targetName);
       if (_annotations != null) {
-        annotationGroups.put(targetName, _annotations);
+        putCached(annotationGroups, targetName, _annotations);
       }
     }
     return _annotations;
@@ -314,11 +322,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public List<EdmAnnotation> getAnnotations(final FullQualifiedName annotatableName) {
     final FullQualifiedName fqn = resolvePossibleAlias(annotatableName);
-    List<EdmAnnotation> _annotations = annotations.get(fqn);
+    List<EdmAnnotation> _annotations = getCached(annotations, fqn);
     if (_annotations == null) {
       _annotations = createAnnotations(fqn);
       if (_annotations != null) {
-        annotations.put(fqn, _annotations);
+        putCached(annotations, fqn, _annotations);
       }
     }
     return _annotations;
@@ -338,13 +346,40 @@ public abstract class AbstractEdm implements Edm {
     return result;
   }
 
-  private FullQualifiedName resolvePossibleAlias(final FullQualifiedName namespaceOrAliasFQN) {
+  /**
+   * Returns the alias information. It is requested from the provider only once,
+   * unless it has already been filled while creating the schemas.
+   */
+  private Map<String, String> getAliasToNamespaceInfo() {
     if (!aliasToNamespaceInfoCreated) {
-      aliasToNamespaceInfo = createAliasToNamespaceInfo();
+      Map<String, String> info = new ConcurrentHashMap<String, String>();
+      final Map<String, String> created = createAliasToNamespaceInfo();
+      if (created != null) {
+        for (final Map.Entry<String, String> entry : created.entrySet()) {
+          putCached(info, entry.getKey(), entry.getValue());
+        }
+      }
+      aliasToNamespaceInfo = info;
+      aliasToNamespaceInfoCreated = true;
     }
+    return aliasToNamespaceInfo;
+  }
+
+  private static <K, V> V getCached(final Map<K, V> cache, final K key) {
+    return key == null ? null : cache.get(key);
+  }
+
+  private static <K, V> void putCached(final Map<K, V> cache, final K key, final V value) {
+    if (key != null && value != null) {
+      cache.put(key, value);
+    }
+  }
+
+  private FullQualifiedName resolvePossibleAlias(final FullQualifiedName namespaceOrAliasFQN) {
+    final Map<String, String> aliasInfo = getAliasToNamespaceInfo();
     FullQualifiedName finalFQN = null;
     if (namespaceOrAliasFQN != null) {
-      final String namespace = aliasToNamespaceInfo.get(namespaceOrAliasFQN.getNamespace());
+      final String namespace = getCached(aliasInfo, namespaceOrAliasFQN.getNamespace());
       // If not contained in info it must be a namespace
       if (namespace == null) {
         finalFQN = namespaceOrAliasFQN;
@@ -360,37 +395,41 @@ public abstract class AbstractEdm implements Edm {
   protected abstract Map<String, String> createAliasToNamespaceInfo();
 
   public void cacheAliasNamespaceInfo(final String alias, final String namespace) {
-    aliasToNamespaceInfo.put(alias, namespace);
+    putCached(aliasToNamespaceInfo, alias, namespace);
   }
 
   protected abstract EdmEntityContainer createEntityContainer(FullQualifiedName containerName);
 
   public void cacheEntityContainer(final FullQualifiedName containerFQN, final EdmEntityContainer container) {
-    entityContainers.put(containerFQN, container);
+    if (containerFQN == null) {
+      defaultEntityContainer = container;
+    } else {
+      entityContainers.put(containerFQN, container);
+    }
   }
 
   protected abstract EdmEnumType createEnumType(FullQualifiedName enumName);
 
   public void cacheEnumType(final FullQualifiedName enumName, final EdmEnumType enumType) {
-    enumTypes.put(enumName, enumType);
+    putCached(enumTypes, enumName, enumType);
   }
 
   protected abstract EdmTypeDefinition createTypeDefinition(FullQualifiedName typeDefinitionName);
 
   public void cacheTypeDefinition(final FullQualifiedName typeDefName, final EdmTypeDefinition typeDef) {
-    typeDefinitions.put(typeDefName, typeDef);
+    putCached(typeDefinitions, typeDefName, typeDef);
   }
 
   protected abstract EdmEntityType createEntityType(FullQualifiedName entityTypeName);
 
   public void cacheEntityType(final FullQualifiedName entityTypeName, final EdmEntityType entityType) {
-    entityTypes.put(entityTypeName, entityType);
+    putCached(entityTypes, entityTypeName, entityType);
   }
 
   protected abstract EdmComplexType createComplexType(FullQualifiedName complexTypeName);
 
   public void cacheComplexType(final FullQualifiedName compelxTypeName, final EdmComplexType complexType) {
-    complexTypes.put(compelxTypeName, complexType);
+    putCached(complexTypes, compelxTypeName, complexType);
   }
 
   protected abstract EdmAction createUnboundAction(FullQualifiedName actionName);
@@ -408,18 +447,27 @@ public abstract class AbstractEdm implements Edm {
       List<String> parameterNames);
 
   public void cacheFunction(final FullQualifiedName functionName, final EdmFunction function) {
-    final FunctionMapKey key = new FunctionMapKey(functionName,
-        function.getBindingParameterTypeFqn(), function.isBindingParameterTypeCollection(),
-        function.getParameterNames());
-
     if (function.isBound()) {
+      // Lookups name only the non-binding parameters, so the binding parameter is not part of the key.
+      final List<String> parameterNames = function.getParameterNames();
+      final FunctionMapKey key = new FunctionMapKey(functionName,
+          function.getBindingParameterTypeFqn(), function.isBindingParameterTypeCollection(),
+          parameterNames.subList(1, parameterNames.size()));
       boundFunctions.put(key, function);
     } else {
-      if (!unboundFunctionsByName.containsKey(functionName)) {
-        unboundFunctionsByName.put(functionName, new ArrayList<EdmFunction>());
+      List<EdmFunction> functions = unboundFunctionsByName.get(functionName);
+      if (functions == null) {
+        final List<EdmFunction> newFunctions = new CopyOnWriteArrayList<EdmFunction>();
+        functions = unboundFunctionsByName.putIfAbsent(functionName, newFunctions);
+        if (functions == null) {
+          functions = newFunctions;
+        }
       }
-      unboundFunctionsByName.get(functionName).add(function);
+      functions.add(function);
 
+      final FunctionMapKey key = new FunctionMapKey(functionName,
+          function.getBindingParameterTypeFqn(), function.isBindingParameterTypeCollection(),
+          function.getParameterNames());
       unboundFunctionsByKey.put(key, function);
     }
   }
@@ -430,21 +478,21 @@ public abstract class AbstractEdm implements Edm {
           action.getBindingParameterTypeFqn(), action.isBindingParameterTypeCollection());
       boundActions.put(key, action);
     } else {
-      unboundActions.put(actionName, action);
+      putCached(unboundActions, actionName, action);
     }
   }
 
   protected abstract EdmTerm createTerm(FullQualifiedName termName);
 
   public void cacheTerm(final FullQualifiedName termName, final EdmTerm term) {
-    terms.put(termName, term);
+    putCached(terms, termName, term);
   }
 
   protected abstract EdmAnnotations createAnnotationGroup(FullQualifiedName targetName);
 
   public void cacheAnnotationGroup(final FullQualifiedName annotationsGroupName,
       final EdmAnnotations annotationsGroup) {
-    annotationGroups.put(annotationsGroupName, annotationsGroup);
+    putCached(annotationGroups, annotationsGroupName, annotationsGroup);
   }
 
   protected abstract List<EdmAnnotation> createAnnotations(FullQualifiedName annotatedName);
@@ -20,9 +20,9 @@ package org.apache.olingo.commons.core.edm;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.olingo.commons.api.ODataException;
 import org.apache.olingo.commons.api.edm.Edm;
@@ -50,17 +50,13 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
   private final FullQualifiedName parentContainerName;
 
   private List<EdmSingleton> singletons;
-  private final Map<String, EdmSingleton> singletonCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmSingleton>());
+  private final Map<String, EdmSingleton> singletonCache = new ConcurrentHashMap<String, EdmSingleton>();
   private List<EdmEntitySet> entitySets;
-  private final Map<String, EdmEntitySet> entitySetCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmEntitySet>());
+  private final Map<String, EdmEntitySet> entitySetCache = new ConcurrentHashMap<String, EdmEntitySet>();
   private List<EdmActionImport> actionImports;
-  private final Map<String, EdmActionImport> actionImportCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmActionImport>());
+  private final Map<String, EdmActionImport> actionImportCache = new ConcurrentHashMap<String, EdmActionImport>();
   private List<EdmFunctionImport> functionImports;
-  private final Map<String, EdmFunctionImport> functionImportCache = Collections.synchronizedMap(
-      new LinkedHashMap<String, EdmFunctionImport>());
+  private final Map<String, EdmFunctionImport> functionImportCache = new ConcurrentHashMap<String, EdmFunctionImport>();
 
   public EdmEntityContainerImpl(final Edm edm, final CsdlEdmProvider provider,
       final CsdlEntityContainerInfo entityContainerInfo) {
@@ -91,10 +87,10 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmSingleton getSingleton(final String singletonName) {
-    EdmSingleton singleton = singletonCache.get(singletonName);
+    EdmSingleton singleton = singletonName == null ? null : singletonCache.get(singletonName);
     if (singleton == null) {
       singleton = createSingleton(singletonName);
-      if (singleton != null) {
+      if (singleton != null && singletonName != null) {
         singletonCache.put(singletonName, singleton);
       }
     }
@@ -103,10 +99,10 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmEntitySet getEntitySet(final String entitySetName) {
-    EdmEntitySet entitySet = entitySetCache.get(entitySetName);
+    EdmEntitySet entitySet = entitySetName == null ? null : entitySetCache.get(entitySetName);
     if (entitySet == null) {
       entitySet = createEntitySet(entitySetName);
-      if (entitySet != null) {
+      if (entitySet != null && entitySetName != null) {
         entitySetCache.put(entitySetName, entitySet);
       }
     }
@@ -115,10 +111,10 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmActionImport getActionImport(final String actionImportName) {
-    EdmActionImport actionImport = actionImportCache.get(actionImportName);
+    EdmActionImport actionImport = actionImportName == null ? null : actionImportCache.get(actionImportName);
     if (actionImport == null) {
       actionImport = createActionImport(actionImportName);
-      if (actionImport != null) {
+      if (actionImport != null && actionImportName != null) {
         actionImportCache.put(actionImportName, actionImport);
       }
     }
@@ -127,10 +123,10 @@ public class EdmEntityContainerImpl extends AbstractEdmNamed implements EdmEntit
 
   @Override
   public EdmFunctionImport getFunctionImport(final String functionImportName) {
-    EdmFunctionImport functionImport = functionImportCache.get(functionImportName);
+    EdmFunctionImport functionImport = functionImportName == null ? null : functionImportCache.get(functionImportName);
     if (functionImport == null) {
       functionImport = createFunctionImport(functionImportName);
-      if (functionImport != null) {
+      if (functionImport != null && functionImportName != null) {
         functionImportCache.put(functionImportName, functionImport);
       }
     }
@@ -24,18 +24,26 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.olingo.commons.api.ODataException;
 import org.apache.olingo.commons.api.edm.EdmAction;
+import org.apache.olingo.commons.api.edm.EdmActionImport;
 import org.apache.olingo.commons.api.edm.EdmAnnotation;
 import org.apache.olingo.commons.api.edm.EdmAnnotations;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmEnumType;
 import org.apache.olingo.commons.api.edm.EdmException;
 import org.apache.olingo.commons.api.edm.EdmFunction;
+import org.apache.olingo.commons.api.edm.EdmFunctionImport;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmOperation;
 import org.apache.olingo.commons.api.edm.EdmSchema;
+import org.apache.olingo.commons.api.edm.EdmSingleton;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.EdmTerm;
 import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
@@ -59,14 +67,93 @@ public class EdmProviderImpl extends AbstractEdm {
 
   private final CsdlEdmProvider provider;
   private final Map<FullQualifiedName, List<CsdlAction>> actionsMap =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<CsdlAction>>());
+      new ConcurrentHashMap<FullQualifiedName, List<CsdlAction>>();
   private final Map<FullQualifiedName, List<CsdlFunction>> functionsMap =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<CsdlFunction>>());
+      new ConcurrentHashMap<FullQualifiedName, List<CsdlFunction>>();
 
   public EdmProviderImpl(final CsdlEdmProvider provider) {
     this.provider = provider;
   }
 
+  /**
+   * Reads the complete model from the provider and creates all schemas, types, operations,
+   * and entity-container elements, including their lazily initialized parts.
+   * <br/>Afterwards, look-ups of existing model elements are answered from the caches
+   * without calling the provider; errors in the model are reported here instead of during requests.
+   * @throws EdmException if the provider fails or the model is inconsistent
+   */
+  public void preload() {
+    for (final EdmSchema schema : getSchemas()) {
+      for (final EdmEnumType enumType : schema.getEnumTypes()) {
+        enumType.getMemberNames();
+      }
+      for (final EdmTypeDefinition typeDefinition : schema.getTypeDefinitions()) {
+        typeDefinition.getUnderlyingType();
+      }
+      for (final EdmEntityType entityType : schema.getEntityTypes()) {
+        preloadStructuredType(entityType);
+        entityType.getKeyPropertyRefs();
+      }
+      for (final EdmComplexType complexType : schema.getComplexTypes()) {
+        preloadStructuredType(complexType);
+      }
+      for (final EdmAction action : schema.getActions()) {
+        preloadOperation(action);
+      }
+      for (final EdmFunction function : schema.getFunctions()) {
+        preloadOperation(function);
+      }
+      for (final EdmTerm term : schema.getTerms()) {
+        term.getType();
+      }
+      if (schema.getEntityContainer() != null) {
+        preloadEntityContainer(schema.getEntityContainer());
+      }
+    }
+    getEntityContainer();
+  }
+
+  private void preloadStructuredType(final EdmStructuredType type) {
+    type.getBaseType();
+    for (final String name : type.getPropertyNames()) {
+      type.getStructuralProperty(name).getType();
+    }
+    for (final String name : type.getNavigationPropertyNames()) {
+      final EdmNavigationProperty navigationProperty = type.getNavigationProperty(name);
+      navigationProperty.getType();
+      navigationProperty.getPartner();
+    }
+  }
+
+  private void preloadOperation(final EdmOperation operation) {
+    for (final String name : operation.getParameterNames()) {
+      operation.getParameter(name).getType();
+    }
+    if (operation.getReturnType() != null) {
+      operation.getReturnType().getType();
+    }
+    if (operation.isBound()) {
+      getEntityType(operation.getBindingParameterTypeFqn());
+    }
+  }
+
+  private void preloadEntityContainer(final EdmEntityContainer container) {
+    for (final EdmEntitySet entitySet : container.getEntitySets()) {
+      entitySet.getEntityType();
+      entitySet.getNavigationPropertyBindings();
+    }
+    for (final EdmSingleton singleton : container.getSingletons()) {
+      singleton.getEntityType();
+      singleton.getNavigationPropertyBindings();
+    }
+    for (final EdmActionImport actionImport : container.getActionImports()) {
+      actionImport.getUnboundAction();
+    }
+    for (final EdmFunctionImport functionImport : container.getFunctionImports()) {
+      functionImport.getUnboundFunctions();
+    }
+  }
+
   @Override
   public EdmEntityContainer createEntityContainer(final FullQualifiedName containerName) {
     try {
@@ -137,14 +224,9 @@ public class EdmProviderImpl extends AbstractEdm {
       final FullQualifiedName bindingParameterTypeName, final Boolean isBindingParameterCollection) {
 
     try {
-      List<CsdlAction> actions = actionsMap.get(actionName);
+      final List<CsdlAction> actions = getProviderActions(actionName);
       if (actions == null) {
-        actions = provider.getActions(actionName);
-        if (actions == null) {
-          return null;
-        } else {
-          actionsMap.put(actionName, actions);
-        }
+        return null;
       }
       // Search for bound action where binding parameter matches
       for (CsdlAction action : actions) {
@@ -171,14 +253,9 @@ public class EdmProviderImpl extends AbstractEdm {
       final List<String> parameterNames) {
 
     try {
-      List<CsdlFunction> functions = functionsMap.get(functionName);
+      final List<CsdlFunction> functions = getProviderFunctions(functionName);
       if (functions == null) {
-        functions = provider.getFunctions(functionName);
-        if (functions == null) {
-          return null;
-        } else {
-          functionsMap.put(functionName, functions);
-        }
+        return null;
       }
       final List<String> parameterNamesCopy =
           parameterNames == null ? Collections.<String> emptyList() : parameterNames;
@@ -210,6 +287,28 @@ public class EdmProviderImpl extends AbstractEdm {
     }
   }
 
+  private List<CsdlAction> getProviderActions(final FullQualifiedName actionName) throws ODataException {
+    List<CsdlAction> actions = actionName == null ? null : actionsMap.get(actionName);
+    if (actions == null) {
+      actions = provider.getActions(actionName);
+      if (actions != null && actionName != null) {
+        actionsMap.put(actionName, actions);
+      }
+    }
+    return actions;
+  }
+
+  private List<CsdlFunction> getProviderFunctions(final FullQualifiedName functionName) throws ODataException {
+    List<CsdlFunction> functions = functionName == null ? null : functionsMap.get(functionName);
+    if (functions == null) {
+      functions = provider.getFunctions(functionName);
+      if (functions != null && functionName != null) {
+        functionsMap.put(functionName, functions);
+      }
+    }
+    return functions;
+  }
+
   @Override
   protected Map<String, String> createAliasToNamespaceInfo() {
     final Map<String, String> aliasToNamespaceInfos = new HashMap<String, String>();
@@ -229,14 +328,9 @@ public class EdmProviderImpl extends AbstractEdm {
   @Override
   protected EdmAction createUnboundAction(final FullQualifiedName actionName) {
     try {
-      List<CsdlAction> actions = actionsMap.get(actionName);
+      final List<CsdlAction> actions = getProviderActions(actionName);
       if (actions == null) {
-        actions = provider.getActions(actionName);
-        if (actions == null) {
-          return null;
-        } else {
-          actionsMap.put(actionName, actions);
-        }
+        return null;
       }
       // Search for first unbound action
       for (CsdlAction action : actions) {
@@ -255,13 +349,7 @@ public class EdmProviderImpl extends AbstractEdm {
     List<EdmFunction> result = new ArrayList<EdmFunction>();
 
     try {
-      List<CsdlFunction> functions = functionsMap.get(functionName);
-      if (functions == null) {
-        functions = provider.getFunctions(functionName);
-        if (functions != null) {
-          functionsMap.put(functionName, functions);
-        }
-      }
+      final List<CsdlFunction> functions = getProviderFunctions(functionName);
       if (functions != null) {
         for (CsdlFunction function : functions) {
           if (!function.isBound()) {
@@ -279,14 +367,9 @@ public class EdmProviderImpl extends AbstractEdm {
   @Override
   protected EdmFunction createUnboundFunction(final FullQualifiedName functionName, final List<String> parameterNames) {
     try {
-      List<CsdlFunction> functions = functionsMap.get(functionName);
+      final List<CsdlFunction> functions = getProviderFunctions(functionName);
       if (functions == null) {
-        functions = provider.getFunctions(functionName);
-        if (functions == null) {
-          return null;
-        } else {
-          functionsMap.put(functionName, functions);
-        }
+        return null;
       }
 
       final List<String> parameterNamesCopy =
@@ -32,12 +32,15 @@ import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.etag.ETagHelper;
+import org.apache.olingo.server.api.filter.EntityQuery;
+import org.apache.olingo.server.api.filter.FilterCompiler;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
 import org.apache.olingo.server.api.prefer.Preferences;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 
 /**
  * Root object for serving factory tasks and support loose coupling of implementation (core) from the API.
@@ -92,6 +95,17 @@ public abstract class OData {
    */
   public abstract ODataHttpHandler createHandler(ServiceMetadata serviceMetadata);
 
+  /**
+   * <p>Creates a new ODataHttpHandler for handling OData requests in an HTTP context
+   * which is created once, e.g., when a servlet is initialized, and then shared by all requests.</p>
+   * <p>All registrations must be done before the first request is processed.
+   * Registered processors are initialized once at registration instead of for each request,
+   * so they must not keep any request-specific state.</p>
+   *
+   * @param serviceMetadata - metadata object required to handle an OData request
+   */
+  public abstract ODataHttpHandler createReusableHandler(ServiceMetadata serviceMetadata);
+
   /**
    * Creates a metadata object for this service.
    *
@@ -112,12 +126,35 @@ public abstract class OData {
   public abstract ServiceMetadata createServiceMetadata(CsdlEdmProvider edmProvider, List<EdmxReference> references,
       ServiceMetadataETagSupport serviceMetadataETagSupport);
 
+  /**
+   * Creates a metadata object for this service.
+   * If <code>preloadEdm</code> is set, the complete Entity Data Model is read from the provider
+   * during this call, so that request threads only read the already created model elements
+   * and errors in the provider are reported here.
+   *
+   * @param edmProvider a custom or default implementation for creating metadata
+   * @param references list of edmx references
+   * @param serviceMetadataETagSupport
+   * @param preloadEdm whether the Entity Data Model is created completely in advance
+   * @return a service metadata implementation
+   */
+  public abstract ServiceMetadata createServiceMetadata(CsdlEdmProvider edmProvider, List<EdmxReference> references,
+      ServiceMetadataETagSupport serviceMetadataETagSupport, boolean preloadEdm);
+
   /**
    * Creates a new URI helper object for performing URI-related tasks.
    * It can be used in Processor implementations.
    */
   public abstract UriHelper createUriHelper();
 
+  /**
+   * Creates a new cache for parsed URIs.
+   * It can be registered at one or more {@link ODataHttpHandler} instances of a service.
+   *
+   * @param maxSize the maximum number of cached URIs; must be positive
+   */
+  public abstract UriInfoCache createUriInfoCache(int maxSize);
+
   /**
    * Creates a new deserializer object for reading content in the specified format.
    * Deserializer are used in Processor implementations.
@@ -133,6 +170,18 @@ public abstract class OData {
    */
   public abstract EdmPrimitiveType createPrimitiveTypeInstance(EdmPrimitiveTypeKind kind);
 
+  /**
+   * Creates a new compiler for filter expressions.
+   * It can be used in Processor implementations evaluating filters on entities held in memory.
+   */
+  public abstract FilterCompiler createFilterCompiler();
+
+  /**
+   * Creates a new query applying filter, order, skip, and top to entities held in memory.
+   * It can be used together with a {@link FilterCompiler} in Processor implementations.
+   */
+  public abstract EntityQuery createEntityQuery();
+
   /**
    * Creates a new ETag helper object for performing ETag-related tasks.
    * It can be used in Processor implementations.
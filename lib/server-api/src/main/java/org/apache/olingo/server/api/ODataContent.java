@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api;
+
+import java.io.OutputStream;
+
+/**
+ * Content (body) of a response which is written directly into the output stream
+ * of the response, e.g., an entity collection serialized while reading it.
+ */
+public interface ODataContent {
+
+  /**
+   * Writes the content into the given stream; the stream is not closed.
+   * Since this usually happens after the response status and headers have been sent,
+   * errors can no longer be reported as OData error responses.
+   * @param stream the target stream
+   * @throws org.apache.olingo.commons.api.ODataRuntimeException if the content could not be written
+   */
+  void write(OutputStream stream);
+}
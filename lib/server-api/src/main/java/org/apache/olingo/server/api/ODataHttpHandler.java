@@ -18,13 +18,19 @@
  */
 package org.apache.olingo.server.api;
 
+import java.util.Collection;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.olingo.server.api.batch.BatchExecution;
 import org.apache.olingo.server.api.debug.DebugSupport;
+import org.apache.olingo.server.api.encoding.RequestDecompression;
+import org.apache.olingo.server.api.encoding.ResponseCompression;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 
 /**
  * Handles HTTP requests as OData requests.
@@ -41,6 +47,17 @@ public interface ODataHttpHandler {
    */
   void process(HttpServletRequest request, HttpServletResponse response);
 
+  /**
+   * <p>Parses a representative set of request URIs against the service metadata
+   * without processing them.</p>
+   * <p>Call this method before the service receives its first requests so that parser caches
+   * (and a registered {@link UriInfoCache}) are already filled.</p>
+   * @param uris resource paths relative to the service root, optionally followed by '?' and the query,
+   * e.g., <code>Products?$filter=Price%20gt%2010</code>; URIs which cannot be parsed are skipped
+   * @return the number of successfully parsed URIs
+   */
+  int warmUp(Collection<String> uris);
+
   /**
    * <p>Registers additional custom processor implementations for handling OData requests.</p>
    * <p>If request processing requires a processor that is not registered then a
@@ -73,4 +90,32 @@ public interface ODataHttpHandler {
    */
   void register(DebugSupport debugSupport);
 
+  /**
+   * Registers settings for compressing responses; without them responses are not compressed.
+   * @param responseCompression the settings
+   */
+  void register(ResponseCompression responseCompression);
+
+  /**
+   * Registers settings for executing independent parts of batch requests concurrently;
+   * without them all parts are executed one after another.
+   * Since concurrent parts share the processors, all processors, including those registered afterwards,
+   * are then initialized once at registration instead of before each use.
+   * @param batchExecution the settings
+   */
+  void register(BatchExecution batchExecution);
+
+  /**
+   * Registers settings for decompressing request bodies; without them request bodies are not decoded.
+   * The settings apply to all requests, including $batch requests.
+   * @param requestDecompression the settings
+   */
+  void register(RequestDecompression requestDecompression);
+
+  /**
+   * Registers a cache for parsed URIs.
+   * @param uriInfoCache a cache created with {@link OData#createUriInfoCache(int)}
+   */
+  void register(UriInfoCache uriInfoCache);
+
 }
@@ -18,6 +18,8 @@
  */
 package org.apache.olingo.server.api;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
@@ -33,6 +35,7 @@ public class ODataResponse {
   private int statusCode = HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode();
   private final Map<String, String> headers = new HashMap<String, String>();
   private InputStream content;
+  private ODataContent odataContent;
 
   /**
    * Sets the status code.
@@ -73,14 +76,40 @@ public class ODataResponse {
    */
   public void setContent(final InputStream content) {
     this.content = content;
+    odataContent = null;
   }
 
   /**
    * Gets the content (body).
+   * If the content has been set as {@link ODataContent}, it is written into a buffer first.
    * @return the content as {@link InputStream}
    */
   public InputStream getContent() {
+    if (content == null && odataContent != null) {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      odataContent.write(buffer);
+      content = new ByteArrayInputStream(buffer.toByteArray());
+      odataContent = null;
+    }
     return content;
   }
 
+  /**
+   * Sets the content (body) that is written directly into the response output stream;
+   * this replaces a content set as {@link InputStream}.
+   * @param odataContent the content as {@link ODataContent}
+   */
+  public void setODataContent(final ODataContent odataContent) {
+    this.odataContent = odataContent;
+    content = null;
+  }
+
+  /**
+   * Gets the content (body) that is written directly into the response output stream.
+   * @return the content as {@link ODataContent} or <code>null</code>
+   */
+  public ODataContent getODataContent() {
+    return odataContent;
+  }
+
 }
@@ -22,8 +22,11 @@ import java.util.List;
 
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
+import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.serializer.SerializedDocument;
+import org.apache.olingo.server.api.serializer.SerializerException;
 
 /**
  * Metadata of an OData service like the Entity Data Model.
@@ -51,4 +54,26 @@ public interface ServiceMetadata {
    * @return metadata ETag support
    */
   ServiceMetadataETagSupport getServiceMetadataETagSupport();
+
+  /**
+   * Gets the metadata document in the given format.
+   * The document is serialized once per format and served from memory afterwards;
+   * it is serialized again only if the application-specific metadata ETag changes.
+   * @param odata the OData instance creating the serializer if the document has to be serialized
+   * @param contentType the format of the document
+   * @return the serialized metadata document
+   * @throws SerializerException if the document cannot be serialized in the given format
+   */
+  SerializedDocument getMetadataDocument(OData odata, ContentType contentType) throws SerializerException;
+
+  /**
+   * Gets the service document in the given format, with URLs relative to the service root.
+   * The document is serialized once per format and served from memory afterwards;
+   * it is serialized again only if an application-specific ETag changes.
+   * @param odata the OData instance creating the serializer if the document has to be serialized
+   * @param contentType the format of the document
+   * @return the serialized service document
+   * @throws SerializerException if the document cannot be serialized in the given format
+   */
+  SerializedDocument getServiceDocument(OData odata, ContentType contentType) throws SerializerException;
 }
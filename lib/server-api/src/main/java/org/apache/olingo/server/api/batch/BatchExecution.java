@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.batch;
+
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Settings for executing the parts of a batch request concurrently.</p>
+ * <p>Retrieve requests outside of change sets do not depend on each other, so consecutive
+ * retrieve requests are handed to the executor and run concurrently.
+ * Change sets, data-modification requests, and requests referring to a Content-ID
+ * are executed on their own, in request order, after all previous parts have completed.
+ * The responses are always returned in the order of the requests.</p>
+ * <p>Any {@link Executor} can be used, e.g., a thread pool or an executor creating a new
+ * (virtual) thread per task. Parts are only executed concurrently if the batch processor
+ * uses {@link BatchFacade#handleBatchRequests(org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator,
+ * boolean)}.</p>
+ */
+public class BatchExecution {
+
+  /** Default maximum number of batch parts executed at the same time. */
+  public static final int DEFAULT_MAX_CONCURRENT_PARTS = 8;
+
+  private final Executor executor;
+  private int maxConcurrentParts = DEFAULT_MAX_CONCURRENT_PARTS;
+
+  /**
+   * Creates settings with the default maximum number of concurrently executed parts.
+   * @param executor the executor running the independent parts
+   */
+  public BatchExecution(final Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("The executor must not be null.");
+    }
+    this.executor = executor;
+  }
+
+  public Executor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets the maximum number of parts of one batch request executed at the same time.
+   * This also limits how far the batch request is read ahead.
+   * @param maxConcurrentParts the maximum number; <code>1</code> executes the parts one after another
+   */
+  public void setMaxConcurrentParts(final int maxConcurrentParts) {
+    if (maxConcurrentParts < 1) {
+      throw new IllegalArgumentException("The maximum number of concurrent parts must be positive.");
+    }
+    this.maxConcurrentParts = maxConcurrentParts;
+  }
+
+  public int getMaxConcurrentParts() {
+    return maxConcurrentParts;
+  }
+}
@@ -17,11 +17,14 @@
  * under the License.
  */package org.apache.olingo.server.api.batch;
 
+import java.util.Iterator;
+
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 
 /**
@@ -60,6 +63,25 @@ public interface BatchFacade {
   public ODataResponsePart handleBatchRequest(BatchRequestPart request) throws ODataApplicationException,
       ODataLibraryException;
 
+  /**
+   * Handles all parts of a batch request.
+   * The parts are read and executed while the returned iterator is consumed;
+   * the response parts are returned in the order of the request parts.
+   * Unless <code>continueOnError</code> is set, no more parts are returned after the first failed one.
+   * If {@link BatchExecution} settings have been registered, independent retrieve requests
+   * are executed concurrently.
+   * Exceptions thrown while a part is handled become the error response of that part.
+   * An error while reading the batch request, e.g., a decoded body exceeding its maximum size,
+   * ends the iteration with an error response part;
+   * to answer errors in the first part with an error status, read it with
+   * {@link BatchRequestPartIterator#hasNext()} before the response status is set.
+   *
+   * @param parts the parts of the batch request
+   * @param continueOnError whether the preference <code>odata.continue-on-error</code> has been set
+   * @return the corresponding response parts
+   */
+  public Iterator<ODataResponsePart> handleBatchRequests(BatchRequestPartIterator parts, boolean continueOnError);
+
   /**
    * Extracts the boundary of a multipart/mixed header.
    * See RFC 2046#5.1
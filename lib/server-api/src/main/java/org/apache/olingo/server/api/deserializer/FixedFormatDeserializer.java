@@ -25,6 +25,7 @@ import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
 
 public interface FixedFormatDeserializer {
 
@@ -51,4 +52,16 @@ public interface FixedFormatDeserializer {
    */
   public List<BatchRequestPart> parseBatchRequest(InputStream content, String boundary, BatchOptions options)
       throws BatchDeserializerException;
+
+  /**
+   * Reads batch data from an InputStream part by part.
+   * The input stream is read only as far as needed for the next part
+   * and is closed after the last part has been read.
+   * @param content  the data as multipart input stream
+   * @param boundary the boundary between the parts
+   * @param options  options for the deserializer
+   * @return an iterator over the batch-request parts
+   */
+  public BatchRequestPartIterator parseBatchRequestStreamed(InputStream content, String boundary,
+      BatchOptions options);
 }
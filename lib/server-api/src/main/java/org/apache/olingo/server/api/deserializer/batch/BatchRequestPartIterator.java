@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.deserializer.batch;
+
+/**
+ * Source of the parts of a batch request which are parsed one after another
+ * while the request body is read, so that the complete batch request never has to be held in memory.
+ * <br />
+ * Syntax errors are detected only when the part containing them is read;
+ * parts returned before may already have been processed.
+ * See
+ * {@link org.apache.olingo.server.api.deserializer.FixedFormatDeserializer
+ *  #parseBatchRequestStreamed(java.io.InputStream, String, BatchOptions)}
+ */
+public interface BatchRequestPartIterator {
+
+  /**
+   * Returns whether there is another part in the batch request.
+   * The request body is read up to the end of the next part.
+   * @return <code>true</code> if there is another part
+   * @throws BatchDeserializerException if the next part is not valid
+   */
+  boolean hasNext() throws BatchDeserializerException;
+
+  /**
+   * Returns the next part of the batch request.
+   * @return the next part
+   * @throws BatchDeserializerException if the next part is not valid
+   * @throws java.util.NoSuchElementException if there are no more parts
+   */
+  BatchRequestPart next() throws BatchDeserializerException;
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.encoding;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content coding for decompressing request content, e.g., gzip.
+ * Implementations must be thread-safe.
+ * @see RequestDecompression
+ */
+public interface ContentDecoder {
+
+  /**
+   * Gets the name of the content coding as used in the HTTP header <code>Content-Encoding</code>.
+   * @return the name, e.g., <code>gzip</code>
+   */
+  String getName();
+
+  /**
+   * Creates a stream that reads the decoded content of the given stream.
+   * Closing the created stream must close the given stream.
+   * @param input the encoded content
+   * @return the decoding stream
+   * @throws IOException if the encoded content cannot be read
+   */
+  InputStream decode(InputStream input) throws IOException;
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.encoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Content coding for compressing response content, e.g., gzip.
+ * Implementations must be thread-safe.
+ * @see ResponseCompression
+ */
+public interface ContentEncoder {
+
+  /**
+   * Gets the name of the content coding as used in the HTTP headers
+   * <code>Accept-Encoding</code> and <code>Content-Encoding</code>.
+   * @return the name, e.g., <code>gzip</code>
+   */
+  String getName();
+
+  /**
+   * Creates a stream that encodes everything written to it into the given stream.
+   * Closing the created stream must finish the encoding and close the given stream.
+   * @param output the stream receiving the encoded content
+   * @param level  the compression level, or <code>-1</code> for the default level of the coding
+   * @return the encoding stream
+   * @throws IOException if the encoding cannot be started
+   */
+  OutputStream encode(OutputStream output, int level) throws IOException;
+}
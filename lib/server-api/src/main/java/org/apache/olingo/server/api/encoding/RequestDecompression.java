@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.encoding;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * <p>Settings for decompressing request bodies according to their <code>Content-Encoding</code> header.</p>
+ * <p>The body is decoded while it is read. Reading fails as soon as the decoded content exceeds
+ * the maximum size, so that small compressed bodies cannot expand to huge amounts of data;
+ * the request is then answered with status 413 (Request Entity Too Large).
+ * Requests with a content coding that is not supported are answered with status 415
+ * (Unsupported Media Type).</p>
+ * <p>The body of a <code>$batch</code> request is decoded while its parts are read, so it is never held
+ * in memory completely. If the maximum size is exceeded after the status of a streamed batch response has been
+ * set, the error is returned as the last part of the batch response.</p>
+ * <p>The codings <code>gzip</code> and <code>deflate</code> are supported out of the box;
+ * further codings can be added with {@link #addDecoder(ContentDecoder)}.</p>
+ * <p>The settings also count the decoded requests and their compressed and decoded bytes.</p>
+ */
+public class RequestDecompression {
+
+  /** Default maximum size in bytes of decoded content. */
+  public static final long DEFAULT_MAXIMUM_SIZE = 64L * 1024 * 1024;
+
+  /** The <code>gzip</code> content coding. */
+  public static final ContentDecoder GZIP = new ContentDecoder() {
+    @Override
+    public String getName() {
+      return "gzip";
+    }
+
+    @Override
+    public InputStream decode(final InputStream input) throws IOException {
+      return new GZIPInputStream(input, 8192);
+    }
+  };
+
+  /** The <code>deflate</code> content coding, i.e., the zlib format. */
+  public static final ContentDecoder DEFLATE = new ContentDecoder() {
+    @Override
+    public String getName() {
+      return "deflate";
+    }
+
+    @Override
+    public InputStream decode(final InputStream input) throws IOException {
+      return new InflaterInputStream(input, new Inflater(), 8192) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            // The inflater is not the default one of the stream, so it has to be ended here.
+            inf.end();
+          }
+        }
+      };
+    }
+  };
+
+  private final List<ContentDecoder> decoders = new ArrayList<ContentDecoder>();
+  private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+  private final AtomicLong decodedRequests = new AtomicLong();
+  private final AtomicLong compressedBytes = new AtomicLong();
+  private final AtomicLong decodedBytes = new AtomicLong();
+
+  /**
+   * Creates settings with the codings <code>gzip</code> and <code>deflate</code>
+   * and the default maximum size.
+   */
+  public RequestDecompression() {
+    decoders.add(GZIP);
+    decoders.add(DEFLATE);
+  }
+
+  /**
+   * Adds a content coding; it replaces a coding with the same name.
+   * @param decoder the content coding
+   */
+  public void addDecoder(final ContentDecoder decoder) {
+    for (final Iterator<ContentDecoder> iterator = decoders.iterator(); iterator.hasNext();) {
+      if (iterator.next().getName().equalsIgnoreCase(decoder.getName())) {
+        iterator.remove();
+      }
+    }
+    decoders.add(0, decoder);
+  }
+
+  /**
+   * Gets the content coding with the given name.
+   * @param name the name as used in the <code>Content-Encoding</code> header, case-insensitive
+   * @return the content coding or <code>null</code> if it is not supported
+   */
+  public ContentDecoder getDecoder(final String name) {
+    for (final ContentDecoder decoder : decoders) {
+      if (decoder.getName().equalsIgnoreCase(name)) {
+        return decoder;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the supported content codings.
+   */
+  public List<ContentDecoder> getDecoders() {
+    return Collections.unmodifiableList(decoders);
+  }
+
+  /**
+   * Sets the maximum size in bytes of decoded content.
+   * @param maximumSize the maximum size
+   */
+  public void setMaximumSize(final long maximumSize) {
+    if (maximumSize < 0) {
+      throw new IllegalArgumentException("The maximum size must not be negative.");
+    }
+    this.maximumSize = maximumSize;
+  }
+
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Counts a decoded request; called by the library after the request has been processed.
+   * @param compressed the number of bytes read from the compressed body
+   * @param decoded    the number of bytes of decoded content read
+   */
+  public void countRequest(final long compressed, final long decoded) {
+    decodedRequests.incrementAndGet();
+    compressedBytes.addAndGet(compressed);
+    decodedBytes.addAndGet(decoded);
+  }
+
+  /** Gets the number of requests with decoded body. */
+  public long getDecodedRequestCount() {
+    return decodedRequests.get();
+  }
+
+  /** Gets the number of bytes read from compressed request bodies. */
+  public long getCompressedBytes() {
+    return compressedBytes.get();
+  }
+
+  /** Gets the number of bytes of decoded content read from compressed request bodies. */
+  public long getDecodedBytes() {
+    return decodedBytes.get();
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.encoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>Settings for compressing responses according to the <code>Accept-Encoding</code> header of the request.</p>
+ * <p>Only textual content like JSON, XML, and multipart content (batch responses) is compressed;
+ * media content, e.g., images, and content which already has a content coding are sent as they are.
+ * Content shorter than the minimum size is not compressed either.
+ * Compression happens while the content is written, so that streamed responses stay streamed.</p>
+ * <p>The codings <code>gzip</code> and <code>deflate</code> are supported out of the box;
+ * further codings can be added with {@link #addEncoder(ContentEncoder)}.</p>
+ */
+public class ResponseCompression {
+
+  /** Default minimum size in bytes of content to be compressed. */
+  public static final int DEFAULT_MINIMUM_SIZE = 1024;
+
+  /** The <code>gzip</code> content coding. */
+  public static final ContentEncoder GZIP = new ContentEncoder() {
+    @Override
+    public String getName() {
+      return "gzip";
+    }
+
+    @Override
+    public OutputStream encode(final OutputStream output, final int level) throws IOException {
+      return new GZIPOutputStream(output, 8192) {
+        {
+          def.setLevel(level);
+        }
+      };
+    }
+  };
+
+  /** The <code>deflate</code> content coding, i.e., the zlib format. */
+  public static final ContentEncoder DEFLATE = new ContentEncoder() {
+    @Override
+    public String getName() {
+      return "deflate";
+    }
+
+    @Override
+    public OutputStream encode(final OutputStream output, final int level) throws IOException {
+      return new DeflaterOutputStream(output, new Deflater(level), 8192) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            // The deflater is not the default one of the stream, so it has to be ended here.
+            def.end();
+          }
+        }
+      };
+    }
+  };
+
+  private final List<ContentEncoder> encoders = new ArrayList<ContentEncoder>();
+  private int minimumSize = DEFAULT_MINIMUM_SIZE;
+  private int level = Deflater.DEFAULT_COMPRESSION;
+
+  /**
+   * Creates settings with the codings <code>gzip</code> and <code>deflate</code>,
+   * the default compression level, and the default minimum size.
+   */
+  public ResponseCompression() {
+    encoders.add(GZIP);
+    encoders.add(DEFLATE);
+  }
+
+  /**
+   * Adds a content coding. Added codings are preferred to the built-in codings
+   * if the client accepts them with the same quality.
+   * @param encoder the content coding
+   */
+  public void addEncoder(final ContentEncoder encoder) {
+    encoders.add(0, encoder);
+  }
+
+  /**
+   * Gets the supported content codings, the most preferred first.
+   */
+  public List<ContentEncoder> getEncoders() {
+    return Collections.unmodifiableList(encoders);
+  }
+
+  /**
+   * Sets the minimum size in bytes of content to be compressed.
+   * @param minimumSize the minimum size; <code>0</code> compresses all content
+   */
+  public void setMinimumSize(final int minimumSize) {
+    if (minimumSize < 0) {
+      throw new IllegalArgumentException("The minimum size must not be negative.");
+    }
+    this.minimumSize = minimumSize;
+  }
+
+  public int getMinimumSize() {
+    return minimumSize;
+  }
+
+  /**
+   * Sets the compression level.
+   * @param level the level from 0 (no compression) to 9 (best compression),
+   *              or <code>-1</code> for the default level of the coding
+   */
+  public void setLevel(final int level) {
+    if (level < -1 || level > 9) {
+      throw new IllegalArgumentException("The compression level must be between -1 and 9.");
+    }
+    this.level = level;
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * Gets the quality with which the given content coding is accepted according to the
+   * <code>Accept-Encoding</code> headers of a request; an explicit entry takes precedence over the wildcard.
+   * @param coding the name of the content coding
+   * @param acceptEncodings the values of the <code>Accept-Encoding</code> headers or <code>null</code>
+   * @return the quality between 0 and 1; 0 if the coding is not acceptable
+   */
+  public static double getQuality(final String coding, final List<String> acceptEncodings) {
+    double wildcardQuality = 0;
+    if (acceptEncodings != null) {
+      for (final String acceptEncoding : acceptEncodings) {
+        for (final String entry : acceptEncoding.split(",")) {
+          final int parametersStart = entry.indexOf(';');
+          final String name = (parametersStart < 0 ? entry : entry.substring(0, parametersStart)).trim();
+          final double quality = parametersStart < 0 ? 1 : parseQuality(entry.substring(parametersStart + 1));
+          if (coding.equalsIgnoreCase(name)) {
+            return quality;
+          } else if ("*".equals(name)) {
+            wildcardQuality = quality;
+          }
+        }
+      }
+    }
+    return wildcardQuality;
+  }
+
+  private static double parseQuality(final String parameters) {
+    for (final String parameter : parameters.split(";")) {
+      final int separator = parameter.indexOf('=');
+      if (separator > 0 && "q".equalsIgnoreCase(parameter.substring(0, separator).trim())) {
+        try {
+          return Double.parseDouble(parameter.substring(separator + 1).trim());
+        } catch (final NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
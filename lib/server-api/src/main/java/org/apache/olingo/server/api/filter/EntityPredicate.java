@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.filter;
+
+import org.apache.olingo.commons.api.data.Entity;
+
+/**
+ * A compiled filter expression, see {@link FilterCompiler}.
+ * Instances are immutable and can be shared between threads.
+ */
+public interface EntityPredicate {
+
+  /**
+   * Evaluates the filter expression for an entity.
+   * @param entity the entity
+   * @return <code>true</code> if the expression evaluates to <code>true</code>;
+   *         <code>false</code> if it evaluates to <code>false</code> or <code>null</code>
+   */
+  boolean matches(Entity entity);
+}
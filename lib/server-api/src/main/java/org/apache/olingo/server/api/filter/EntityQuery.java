@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.filter;
+
+import java.util.Comparator;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+
+/**
+ * <p>Applies the system query options <code>$filter</code>, <code>$orderby</code>, <code>$skip</code>,
+ * and <code>$top</code> to entities held in memory, in this order and in a single pass over the entities.</p>
+ * <p>If the number of requested entities (skip plus top) is smaller than the number of entities,
+ * only that many entities are sorted instead of all entities.
+ * The order is stable, i.e., entities the comparator considers equal keep their original order.
+ * The source entities are not modified.</p>
+ * <p>Server-side paging can be done by moving the skip and top window to the requested page.</p>
+ * <p>Instances are not thread-safe but can be executed repeatedly.</p>
+ * @see FilterCompiler
+ */
+public interface EntityQuery {
+
+  /**
+   * Sets the predicate entities must match.
+   * @param filter the predicate, or <code>null</code> for all entities
+   */
+  EntityQuery filter(EntityPredicate filter);
+
+  /**
+   * Sets the order of the result.
+   * @param orderBy the comparator, or <code>null</code> to keep the original order
+   */
+  EntityQuery orderBy(Comparator<Entity> orderBy);
+
+  /**
+   * Sets the number of matching entities to skip.
+   * @param skip a non-negative number
+   */
+  EntityQuery skip(int skip);
+
+  /**
+   * Sets the maximum number of entities in the result.
+   * @param top a non-negative number
+   */
+  EntityQuery top(int top);
+
+  /**
+   * Executes the query.
+   * @param entities the source entities
+   * @return a new collection with the resulting entities; its count is set to the number of
+   *         entities matching the filter, regardless of skip and top
+   */
+  EntityCollection execute(Iterable<Entity> entities);
+}
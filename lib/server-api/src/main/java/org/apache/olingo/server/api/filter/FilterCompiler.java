@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.filter;
+
+import java.util.Comparator;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+
+/**
+ * <p>Compiles filter expressions into predicates for entities held in memory,
+ * e.g., by a data provider evaluating the <code>$filter</code> system query option itself.</p>
+ * <p>The expression tree is walked once; literals are parsed, operand types are checked, and
+ * the implementations of the operators are chosen while compiling, so that evaluating the
+ * predicate for an entity only reads property values and compares them.</p>
+ * <p>Supported are property paths (also into complex properties), literals, the logical, comparison,
+ * and arithmetic operators, and the string, date, and rounding functions; everything else, e.g.,
+ * lambda expressions and enumeration literals, is rejected with status 501 (Not Implemented).
+ * Operands of unsuitable types are rejected with status 400 (Bad Request).</p>
+ * <p>The expressions of an <code>$orderby</code> system query option are compiled the same way
+ * into a comparator; see {@link EntityQuery} for applying both to a collection.</p>
+ */
+public interface FilterCompiler {
+
+  /**
+   * Compiles the expression of a filter system query option.
+   * @param filterOption the filter option
+   * @param type the type of the filtered entities
+   * @return the predicate
+   * @throws ODataApplicationException if the expression is not supported or not valid
+   */
+  EntityPredicate compile(FilterOption filterOption, EdmStructuredType type) throws ODataApplicationException;
+
+  /**
+   * Compiles a Boolean expression.
+   * @param expression the expression
+   * @param type the type of the filtered entities
+   * @return the predicate
+   * @throws ODataApplicationException if the expression is not supported or not valid
+   */
+  EntityPredicate compile(Expression expression, EdmStructuredType type) throws ODataApplicationException;
+
+  /**
+   * Compiles the expressions of an orderby system query option into a comparator.
+   * <code>null</code> values are sorted before all other values in ascending order;
+   * values of types without an order, e.g., binary values, are considered equal.
+   * @param orderByOption the orderby option
+   * @param type the type of the sorted entities
+   * @return the comparator; it is immutable and can be shared between threads
+   * @throws ODataApplicationException if an expression is not supported or not valid
+   */
+  Comparator<Entity> compile(OrderByOption orderByOption, EdmStructuredType type) throws ODataApplicationException;
+}
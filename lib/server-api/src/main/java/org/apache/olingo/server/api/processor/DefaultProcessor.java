@@ -30,9 +30,12 @@ import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.encoding.ResponseCompression;
 import org.apache.olingo.server.api.etag.ETagHelper;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.SerializedDocument;
+import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
 
 /**
@@ -44,6 +47,8 @@ import org.apache.olingo.server.api.uri.UriInfo;
  * The default can be replaced by re-registering a custom implementation.</p>
  */
 public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProcessor, ErrorProcessor {
+  private static final String GZIP = "gzip";
+
   private OData odata;
   private ServiceMetadata serviceMetadata;
 
@@ -56,53 +61,77 @@ public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProce
   @Override
   public void readServiceDocument(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
       final ContentType requestedContentType) throws ODataApplicationException, ODataLibraryException {
-    boolean isNotModified = false;
     ServiceMetadataETagSupport eTagSupport = serviceMetadata.getServiceMetadataETagSupport();
-    if (eTagSupport != null && eTagSupport.getServiceDocumentETag() != null) {
-      // Set application etag at response
-      response.setHeader(HttpHeader.ETAG, eTagSupport.getServiceDocumentETag());
-      // Check if service document has been modified
-      ETagHelper eTagHelper = odata.createETagHelper();
-      isNotModified = eTagHelper.checkReadPreconditions(eTagSupport.getServiceDocumentETag(), request
-          .getHeaders(HttpHeader.IF_MATCH), request.getHeaders(HttpHeader.IF_NONE_MATCH));
-    }
-
-    // Send the correct response
-    if (isNotModified) {
-      response.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
-    } else {
-      ODataSerializer serializer = odata.createSerializer(requestedContentType);
-      response.setContent(serializer.serviceDocument(serviceMetadata, null).getContent());
-      response.setStatusCode(HttpStatusCode.OK.getStatusCode());
-      response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
-    }
+    readDocument(request, response, false,
+        eTagSupport == null ? null : eTagSupport.getServiceDocumentETag(), requestedContentType);
   }
 
   @Override
   public void readMetadata(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
       final ContentType requestedContentType) throws ODataApplicationException, ODataLibraryException {
-    boolean isNotModified = false;
     ServiceMetadataETagSupport eTagSupport = serviceMetadata.getServiceMetadataETagSupport();
-    if (eTagSupport != null && eTagSupport.getMetadataETag() != null) {
-      // Set application etag at response
-      response.setHeader(HttpHeader.ETAG, eTagSupport.getMetadataETag());
-      // Check if metadata document has been modified
-      ETagHelper eTagHelper = odata.createETagHelper();
-      isNotModified = eTagHelper.checkReadPreconditions(eTagSupport.getMetadataETag(), request
-          .getHeaders(HttpHeader.IF_MATCH), request.getHeaders(HttpHeader.IF_NONE_MATCH));
+    readDocument(request, response, true,
+        eTagSupport == null ? null : eTagSupport.getMetadataETag(), requestedContentType);
+  }
+
+  /**
+   * Sends the metadata document or the service document as serialized and kept by the service metadata.
+   * Without application etag the etag computed from the document content is used.
+   * The gzip-compressed representation gets its own etag derived from the one of the document.
+   */
+  private void readDocument(final ODataRequest request, final ODataResponse response,
+      final boolean isMetadataDocument, final String applicationETag, final ContentType requestedContentType)
+      throws ODataLibraryException {
+    SerializedDocument document = null;
+    String eTag = applicationETag;
+    if (eTag == null) {
+      document = getDocument(isMetadataDocument, requestedContentType);
+      eTag = document.getETag();
     }
+    final boolean gzip = ResponseCompression.getQuality(GZIP, request.getHeaders(HttpHeader.ACCEPT_ENCODING)) > 0;
+    if (gzip) {
+      eTag = getGzipETag(eTag);
+    }
+    // Set etag at response; the representation depends on the accepted content codings
+    response.setHeader(HttpHeader.ETAG, eTag);
+    response.setHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
+    // Check if the document has been modified
+    ETagHelper eTagHelper = odata.createETagHelper();
+    final boolean isNotModified = eTagHelper.checkReadPreconditions(eTag,
+        request.getHeaders(HttpHeader.IF_MATCH), request.getHeaders(HttpHeader.IF_NONE_MATCH));
 
     // Send the correct response
     if (isNotModified) {
       response.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
     } else {
-      ODataSerializer serializer = odata.createSerializer(requestedContentType);
-      response.setContent(serializer.metadataDocument(serviceMetadata).getContent());
+      if (document == null) {
+        document = getDocument(isMetadataDocument, requestedContentType);
+      }
+      if (gzip) {
+        response.setContent(document.getGzippedContent());
+        response.setHeader(HttpHeader.CONTENT_ENCODING, GZIP);
+      } else {
+        response.setContent(document.getContent());
+      }
       response.setStatusCode(HttpStatusCode.OK.getStatusCode());
       response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
     }
   }
 
+  private SerializedDocument getDocument(final boolean isMetadataDocument, final ContentType contentType)
+      throws SerializerException {
+    return isMetadataDocument ?
+        serviceMetadata.getMetadataDocument(odata, contentType) :
+        serviceMetadata.getServiceDocument(odata, contentType);
+  }
+
+  /** Appends the content coding to the opaque tag, keeping a weak indicator and the quotes. */
+  private String getGzipETag(final String eTag) {
+    return eTag.endsWith("\"") ?
+        eTag.substring(0, eTag.length() - 1) + '-' + GZIP + '"' :
+        eTag + '-' + GZIP;
+  }
+
   @Override
   public void processError(final ODataRequest request, final ODataResponse response,
       final ODataServerError serverError,
@@ -29,7 +29,9 @@ import org.apache.olingo.server.api.ServiceMetadata;
 public interface Processor {
 
   /**
-   * Initializes the processor for each HTTP request - response cycle.
+   * Initializes the processor for each HTTP request - response cycle,
+   * or once at registration if the handler has been created with
+   * {@link OData#createReusableHandler(ServiceMetadata)}.
    * @param odata Olingo's root object, acting as a factory for various object types
    * @param serviceMetadata metadata of the OData service like the EDM that have to be created
    * before the OData request handling takes place
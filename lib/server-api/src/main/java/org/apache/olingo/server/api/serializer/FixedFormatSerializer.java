@@ -19,9 +19,11 @@
 package org.apache.olingo.server.api.serializer;
 
 import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 
@@ -57,6 +59,17 @@ public interface FixedFormatSerializer {
    */
   InputStream batchResponse(List<ODataResponsePart> batchResponses, String boundary) throws BatchSerializerException;
 
+  /**
+   * Serializes a batch response while it is written into the response.
+   * Each response part is requested from the iterator only after the previous part has been written,
+   * so the parts can be processed one after another and only one of them is held in memory.
+   * Since no content length is known in advance, the response is usually sent with chunked transfer encoding.
+   * @param batchResponses the response parts
+   * @param boundary       the boundary between the parts
+   * @return content to be set with {@link ODataResponse#setODataContent(ODataContent)}
+   */
+  ODataContent batchResponseStreamed(Iterator<ODataResponsePart> batchResponses, String boundary);
+
   /**
    * Serializes a ODataResponse into an async response.
    * @param odataResponse the response parts
@@ -20,6 +20,7 @@ package org.apache.olingo.server.api.serializer;
 
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
@@ -63,6 +64,19 @@ public interface ODataSerializer {
   SerializerResult entityCollection(ServiceMetadata metadata, EdmEntityType entityType,
       EntityCollection entitySet, EntityCollectionSerializerOptions options) throws SerializerException;
 
+  /**
+   * Prepares the serialization of entity-collection data which is read from the given iterator
+   * only when the content is written into the response.
+   * Thus, the memory consumption does not depend on the size of the collection.
+   * Count and next link are written after the entities if they are not known before.
+   * @param metadata   metadata for the service
+   * @param entityType the {@link EdmEntityType}
+   * @param entities   the data of the entity set
+   * @param options    options for the serializer
+   */
+  SerializerStreamResult entityCollectionStreamed(ServiceMetadata metadata, EdmEntityType entityType,
+      EntityIterator entities, EntityCollectionSerializerOptions options) throws SerializerException;
+
   /**
    * Writes entity data into an InputStream.
    * @param metadata   metadata for the service
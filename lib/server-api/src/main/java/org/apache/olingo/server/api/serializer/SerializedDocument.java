@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.serializer;
+
+import java.io.InputStream;
+
+/**
+ * A document which is serialized once and served for many requests,
+ * like the metadata document of a service.
+ * @see org.apache.olingo.server.api.ServiceMetadata
+ */
+public interface SerializedDocument extends SerializerResult {
+
+  /**
+   * Returns the entity tag of the document, including the surrounding quotes.
+   * This is the application-specific entity tag if there is one;
+   * otherwise it is a strong entity tag computed from the serialized content.
+   * @return the entity tag
+   */
+  String getETag();
+
+  /**
+   * Returns the serialized content compressed with gzip.
+   * The compressed content is created once on first request.
+   * @return gzip-compressed content
+   */
+  InputStream getGzippedContent();
+}
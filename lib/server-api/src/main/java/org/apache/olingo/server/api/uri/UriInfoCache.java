@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.uri;
+
+import org.apache.olingo.commons.api.edm.Edm;
+
+/**
+ * <p>Bounded cache of parsed URIs.</p>
+ * <p>Register an instance at an {@link org.apache.olingo.server.api.ODataHttpHandler ODataHttpHandler}
+ * to reuse the {@link UriInfo} of a previous request with identical resource path and query
+ * against the same {@link Edm} instead of parsing the URI again.
+ * The same cache instance can (and should) be shared by all handlers of a service;
+ * it is safe for use by concurrent requests.</p>
+ * <p>Cached {@link UriInfo} objects are shared between requests, so processors must not modify them.</p>
+ */
+public interface UriInfoCache {
+
+  /**
+   * Gets the maximum number of entries kept in the cache.
+   * If the cache is full the least recently used entry is removed.
+   * @return maximum number of entries
+   */
+  int getMaxSize();
+
+  /**
+   * Gets the current number of entries in the cache.
+   * @return number of entries
+   */
+  int size();
+
+  /**
+   * Gets the number of lookups which could be answered from the cache.
+   * @return number of cache hits
+   */
+  long getHitCount();
+
+  /**
+   * Gets the number of lookups which required parsing the URI.
+   * @return number of cache misses
+   */
+  long getMissCount();
+
+  /**
+   * Removes all entries which have been parsed against the given Entity Data Model,
+   * e.g., because the service metadata has been replaced.
+   * @param edm the Entity Data Model
+   */
+  void invalidate(Edm edm);
+
+  /**
+   * Removes all entries and resets the hit and miss counters.
+   */
+  void clear();
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.encoding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+public class RequestDecompressionTest {
+
+  @Test
+  public void addDecoderReplacesDecoderWithSameName() {
+    final ContentDecoder gzip = new ContentDecoder() {
+      @Override
+      public String getName() {
+        return "GZIP";
+      }
+
+      @Override
+      public InputStream decode(final InputStream input) throws IOException {
+        return input;
+      }
+    };
+    final RequestDecompression decompression = new RequestDecompression();
+    decompression.addDecoder(gzip);
+
+    assertEquals(2, decompression.getDecoders().size());
+    assertSame(gzip, decompression.getDecoder("gzip"));
+    assertSame(RequestDecompression.DEFLATE, decompression.getDecoder("deflate"));
+  }
+}
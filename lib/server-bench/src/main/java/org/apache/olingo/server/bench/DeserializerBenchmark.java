@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.ContextURL.Suffix;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.deserializer.DeserializerResult;
+import org.apache.olingo.server.api.deserializer.ODataDeserializer;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.EntitySerializerOptions;
+import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the JSON deserialization of entities of the technical service
+ * (entity set <code>ESAllPrim</code>); the payloads are created with the JSON serializer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeserializerBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  public int size;
+
+  private ODataDeserializer deserializer;
+  private EdmEntityType edmEntityType;
+  private byte[] entity;
+  private byte[] entityCollection;
+
+  @Setup
+  public void setup() throws SerializerException, DeserializerException, IOException {
+    deserializer = TecSvc.ODATA.createDeserializer(ContentType.JSON);
+    final EdmEntitySet edmEntitySet = TecSvc.entitySet("ESAllPrim");
+    edmEntityType = edmEntitySet.getEntityType();
+    final EntityCollection entities = TecSvc.entities("ESAllPrim", size);
+    final ODataSerializer serializer = TecSvc.ODATA.createSerializer(ContentType.JSON_NO_METADATA);
+    entity = toByteArray(serializer.entity(TecSvc.METADATA, edmEntityType, entities.getEntities().get(0),
+        EntitySerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).suffix(Suffix.ENTITY).build())
+            .build()).getContent());
+    entityCollection = toByteArray(serializer.entityCollection(TecSvc.METADATA, edmEntityType, entities,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .build()).getContent());
+  }
+
+  private static byte[] toByteArray(final InputStream content) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int read;
+    while ((read = content.read(buffer)) >= 0) {
+      output.write(buffer, 0, read);
+    }
+    return output.toByteArray();
+  }
+
+  @Benchmark
+  public DeserializerResult entity() throws DeserializerException {
+    return deserializer.entity(new ByteArrayInputStream(entity), edmEntityType);
+  }
+
+  @Benchmark
+  public DeserializerResult entityCollection() throws DeserializerException {
+    return deserializer.entityCollection(new ByteArrayInputStream(entityCollection), edmEntityType);
+  }
+}
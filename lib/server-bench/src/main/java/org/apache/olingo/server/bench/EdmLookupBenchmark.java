@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmFunction;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.apache.olingo.server.tecsvc.provider.EntityTypeProvider;
+import org.apache.olingo.server.tecsvc.provider.FunctionProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of EDM lookups from 64 threads sharing one {@link Edm},
+ * as the URI parser and the serializers do for concurrent requests.
+ * <p>The parameter <code>preload</code> decides whether the EDM is filled completely
+ * when the service metadata are created or lazily by the first lookups.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+public class EdmLookupBenchmark {
+
+  @Param({ "true", "false" })
+  public boolean preload;
+
+  private Edm edm;
+
+  @Setup
+  public void setup() {
+    edm = TecSvc.ODATA.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList(),
+        null, preload).getEdm();
+  }
+
+  @Benchmark
+  public EdmEntityType entityType() {
+    return edm.getEntityType(EntityTypeProvider.nameETTwoKeyNav);
+  }
+
+  @Benchmark
+  public EdmEntitySet entitySet() {
+    return edm.getEntityContainer().getEntitySet("ESTwoKeyNav");
+  }
+
+  @Benchmark
+  public EdmFunction boundFunction() {
+    return edm.getBoundFunction(FunctionProvider.nameBFCESTwoKeyNavRTString,
+        EntityTypeProvider.nameETTwoKeyNav, true, null);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.filter.EntityQuery;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to apply <code>$orderby</code>, <code>$skip</code>, and <code>$top</code> to an in-memory
+ * entity collection with {@link EntityQuery}, compared with sorting the complete collection
+ * and trimming it afterwards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityQueryBenchmark {
+
+  @Param({ "$orderby=PropertyString desc,PropertyInt16&$top=10",
+      "$orderby=PropertyDecimal&$skip=1000&$top=100",
+      "$filter=PropertyInt16 ne 0&$orderby=PropertyDate desc&$top=10" })
+  public String query;
+
+  @Param({ "1000000" })
+  public int size;
+
+  private List<Entity> entities;
+  private UriInfo uriInfo;
+  private EdmEntitySet entitySet;
+
+  @Setup
+  public void setup() {
+    entitySet = TecSvc.entitySet("ESAllPrim");
+    entities = TecSvc.entities("ESAllPrim", size).getEntities();
+    uriInfo = TecSvc.parse("ESAllPrim", query);
+  }
+
+  @Benchmark
+  public EntityCollection singlePass() throws ODataApplicationException {
+    EntityQuery entityQuery = TecSvc.ODATA.createEntityQuery()
+        .orderBy(TecSvc.ODATA.createFilterCompiler().compile(uriInfo.getOrderByOption(), entitySet.getEntityType()));
+    if (uriInfo.getFilterOption() != null) {
+      entityQuery.filter(
+          TecSvc.ODATA.createFilterCompiler().compile(uriInfo.getFilterOption(), entitySet.getEntityType()));
+    }
+    if (uriInfo.getSkipOption() != null) {
+      entityQuery.skip(uriInfo.getSkipOption().getValue());
+    }
+    return entityQuery.top(uriInfo.getTopOption().getValue()).execute(entities);
+  }
+
+  @Benchmark
+  public List<Entity> fullSort() throws ODataApplicationException {
+    List<Entity> copy = new ArrayList<Entity>(entities);
+    if (uriInfo.getFilterOption() != null) {
+      copy = TecSvc.ODATA.createEntityQuery().filter(
+          TecSvc.ODATA.createFilterCompiler().compile(uriInfo.getFilterOption(), entitySet.getEntityType()))
+          .execute(copy).getEntities();
+    }
+    final Comparator<Entity> comparator =
+        TecSvc.ODATA.createFilterCompiler().compile(uriInfo.getOrderByOption(), entitySet.getEntityType());
+    Collections.sort(copy, comparator);
+    final int skip = uriInfo.getSkipOption() == null ? 0 : uriInfo.getSkipOption().getValue();
+    return copy.subList(Math.min(skip, copy.size()),
+        Math.min(skip + uriInfo.getTopOption().getValue(), copy.size()));
+  }
+}
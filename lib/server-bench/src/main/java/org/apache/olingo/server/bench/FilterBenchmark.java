@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.filter.EntityPredicate;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to apply a <code>$filter</code> expression to an in-memory entity collection,
+ * comparing the compiled predicate of {@link org.apache.olingo.server.api.filter.FilterCompiler}
+ * with the per-entity expression visitor of the technical service.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+
+  @Param({ "PropertyInt16 eq 0",
+      "PropertyString eq 'First Resource - positive values' and PropertyInt32 gt 0",
+      "startswith(PropertyString,'Second') or PropertyDecimal add 1 gt 10",
+      "year(PropertyDate) eq 2012" })
+  public String filter;
+
+  @Param({ "1000000" })
+  public int size;
+
+  private EdmEntitySet entitySet;
+  private List<Entity> entities;
+  private FilterOption filterOption;
+
+  @Setup
+  public void setup() {
+    entitySet = TecSvc.entitySet("ESAllPrim");
+    entities = TecSvc.entities("ESAllPrim", size).getEntities();
+    filterOption = TecSvc.parse("ESAllPrim", "$filter=" + filter).getFilterOption();
+  }
+
+  @Benchmark
+  public int compiled() throws ODataApplicationException {
+    final EntityPredicate predicate =
+        TecSvc.ODATA.createFilterCompiler().compile(filterOption, entitySet.getEntityType());
+    int count = 0;
+    for (final Entity entity : entities) {
+      if (predicate.matches(entity)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int visitor() throws ExpressionVisitException, ODataApplicationException {
+    int count = 0;
+    for (final Entity entity : entities) {
+      if (Boolean.TRUE.equals(
+          filterOption.getExpression().accept(new ExpressionVisitorImpl(entity, entitySet)).getValue())) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.data.ContextURL;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the serialization of an entity collection of the technical service
+ * (entity set <code>ESKeyNav</code>), including the reading of the serialized content,
+ * and of its streamed serialization from an entity iterator.
+ * <p>The collection size, the depth of the <code>$expand</code> tree, and the format are parameters;
+ * for JSON also the <code>odata.metadata</code> level.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+  private static final String[] EXPAND = {
+      null,
+      "$expand=NavPropertyETKeyNavMany",
+      "$expand=NavPropertyETKeyNavMany($expand=NavPropertyETTwoKeyNavMany)" };
+
+  @Param({ "10", "100", "1000" })
+  public int size;
+
+  @Param({ "0", "1", "2" })
+  public int expandDepth;
+
+  @Param({ "json;odata.metadata=minimal", "json;odata.metadata=none", "xml" })
+  public String format;
+
+  private ODataSerializer serializer;
+  private EdmEntitySet edmEntitySet;
+  private EntityCollection entityCollection;
+  private EntityCollectionSerializerOptions options;
+
+  @Setup
+  public void setup() throws SerializerException {
+    serializer = TecSvc.ODATA.createSerializer(ContentType.create("application/" + format));
+    edmEntitySet = TecSvc.entitySet("ESKeyNav");
+    entityCollection = TecSvc.entities("ESKeyNav", size);
+    final ExpandOption expand = EXPAND[expandDepth] == null ? null :
+        TecSvc.parse("ESKeyNav", EXPAND[expandDepth]).getExpandOption();
+    options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .setId("http://localhost/odata/ESKeyNav")
+        .expand(expand)
+        .build();
+  }
+
+  @Benchmark
+  public long entityCollection() throws SerializerException {
+    return TecSvc.consume(serializer.entityCollection(TecSvc.METADATA, edmEntitySet.getEntityType(),
+        entityCollection, options).getContent());
+  }
+
+  @Benchmark
+  public long entityCollectionStreamed() throws SerializerException {
+    final Iterator<Entity> entities = entityCollection.getEntities().iterator();
+    CountingOutputStream output = new CountingOutputStream();
+    serializer.entityCollectionStreamed(TecSvc.METADATA, edmEntitySet.getEntityType(),
+        new EntityIterator() {
+          @Override
+          public boolean hasNext() {
+            return entities.hasNext();
+          }
+
+          @Override
+          public Entity next() {
+            return entities.next();
+          }
+        }, options).getODataContent().write(output);
+    return output.count;
+  }
+
+  /** Discards the content, counting its bytes. */
+  private static class CountingOutputStream extends OutputStream {
+    private long count;
+
+    @Override
+    public void write(final int b) {
+      count++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      count += len;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.ODataRuntimeException;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.core.uri.parser.UriParserException;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+
+/**
+ * Access to the EDM and the data of the technical service, shared by all benchmarks.
+ */
+public final class TecSvc {
+
+  public static final OData ODATA = OData.newInstance();
+  public static final ServiceMetadata METADATA =
+      ODATA.createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+  public static final Edm EDM = METADATA.getEdm();
+
+  private TecSvc() {}
+
+  public static EdmEntitySet entitySet(final String name) {
+    return EDM.getEntityContainer().getEntitySet(name);
+  }
+
+  /**
+   * Reads the entities of the given entity set as created by the technical service
+   * and repeats them until the collection has the requested size.
+   * @param name the name of the entity set
+   * @param size the number of entities in the resulting collection
+   */
+  public static EntityCollection entities(final String name, final int size) {
+    try {
+      final List<Entity> source = new DataProvider(EDM).readAll(entitySet(name)).getEntities();
+      EntityCollection collection = new EntityCollection();
+      for (int i = 0; i < size; i++) {
+        collection.getEntities().add(source.get(i % source.size()));
+      }
+      return collection;
+    } catch (final DataProvider.DataProviderException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  /**
+   * Parses a URI relative to the service root; useful to get system query options
+   * like $expand in the form the serializers expect.
+   */
+  public static UriInfo parse(final String path, final String query) {
+    try {
+      return new Parser().parseUri(path, query, null, EDM);
+    } catch (final UriParserException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  /**
+   * Reads the stream completely, as the container would do when writing the response.
+   * @return the number of bytes read
+   */
+  public static long consume(final InputStream content) {
+    try {
+      final byte[] buffer = new byte[8192];
+      long count = 0;
+      int read;
+      while ((read = content.read(buffer)) >= 0) {
+        count += read;
+      }
+      content.close();
+      return count;
+    } catch (final IOException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+}
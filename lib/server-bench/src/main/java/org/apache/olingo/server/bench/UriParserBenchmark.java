@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.core.uri.parser.UriParserException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link Parser#parseUri(String, String, String, org.apache.olingo.commons.api.edm.Edm)}
+ * for typical request URIs.
+ * <p>The parameter <code>simple</code> switches the hand-written parser for simple
+ * <code>$filter</code>, <code>$orderby</code>, and <code>$select</code> options on and off,
+ * so that it can be compared with the ANTLR-based parser.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UriParserBenchmark {
+
+  @Param({ "ESAllPrim",
+      "ESAllPrim(32767)",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavMany",
+      "ESAllPrim?$filter=PropertyInt16 eq 1",
+      "ESAllPrim?$filter=PropertyString eq 'First' and PropertyInt16 gt 0",
+      "ESAllPrim?$filter=startswith(PropertyString,'F')",
+      "ESAllPrim?$orderby=PropertyString desc,PropertyInt16",
+      "ESAllPrim?$select=PropertyInt16,PropertyString",
+      "ESAllPrim?$filter=PropertyInt16 add 1 eq 2",
+      "ESKeyNav?$expand=NavPropertyETKeyNavMany($expand=NavPropertyETTwoKeyNavMany)" })
+  public String uri;
+
+  @Param({ "true", "false" })
+  public boolean simple;
+
+  private String path;
+  private String query;
+  private Parser parser;
+
+  @Setup
+  public void setup() {
+    final int queryStart = uri.indexOf('?');
+    path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+    query = queryStart < 0 ? null : uri.substring(queryStart + 1);
+    parser = new Parser();
+    parser.setSimpleQueryOptionParsing(simple);
+  }
+
+  @Benchmark
+  public UriInfo parseUri() throws UriParserException {
+    return parser.parseUri(path, query, null, TecSvc.EDM);
+  }
+}
@@ -69,7 +69,7 @@ public class OData4HttpHandler extends ODataHttpHandlerImpl {
           this.customContentTypeSupport);
       handler.handleException(e, request, response);
     }
-    convertToHttp(httpResponse, response);
+    writeResponse(request, httpResponse, response);
   }
 
 
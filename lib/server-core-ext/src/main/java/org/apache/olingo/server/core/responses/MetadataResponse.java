@@ -21,6 +21,7 @@ package org.apache.olingo.server.core.responses;
 import java.util.Map;
 
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
@@ -32,25 +33,27 @@ import org.apache.olingo.server.core.ContentNegotiatorException;
 import org.apache.olingo.server.core.ServiceRequest;
 
 public class MetadataResponse extends ServiceResponse {
+  private final OData odata;
   private final ODataSerializer serializer;
   private final ContentType responseContentType;
 
   public static MetadataResponse getInstance(ServiceRequest request,
       ODataResponse response) throws ContentNegotiatorException, SerializerException {
-    return new MetadataResponse(request.getServiceMetaData(), response, request.getSerializer(),
-        request.getResponseContentType(), request.getPreferences());
+    return new MetadataResponse(request.getOdata(), request.getServiceMetaData(), response,
+        request.getSerializer(), request.getResponseContentType(), request.getPreferences());
   }
 
-  private MetadataResponse(ServiceMetadata metadata, ODataResponse response, ODataSerializer serializer,
-      ContentType responseContentType, Map<String, String> preferences) {
+  private MetadataResponse(OData odata, ServiceMetadata metadata, ODataResponse response,
+      ODataSerializer serializer, ContentType responseContentType, Map<String, String> preferences) {
     super(metadata, response, preferences);
+    this.odata = odata;
     this.serializer = serializer;
     this.responseContentType = responseContentType;
   }
 
   public void writeMetadata()throws ODataLibraryException {
     assert (!isClosed());
-    this.response.setContent(this.serializer.metadataDocument(this.metadata).getContent());
+    this.response.setContent(this.metadata.getMetadataDocument(this.odata, this.responseContentType).getContent());
     writeOK(this.responseContentType.toContentTypeString());
     close();
   }
@@ -69,6 +69,7 @@ import org.apache.olingo.server.api.uri.UriResourcePartTyped;
 import org.apache.olingo.server.api.uri.UriResourcePrimitiveProperty;
 import org.apache.olingo.server.api.uri.UriResourceProperty;
 import org.apache.olingo.server.core.batchhandler.BatchHandler;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 import org.apache.olingo.server.core.etag.PreconditionsValidator;
 
 public class ODataDispatcher {
@@ -76,11 +77,22 @@ public class ODataDispatcher {
   private final HttpMethod method;
   private final UriInfo uriInfo;
   private final ODataHandler handler;
+  private final ServerCoreDebugger debugger;
 
   public ODataDispatcher(HttpMethod method, UriInfo uriInfo, ODataHandler handler) {
+    this(method, uriInfo, handler, null);
+  }
+
+  /**
+   * @param debugger the debugger of the request, also used for the parts of a batch request;
+   *                 <code>null</code> to use the debugger of the handler
+   */
+  public ODataDispatcher(HttpMethod method, UriInfo uriInfo, ODataHandler handler,
+      final ServerCoreDebugger debugger) {
     this.method = method;
     this.uriInfo = uriInfo;
     this.handler = handler;
+    this.debugger = debugger;
   }
 
   public void dispatch(ODataRequest request, ODataResponse response) throws ODataApplicationException,
@@ -113,7 +125,8 @@ public class ODataDispatcher {
 
     case batch:
       checkMethod(method, HttpMethod.POST);
-      new BatchHandler(handler, handler.selectProcessor(BatchProcessor.class))
+      new BatchHandler(handler, handler.selectProcessor(BatchProcessor.class), debugger,
+          handler.getBatchExecution())
           .process(request, response, true);
       break;
 
@@ -18,8 +18,11 @@
  */
 package org.apache.olingo.server.core;
 
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.format.ContentType;
@@ -32,7 +35,9 @@ import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.batch.BatchExecution;
 import org.apache.olingo.server.api.deserializer.DeserializerException;
+import org.apache.olingo.server.api.encoding.RequestDecompression;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.etag.PreconditionException;
 import org.apache.olingo.server.api.processor.DefaultProcessor;
@@ -44,84 +49,146 @@ import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.core.uri.parser.UriInfoCacheImpl;
 import org.apache.olingo.server.core.uri.parser.UriParserException;
 import org.apache.olingo.server.core.uri.parser.UriParserSemanticException;
 import org.apache.olingo.server.core.uri.parser.UriParserSyntaxException;
 import org.apache.olingo.server.core.uri.validator.UriValidationException;
 import org.apache.olingo.server.core.uri.validator.UriValidator;
 
+/**
+ * <p>Processes OData requests.</p>
+ * <p>The handler keeps no state of single requests, so it can be shared by concurrent requests
+ * once all registrations are done; the state of a request is kept in an {@link ODataRequestContext}.</p>
+ */
 public class ODataHandler {
 
   private final OData odata;
   private final ServiceMetadata serviceMetadata;
-  private final List<Processor> processors = new LinkedList<Processor>();
+  private final List<Processor> processors = new CopyOnWriteArrayList<Processor>();
+  private final ConcurrentMap<Class<?>, Processor> processorsByType = new ConcurrentHashMap<Class<?>, Processor>();
   private final ServerCoreDebugger debugger;
+  /** Switched on by {@link #register(BatchExecution)}; read by batch-part threads selecting processors. */
+  private volatile boolean initProcessorsOnce;
 
   private CustomContentTypeSupport customContentTypeSupport;
   private CustomETagSupport customETagSupport;
+  private UriInfoCacheImpl uriInfoCache;
+  private RequestDecompression requestDecompression;
+  private BatchExecution batchExecution;
 
-  private UriInfo uriInfo;
-  private Exception lastThrownException;
+  private volatile ODataRequestContext lastContext;
 
   public ODataHandler(final OData server, final ServiceMetadata serviceMetadata, ServerCoreDebugger debugger) {
+    this(server, serviceMetadata, debugger, false);
+  }
+
+  /**
+   * @param initProcessorsOnce whether processors are initialized once at registration
+   *                           instead of before each use
+   */
+  public ODataHandler(final OData server, final ServiceMetadata serviceMetadata, ServerCoreDebugger debugger,
+      final boolean initProcessorsOnce) {
     odata = server;
     this.serviceMetadata = serviceMetadata;
     this.debugger = debugger;
+    this.initProcessorsOnce = initProcessorsOnce;
 
     register(new DefaultRedirectProcessor());
     register(new DefaultProcessor());
   }
 
   public ODataResponse process(final ODataRequest request) {
+    return process(request, new ODataRequestContext(debugger));
+  }
+
+  public ODataResponse process(final ODataRequest request, final ODataRequestContext context) {
+    lastContext = context;
+    final ServerCoreDebugger debugger = context.getDebugger();
     ODataResponse response = new ODataResponse();
     int measurementHandel = debugger.startRuntimeMeasurement("ODataHandler", "processInternal");
     try {
-      processInternal(request, response);
-    } catch (final UriValidationException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (final UriParserSemanticException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (final UriParserSyntaxException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (final UriParserException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (ContentNegotiatorException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (SerializerException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (DeserializerException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (PreconditionException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (ODataHandlerException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError, e);
-    } catch (ODataApplicationException e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e);
-      handleException(request, response, serverError, e);
-    } catch (Exception e) {
-      ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e);
-      handleException(request, response, serverError, e);
+      processInternal(request, response, context);
+    } catch (final Exception e) {
+      handleException(request, response, createServerError(e), e, context);
     }
     debugger.stopRuntimeMeasurement(measurementHandel);
     return response;
   }
 
-  private void processInternal(final ODataRequest request, final ODataResponse response)
-      throws ODataApplicationException, ODataLibraryException {
+  /**
+   * Creates the error response for an exception thrown while handling the given request
+   * outside of {@link #process(ODataRequest, ODataRequestContext)}, for example by a batch processor
+   * for a part of a batch request that is handled while the batch response is written.
+   * @param request the request
+   * @param exception the exception
+   * @return the error response
+   */
+  public ODataResponse createErrorResponse(final ODataRequest request, final Exception exception) {
+    final ODataResponse response = new ODataResponse();
+    handleException(request, response, createServerError(exception), exception);
+    return response;
+  }
+
+  private static ODataServerError createServerError(final Exception e) {
+    if (e instanceof UriValidationException) {
+      return ODataExceptionHelper.createServerErrorObject((UriValidationException) e, null);
+    } else if (e instanceof UriParserSemanticException) {
+      return ODataExceptionHelper.createServerErrorObject((UriParserSemanticException) e, null);
+    } else if (e instanceof UriParserSyntaxException) {
+      return ODataExceptionHelper.createServerErrorObject((UriParserSyntaxException) e, null);
+    } else if (e instanceof UriParserException) {
+      return ODataExceptionHelper.createServerErrorObject((UriParserException) e, null);
+    } else if (e instanceof ContentNegotiatorException) {
+      return ODataExceptionHelper.createServerErrorObject((ContentNegotiatorException) e, null);
+    } else if (e instanceof SerializerException) {
+      return ODataExceptionHelper.createServerErrorObject((SerializerException) e, null);
+    } else if (e instanceof DeserializerException) {
+      return ODataExceptionHelper.createServerErrorObject((DeserializerException) e, null);
+    } else if (e instanceof PreconditionException) {
+      return ODataExceptionHelper.createServerErrorObject((PreconditionException) e, null);
+    } else if (e instanceof ODataHandlerException) {
+      return ODataExceptionHelper.createServerErrorObject((ODataHandlerException) e, null);
+    } else if (e instanceof ODataApplicationException) {
+      return ODataExceptionHelper.createServerErrorObject((ODataApplicationException) e);
+    } else {
+      return ODataExceptionHelper.createServerErrorObject(e);
+    }
+  }
+
+  private void processInternal(final ODataRequest request, final ODataResponse response,
+      final ODataRequestContext context) throws ODataApplicationException, ODataLibraryException {
+    final RequestDecoder decoder = requestDecompression == null ? null :
+        RequestDecoder.decode(request, requestDecompression);
+    if (decoder == null) {
+      processDecoded(request, response, context);
+    } else {
+      // If the decoded body is too large, reading it fails somewhere, wrapped in some exception.
+      try {
+        processDecoded(request, response, context);
+      } catch (final ODataApplicationException e) {
+        decoder.checkSize();
+        throw e;
+      } catch (final ODataLibraryException e) {
+        decoder.checkSize();
+        throw e;
+      } catch (final RuntimeException e) {
+        decoder.checkSize();
+        throw e;
+      } finally {
+        decoder.count();
+      }
+    }
+  }
+
+  private void processDecoded(final ODataRequest request, final ODataResponse response,
+      final ODataRequestContext context) throws ODataApplicationException, ODataLibraryException {
+    final ServerCoreDebugger debugger = context.getDebugger();
     validateODataVersion(request, response);
 
     int measurementUriParser = debugger.startRuntimeMeasurement("UriParser", "parseUri");
-    uriInfo = new Parser().parseUri(request.getRawODataPath(), request.getRawQueryPath(), null,
-        serviceMetadata.getEdm());
+    final UriInfo uriInfo = parseUri(request.getRawODataPath(), request.getRawQueryPath());
+    context.setUriInfo(uriInfo);
     debugger.stopRuntimeMeasurement(measurementUriParser);
 
     int measurementUriValidator = debugger.startRuntimeMeasurement("UriValidator", "validate");
@@ -130,13 +197,49 @@ public class ODataHandler {
     debugger.stopRuntimeMeasurement(measurementUriValidator);
 
     int measurementDispatcher = debugger.startRuntimeMeasurement("Dispatcher", "dispatch");
-    new ODataDispatcher(method, uriInfo, this).dispatch(request, response);
+    new ODataDispatcher(method, uriInfo, this, debugger).dispatch(request, response);
     debugger.stopRuntimeMeasurement(measurementDispatcher);
   }
 
+  private UriInfo parseUri(final String path, final String query) throws UriParserException {
+    return uriInfoCache == null ?
+        new Parser().parseUri(path, query, null, serviceMetadata.getEdm()) :
+        uriInfoCache.parseUri(path, query, serviceMetadata.getEdm());
+  }
+
+  /**
+   * Parses the given URIs (resource path relative to the service root, optionally followed by
+   * '?' and the query) without dispatching them, so that parser caches are filled.
+   * URIs which cannot be parsed are skipped.
+   * @param uris the URIs
+   * @return the number of successfully parsed URIs
+   */
+  public int warmUp(final Collection<String> uris) {
+    int parsed = 0;
+    for (final String uri : uris) {
+      final int queryStart = uri.indexOf('?');
+      try {
+        if (queryStart < 0) {
+          parseUri(uri, null);
+        } else {
+          parseUri(uri.substring(0, queryStart), uri.substring(queryStart + 1));
+        }
+        parsed++;
+      } catch (final UriParserException e) {
+        // The URI is not valid for this service; there is nothing to warm up.
+      }
+    }
+    return parsed;
+  }
+
   public void handleException(final ODataRequest request, final ODataResponse response,
       final ODataServerError serverError, Exception exception) {
-    this.lastThrownException = exception;
+    handleException(request, response, serverError, exception, new ODataRequestContext(debugger));
+  }
+
+  public void handleException(final ODataRequest request, final ODataResponse response,
+      final ODataServerError serverError, Exception exception, final ODataRequestContext context) {
+    context.setLastThrownException(exception);
     ErrorProcessor exceptionProcessor;
     try {
       exceptionProcessor = selectProcessor(ErrorProcessor.class);
@@ -146,15 +249,16 @@ public class ODataHandler {
     }
     ContentType requestedContentType;
     try {
+      final UriInfo uriInfo = context.getUriInfo();
       requestedContentType = ContentNegotiator.doContentNegotiation(
           uriInfo == null ? null : uriInfo.getFormatOption(), request, getCustomContentTypeSupport(),
           RepresentationType.ERROR);
     } catch (final ContentNegotiatorException e) {
       requestedContentType = ContentType.JSON;
     }
-    int measurementHandle = debugger.startRuntimeMeasurement("ErrorProcessor", "processError");
+    int measurementHandle = context.getDebugger().startRuntimeMeasurement("ErrorProcessor", "processError");
     exceptionProcessor.processError(request, response, serverError, requestedContentType);
-    debugger.stopRuntimeMeasurement(measurementHandle);
+    context.getDebugger().stopRuntimeMeasurement(measurementHandle);
   }
 
   private void validateODataVersion(final ODataRequest request, final ODataResponse response)
@@ -171,18 +275,32 @@ public class ODataHandler {
   }
 
   <T extends Processor> T selectProcessor(final Class<T> cls) throws ODataHandlerException {
-    for (final Processor processor : processors) {
-      if (cls.isAssignableFrom(processor.getClass())) {
-        processor.init(odata, serviceMetadata);
-        return cls.cast(processor);
+    Processor processor = processorsByType.get(cls);
+    if (processor == null) {
+      for (final Processor candidate : processors) {
+        if (cls.isAssignableFrom(candidate.getClass())) {
+          processor = candidate;
+          break;
+        }
+      }
+      if (processor == null) {
+        throw new ODataHandlerException("Processor: " + cls.getSimpleName() + " not registered.",
+            ODataHandlerException.MessageKeys.PROCESSOR_NOT_IMPLEMENTED, cls.getSimpleName());
       }
+      processorsByType.put(cls, processor);
+    }
+    if (!initProcessorsOnce) {
+      processor.init(odata, serviceMetadata);
     }
-    throw new ODataHandlerException("Processor: " + cls.getSimpleName() + " not registered.",
-        ODataHandlerException.MessageKeys.PROCESSOR_NOT_IMPLEMENTED, cls.getSimpleName());
+    return cls.cast(processor);
   }
 
   public void register(final Processor processor) {
+    if (initProcessorsOnce) {
+      processor.init(odata, serviceMetadata);
+    }
     processors.add(0, processor);
+    processorsByType.clear();
   }
 
   public void register(final CustomContentTypeSupport customContentTypeSupport) {
@@ -201,11 +319,48 @@ public class ODataHandler {
     return customETagSupport;
   }
 
+  public void register(final UriInfoCacheImpl uriInfoCache) {
+    this.uriInfoCache = uriInfoCache;
+  }
+
+  public void register(final RequestDecompression requestDecompression) {
+    this.requestDecompression = requestDecompression;
+  }
+
+  /**
+   * Registers settings for executing independent batch parts concurrently.
+   * Concurrent parts share the registered processors, so from now on processors are initialized
+   * once at registration instead of before each use.
+   */
+  public void register(final BatchExecution batchExecution) {
+    this.batchExecution = batchExecution;
+    if (!initProcessorsOnce) {
+      for (final Processor processor : processors) {
+        processor.init(odata, serviceMetadata);
+      }
+      initProcessorsOnce = true;
+    }
+  }
+
+  public BatchExecution getBatchExecution() {
+    return batchExecution;
+  }
+
+  /**
+   * Returns the exception handled while processing the last request.
+   * Use {@link ODataRequestContext#getLastThrownException()} if the handler is shared by concurrent requests.
+   */
   public Exception getLastThrownException() {
-    return lastThrownException;
+    final ODataRequestContext context = lastContext;
+    return context == null ? null : context.getLastThrownException();
   }
 
+  /**
+   * Returns the parsed URI of the last request.
+   * Use {@link ODataRequestContext#getUriInfo()} if the handler is shared by concurrent requests.
+   */
   public UriInfo getUriInfo() {
-    return uriInfo;
+    final ODataRequestContext context = lastContext;
+    return context == null ? null : context.getUriInfo();
   }
 }
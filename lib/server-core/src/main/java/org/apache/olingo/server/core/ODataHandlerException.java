@@ -38,7 +38,11 @@ public class ODataHandlerException extends ODataLibraryException {
     /** parameter: content type */
     UNSUPPORTED_CONTENT_TYPE,
     /** parameter: version */
-    ODATA_VERSION_NOT_SUPPORTED;
+    ODATA_VERSION_NOT_SUPPORTED,
+    /** parameter: content coding */
+    UNSUPPORTED_CONTENT_ENCODING,
+    /** parameter: maximum size in bytes */
+    REQUEST_BODY_TOO_LARGE;
 
     @Override
     public String getKey() {
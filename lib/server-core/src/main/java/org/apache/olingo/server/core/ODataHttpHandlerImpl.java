@@ -23,9 +23,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -42,27 +44,49 @@ import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.batch.BatchExecution;
 import org.apache.olingo.server.api.debug.DebugSupport;
+import org.apache.olingo.server.api.encoding.ContentEncoder;
+import org.apache.olingo.server.api.encoding.RequestDecompression;
+import org.apache.olingo.server.api.encoding.ResponseCompression;
 import org.apache.olingo.server.api.etag.CustomETagSupport;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.serializer.utils.ContentBuffer.ContentInputStream;
+import org.apache.olingo.server.core.uri.parser.UriInfoCacheImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ODataHttpHandlerImpl implements ODataHttpHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(ODataHttpHandlerImpl.class);
+  private static final int COPY_BUFFER_SIZE = 16 * 1024;
 
+  private final OData odata;
   private final ODataHandler handler;
+  /** Debugger for requests without debug output; it never enters debug mode and can be shared. */
   private final ServerCoreDebugger debugger;
+  private volatile DebugSupport debugSupport;
+  private volatile ResponseCompression responseCompression;
 
-  private int split = 0;
+  private volatile int split = 0;
 
   public ODataHttpHandlerImpl(final OData odata, final ServiceMetadata serviceMetadata) {
+    this(odata, serviceMetadata, false);
+  }
+
+  /**
+   * @param initProcessorsOnce whether registered processors are initialized once at registration
+   *                           instead of for each request
+   */
+  public ODataHttpHandlerImpl(final OData odata, final ServiceMetadata serviceMetadata,
+      final boolean initProcessorsOnce) {
+    this.odata = odata;
     debugger = new ServerCoreDebugger(odata);
-    handler = new ODataHandler(odata, serviceMetadata, debugger);
+    handler = new ODataHandler(odata, serviceMetadata, debugger, initProcessorsOnce);
   }
 
   @Override
@@ -70,7 +94,8 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     ODataRequest odRequest = new ODataRequest();
     Exception exception = null;
     ODataResponse odResponse;
-    debugger.resolveDebugMode(request);
+    final ServerCoreDebugger debugger = resolveDebugger(request);
+    final ODataRequestContext context = new ODataRequestContext(debugger);
 
     int processMethodHandel = debugger.startRuntimeMeasurement("ODataHttpHandlerImpl", "process");
     try {
@@ -79,12 +104,12 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
       debugger.stopRuntimeMeasurement(requestHandel);
 
       int responseHandel = debugger.startRuntimeMeasurement("ODataHandler", "process");
-      odResponse = handler.process(odRequest);
+      odResponse = handler.process(odRequest, context);
       debugger.stopRuntimeMeasurement(responseHandel);
       // ALL future methods after process must not throw exceptions!
     } catch (Exception e) {
       exception = e;
-      odResponse = handleException(odRequest, e);
+      odResponse = handleException(odRequest, e, context);
     }
     debugger.stopRuntimeMeasurement(processMethodHandel);
 
@@ -92,14 +117,50 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
       Map<String, String> serverEnvironmentVaribles = createEnvironmentVariablesMap(request);
       if (exception == null) {
         // This is to ensure that we have access to the thrown OData Exception
-        exception = handler.getLastThrownException();
+        exception = context.getLastThrownException();
       }
       odResponse =
-          debugger.createDebugResponse(request, exception, odRequest, odResponse, handler.getUriInfo(),
+          debugger.createDebugResponse(request, exception, odRequest, odResponse, context.getUriInfo(),
               serverEnvironmentVaribles);
     }
 
-    convertToHttp(response, odResponse);
+    writeResponse(odRequest, response, odResponse);
+  }
+
+  /**
+   * Writes the OData response into the HTTP response, compressed if compression is registered
+   * and the request accepts a supported content coding.
+   * @param odRequest the OData request, or <code>null</code> if it could not be created
+   */
+  void writeResponse(final ODataRequest odRequest, final HttpServletResponse response,
+      final ODataResponse odResponse) {
+    ContentEncoder encoder = null;
+    final ResponseCompression compression = responseCompression;
+    if (odRequest != null && compression != null && ResponseCompressor.isCompressible(odResponse)) {
+      final String vary = odResponse.getHeaders().get(HttpHeader.VARY);
+      if (vary == null) {
+        odResponse.setHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
+      } else if (!vary.toLowerCase(Locale.ROOT).contains(HttpHeader.ACCEPT_ENCODING.toLowerCase(Locale.ROOT))) {
+        odResponse.setHeader(HttpHeader.VARY, vary + ", " + HttpHeader.ACCEPT_ENCODING);
+      }
+      encoder = ResponseCompressor.negotiate(compression, odRequest.getHeaders(HttpHeader.ACCEPT_ENCODING));
+    }
+    convertToHttp(response, odResponse, encoder, compression);
+  }
+
+  /**
+   * Returns a new debugger if debug output has been requested and debug support is registered;
+   * otherwise the shared debugger is returned.
+   */
+  private ServerCoreDebugger resolveDebugger(final HttpServletRequest request) {
+    final DebugSupport support = debugSupport;
+    if (support == null || request.getParameter(DebugSupport.ODATA_DEBUG_QUERY_PARAMETER) == null) {
+      return debugger;
+    }
+    ServerCoreDebugger requestDebugger = new ServerCoreDebugger(odata);
+    requestDebugger.setDebugSupportProcessor(support);
+    requestDebugger.resolveDebugMode(request);
+    return requestDebugger;
   }
 
   private Map<String, String> createEnvironmentVariablesMap(HttpServletRequest request) {
@@ -130,7 +191,8 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     this.split = split;
   }
 
-  private ODataResponse handleException(final ODataRequest odRequest, final Exception e) {
+  private ODataResponse handleException(final ODataRequest odRequest, final Exception e,
+      final ODataRequestContext context) {
     ODataResponse resp = new ODataResponse();
     ODataServerError serverError;
     if (e instanceof ODataHandlerException) {
@@ -140,27 +202,53 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     } else {
       serverError = ODataExceptionHelper.createServerErrorObject(e);
     }
-    handler.handleException(odRequest, resp, serverError, e);
+    handler.handleException(odRequest, resp, serverError, e, context);
     return resp;
   }
 
   static void convertToHttp(final HttpServletResponse response, final ODataResponse odResponse) {
+    convertToHttp(response, odResponse, null, null);
+  }
+
+  /**
+   * Writes the OData response into the HTTP response.
+   * @param encoder the content coding for the content, or <code>null</code> to send the content as it is
+   * @param compression the compression settings; only used together with an encoder
+   */
+  static void convertToHttp(final HttpServletResponse response, final ODataResponse odResponse,
+      final ContentEncoder encoder, final ResponseCompression compression) {
     response.setStatus(odResponse.getStatusCode());
 
+    String contentLength = null;
     for (Entry<String, String> entry : odResponse.getHeaders().entrySet()) {
-      response.setHeader(entry.getKey(), entry.getValue());
+      if (encoder != null && HttpHeader.CONTENT_LENGTH.equalsIgnoreCase(entry.getKey())) {
+        // The length is only valid if the content is not compressed.
+        contentLength = entry.getValue();
+      } else {
+        response.setHeader(entry.getKey(), entry.getValue());
+      }
+    }
+
+    if (odResponse.getODataContent() != null) {
+      OutputStream output = null;
+      try {
+        output = getOutputStream(response, encoder, compression, contentLength);
+        odResponse.getODataContent().write(output);
+      } catch (IOException e) {
+        LOG.error(e.getMessage(), e);
+        throw new ODataRuntimeException(e);
+      } finally {
+        closeStream(output);
+      }
+      return;
     }
 
     InputStream input = odResponse.getContent();
     if (input != null) {
       OutputStream output = null;
       try {
-        output = response.getOutputStream();
-        byte[] buffer = new byte[1024];
-        int n;
-        while (-1 != (n = input.read(buffer))) {
-          output.write(buffer, 0, n);
-        }
+        output = getOutputStream(response, encoder, compression, contentLength);
+        copy(input, output);
       } catch (IOException e) {
         LOG.error(e.getMessage(), e);
         throw new ODataRuntimeException(e);
@@ -171,6 +259,26 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     }
   }
 
+  private static OutputStream getOutputStream(final HttpServletResponse response, final ContentEncoder encoder,
+      final ResponseCompression compression, final String contentLength) throws IOException {
+    return encoder == null ?
+        response.getOutputStream() :
+        new ResponseCompressor.CompressingOutputStream(response, encoder, compression, contentLength);
+  }
+
+  private static void copy(final InputStream input, final OutputStream output) throws IOException {
+    if (input instanceof ContentInputStream) {
+      // Serialized content is already completely in memory; no intermediate copy is needed.
+      ((ContentInputStream) input).writeTo(output);
+    } else {
+      byte[] buffer = new byte[COPY_BUFFER_SIZE];
+      int n;
+      while (-1 != (n = input.read(buffer))) {
+        output.write(buffer, 0, n);
+      }
+    }
+  }
+
   private static void closeStream(final Closeable closeable) {
     if (closeable != null) {
       try {
@@ -286,6 +394,11 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     }
   }
 
+  @Override
+  public int warmUp(final Collection<String> uris) {
+    return handler.warmUp(uris);
+  }
+
   @Override
   public void register(final Processor processor) {
     handler.register(processor);
@@ -303,6 +416,30 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
 
   @Override
   public void register(final DebugSupport debugSupport) {
-    debugger.setDebugSupportProcessor(debugSupport);
+    this.debugSupport = debugSupport;
+  }
+
+  @Override
+  public void register(final ResponseCompression responseCompression) {
+    this.responseCompression = responseCompression;
+  }
+
+  @Override
+  public void register(final BatchExecution batchExecution) {
+    handler.register(batchExecution);
+  }
+
+  @Override
+  public void register(final RequestDecompression requestDecompression) {
+    handler.register(requestDecompression);
+  }
+
+  @Override
+  public void register(final UriInfoCache uriInfoCache) {
+    if (uriInfoCache instanceof UriInfoCacheImpl) {
+      handler.register((UriInfoCacheImpl) uriInfoCache);
+    } else {
+      throw new ODataRuntimeException("Unsupported URI cache; use OData.createUriInfoCache(int) to create one.");
+    }
   }
 }
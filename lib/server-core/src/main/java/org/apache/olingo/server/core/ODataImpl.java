@@ -35,22 +35,28 @@ import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.etag.ETagHelper;
+import org.apache.olingo.server.api.filter.EntityQuery;
+import org.apache.olingo.server.api.filter.FilterCompiler;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
 import org.apache.olingo.server.api.prefer.Preferences;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriHelper;
+import org.apache.olingo.server.api.uri.UriInfoCache;
 import org.apache.olingo.server.core.debug.DebugResponseHelperImpl;
 import org.apache.olingo.server.core.deserializer.FixedFormatDeserializerImpl;
 import org.apache.olingo.server.core.deserializer.json.ODataJsonDeserializer;
 import org.apache.olingo.server.core.deserializer.xml.ODataXmlDeserializer;
 import org.apache.olingo.server.core.etag.ETagHelperImpl;
+import org.apache.olingo.server.core.filter.EntityQueryImpl;
+import org.apache.olingo.server.core.filter.FilterCompilerImpl;
 import org.apache.olingo.server.core.prefer.PreferencesImpl;
 import org.apache.olingo.server.core.serializer.FixedFormatSerializerImpl;
 import org.apache.olingo.server.core.serializer.json.ODataJsonSerializer;
 import org.apache.olingo.server.core.serializer.xml.ODataXmlSerializer;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
+import org.apache.olingo.server.core.uri.parser.UriInfoCacheImpl;
 
 public class ODataImpl extends OData {
 
@@ -88,6 +94,11 @@ public class ODataImpl extends OData {
     return new ODataHttpHandlerImpl(this, edm);
   }
 
+  @Override
+  public ODataHttpHandler createReusableHandler(final ServiceMetadata serviceMetadata) {
+    return new ODataHttpHandlerImpl(this, serviceMetadata, true);
+  }
+
   @Override
   public ServiceMetadata createServiceMetadata(final CsdlEdmProvider edmProvider,
       final List<EdmxReference> references) {
@@ -100,6 +111,13 @@ public class ODataImpl extends OData {
     return new ServiceMetadataImpl(edmProvider, references, serviceMetadataETagSupport);
   }
 
+  @Override
+  public ServiceMetadata createServiceMetadata(final CsdlEdmProvider edmProvider,
+      final List<EdmxReference> references, final ServiceMetadataETagSupport serviceMetadataETagSupport,
+      final boolean preloadEdm) {
+    return new ServiceMetadataImpl(edmProvider, references, serviceMetadataETagSupport, preloadEdm);
+  }
+
   @Override
   public FixedFormatDeserializer createFixedFormatDeserializer() {
     return new FixedFormatDeserializerImpl();
@@ -110,6 +128,11 @@ public class ODataImpl extends OData {
     return new UriHelperImpl();
   }
 
+  @Override
+  public UriInfoCache createUriInfoCache(final int maxSize) {
+    return new UriInfoCacheImpl(maxSize);
+  }
+
   @Override
   public ODataDeserializer createDeserializer(final ContentType contentType) throws DeserializerException {
     ODataDeserializer deserializer;
@@ -131,6 +154,16 @@ public class ODataImpl extends OData {
     return EdmPrimitiveTypeFactory.getInstance(kind);
   }
 
+  @Override
+  public FilterCompiler createFilterCompiler() {
+    return new FilterCompilerImpl();
+  }
+
+  @Override
+  public EntityQuery createEntityQuery() {
+    return new EntityQueryImpl();
+  }
+
   @Override
   public ETagHelper createETagHelper() {
     return new ETagHelperImpl();
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+
+/**
+ * State of a single request processed by an {@link ODataHandler}.
+ * Keeping it apart from the handler allows one handler to process concurrent requests.
+ */
+public class ODataRequestContext {
+
+  private final ServerCoreDebugger debugger;
+  private UriInfo uriInfo;
+  private Exception lastThrownException;
+
+  public ODataRequestContext(final ServerCoreDebugger debugger) {
+    this.debugger = debugger;
+  }
+
+  public ServerCoreDebugger getDebugger() {
+    return debugger;
+  }
+
+  /** Returns the parsed URI of the request, or <code>null</code> if the URI has not been parsed successfully. */
+  public UriInfo getUriInfo() {
+    return uriInfo;
+  }
+
+  void setUriInfo(final UriInfo uriInfo) {
+    this.uriInfo = uriInfo;
+  }
+
+  /** Returns the exception which has been handled while processing the request, if any. */
+  public Exception getLastThrownException() {
+    return lastThrownException;
+  }
+
+  void setLastThrownException(final Exception exception) {
+    lastThrownException = exception;
+  }
+}
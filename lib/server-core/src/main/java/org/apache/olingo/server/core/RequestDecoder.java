@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.encoding.ContentDecoder;
+import org.apache.olingo.server.api.encoding.RequestDecompression;
+
+/**
+ * Decodes the body of a request according to its <code>Content-Encoding</code> header
+ * and {@link RequestDecompression} settings.
+ */
+final class RequestDecoder {
+
+  private final RequestDecompression decompression;
+  private final CountingInputStream compressed;
+  private final CountingInputStream decoded;
+
+  private RequestDecoder(final RequestDecompression decompression, final CountingInputStream compressed,
+      final CountingInputStream decoded) {
+    this.decompression = decompression;
+    this.compressed = compressed;
+    this.decoded = decoded;
+  }
+
+  /**
+   * Replaces the body of the request with its decoded content.
+   * @return the decoder, or <code>null</code> if the request body has no content coding
+   * @throws ODataHandlerException if a content coding is not supported
+   */
+  static RequestDecoder decode(final ODataRequest request, final RequestDecompression decompression)
+      throws ODataHandlerException {
+    final String contentEncoding = request.getHeader(HttpHeader.CONTENT_ENCODING);
+    if (contentEncoding == null || request.getBody() == null) {
+      return null;
+    }
+    // The codings are listed in the order in which they have been applied.
+    final String[] codings = contentEncoding.split(",");
+    ContentDecoder[] decoders = new ContentDecoder[codings.length];
+    int count = 0;
+    for (int i = codings.length - 1; i >= 0; i--) {
+      final String coding = codings[i].trim();
+      if (coding.isEmpty() || "identity".equalsIgnoreCase(coding)) {
+        continue;
+      }
+      final ContentDecoder decoder = decompression.getDecoder(coding);
+      if (decoder == null) {
+        throw new ODataHandlerException("Unsupported content coding: " + coding,
+            ODataHandlerException.MessageKeys.UNSUPPORTED_CONTENT_ENCODING, coding);
+      }
+      decoders[count++] = decoder;
+    }
+    if (count == 0) {
+      return null;
+    }
+
+    final CountingInputStream compressed = new CountingInputStream(request.getBody(), Long.MAX_VALUE);
+    InputStream input = new LazyDecodingInputStream(compressed, decoders, count);
+    final CountingInputStream decoded = new CountingInputStream(input, decompression.getMaximumSize());
+    request.setBody(decoded);
+    return new RequestDecoder(decompression, compressed, decoded);
+  }
+
+  /**
+   * Throws an exception if reading the body has failed because the decoded content exceeds the maximum size.
+   */
+  void checkSize() throws ODataHandlerException {
+    if (decoded.isLimitExceeded()) {
+      throw tooLarge(decompression.getMaximumSize());
+    }
+  }
+
+  private static ODataHandlerException tooLarge(final long limit) {
+    return new ODataHandlerException("The decoded request body exceeds the maximum size.",
+        ODataHandlerException.MessageKeys.REQUEST_BODY_TOO_LARGE, Long.toString(limit));
+  }
+
+  /** Counts the bytes read so far in the statistics of the settings. */
+  void count() {
+    decompression.countRequest(compressed.getCount(), decoded.getCount());
+  }
+
+  /**
+   * Counts the bytes read and fails once more than the limit has been read.
+   * The exception thrown then has the {@link ODataHandlerException} for status 413 as cause,
+   * so that it can still be reported where the body is read after the response status has been sent.
+   */
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long count = 0;
+    private boolean limitExceeded = false;
+
+    private CountingInputStream(final InputStream input, final long limit) {
+      super(input);
+      this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b >= 0) {
+        add(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      final int n = super.read(b, off, len);
+      if (n > 0) {
+        add(n);
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+      final long skipped = super.skip(n);
+      add(skipped);
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+
+    private void add(final long n) throws IOException {
+      count += n;
+      if (count > limit) {
+        limitExceeded = true;
+        throw new IOException("The decoded content exceeds the maximum size of " + limit + " bytes.",
+            tooLarge(limit));
+      }
+    }
+
+    private long getCount() {
+      return count;
+    }
+
+    private boolean isLimitExceeded() {
+      return limitExceeded;
+    }
+  }
+
+  /**
+   * Creates the decoding streams on first read, since some of them already read
+   * a header of the content when they are created.
+   */
+  private static final class LazyDecodingInputStream extends InputStream {
+
+    private final InputStream source;
+    private final ContentDecoder[] decoders;
+    private final int count;
+    private InputStream input;
+
+    private LazyDecodingInputStream(final InputStream source, final ContentDecoder[] decoders, final int count) {
+      this.source = source;
+      this.decoders = decoders;
+      this.count = count;
+    }
+
+    private InputStream getInput() throws IOException {
+      if (input == null) {
+        InputStream stream = source;
+        for (int i = 0; i < count; i++) {
+          stream = decoders[i].decode(stream);
+        }
+        input = stream;
+      }
+      return input;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return getInput().read();
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      return getInput().read(b, off, len);
+    }
+
+    @Override
+    public int available() throws IOException {
+      return input == null ? 0 : input.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (input == null) {
+        source.close();
+      } else {
+        input.close();
+      }
+    }
+  }
+}
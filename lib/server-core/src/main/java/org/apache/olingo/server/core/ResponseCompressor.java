@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.encoding.ContentEncoder;
+import org.apache.olingo.server.api.encoding.ResponseCompression;
+
+/**
+ * Compresses response content according to {@link ResponseCompression} settings.
+ */
+final class ResponseCompressor {
+
+  private ResponseCompressor() {}
+
+  /**
+   * Checks whether the response has content that is worth compressing:
+   * textual content without content coding.
+   */
+  static boolean isCompressible(final ODataResponse response) {
+    if (response.getStatusCode() == HttpStatusCode.NO_CONTENT.getStatusCode()
+        || response.getStatusCode() == HttpStatusCode.NOT_MODIFIED.getStatusCode()
+        // Streamed content must not be read here, so it is checked first.
+        || response.getODataContent() == null && response.getContent() == null
+        || response.getHeaders().get(HttpHeader.CONTENT_ENCODING) != null) {
+      return false;
+    }
+    final String contentType = response.getHeaders().get(HttpHeader.CONTENT_TYPE);
+    if (contentType == null) {
+      return false;
+    }
+    final int parametersStart = contentType.indexOf(';');
+    final String type = (parametersStart < 0 ? contentType : contentType.substring(0, parametersStart))
+        .trim().toLowerCase(Locale.ROOT);
+    return type.startsWith("text/")
+        || type.equals("application/json")
+        || type.equals("application/xml")
+        || type.equals("application/javascript")
+        || type.endsWith("+json")
+        || type.endsWith("+xml")
+        || type.startsWith("multipart/");
+  }
+
+  /**
+   * Selects the content coding with the highest quality in the given <code>Accept-Encoding</code> headers;
+   * among codings of the same quality the one preferred by the settings is selected.
+   * @return the content coding or <code>null</code> if the content should not be encoded
+   */
+  static ContentEncoder negotiate(final ResponseCompression compression, final List<String> acceptEncodings) {
+    if (acceptEncodings == null) {
+      return null;
+    }
+    ContentEncoder selected = null;
+    double selectedQuality = 0;
+    for (final ContentEncoder encoder : compression.getEncoders()) {
+      final double quality = ResponseCompression.getQuality(encoder.getName(), acceptEncodings);
+      if (quality > selectedQuality) {
+        selected = encoder;
+        selectedQuality = quality;
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * Output stream that holds back content up to the minimum size.
+   * If more content is written, the content coding is announced in the response headers and
+   * all content is encoded while it is written; otherwise the content is sent as it is.
+   */
+  static final class CompressingOutputStream extends OutputStream {
+
+    private final HttpServletResponse response;
+    private final ContentEncoder encoder;
+    private final int level;
+    private final String contentLength;
+    private byte[] buffer;
+    private int count = 0;
+    private OutputStream target;
+
+    /**
+     * @param contentLength the content length of the uncompressed content, if known, or <code>null</code>;
+     *                      it is set only if the content is sent uncompressed
+     */
+    CompressingOutputStream(final HttpServletResponse response, final ContentEncoder encoder,
+        final ResponseCompression compression, final String contentLength) {
+      this.response = response;
+      this.encoder = encoder;
+      level = compression.getLevel();
+      this.contentLength = contentLength;
+      buffer = new byte[compression.getMinimumSize()];
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      if (target == null && count < buffer.length) {
+        buffer[count++] = (byte) b;
+      } else {
+        getTarget().write(b);
+      }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      if (target == null && count + len <= buffer.length) {
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+      } else {
+        getTarget().write(b, off, len);
+      }
+    }
+
+    private OutputStream getTarget() throws IOException {
+      if (target == null) {
+        response.setHeader(HttpHeader.CONTENT_ENCODING, encoder.getName());
+        target = encoder.encode(response.getOutputStream(), level);
+        target.write(buffer, 0, count);
+        buffer = null;
+      }
+      return target;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      // Content held back is not flushed; otherwise the decision whether to compress would be forced.
+      if (target != null) {
+        target.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (target == null) {
+        if (contentLength != null) {
+          response.setHeader(HttpHeader.CONTENT_LENGTH, contentLength);
+        }
+        final OutputStream output = response.getOutputStream();
+        output.write(buffer, 0, count);
+        buffer = null;
+        output.close();
+      } else {
+        target.close();
+      }
+    }
+  }
+}
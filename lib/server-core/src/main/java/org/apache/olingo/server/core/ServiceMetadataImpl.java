@@ -19,28 +19,59 @@
 package org.apache.olingo.server.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
+import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.core.edm.EdmProviderImpl;
+import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.etag.ServiceMetadataETagSupport;
+import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.SerializedDocument;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.core.serializer.SerializedDocumentImpl;
+import org.apache.olingo.server.core.serializer.json.JsonWritePlanCache;
 
 /**
  */
 public class ServiceMetadataImpl implements ServiceMetadata {
 
+  /** Maximum number of formats for which documents are kept. */
+  private static final int MAX_FORMATS = 16;
+
   private final EdmProviderImpl edm;
   private final List<EdmxReference> references = new ArrayList<EdmxReference>();
   private final ServiceMetadataETagSupport serviceMetadataETagSupport;
 
+  private final ConcurrentMap<String, SerializedDocumentImpl> metadataDocuments =
+      new ConcurrentHashMap<String, SerializedDocumentImpl>();
+  private final ConcurrentMap<String, SerializedDocumentImpl> serviceDocuments =
+      new ConcurrentHashMap<String, SerializedDocumentImpl>();
+  private final JsonWritePlanCache jsonWritePlans = new JsonWritePlanCache();
+
   public ServiceMetadataImpl(CsdlEdmProvider edmProvider, List<EdmxReference> references,
       ServiceMetadataETagSupport serviceMetadataETagSupport) {
+    this(edmProvider, references, serviceMetadataETagSupport, false);
+  }
+
+  /**
+   * @param preloadEdm whether the complete Entity Data Model is read from the provider immediately,
+   *                   see {@link EdmProviderImpl#preload()}
+   */
+  public ServiceMetadataImpl(CsdlEdmProvider edmProvider, List<EdmxReference> references,
+      ServiceMetadataETagSupport serviceMetadataETagSupport, final boolean preloadEdm) {
     edm = new EdmProviderImpl(edmProvider);
+    if (preloadEdm) {
+      edm.preload();
+    }
     this.references.addAll(references);
     this.serviceMetadataETagSupport = serviceMetadataETagSupport;
   }
@@ -50,6 +81,11 @@ public class ServiceMetadataImpl implements ServiceMetadata {
     return edm;
   }
 
+  /** Returns the write plans of the JSON serializer for the types of this service. */
+  public JsonWritePlanCache getJsonWritePlans() {
+    return jsonWritePlans;
+  }
+
   @Override
   public ODataServiceVersion getDataServiceVersion() {
     return ODataServiceVersion.V40;
@@ -64,4 +100,50 @@ public class ServiceMetadataImpl implements ServiceMetadata {
   public ServiceMetadataETagSupport getServiceMetadataETagSupport() {
     return serviceMetadataETagSupport;
   }
+
+  @Override
+  public SerializedDocument getMetadataDocument(final OData odata, final ContentType contentType)
+      throws SerializerException {
+    final String metadataETag = serviceMetadataETagSupport == null ? null :
+        serviceMetadataETagSupport.getMetadataETag();
+    return getDocument(odata, true, contentType, metadataETag, Collections.singletonList(metadataETag));
+  }
+
+  @Override
+  public SerializedDocument getServiceDocument(final OData odata, final ContentType contentType)
+      throws SerializerException {
+    final String metadataETag = serviceMetadataETagSupport == null ? null :
+        serviceMetadataETagSupport.getMetadataETag();
+    final String serviceDocumentETag = serviceMetadataETagSupport == null ? null :
+        serviceMetadataETagSupport.getServiceDocumentETag();
+    // The service document contains the metadata ETag, so it depends on both.
+    return getDocument(odata, false, contentType, serviceDocumentETag,
+        Arrays.asList(metadataETag, serviceDocumentETag));
+  }
+
+  private SerializedDocument getDocument(final OData odata, final boolean isMetadataDocument,
+      final ContentType contentType, final String applicationETag, final List<String> applicationETags)
+      throws SerializerException {
+    final ConcurrentMap<String, SerializedDocumentImpl> documents =
+        isMetadataDocument ? metadataDocuments : serviceDocuments;
+    final String key = contentType.toContentTypeString();
+    SerializedDocumentImpl document = documents.get(key);
+    if (document == null || !document.isCurrent(applicationETags)) {
+      // Serialize only once even if many requests arrive at the same time.
+      synchronized (documents) {
+        document = documents.get(key);
+        if (document == null || !document.isCurrent(applicationETags)) {
+          final ODataSerializer serializer = odata.createSerializer(contentType);
+          document = new SerializedDocumentImpl(isMetadataDocument ?
+              serializer.metadataDocument(this) :
+              serializer.serviceDocument(this, null),
+              applicationETag, applicationETags);
+          if (documents.size() < MAX_FORMATS || documents.containsKey(key)) {
+            documents.put(key, document);
+          }
+        }
+      }
+    }
+    return document;
+  }
 }
@@ -18,24 +18,51 @@
  */
 package org.apache.olingo.server.core.batchhandler;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.batch.BatchExecution;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.processor.BatchProcessor;
 import org.apache.olingo.server.core.ODataHandler;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
 
 public class BatchFacadeImpl implements BatchFacade {
+  private final ODataHandler oDataHandler;
+  private final ODataRequest request;
   private final BatchPartHandler partHandler;
+  private final BatchExecution execution;
+  private final boolean isDebugMode;
 
   public BatchFacadeImpl(final ODataHandler oDataHandler, final ODataRequest request,
       final BatchProcessor batchProcessor, final boolean isStrict) {
-    partHandler = new BatchPartHandler(oDataHandler, batchProcessor, this);
+    this(oDataHandler, request, batchProcessor, isStrict, null);
+  }
+
+  public BatchFacadeImpl(final ODataHandler oDataHandler, final ODataRequest request,
+      final BatchProcessor batchProcessor, final boolean isStrict, final ServerCoreDebugger debugger) {
+    this(oDataHandler, request, batchProcessor, isStrict, debugger, null);
+  }
+
+  public BatchFacadeImpl(final ODataHandler oDataHandler, final ODataRequest request,
+      final BatchProcessor batchProcessor, final boolean isStrict, final ServerCoreDebugger debugger,
+      final BatchExecution execution) {
+    this.oDataHandler = oDataHandler;
+    this.request = request;
+    partHandler = new BatchPartHandler(oDataHandler, batchProcessor, this, debugger);
+    isDebugMode = debugger != null && debugger.isDebugMode();
+    // Runtime measurements of the debugger are recorded in order, so parts are not run concurrently then.
+    this.execution = isDebugMode ? null : execution;
   }
 
   @Override
@@ -50,6 +77,22 @@ public class BatchFacadeImpl implements BatchFacade {
     return partHandler.handleBatchRequest(request);
   }
 
+  @Override
+  public Iterator<ODataResponsePart> handleBatchRequests(final BatchRequestPartIterator parts,
+      final boolean continueOnError) {
+    final Iterator<ODataResponsePart> responseParts =
+        new ResponsePartIterator(this, oDataHandler, request, parts, continueOnError, execution);
+    if (!isDebugMode) {
+      return responseParts;
+    }
+    // The debug output is created when the batch processor returns, so all parts are handled before.
+    final List<ODataResponsePart> handledParts = new ArrayList<ODataResponsePart>();
+    while (responseParts.hasNext()) {
+      handledParts.add(responseParts.next());
+    }
+    return handledParts.iterator();
+  }
+
   @Override
   public String extractBoundaryFromContentType(final String contentType) throws BatchDeserializerException {
     return BatchParserCommon.getBoundary(contentType, 0);
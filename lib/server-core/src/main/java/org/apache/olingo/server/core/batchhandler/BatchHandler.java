@@ -25,28 +25,44 @@ import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.batch.BatchExecution;
 import org.apache.olingo.server.api.batch.BatchFacade;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException.MessageKeys;
 import org.apache.olingo.server.api.processor.BatchProcessor;
 import org.apache.olingo.server.core.ODataHandler;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
 
 public class BatchHandler {
   private final BatchProcessor batchProcessor;
   private final ODataHandler oDataHandler;
+  private final ServerCoreDebugger debugger;
+  private final BatchExecution execution;
 
   public BatchHandler(final ODataHandler oDataHandler, final BatchProcessor batchProcessor) {
+    this(oDataHandler, batchProcessor, null);
+  }
+
+  public BatchHandler(final ODataHandler oDataHandler, final BatchProcessor batchProcessor,
+      final ServerCoreDebugger debugger) {
+    this(oDataHandler, batchProcessor, debugger, null);
+  }
 
+  public BatchHandler(final ODataHandler oDataHandler, final BatchProcessor batchProcessor,
+      final ServerCoreDebugger debugger, final BatchExecution execution) {
     this.batchProcessor = batchProcessor;
     this.oDataHandler = oDataHandler;
+    this.debugger = debugger;
+    this.execution = execution;
   }
 
   public void process(final ODataRequest request, final ODataResponse response, final boolean isStrict)
       throws ODataApplicationException, ODataLibraryException {
     validateRequest(request);
 
-    final BatchFacade operation = new BatchFacadeImpl(oDataHandler, request, batchProcessor, isStrict);
+    final BatchFacade operation =
+        new BatchFacadeImpl(oDataHandler, request, batchProcessor, isStrict, debugger, execution);
     batchProcessor.processBatch(operation, request, response);
   }
 
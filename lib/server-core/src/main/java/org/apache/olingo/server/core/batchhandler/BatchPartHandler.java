@@ -29,20 +29,29 @@ import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.processor.BatchProcessor;
 import org.apache.olingo.server.core.ODataHandler;
+import org.apache.olingo.server.core.ODataRequestContext;
 import org.apache.olingo.server.core.batchhandler.referenceRewriting.BatchReferenceRewriter;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
 
 public class BatchPartHandler {
   private final ODataHandler oDataHandler;
   private final BatchProcessor batchProcessor;
   private final BatchFacade batchFacade;
   private final BatchReferenceRewriter rewriter;
+  private final ServerCoreDebugger debugger;
 
   public BatchPartHandler(final ODataHandler oDataHandler, final BatchProcessor processor,
       final BatchFacade batchFacade) {
+    this(oDataHandler, processor, batchFacade, null);
+  }
+
+  public BatchPartHandler(final ODataHandler oDataHandler, final BatchProcessor processor,
+      final BatchFacade batchFacade, final ServerCoreDebugger debugger) {
     this.oDataHandler = oDataHandler;
     batchProcessor = processor;
     this.batchFacade = batchFacade;
     rewriter = new BatchReferenceRewriter();
+    this.debugger = debugger;
   }
 
   public ODataResponse handleODataRequest(final ODataRequest request) throws BatchDeserializerException {
@@ -67,11 +76,11 @@ public class BatchPartHandler {
     if (isChangeSet) {
       rewriter.replaceReference(request);
 
-      response = oDataHandler.process(request);
+      response = process(request);
 
       rewriter.addMapping(request, response);
     } else {
-      response = oDataHandler.process(request);
+      response = process(request);
     }
 
     // Add content id to response
@@ -83,6 +92,12 @@ public class BatchPartHandler {
     return response;
   }
 
+  private ODataResponse process(final ODataRequest request) {
+    return debugger == null ?
+        oDataHandler.process(request) :
+        oDataHandler.process(request, new ODataRequestContext(debugger));
+  }
+
   private ODataResponsePart handleChangeSet(final BatchRequestPart request) throws ODataApplicationException,
       ODataLibraryException {
     return batchProcessor.processChangeSet(batchFacade, request.getRequests());
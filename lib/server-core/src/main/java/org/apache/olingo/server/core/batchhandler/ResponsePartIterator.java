@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.batchhandler;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.apache.olingo.commons.api.ODataRuntimeException;
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.batch.BatchExecution;
+import org.apache.olingo.server.api.batch.BatchFacade;
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
+import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.apache.olingo.server.core.ODataHandler;
+
+/**
+ * Handles the batch-request parts when the next response part is requested.
+ * With {@link BatchExecution} settings, consecutive independent parts are read ahead
+ * and executed concurrently; all other parts wait until the previous parts have completed.
+ * Exceptions thrown while a part is handled become the error response of that part,
+ * because the status of the batch response has already been sent.
+ * For the same reason, an error while reading the batch request, e.g., a syntax error in a part
+ * or a decoded body exceeding its maximum size, ends the iteration with a last error response.
+ */
+final class ResponsePartIterator implements Iterator<ODataResponsePart> {
+  private final BatchFacade facade;
+  private final ODataHandler handler;
+  private final ODataRequest batchRequest;
+  private final BatchRequestPartIterator parts;
+  private final boolean continueOnError;
+  private final BatchExecution execution;
+  private final LinkedList<PendingPart> pending = new LinkedList<PendingPart>();
+  private boolean isStopped = false;
+  private ODataResponsePart readError;
+
+  ResponsePartIterator(final BatchFacade facade, final ODataHandler handler, final ODataRequest batchRequest,
+      final BatchRequestPartIterator parts, final boolean continueOnError, final BatchExecution execution) {
+    this.facade = facade;
+    this.handler = handler;
+    this.batchRequest = batchRequest;
+    this.parts = parts;
+    this.continueOnError = continueOnError;
+    this.execution = execution;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!isStopped) {
+      try {
+        readAhead();
+      } catch (final BatchDeserializerException e) {
+        readFailed(e);
+      } catch (final ODataRuntimeException e) {
+        readFailed(e);
+      }
+    }
+    return !pending.isEmpty() || readError != null;
+  }
+
+  @Override
+  public ODataResponsePart next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    if (pending.isEmpty()) {
+      final ODataResponsePart responsePart = readError;
+      readError = null;
+      return responsePart;
+    }
+    final ODataResponsePart responsePart;
+    try {
+      responsePart = pending.removeFirst().getResult();
+    } catch (final RuntimeException e) {
+      stop();
+      throw e;
+    }
+    final int statusCode = responsePart.getResponses().get(0).getStatusCode();
+    if (statusCode >= 400 && statusCode <= 600 && !continueOnError) {
+      stop(); // Stop processing, but serialize responses to all recent requests.
+    }
+    return responsePart; // Also return failed responses.
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Reads parts until the next part has to wait for its predecessors
+   * or the maximum number of concurrently executed parts is reached.
+   * Without execution settings, exactly one part is read.
+   */
+  private void readAhead() throws BatchDeserializerException {
+    final int maxPending = execution == null ? 1 : execution.getMaxConcurrentParts();
+    while (pending.size() < maxPending && (pending.isEmpty() || pending.getLast().task != null)
+        && parts.hasNext()) {
+      final BatchRequestPart part = parts.next();
+      if (execution != null && isIndependent(part)) {
+        final FutureTask<ODataResponsePart> task = new FutureTask<ODataResponsePart>(
+            new Callable<ODataResponsePart>() {
+              @Override
+              public ODataResponsePart call() throws ODataApplicationException, ODataLibraryException {
+                return facade.handleBatchRequest(part);
+              }
+            });
+        execution.getExecutor().execute(task);
+        pending.add(new PendingPart(part, task));
+      } else {
+        pending.add(new PendingPart(part, null));
+      }
+    }
+  }
+
+  /**
+   * Stops reading; the parts read before are still handled, and then the error is returned as last part.
+   * A library exception causing a runtime exception is reported instead, e.g., for a body that is too large.
+   */
+  private void readFailed(final Exception exception) {
+    Exception error = exception;
+    for (Throwable cause = exception.getCause(); cause != null; cause = cause.getCause()) {
+      if (cause instanceof ODataLibraryException) {
+        error = (ODataLibraryException) cause;
+        break;
+      }
+    }
+    readError = new ODataResponsePart(handler.createErrorResponse(batchRequest, error), false);
+    isStopped = true;
+  }
+
+  private void stop() {
+    isStopped = true;
+    readError = null;
+    // Parts executed concurrently only read data, so their results can simply be dropped.
+    for (final PendingPart part : pending) {
+      if (part.task != null) {
+        part.task.cancel(false);
+      }
+    }
+    pending.clear();
+  }
+
+  /**
+   * Retrieve requests outside of change sets can run concurrently,
+   * unless they refer to the result of another request via Content-ID.
+   */
+  static boolean isIndependent(final BatchRequestPart part) {
+    if (part.isChangeSet() || part.getRequests().size() != 1) {
+      return false;
+    }
+    final ODataRequest request = part.getRequests().get(0);
+    final String path = request.getRawODataPath();
+    return request.getMethod() == HttpMethod.GET
+        && (path == null || !(path.startsWith("$") || path.startsWith("/$")) || isSystemResource(path));
+  }
+
+  private static boolean isSystemResource(final String path) {
+    final String segment = path.startsWith("/") ? path.substring(1) : path;
+    return segment.startsWith("$metadata") || segment.startsWith("$all") || segment.startsWith("$crossjoin")
+        || segment.startsWith("$entity");
+  }
+
+  private class PendingPart {
+    private final BatchRequestPart part;
+    private final FutureTask<ODataResponsePart> task;
+
+    public PendingPart(final BatchRequestPart part, final FutureTask<ODataResponsePart> task) {
+      this.part = part;
+      this.task = task;
+    }
+
+    public ODataResponsePart getResult() {
+      try {
+        return task == null ? facade.handleBatchRequest(part) : task.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ODataRuntimeException(e);
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        return getErrorResult((Exception) e.getCause());
+      } catch (final Exception e) {
+        return getErrorResult(e);
+      }
+    }
+
+    private ODataResponsePart getErrorResult(final Exception exception) {
+      final ODataRequest request = part.getRequests().get(0);
+      final ODataResponse response = handler.createErrorResponse(request, exception);
+      final String contentId = request.getHeader(HttpHeader.CONTENT_ID);
+      if (contentId != null && !part.isChangeSet()) {
+        response.setHeader(HttpHeader.CONTENT_ID, contentId);
+      }
+      return new ODataResponsePart(response, false);
+    }
+  }
+}
@@ -50,6 +50,8 @@ public class DebugResponseHelperImpl implements DebugResponseHelper {
     JSON, HTML, DOWNLOAD
   };
 
+  private static final JsonFactory FACTORY = new JsonFactory();
+
   private final DebugFormat requestedFormat;
 
   public DebugResponseHelperImpl(String debugFormat) {
@@ -136,7 +138,7 @@ public class DebugResponseHelperImpl implements DebugResponseHelper {
 
   private InputStream wrapInJson(final List<DebugTab> parts) throws IOException {
     CircleStreamBuffer csb = new CircleStreamBuffer();
-    JsonGenerator gen = new JsonFactory().createGenerator(csb.getOutputStream(), JsonEncoding.UTF8);
+    JsonGenerator gen = FACTORY.createGenerator(csb.getOutputStream(), JsonEncoding.UTF8);
 
     gen.writeStartObject();
     DebugTab requestInfo = parts.get(0);
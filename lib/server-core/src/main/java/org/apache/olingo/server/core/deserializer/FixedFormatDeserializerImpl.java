@@ -33,6 +33,7 @@ import org.apache.olingo.server.api.deserializer.FixedFormatDeserializer;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
 import org.apache.olingo.server.core.deserializer.batch.BatchParser;
 
 public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
@@ -87,4 +88,10 @@ public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
 
     return parser.parseBatchRequest(content, boundary, options);
   }
+
+  @Override
+  public BatchRequestPartIterator parseBatchRequestStreamed(final InputStream content, final String boundary,
+      final BatchOptions options) {
+    return new BatchParser().parseBatchRequestStreamed(content, boundary, options);
+  }
 }
@@ -45,6 +45,7 @@ public class BatchLineReader {
   private byte[] buffer;
   private int offset = 0;
   private int limit = 0;
+  private int lineNumber = 0;
 
   public BatchLineReader(final InputStream reader) {
     this(reader, BUFFER_SIZE);
@@ -79,20 +80,29 @@ public class BatchLineReader {
 
   public List<Line> toLineList() throws IOException {
     final List<Line> result = new ArrayList<Line>();
-    String currentLine = readLine();
-    if(currentLine != null) {
-      currentBoundary = currentLine.trim();
-      int counter = 1;
-      result.add(new Line(currentLine, counter++));
-
-      while ((currentLine = readLine()) != null) {
-        result.add(new Line(currentLine, counter++));
-      }
+    Line currentLine;
+    while ((currentLine = readNextLine()) != null) {
+      result.add(currentLine);
     }
 
     return result;
   }
 
+  /**
+   * Reads the next line of the message; lines are numbered starting with 1.
+   * @return the line or <code>null</code> if the end of the message has been reached
+   */
+  public Line readNextLine() throws IOException {
+    final String currentLine = readLine();
+    if (currentLine == null) {
+      return null;
+    }
+    if (lineNumber == 0) {
+      currentBoundary = currentLine.trim();
+    }
+    return new Line(currentLine, ++lineNumber);
+  }
+
   private void updateCurrentCharset(String currentLine) {
     if(currentLine != null) {
       if(currentLine.startsWith(HttpHeader.CONTENT_TYPE)) {
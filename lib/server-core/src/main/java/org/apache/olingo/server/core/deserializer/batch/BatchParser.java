@@ -20,13 +20,17 @@ package org.apache.olingo.server.core.deserializer.batch;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
 
 import org.apache.olingo.commons.api.ODataRuntimeException;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
 
 public class BatchParser {
 
@@ -42,13 +46,24 @@ public class BatchParser {
     return parse(content, boundary, transformator);
   }
 
+  /**
+   * Parses the batch request part by part while the content is read.
+   * Only the lines of the current part are held in memory.
+   */
+  public BatchRequestPartIterator parseBatchRequestStreamed(final InputStream content, final String boundary,
+      final BatchOptions options) {
+    this.options = options;
+
+    BatchRequestTransformator transformator = new BatchRequestTransformator(options.getRawBaseUri(),
+        options.getRawServiceResolutionUri());
+    return new PartIterator(content, boundary, transformator);
+  }
+
   private List<BatchRequestPart> parse(final InputStream in, final String boundary,
       final BatchRequestTransformator transformator)
       throws BatchDeserializerException {
     try {
       return parseBatch(in, boundary, transformator);
-    } catch (IOException e) {
-      throw new ODataRuntimeException(e);
     } finally {
       try {
         in.close();
@@ -59,24 +74,110 @@ public class BatchParser {
   }
 
   private List<BatchRequestPart> parseBatch(final InputStream in, final String boundary,
-      final BatchRequestTransformator transformator) throws IOException, BatchDeserializerException {
+      final BatchRequestTransformator transformator) throws BatchDeserializerException {
     final List<BatchRequestPart> resultList = new LinkedList<BatchRequestPart>();
-    final List<List<Line>> bodyPartStrings = splitBodyParts(in, boundary);
+    final BatchRequestPartIterator iterator = new PartIterator(in, boundary, transformator);
 
-    for (List<Line> bodyPartString : bodyPartStrings) {
-      BatchBodyPart bodyPart = new BatchBodyPart(bodyPartString, boundary, options.isStrict()).parse();
-      resultList.addAll(transformator.transform(bodyPart));
+    while (iterator.hasNext()) {
+      resultList.add(iterator.next());
     }
 
     return resultList;
   }
 
-  private List<List<Line>> splitBodyParts(final InputStream in, final String boundary) throws IOException,
-      BatchDeserializerException {
-    final BatchLineReader reader = new BatchLineReader(in);
-    final List<Line> message = reader.toLineList();
-    reader.close();
+  /**
+   * Splits the message by the boundary line by line, like
+   * {@link BatchParserCommon#splitMessageByBoundary(List, String)} does for a complete message,
+   * and transforms each body part as soon as its closing boundary has been read.
+   */
+  private class PartIterator implements BatchRequestPartIterator {
+    private final BatchLineReader reader;
+    private final String boundary;
+    private final String boundaryLineStart;
+    private final Pattern boundaryDelimiterPattern;
+    private final Pattern boundaryPattern;
+    private final BatchRequestTransformator transformator;
+    private final LinkedList<BatchRequestPart> parts = new LinkedList<BatchRequestPart>();
+    private boolean isInBodyPart = false;
+    private boolean isEndReached = false;
+    private boolean isFirstLineRead = false;
 
-    return BatchParserCommon.splitMessageByBoundary(message, boundary);
+    public PartIterator(final InputStream in, final String boundary, final BatchRequestTransformator transformator) {
+      reader = new BatchLineReader(in);
+      this.boundary = boundary;
+      this.transformator = transformator;
+      boundaryLineStart = "--" + boundary;
+      final String quotedBoundary = Pattern.quote(boundary);
+      boundaryDelimiterPattern = Pattern.compile("--" + quotedBoundary + "--\\s*");
+      boundaryPattern = Pattern.compile("--" + quotedBoundary + "\\s*");
+    }
+
+    @Override
+    public boolean hasNext() throws BatchDeserializerException {
+      while (parts.isEmpty() && !isEndReached) {
+        try {
+          readBodyPart();
+        } catch (final BatchDeserializerException e) {
+          close();
+          throw e;
+        } catch (final IOException e) {
+          close();
+          throw new ODataRuntimeException(e);
+        }
+      }
+      return !parts.isEmpty();
+    }
+
+    @Override
+    public BatchRequestPart next() throws BatchDeserializerException {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return parts.removeFirst();
+    }
+
+    private void readBodyPart() throws IOException, BatchDeserializerException {
+      final List<Line> currentPart = new ArrayList<Line>();
+      Line currentLine;
+
+      while ((currentLine = reader.readNextLine()) != null) {
+        isFirstLineRead = true;
+        final String content = currentLine.toString();
+        if (content.startsWith(boundaryLineStart) && boundaryDelimiterPattern.matcher(content).matches()) {
+          close();
+          if (isInBodyPart) {
+            transform(currentPart);
+          }
+          return;
+        } else if (content.startsWith(boundaryLineStart) && boundaryPattern.matcher(content).matches()) {
+          if (isInBodyPart) {
+            transform(currentPart);
+            return;
+          }
+          // Everything before the first boundary is the preamble.
+          isInBodyPart = true;
+        } else if (isInBodyPart) {
+          currentPart.add(currentLine);
+        }
+      }
+
+      throw new BatchDeserializerException("Missing close boundary delimiter",
+          BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER, isFirstLineRead ? "1" : "0");
+    }
+
+    private void transform(final List<Line> bodyPartLines) throws BatchDeserializerException {
+      BatchParserCommon.removeEndingCRLFFromList(bodyPartLines);
+      final BatchBodyPart bodyPart = new BatchBodyPart(bodyPartLines, boundary, options.isStrict()).parse();
+      parts.addAll(transformator.transform(bodyPart));
+    }
+
+    private void close() {
+      isEndReached = true;
+      try {
+        reader.close();
+      } catch (final IOException e) {
+        throw new ODataRuntimeException(e);
+      }
+    }
   }
 }
@@ -137,7 +137,7 @@ public class BatchParserCommon {
     return messageParts;
   }
 
-  private static void removeEndingCRLFFromList(List<Line> list) {
+  public static void removeEndingCRLFFromList(final List<Line> list) {
     if (list.size() > 0) {
       Line lastLine = list.remove(list.size() - 1);
       list.add(removeEndingCRLF(lastLine));
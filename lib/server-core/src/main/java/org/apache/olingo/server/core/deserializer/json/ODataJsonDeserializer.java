@@ -23,11 +23,12 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.ComplexValue;
@@ -36,9 +37,11 @@ import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Parameter;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.PropertyIndex;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmAction;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
+import org.apache.olingo.commons.api.edm.EdmElement;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmEnumType;
 import org.apache.olingo.commons.api.edm.EdmMapping;
@@ -63,19 +66,28 @@ import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilderImpl;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+/**
+ * Deserializer for the JSON format.
+ * Entities, entity collections, action parameters, and entity references are read
+ * in a single pass over the token stream of the request body;
+ * no intermediate JSON tree is built.
+ */
 public class ODataJsonDeserializer implements ODataDeserializer {
 
   private static final String ODATA_ANNOTATION_MARKER = "@";
   private static final String ODATA_CONTROL_INFORMATION_PREFIX = "@odata.";
   private static final EdmPrimitiveType EDM_INT64 = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64);
   private static final EdmPrimitiveType EDM_DECIMAL = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Decimal);
+  /** Thread-safe; the object mapper is configured only here. */
+  private static final JsonFactory FACTORY = new JsonFactory(
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true));
   private final boolean isIEEE754Compatible;
 
   public ODataJsonDeserializer(final ContentType contentType) {
@@ -86,9 +98,10 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   public DeserializerResult entityCollection(final InputStream stream, final EdmEntityType edmEntityType)
       throws DeserializerException {
     try {
-      final ObjectNode tree = parseJsonTree(stream);
+      final JsonParser parser = createParser(stream);
+      startObject(parser);
 
-      return DeserializerResultImpl.with().entityCollection(consumeEntitySetNode(edmEntityType, tree, null))
+      return DeserializerResultImpl.with().entityCollection(consumeEntitySet(edmEntityType, parser, null))
           .build();
     } catch (JsonParseException e) {
       throw new DeserializerException("An JsonParseException occurred", e,
@@ -101,67 +114,61 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     }
   }
 
-  private EntityCollection consumeEntitySetNode(final EdmEntityType edmEntityType, final ObjectNode tree,
-      final ExpandTreeBuilder expandBuilder) throws DeserializerException {
+  private EntityCollection consumeEntitySet(final EdmEntityType edmEntityType, final JsonParser parser,
+      final ExpandTreeBuilder expandBuilder) throws DeserializerException, IOException {
     EntityCollection entitySet = new EntityCollection();
-
-    // Consume entities
-    JsonNode jsonNode = tree.get(Constants.VALUE);
-    if (jsonNode != null) {
-      if (!jsonNode.isArray()) {
-        throw new DeserializerException("The content of the value tag must be an Array but is not. ",
-            DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
+    boolean hasValue = false;
+    final RemainingFields remaining = new RemainingFields();
+
+    final Set<String> fieldNames = new HashSet<String>();
+    while (nextField(parser, fieldNames) != null) {
+      final String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      if (Constants.VALUE.equals(fieldName)) {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+          throw new DeserializerException("The content of the value tag must be an Array but is not. ",
+              DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
+        }
+        consumeEntitySetArray(edmEntityType, parser, expandBuilder, entitySet.getEntities());
+        hasValue = true;
+      } else {
+        remaining.skip(fieldName, parser);
       }
+    }
 
-      entitySet.getEntities().addAll(consumeEntitySetArray(edmEntityType, jsonNode, expandBuilder));
-      tree.remove(Constants.VALUE);
-    } else {
+    if (!hasValue) {
       throw new DeserializerException("Could not find value array.",
           DeserializerException.MessageKeys.VALUE_ARRAY_NOT_PRESENT);
     }
-
-    final List<String> toRemove = new ArrayList<String>();
-    Iterator<Entry<String, JsonNode>> fieldsIterator = tree.fields();
-    while (fieldsIterator.hasNext()) {
-      Map.Entry<String, JsonNode> field = fieldsIterator.next();
-
-      if (field.getKey().contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
-        // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
-        toRemove.add(field.getKey());
-      } else if (field.getKey().contains(ODATA_ANNOTATION_MARKER)) {
-        throw new DeserializerException("Custom annotation with field name: " + field.getKey() + " not supported",
-            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
-      }
-    }
-    // remove here to avoid iterator issues.
-    tree.remove(toRemove);
-    assertJsonNodeIsEmpty(tree);
+    remaining.assertEmpty();
 
     return entitySet;
   }
 
-  private List<Entity> consumeEntitySetArray(final EdmEntityType edmEntityType, final JsonNode jsonNode,
-      final ExpandTreeBuilder expandBuilder) throws DeserializerException {
-    List<Entity> entities = new ArrayList<Entity>();
-    for (JsonNode arrayElement : jsonNode) {
-      if (arrayElement.isArray() || arrayElement.isValueNode()) {
+  /**
+   * Consumes the entities of a JSON array; the parser must be positioned at the start of the array.
+   */
+  private void consumeEntitySetArray(final EdmEntityType edmEntityType, final JsonParser parser,
+      final ExpandTreeBuilder expandBuilder, final List<Entity> entities) throws DeserializerException, IOException {
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
         throw new DeserializerException("Nested Arrays and primitive values are not allowed for an entity value.",
             DeserializerException.MessageKeys.INVALID_ENTITY);
       }
 
-      entities.add(consumeEntityNode(edmEntityType, (ObjectNode) arrayElement, expandBuilder));
+      entities.add(consumeEntity(edmEntityType, parser, expandBuilder));
     }
-    return entities;
   }
 
   @Override
   public DeserializerResult entity(final InputStream stream, final EdmEntityType edmEntityType)
       throws DeserializerException {
     try {
-      final ObjectNode tree = parseJsonTree(stream);
+      final JsonParser parser = createParser(stream);
+      startObject(parser);
       final ExpandTreeBuilderImpl expandBuilder = new ExpandTreeBuilderImpl();
 
-      return DeserializerResultImpl.with().entity(consumeEntityNode(edmEntityType, tree, expandBuilder))
+      return DeserializerResultImpl.with().entity(consumeEntity(edmEntityType, parser, expandBuilder))
           .expandOption(expandBuilder.build())
           .build();
 
@@ -177,21 +184,45 @@ public class ODataJsonDeserializer implements ODataDeserializer {
 
   }
 
-  private Entity consumeEntityNode(final EdmEntityType edmEntityType, final ObjectNode tree,
-      final ExpandTreeBuilder expandBuilder) throws DeserializerException {
+  /**
+   * Consumes all fields of a JSON object into an entity and maps found values
+   * to properties, expanded navigation properties, and binding links;
+   * control information is ignored.
+   * The parser must be positioned at the start of the object; afterwards it is positioned at its end.
+   *
+   * @param edmEntityType edm entity type of the entity
+   * @param parser JSON parser
+   * @param expandBuilder builder for the expand tree of deep-insert requests or <code>null</code>
+   * @return the entity
+   * @throws DeserializerException if an exception during consummation occurs
+   */
+  private Entity consumeEntity(final EdmEntityType edmEntityType, final JsonParser parser,
+      final ExpandTreeBuilder expandBuilder) throws DeserializerException, IOException {
     Entity entity = new Entity();
     entity.setType(edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString());
-
-    // Check and consume all Properties
-    consumeEntityProperties(edmEntityType, tree, entity);
-
-    // Check and consume all expanded Navigation Properties
-    consumeExpandedNavigationProperties(edmEntityType, tree, entity, expandBuilder);
-
-    // consume remaining json node fields
-    consumeRemainingJsonNodeFields(edmEntityType, tree, entity);
-
-    assertJsonNodeIsEmpty(tree);
+    entity.setPropertyIndex(PropertyIndex.of(edmEntityType));
+    final RemainingFields remaining = new RemainingFields();
+
+    final Set<String> fieldNames = new HashSet<String>();
+    while (nextField(parser, fieldNames) != null) {
+      final String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      final EdmElement edmElement = edmEntityType.getProperty(fieldName);
+      if (edmElement instanceof EdmProperty) {
+        entity.addProperty(consumeProperty((EdmProperty) edmElement, parser));
+        continue;
+      }
+      final EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(fieldName);
+      if (edmNavigationProperty != null) {
+        checkNotNullOrValidNull(parser, edmNavigationProperty);
+        entity.getNavigationLinks().add(createLink(expandBuilder, fieldName, parser, edmNavigationProperty));
+      } else if (fieldName.contains(Constants.JSON_BIND_LINK_SUFFIX)) {
+        entity.getNavigationBindings().add(consumeBindingLink(fieldName, parser, edmEntityType));
+      } else {
+        remaining.skip(fieldName, parser);
+      }
+    }
+    remaining.assertEmpty();
 
     return entity;
   }
@@ -200,26 +231,12 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   public DeserializerResult actionParameters(final InputStream stream, final EdmAction edmAction)
       throws DeserializerException {
     try {
-      ObjectNode tree = parseJsonTree(stream);
-      if (tree != null) {
-        Map<String, Parameter> parameters = consumeParameters(edmAction, tree);
-
-        final List<String> toRemove = new ArrayList<String>();
-        Iterator<Entry<String, JsonNode>> fieldsIterator = tree.fields();
-        while (fieldsIterator.hasNext()) {
-          Map.Entry<String, JsonNode> field = fieldsIterator.next();
-
-          if (field.getKey().contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
-            // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
-            toRemove.add(field.getKey());
-          } else if (field.getKey().contains(ODATA_ANNOTATION_MARKER)) {
-            throw new DeserializerException("Custom annotation with field name: " + field.getKey() + " not supported",
-                DeserializerException.MessageKeys.NOT_IMPLEMENTED);
-          }
+      final JsonParser parser = createParser(stream);
+      if (parser.nextToken() != null) {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+          throw notAnObject();
         }
-        // remove here to avoid iterator issues.
-        tree.remove(toRemove);
-        assertJsonNodeIsEmpty(tree);
+        final Map<String, Parameter> parameters = consumeParameters(edmAction, parser);
         return DeserializerResultImpl.with().actionParameters(parameters).build();
       }
       return DeserializerResultImpl.with().build();
@@ -236,50 +253,103 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     }
   }
 
-  private ObjectNode parseJsonTree(final InputStream stream) throws IOException {
-    ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
-    JsonParser parser = new JsonFactory(objectMapper).createParser(stream);
-    return parser.getCodec().readTree(parser);
+  private JsonParser createParser(final InputStream stream) throws IOException {
+    return FACTORY.createParser(stream);
   }
 
-  private Map<String, Parameter> consumeParameters(final EdmAction edmAction, final ObjectNode node)
-      throws DeserializerException {
+  /**
+   * Advances the parser to the first token, which must start a JSON object.
+   */
+  private void startObject(final JsonParser parser) throws DeserializerException, IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw notAnObject();
+    }
+  }
+
+  private DeserializerException notAnObject() {
+    return new DeserializerException("The payload must be a JSON object.",
+        DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+  }
+
+  /**
+   * Advances the parser to the next field of the current object.
+   * @param parser JSON parser
+   * @param fieldNames names of the fields already read in the current object
+   * @return the field name or <code>null</code> if the end of the object has been reached
+   * @throws JsonMappingException if the field name occurs more than once
+   */
+  private String nextField(final JsonParser parser, final Set<String> fieldNames) throws IOException {
+    if (parser.nextToken() != JsonToken.FIELD_NAME) {
+      return null;
+    }
+    final String fieldName = parser.getCurrentName();
+    if (!fieldNames.add(fieldName)) {
+      throw new JsonMappingException("Duplicate field '" + fieldName + "'", parser.getCurrentLocation());
+    }
+    return fieldName;
+  }
+
+  private Map<String, Parameter> consumeParameters(final EdmAction edmAction, final JsonParser parser)
+      throws DeserializerException, IOException {
     List<String> parameterNames = edmAction.getParameterNames();
     if (edmAction.isBound()) {
       // The binding parameter must not occur in the payload.
       parameterNames = parameterNames.subList(1, parameterNames.size());
     }
+    Map<String, Parameter> found = new HashMap<String, Parameter>();
+    final RemainingFields remaining = new RemainingFields();
+
+    final Set<String> fieldNames = new HashSet<String>();
+    while (nextField(parser, fieldNames) != null) {
+      final String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      if (parameterNames.contains(fieldName)) {
+        final EdmParameter edmParameter = edmAction.getParameter(fieldName);
+        checkParameterKind(edmParameter);
+        found.put(fieldName, createParameter(parser, fieldName, edmParameter));
+      } else {
+        remaining.skip(fieldName, parser);
+      }
+    }
+
+    // Parameters are returned in the order of their definition; missing ones are null.
     Map<String, Parameter> parameters = new LinkedHashMap<String, Parameter>();
     for (final String paramName : parameterNames) {
       final EdmParameter edmParameter = edmAction.getParameter(paramName);
-
-      switch (edmParameter.getType().getKind()) {
-      case PRIMITIVE:
-      case DEFINITION:
-      case ENUM:
-        Parameter parameter = createParameter(node.get(paramName), paramName, edmParameter);
-        parameters.put(paramName, parameter);
-        node.remove(paramName);
-        break;
-      case COMPLEX:
-      case ENTITY:
-        throw new DeserializerException("Entity and complex parameters currently not Implemented",
-            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
-      default:
-        throw new DeserializerException("Invalid type kind " + edmParameter.getType().getKind().toString()
-            + " for action parameter: " + paramName, DeserializerException.MessageKeys.INVALID_ACTION_PARAMETER_TYPE,
-            paramName);
-      }
+      checkParameterKind(edmParameter);
+      final Parameter parameter = found.get(paramName);
+      parameters.put(paramName, parameter == null ? createParameter(null, paramName, edmParameter) : parameter);
     }
+    remaining.assertEmpty();
     return parameters;
   }
 
-  private Parameter createParameter(JsonNode node, String paramName, EdmParameter edmParameter) throws
-      DeserializerException {
+  private void checkParameterKind(final EdmParameter edmParameter) throws DeserializerException {
+    switch (edmParameter.getType().getKind()) {
+    case PRIMITIVE:
+    case DEFINITION:
+    case ENUM:
+      break;
+    case COMPLEX:
+    case ENTITY:
+      throw new DeserializerException("Entity and complex parameters currently not Implemented",
+          DeserializerException.MessageKeys.NOT_IMPLEMENTED);
+    default:
+      throw new DeserializerException("Invalid type kind " + edmParameter.getType().getKind().toString()
+          + " for action parameter: " + edmParameter.getName(),
+          DeserializerException.MessageKeys.INVALID_ACTION_PARAMETER_TYPE, edmParameter.getName());
+    }
+  }
+
+  /**
+   * Creates a parameter from the current value of the parser.
+   * @param parser JSON parser or <code>null</code> if the parameter is not present
+   */
+  private Parameter createParameter(final JsonParser parser, final String paramName, final EdmParameter edmParameter)
+      throws DeserializerException, IOException {
     Parameter parameter = new Parameter();
     parameter.setName(paramName);
-    if (node == null || node.isNull()) {
+    if (parser == null || parser.getCurrentToken() == JsonToken.VALUE_NULL) {
       if (!edmParameter.isNullable()) {
         throw new DeserializerException("Non-nullable parameter not present or null",
             MessageKeys.INVALID_NULL_PARAMETER, paramName);
@@ -291,130 +361,61 @@ public class ODataJsonDeserializer implements ODataDeserializer {
       parameter.setValue(ValueType.PRIMITIVE, null);
     } else {
       Property consumePropertyNode =
-          consumePropertyNode(edmParameter.getName(), edmParameter.getType(), edmParameter.isCollection(),
+          consumeProperty(edmParameter.getName(), edmParameter.getType(), edmParameter.isCollection(),
               edmParameter.isNullable(), edmParameter.getMaxLength(), edmParameter.getPrecision(), edmParameter
-                  .getScale(), true, edmParameter.getMapping(), node);
+                  .getScale(), true, edmParameter.getMapping(), parser);
       parameter.setValue(consumePropertyNode.getValueType(), consumePropertyNode.getValue());
     }
     return parameter;
   }
 
   /**
-   * Consume all remaining fields of Json ObjectNode and try to map found values
-   * to according Entity fields and omit to be ignored OData fields (e.g. control information).
-   *
-   * @param edmEntityType edm entity type which for which the json node is consumed
-   * @param node json node which is consumed
-   * @param entity entity instance which is filled
-   * @throws DeserializerException if an exception during consummation occurs
-   */
-  private void consumeRemainingJsonNodeFields(final EdmEntityType edmEntityType, final ObjectNode node,
-      final Entity entity) throws DeserializerException {
-    final List<String> toRemove = new ArrayList<String>();
-    Iterator<Entry<String, JsonNode>> fieldsIterator = node.fields();
-    while (fieldsIterator.hasNext()) {
-      Entry<String, JsonNode> field = fieldsIterator.next();
-
-      if (field.getKey().contains(Constants.JSON_BIND_LINK_SUFFIX)) {
-        Link bindingLink = consumeBindingLink(field.getKey(), field.getValue(), edmEntityType);
-        entity.getNavigationBindings().add(bindingLink);
-        toRemove.add(field.getKey());
-      } else if (field.getKey().contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
-        // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
-        toRemove.add(field.getKey());
-      } else if (field.getKey().contains(ODATA_ANNOTATION_MARKER)) {
-        throw new DeserializerException("Custom annotation with field name: " + field.getKey() + " not supported",
-            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
-      }
-    }
-    // remove here to avoid iterator issues.
-    node.remove(toRemove);
-  }
-
-  private void consumeEntityProperties(final EdmEntityType edmEntityType, final ObjectNode node,
-      final Entity entity) throws DeserializerException {
-    List<String> propertyNames = edmEntityType.getPropertyNames();
-    for (String propertyName : propertyNames) {
-      JsonNode jsonNode = node.get(propertyName);
-      if (jsonNode != null) {
-        EdmProperty edmProperty = (EdmProperty) edmEntityType.getProperty(propertyName);
-        if (jsonNode.isNull() && !edmProperty.isNullable()) {
-          throw new DeserializerException("Property: " + propertyName + " must not be null.",
-              DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, propertyName);
-        }
-        Property property = consumePropertyNode(edmProperty.getName(), edmProperty.getType(),
-            edmProperty.isCollection(), edmProperty.isNullable(), edmProperty.getMaxLength(),
-            edmProperty.getPrecision(), edmProperty.getScale(), edmProperty.isUnicode(), edmProperty.getMapping(),
-            jsonNode);
-        entity.addProperty(property);
-        node.remove(propertyName);
-      }
-    }
-  }
-
-  private void consumeExpandedNavigationProperties(final EdmEntityType edmEntityType, final ObjectNode node,
-      final Entity entity, final ExpandTreeBuilder expandBuilder) throws DeserializerException {
-    List<String> navigationPropertyNames = edmEntityType.getNavigationPropertyNames();
-    for (String navigationPropertyName : navigationPropertyNames) {
-      // read expanded navigation property
-      JsonNode jsonNode = node.get(navigationPropertyName);
-      if (jsonNode != null) {
-        EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(navigationPropertyName);
-        checkNotNullOrValidNull(jsonNode, edmNavigationProperty);
-
-        Link link = createLink(expandBuilder, navigationPropertyName, jsonNode, edmNavigationProperty);
-        entity.getNavigationLinks().add(link);
-        node.remove(navigationPropertyName);
-      }
-    }
-  }
-
-  /**
-   * Check if jsonNode is not null or if null but nullable or collection navigationProperty
+   * Check if the current value is not null or if null but nullable or collection navigationProperty
    *
-   * @param jsonNode related json node
+   * @param parser JSON parser positioned at the value
    * @param edmNavigationProperty related navigation property
-   * @throws DeserializerException if jsonNode is not null or if null but nullable or collection navigationProperty
+   * @throws DeserializerException if the value is null but the navigation property is not nullable or a collection
    */
-  private void checkNotNullOrValidNull(JsonNode jsonNode,
-      EdmNavigationProperty edmNavigationProperty) throws DeserializerException {
-    boolean isNullable = edmNavigationProperty.isNullable();
-    if ((jsonNode.isNull() && !isNullable) || (jsonNode.isNull() && edmNavigationProperty.isCollection())) {
+  private void checkNotNullOrValidNull(final JsonParser parser,
+      final EdmNavigationProperty edmNavigationProperty) throws DeserializerException {
+    final boolean isNull = parser.getCurrentToken() == JsonToken.VALUE_NULL;
+    if ((isNull && !edmNavigationProperty.isNullable()) || (isNull && edmNavigationProperty.isCollection())) {
       throw new DeserializerException("Property: " + edmNavigationProperty.getName() + " must not be null.",
           MessageKeys.INVALID_NULL_PROPERTY, edmNavigationProperty.getName());
     }
   }
 
-  private Link createLink(ExpandTreeBuilder expandBuilder, String navigationPropertyName, JsonNode jsonNode,
-      EdmNavigationProperty edmNavigationProperty) throws DeserializerException {
+  private Link createLink(final ExpandTreeBuilder expandBuilder, final String navigationPropertyName,
+      final JsonParser parser, final EdmNavigationProperty edmNavigationProperty)
+      throws DeserializerException, IOException {
     Link link = new Link();
     link.setTitle(navigationPropertyName);
     final ExpandTreeBuilder childExpandBuilder = (expandBuilder != null) ?
         expandBuilder.expand(edmNavigationProperty) : null;
-    if (jsonNode.isArray() && edmNavigationProperty.isCollection()) {
+    final JsonToken token = parser.getCurrentToken();
+    if (token == JsonToken.START_ARRAY && edmNavigationProperty.isCollection()) {
       link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
       EntityCollection inlineEntitySet = new EntityCollection();
-      inlineEntitySet.getEntities().addAll(
-          consumeEntitySetArray(edmNavigationProperty.getType(), jsonNode, childExpandBuilder));
+      consumeEntitySetArray(edmNavigationProperty.getType(), parser, childExpandBuilder,
+          inlineEntitySet.getEntities());
       link.setInlineEntitySet(inlineEntitySet);
-    } else if (!jsonNode.isArray() && (!jsonNode.isValueNode() || jsonNode.isNull())
+    } else if ((token == JsonToken.START_OBJECT || token == JsonToken.VALUE_NULL)
         && !edmNavigationProperty.isCollection()) {
       link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
-      if (!jsonNode.isNull()) {
-        Entity inlineEntity = consumeEntityNode(edmNavigationProperty.getType(), (ObjectNode) jsonNode,
-            childExpandBuilder);
+      if (token == JsonToken.START_OBJECT) {
+        Entity inlineEntity = consumeEntity(edmNavigationProperty.getType(), parser, childExpandBuilder);
         link.setInlineEntity(inlineEntity);
       }
     } else {
-      throw new DeserializerException("Invalid value: " + jsonNode.getNodeType()
+      throw new DeserializerException("Invalid value: " + token
           + " for expanded navigation property: " + navigationPropertyName,
           MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY, navigationPropertyName);
     }
     return link;
   }
 
-  private Link consumeBindingLink(final String key, final JsonNode jsonNode, final EdmEntityType edmEntityType)
-      throws DeserializerException {
+  private Link consumeBindingLink(final String key, final JsonParser parser, final EdmEntityType edmEntityType)
+      throws DeserializerException, IOException {
     String[] splitKey = key.split("@");
     String navigationPropertyName = splitKey[0];
     EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(navigationPropertyName);
@@ -426,78 +427,95 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     bindingLink.setTitle(navigationPropertyName);
 
     if (edmNavigationProperty.isCollection()) {
-      assertIsNullNode(key, jsonNode);
-      if (!jsonNode.isArray()) {
+      assertIsNotNull(key, parser);
+      if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
         throw new DeserializerException("Binding annotation: " + key + " must be an array.",
             DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
       }
       List<String> bindingLinkStrings = new ArrayList<String>();
-      for (JsonNode arrayValue : jsonNode) {
-        assertIsNullNode(key, arrayValue);
-        if (!arrayValue.isTextual()) {
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        assertIsNotNull(key, parser);
+        if (parser.getCurrentToken() != JsonToken.VALUE_STRING) {
           throw new DeserializerException("Binding annotation: " + key + " must have string valued array.",
               DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
         }
-        bindingLinkStrings.add(arrayValue.asText());
+        bindingLinkStrings.add(parser.getText());
       }
       bindingLink.setType(Constants.ENTITY_COLLECTION_BINDING_LINK_TYPE);
       bindingLink.setBindingLinks(bindingLinkStrings);
     } else {
-      assertIsNullNode(key, jsonNode);
-      if (!jsonNode.isValueNode()) {
+      assertIsNotNull(key, parser);
+      if (!parser.getCurrentToken().isScalarValue()) {
         throw new DeserializerException("Binding annotation: " + key + " must be a string value.",
             DeserializerException.MessageKeys.INVALID_ANNOTATION_TYPE, key);
       }
-      bindingLink.setBindingLink(jsonNode.asText());
+      bindingLink.setBindingLink(getText(parser));
       bindingLink.setType(Constants.ENTITY_BINDING_LINK_TYPE);
     }
     return bindingLink;
   }
 
-  private void assertIsNullNode(final String key, final JsonNode jsonNode) throws DeserializerException {
-    if (jsonNode.isNull()) {
+  private void assertIsNotNull(final String key, final JsonParser parser) throws DeserializerException {
+    if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
       throw new DeserializerException("Annotation: " + key + "must not have a null value.",
           DeserializerException.MessageKeys.INVALID_NULL_ANNOTATION, key);
     }
   }
 
-  private Property consumePropertyNode(final String name, final EdmType type, final boolean isCollection,
+  private Property consumeProperty(final EdmProperty edmProperty, final JsonParser parser)
+      throws DeserializerException, IOException {
+    if (parser.getCurrentToken() == JsonToken.VALUE_NULL && !edmProperty.isNullable()) {
+      throw new DeserializerException("Property: " + edmProperty.getName() + " must not be null.",
+          DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, edmProperty.getName());
+    }
+    return consumeProperty(edmProperty.getName(), edmProperty.getType(),
+        edmProperty.isCollection(), edmProperty.isNullable(), edmProperty.getMaxLength(),
+        edmProperty.getPrecision(), edmProperty.getScale(), edmProperty.isUnicode(), edmProperty.getMapping(),
+        parser);
+  }
+
+  /**
+   * Consumes the current value of the parser into a property.
+   * Afterwards the parser is positioned at the last token of the value.
+   */
+  private Property consumeProperty(final String name, final EdmType type, final boolean isCollection,
       final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
-      final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode) throws DeserializerException {
+      final boolean isUnicode, final EdmMapping mapping, final JsonParser parser)
+      throws DeserializerException, IOException {
     Property property = new Property();
     property.setName(name);
     property.setType(type.getFullQualifiedName().getFullQualifiedNameAsString());
     if (isCollection) {
-      consumePropertyCollectionNode(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping, jsonNode,
+      consumePropertyCollection(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping, parser,
           property);
     } else {
-      consumePropertySingleNode(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping, jsonNode,
+      consumePropertySingle(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping, parser,
           property);
     }
     return property;
   }
 
-  private void consumePropertySingleNode(final String name, final EdmType type,
+  private void consumePropertySingle(final String name, final EdmType type,
       final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
-      final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode, final Property property)
-      throws DeserializerException {
+      final boolean isUnicode, final EdmMapping mapping, final JsonParser parser, final Property property)
+      throws DeserializerException, IOException {
     switch (type.getKind()) {
     case PRIMITIVE:
       Object value = readPrimitiveValue(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping,
-          jsonNode);
+          parser);
       property.setValue(ValueType.PRIMITIVE, value);
       break;
     case DEFINITION:
-      value = readTypeDefinitionValue(name, type, isNullable, mapping, jsonNode);
+      value = readTypeDefinitionValue(name, type, isNullable, mapping, parser);
       property.setValue(ValueType.PRIMITIVE, value);
       break;
     case ENUM:
       value = readEnumValue(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping,
-          jsonNode);
+          parser);
       property.setValue(ValueType.ENUM, value);
       break;
     case COMPLEX:
-      value = readComplexNode(name, type, isNullable, jsonNode);
+      value = readComplexValue(name, type, isNullable, parser);
       property.setValue(ValueType.COMPLEX, value);
 
       break;
@@ -507,76 +525,43 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     }
   }
 
-  private Object readComplexNode(final String name, final EdmType type, final boolean isNullable,
-      final JsonNode jsonNode)
-      throws DeserializerException {
-    // read and add all complex properties
-    ComplexValue value = readComplexValue(name, type, isNullable, jsonNode);
-
-    final List<String> toRemove = new ArrayList<String>();
-    Iterator<Entry<String, JsonNode>> fieldsIterator = jsonNode.fields();
-    while (fieldsIterator.hasNext()) {
-      Entry<String, JsonNode> field = fieldsIterator.next();
-
-      if (field.getKey().contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
-        // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
-        toRemove.add(field.getKey());
-      } else if (field.getKey().contains(ODATA_ANNOTATION_MARKER)) {
-        throw new DeserializerException("Custom annotation with field name: " + field.getKey() + " not supported",
-            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
-      }
-    }
-    // remove here to avoid iterator issues.
-    if (!jsonNode.isNull()) {
-      ((ObjectNode) jsonNode).remove(toRemove);
-    }
-    // Afterwards the node must be empty
-    assertJsonNodeIsEmpty(jsonNode);
-
-    return value;
-  }
-
-  private void consumePropertyCollectionNode(final String name, final EdmType type,
+  private void consumePropertyCollection(final String name, final EdmType type,
       final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
-      final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode, final Property property)
-      throws DeserializerException {
-    if (!jsonNode.isArray()) {
+      final boolean isUnicode, final EdmMapping mapping, final JsonParser parser, final Property property)
+      throws DeserializerException, IOException {
+    if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
       throw new DeserializerException("Value for property: " + name + " must be an array but is not.",
           DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
     }
     List<Object> valueArray = new ArrayList<Object>();
-    Iterator<JsonNode> iterator = jsonNode.iterator();
     switch (type.getKind()) {
     case PRIMITIVE:
-      while (iterator.hasNext()) {
-        JsonNode arrayElement = iterator.next();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
         Object value = readPrimitiveValue(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping,
-            arrayElement);
+            parser);
         valueArray.add(value);
       }
       property.setValue(ValueType.COLLECTION_PRIMITIVE, valueArray);
       break;
     case DEFINITION:
-      while (iterator.hasNext()) {
-        JsonNode arrayElement = iterator.next();
-        Object value = readTypeDefinitionValue(name, type, isNullable, mapping, arrayElement);
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        Object value = readTypeDefinitionValue(name, type, isNullable, mapping, parser);
         valueArray.add(value);
       }
       property.setValue(ValueType.COLLECTION_PRIMITIVE, valueArray);
       break;
     case ENUM:
-      while (iterator.hasNext()) {
-        JsonNode arrayElement = iterator.next();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
         Object value = readEnumValue(name, type, isNullable, maxLength, precision, scale, isUnicode, mapping,
-            arrayElement);
+            parser);
         valueArray.add(value);
       }
       property.setValue(ValueType.COLLECTION_ENUM, valueArray);
       break;
     case COMPLEX:
-      while (iterator.hasNext()) {
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
         // read and add all complex properties
-        Object value = readComplexNode(name, type, isNullable, iterator.next());
+        Object value = readComplexValue(name, type, isNullable, parser);
         valueArray.add(value);
       }
       property.setValue(ValueType.COLLECTION_COMPLEX, valueArray);
@@ -588,11 +573,11 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   }
 
   private ComplexValue readComplexValue(final String name, final EdmType type,
-      final boolean isNullable, final JsonNode jsonNode) throws DeserializerException {
-    if (isValidNull(name, isNullable, jsonNode)) {
+      final boolean isNullable, final JsonParser parser) throws DeserializerException, IOException {
+    if (isValidNull(name, isNullable, parser)) {
       return null;
     }
-    if (jsonNode.isArray() || !jsonNode.isContainerNode()) {
+    if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
       throw new DeserializerException(
           "Invalid value for property: " + name + " must not be an array or primitive value.",
           DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
@@ -600,52 +585,53 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     // Even if there are no properties defined we have to give back an empty list
     ComplexValue complexValue = new ComplexValue();
     EdmComplexType edmType = (EdmComplexType) type;
-    // Check and consume all Properties
-    for (String propertyName : edmType.getPropertyNames()) {
-      JsonNode subNode = jsonNode.get(propertyName);
-      if (subNode != null) {
-        EdmProperty edmProperty = (EdmProperty) edmType.getProperty(propertyName);
-        if (subNode.isNull() && !edmProperty.isNullable()) {
-          throw new DeserializerException("Property: " + propertyName + " must not be null.",
-              DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, propertyName);
-        }
-        Property property = consumePropertyNode(edmProperty.getName(), edmProperty.getType(),
-            edmProperty.isCollection(),
-            edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
-            edmProperty.isUnicode(), edmProperty.getMapping(),
-            subNode);
-        complexValue.getValue().add(property);
-        ((ObjectNode) jsonNode).remove(propertyName);
+    complexValue.setPropertyIndex(PropertyIndex.of(edmType));
+    final RemainingFields remaining = new RemainingFields();
+
+    final Set<String> fieldNames = new HashSet<String>();
+    while (nextField(parser, fieldNames) != null) {
+      final String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      final EdmElement edmElement = edmType.getProperty(fieldName);
+      if (edmElement instanceof EdmProperty) {
+        complexValue.getValue().add(consumeProperty((EdmProperty) edmElement, parser));
+      } else {
+        remaining.skip(fieldName, parser);
       }
     }
+    // Afterwards no unknown content must have been found
+    remaining.assertEmpty();
+
     return complexValue;
   }
 
   private Object readTypeDefinitionValue(final String name, final EdmType type,
-      final boolean isNullable, final EdmMapping mapping, final JsonNode jsonNode) throws DeserializerException {
-    checkForValueNode(name, jsonNode);
-    if (isValidNull(name, isNullable, jsonNode)) {
+      final boolean isNullable, final EdmMapping mapping, final JsonParser parser)
+      throws DeserializerException, IOException {
+    checkForValueNode(name, parser);
+    if (isValidNull(name, isNullable, parser)) {
       return null;
     }
+    final String text = getText(parser);
     try {
       EdmTypeDefinition edmTypeDefinition = (EdmTypeDefinition) type;
       checkJsonTypeBasedOnPrimitiveType(name, edmTypeDefinition.getUnderlyingType().getName(),
-          jsonNode);
+          parser.getCurrentToken());
       Class<?> javaClass = getJavaClassForPrimitiveType(mapping, edmTypeDefinition.getUnderlyingType());
-      return edmTypeDefinition.valueOfString(jsonNode.asText(), isNullable,
+      return edmTypeDefinition.valueOfString(text, isNullable,
           edmTypeDefinition.getMaxLength(),
           edmTypeDefinition.getPrecision(), edmTypeDefinition.getScale(), edmTypeDefinition.isUnicode(),
           javaClass);
     } catch (EdmPrimitiveTypeException e) {
       throw new DeserializerException(
-          "Invalid value: " + jsonNode.asText() + " for property: " + name, e,
+          "Invalid value: " + text + " for property: " + name, e,
           DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
     }
   }
 
-  private boolean isValidNull(final String name, final boolean isNullable, final JsonNode jsonNode)
+  private boolean isValidNull(final String name, final boolean isNullable, final JsonParser parser)
       throws DeserializerException {
-    if (jsonNode.isNull()) {
+    if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
       if (isNullable) {
         return true;
       } else {
@@ -659,58 +645,73 @@ public class ODataJsonDeserializer implements ODataDeserializer {
 
   private Object readEnumValue(final String name, final EdmType type,
       final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
-      final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode) throws DeserializerException {
-    checkForValueNode(name, jsonNode);
-    if (isValidNull(name, isNullable, jsonNode)) {
+      final boolean isUnicode, final EdmMapping mapping, final JsonParser parser)
+      throws DeserializerException, IOException {
+    checkForValueNode(name, parser);
+    if (isValidNull(name, isNullable, parser)) {
       return null;
     }
+    final String text = getText(parser);
     try {
       EdmEnumType edmEnumType = (EdmEnumType) type;
       // Enum values must be strings
-      if (!jsonNode.isTextual()) {
-        throw new DeserializerException("Invalid json type: " + jsonNode.getNodeType() + " for enum property: " + name,
+      if (parser.getCurrentToken() != JsonToken.VALUE_STRING) {
+        throw new DeserializerException("Invalid json type: " + parser.getCurrentToken()
+            + " for enum property: " + name,
             DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
       }
 
       Class<?> javaClass = getJavaClassForPrimitiveType(mapping, edmEnumType.getUnderlyingType());
-      return edmEnumType.valueOfString(jsonNode.asText(),
+      return edmEnumType.valueOfString(text,
           isNullable, maxLength, precision, scale, isUnicode, javaClass);
     } catch (EdmPrimitiveTypeException e) {
       throw new DeserializerException(
-          "Invalid value: " + jsonNode.asText() + " for property: " + name, e,
+          "Invalid value: " + text + " for property: " + name, e,
           DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
     }
   }
 
   private Object readPrimitiveValue(final String name, final EdmType type,
       final boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
-      final boolean isUnicode, final EdmMapping mapping, final JsonNode jsonNode) throws DeserializerException {
-    checkForValueNode(name, jsonNode);
-    if (isValidNull(name, isNullable, jsonNode)) {
+      final boolean isUnicode, final EdmMapping mapping, final JsonParser parser)
+      throws DeserializerException, IOException {
+    checkForValueNode(name, parser);
+    if (isValidNull(name, isNullable, parser)) {
       return null;
     }
+    final String text = getText(parser);
     try {
       EdmPrimitiveType edmPrimitiveType = (EdmPrimitiveType) type;
-      checkJsonTypeBasedOnPrimitiveType(name, edmPrimitiveType.getName(), jsonNode);
+      checkJsonTypeBasedOnPrimitiveType(name, edmPrimitiveType.getName(), parser.getCurrentToken());
       Class<?> javaClass = getJavaClassForPrimitiveType(mapping, edmPrimitiveType);
-      String jsonNodeAsText = jsonNode.asText();
 
       if (isIEEE754Compatible && (edmPrimitiveType.equals(EDM_INT64) || edmPrimitiveType.equals(EDM_DECIMAL))) {
-        if (jsonNodeAsText.length() == 0) {
+        if (text.length() == 0) {
           throw new DeserializerException("IEEE754Compatible values must not be of length 0",
               MessageKeys.INVALID_NULL_PROPERTY, name);
         }
       }
 
-      return edmPrimitiveType.valueOfString(jsonNodeAsText, isNullable, maxLength, precision, scale, isUnicode,
+      return edmPrimitiveType.valueOfString(text, isNullable, maxLength, precision, scale, isUnicode,
           javaClass);
     } catch (EdmPrimitiveTypeException e) {
       throw new DeserializerException(
-          "Invalid value: " + jsonNode.asText() + " for property: " + name, e,
+          "Invalid value: " + text + " for property: " + name, e,
           DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, name);
     }
   }
 
+  /**
+   * Returns the text of the current scalar value.
+   * Floating-point numbers are normalized through <code>double</code>,
+   * so <code>1.50</code> and <code>15E-1</code> are both read as <code>1.5</code>.
+   */
+  private String getText(final JsonParser parser) throws IOException {
+    return parser.getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT ?
+        Double.toString(parser.getDoubleValue()) :
+        parser.getText();
+  }
+
   /**
    * This method either returns the primitive types default class or the manually mapped class if present.
    * @param mapping
@@ -724,36 +725,21 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   }
 
   /**
-   * Check if JsonNode is a value node (<code>jsonNode.isValueNode()</code>) and if not throw
+   * Check if the current token is a scalar value (including <code>null</code>) and if not throw
    * an DeserializerException.
    * @param name name of property which is checked
-   * @param jsonNode node which is checked
-   * @throws DeserializerException is thrown if json node is not a value node
+   * @param parser JSON parser positioned at the value which is checked
+   * @throws DeserializerException is thrown if the value is an object or array
    */
-  private void checkForValueNode(final String name, final JsonNode jsonNode) throws DeserializerException {
-    if (!jsonNode.isValueNode()) {
+  private void checkForValueNode(final String name, final JsonParser parser) throws DeserializerException {
+    if (!parser.getCurrentToken().isScalarValue()) {
       throw new DeserializerException("Invalid value for property: " + name + " must not be an object or array.",
           DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
     }
   }
 
-  /**
-   * Validate that node is empty (<code>node.size == 0</code>) and if not throw
-   * an <code>DeserializerException</code>.
-   *
-   * @param node node to be checked
-   * @throws DeserializerException if node is not empty
-   */
-  private void assertJsonNodeIsEmpty(final JsonNode node) throws DeserializerException {
-    if (node.size() != 0) {
-      final String unknownField = node.fieldNames().next();
-      throw new DeserializerException("Tree should be empty but still has content left: " + unknownField,
-          DeserializerException.MessageKeys.UNKNOWN_CONTENT, unknownField);
-    }
-  }
-
   private void checkJsonTypeBasedOnPrimitiveType(final String propertyName, final String edmPrimitiveTypeName,
-      final JsonNode jsonNode)
+      final JsonToken token)
       throws DeserializerException {
 
     EdmPrimitiveTypeKind primKind;
@@ -764,34 +750,34 @@ public class ODataJsonDeserializer implements ODataDeserializer {
           DeserializerException.MessageKeys.UNKNOWN_PRIMITIVE_TYPE, edmPrimitiveTypeName, propertyName);
     }
 
-    boolean valid = matchTextualCase(jsonNode, primKind);
-    valid |= matchNumberCase(jsonNode, primKind);
-    valid |= matchBooleanCase(jsonNode, primKind);
-    valid |= matchIEEENumberCase(jsonNode, primKind);
+    boolean valid = matchTextualCase(token, primKind);
+    valid |= matchNumberCase(token, primKind);
+    valid |= matchBooleanCase(token, primKind);
+    valid |= matchIEEENumberCase(token, primKind);
 
     if (!valid) {
-      throw new DeserializerException("Invalid json type: " + jsonNode.getNodeType() + " for edm " + primKind
+      throw new DeserializerException("Invalid json type: " + token + " for edm " + primKind
           + " property: " + propertyName, DeserializerException.MessageKeys.INVALID_VALUE_FOR_PROPERTY, propertyName);
     }
   }
 
-  private boolean matchIEEENumberCase(JsonNode node, EdmPrimitiveTypeKind primKind) {
+  private boolean matchIEEENumberCase(final JsonToken token, final EdmPrimitiveTypeKind primKind) {
     switch (primKind) {
     case Int64:
     case Decimal:
       // Numbers (either numbers or string)
       if (isIEEE754Compatible) {
-        return node.isTextual();
+        return token == JsonToken.VALUE_STRING;
       } else {
-        return node.isNumber();
+        return token.isNumeric();
       }
     default:
       return false;
     }
   }
 
-  private boolean matchBooleanCase(JsonNode node, EdmPrimitiveTypeKind primKind) {
-    if (node.isBoolean()) {
+  private boolean matchBooleanCase(final JsonToken token, final EdmPrimitiveTypeKind primKind) {
+    if (token.isBoolean()) {
       switch (primKind) {
       case Boolean:
         return true;
@@ -802,8 +788,8 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     return false;
   }
 
-  private boolean matchNumberCase(JsonNode node, EdmPrimitiveTypeKind primKind) {
-    if (node.isNumber()) {
+  private boolean matchNumberCase(final JsonToken token, final EdmPrimitiveTypeKind primKind) {
+    if (token.isNumeric()) {
       switch (primKind) {
       // Numbers (must be numbers)
       case Int16:
@@ -820,8 +806,8 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     return false;
   }
 
-  private boolean matchTextualCase(JsonNode node, EdmPrimitiveTypeKind primKind) {
-    if (node.isTextual()) {
+  private boolean matchTextualCase(final JsonToken token, final EdmPrimitiveTypeKind primKind) {
+    if (token == JsonToken.VALUE_STRING) {
       switch (primKind) {
       case String:
       case Binary:
@@ -842,27 +828,18 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   public DeserializerResult property(final InputStream stream, final EdmProperty edmProperty)
       throws DeserializerException {
     try {
-      ObjectMapper objectMapper = new ObjectMapper();
-      objectMapper.configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
-      JsonParser parser = new JsonFactory(objectMapper).createParser(stream);
+      JsonParser parser = createParser(stream);
       final ObjectNode tree = parser.getCodec().readTree(parser);
 
-      final Property property;
+      // The value is either wrapped in a "value" field or it is the complex value itself.
       JsonNode jsonNode = tree.get(Constants.VALUE);
-      if (jsonNode != null) {
-        property = consumePropertyNode(edmProperty.getName(), edmProperty.getType(),
-            edmProperty.isCollection(),
-            edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
-            edmProperty.isUnicode(), edmProperty.getMapping(),
-            jsonNode);
-        tree.remove(Constants.VALUE);
-      } else {
-        property = consumePropertyNode(edmProperty.getName(), edmProperty.getType(),
-            edmProperty.isCollection(),
-            edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
-            edmProperty.isUnicode(), edmProperty.getMapping(),
-            tree);
-      }
+      final JsonParser valueParser = (jsonNode == null ? tree : jsonNode).traverse(parser.getCodec());
+      valueParser.nextToken();
+      final Property property = consumeProperty(edmProperty.getName(), edmProperty.getType(),
+          edmProperty.isCollection(),
+          edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
+          edmProperty.isUnicode(), edmProperty.getMapping(),
+          valueParser);
       return DeserializerResultImpl.with().property(property).build();
     } catch (JsonParseException e) {
       throw new DeserializerException("An JsonParseException occurred", e,
@@ -878,34 +855,48 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   @Override
   public DeserializerResult entityReferences(final InputStream stream) throws DeserializerException {
     try {
-      ArrayList<URI> parsedValues = new ArrayList<URI>();
-      ObjectMapper objectMapper = new ObjectMapper();
-      objectMapper.configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
-      JsonParser parser = new JsonFactory(objectMapper).createParser(stream);
-      final ObjectNode tree = parser.getCodec().readTree(parser);
+      final JsonParser parser = createParser(stream);
+      startObject(parser);
       final String key = "@odata.id";
-      JsonNode jsonNode = tree.get(Constants.VALUE);
-      if (jsonNode != null) {
-        if (jsonNode.isArray()) {
-          ArrayNode arrayNode = (ArrayNode) jsonNode;
-          Iterator<JsonNode> it = arrayNode.iterator();
-          while (it.hasNext()) {
-            final JsonNode next = it.next();
-            if (next.has(key)) {
-              parsedValues.add(new URI(next.get(key).asText()));
+      List<URI> values = null;
+      URI id = null;
+
+      final Set<String> fieldNames = new HashSet<String>();
+      while (nextField(parser, fieldNames) != null) {
+        final String fieldName = parser.getCurrentName();
+        final JsonToken token = parser.nextToken();
+        if (Constants.VALUE.equals(fieldName)) {
+          if (token != JsonToken.START_ARRAY) {
+            throw new DeserializerException("Value must be an array",
+                DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+          }
+          values = new ArrayList<URI>();
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            final URI reference = parser.getCurrentToken() == JsonToken.START_OBJECT ?
+                consumeEntityReference(parser, key) :
+                null;
+            if (reference == null) {
+              parser.skipChildren();
+            } else {
+              values.add(reference);
             }
           }
+        } else if (key.equals(fieldName)) {
+          id = new URI(getText(parser));
+          parser.skipChildren();
         } else {
-          throw new DeserializerException("Value must be an array", DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+          parser.skipChildren();
         }
-        tree.remove(Constants.VALUE);
-        return DeserializerResultImpl.with().entityReferences(parsedValues).build();
       }
-      if (tree.get(key) != null) {
-        parsedValues.add(new URI(tree.get(key).asText()));
-      } else {
+
+      if (values != null) {
+        return DeserializerResultImpl.with().entityReferences(values).build();
+      }
+      if (id == null) {
         throw new DeserializerException("Missing entity reference", DeserializerException.MessageKeys.UNKNOWN_CONTENT);
       }
+      final List<URI> parsedValues = new ArrayList<URI>();
+      parsedValues.add(id);
       return DeserializerResultImpl.with().entityReferences(parsedValues).build();
     } catch (JsonParseException e) {
       throw new DeserializerException("An JsonParseException occurred", e,
@@ -922,9 +913,66 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     }
   }
 
+  /**
+   * Consumes a JSON object in the value array of entity references.
+   * @return the entity reference or <code>null</code> if the object does not contain one
+   */
+  private URI consumeEntityReference(final JsonParser parser, final String key)
+      throws IOException, URISyntaxException {
+    URI reference = null;
+    final Set<String> fieldNames = new HashSet<String>();
+    while (nextField(parser, fieldNames) != null) {
+      final String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      if (key.equals(fieldName)) {
+        reference = new URI(getText(parser));
+      }
+      parser.skipChildren();
+    }
+    return reference;
+  }
+
   private boolean isODataIEEE754Compatible(final ContentType contentType) {
     return contentType.getParameters().containsKey(ContentType.PARAMETER_IEEE754_COMPATIBLE)
         && Boolean.TRUE.toString().equalsIgnoreCase(
             contentType.getParameter(ContentType.PARAMETER_IEEE754_COMPATIBLE));
   }
+
+  /**
+   * Collects the fields of a JSON object that are not mapped to the EDM.
+   * Control information is ignored for requests as per specification chapter "4.5 Control Information".
+   * Custom annotations and unknown fields are reported only after all other fields of the object
+   * have been consumed.
+   */
+  private static class RemainingFields {
+    private String annotation;
+    private String unknown;
+
+    /**
+     * Skips the current value of the parser and remembers its field name if it is not control information.
+     */
+    void skip(final String fieldName, final JsonParser parser) throws IOException {
+      if (fieldName.contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
+        // ignored
+      } else if (fieldName.contains(ODATA_ANNOTATION_MARKER)) {
+        if (annotation == null) {
+          annotation = fieldName;
+        }
+      } else if (unknown == null) {
+        unknown = fieldName;
+      }
+      parser.skipChildren();
+    }
+
+    void assertEmpty() throws DeserializerException {
+      if (annotation != null) {
+        throw new DeserializerException("Custom annotation with field name: " + annotation + " not supported",
+            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
+      }
+      if (unknown != null) {
+        throw new DeserializerException("Tree should be empty but still has content left: " + unknown,
+            DeserializerException.MessageKeys.UNKNOWN_CONTENT, unknown);
+      }
+    }
+  }
 }
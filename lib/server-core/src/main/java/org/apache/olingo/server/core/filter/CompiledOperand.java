@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.filter;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+
+/**
+ * Node of a compiled filter expression.
+ * The kind of the value is determined when the expression is compiled, so that the operators
+ * can choose their implementation once instead of inspecting the operand types for every entity.
+ */
+abstract class CompiledOperand {
+
+  /** The kinds of values, each with the Java types its values may have. */
+  enum Kind {
+    /** The <code>null</code> literal. */
+    NULL,
+    /** {@link Boolean} */
+    BOOLEAN,
+    /** {@link String} */
+    STRING,
+    /** {@link Byte}, {@link Short}, {@link Integer}, {@link Long}; other numbers if too large for a long */
+    INTEGER,
+    /** {@link Float}, {@link Double} */
+    FLOATING,
+    /** {@link java.math.BigDecimal}, any other {@link Number} */
+    DECIMAL,
+    /** {@link java.util.Calendar}, {@link java.util.Date} */
+    DATE,
+    /** {@link java.util.Calendar}, {@link java.util.Date}, {@link java.sql.Timestamp} */
+    DATE_TIME_OFFSET,
+    /** {@link java.util.Calendar}, {@link java.util.Date}, {@link java.sql.Timestamp} */
+    TIME_OF_DAY,
+    /** {@link java.math.BigDecimal} number of seconds */
+    DURATION,
+    /** any other primitive value, only compared for equality */
+    OTHER;
+
+    boolean isNumeric() {
+      return this == INTEGER || this == FLOATING || this == DECIMAL;
+    }
+
+    static Kind of(final EdmPrimitiveTypeKind kind) {
+      switch (kind) {
+      case Boolean:
+        return BOOLEAN;
+      case String:
+        return STRING;
+      case Byte:
+      case SByte:
+      case Int16:
+      case Int32:
+      case Int64:
+        return INTEGER;
+      case Single:
+      case Double:
+        return FLOATING;
+      case Decimal:
+        return DECIMAL;
+      case Date:
+        return DATE;
+      case DateTimeOffset:
+        return DATE_TIME_OFFSET;
+      case TimeOfDay:
+        return TIME_OF_DAY;
+      case Duration:
+        return DURATION;
+      default:
+        return OTHER;
+      }
+    }
+  }
+
+  private final Kind kind;
+
+  protected CompiledOperand(final Kind kind) {
+    this.kind = kind;
+  }
+
+  Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Evaluates this operand for an entity.
+   * @return the value, or <code>null</code>
+   */
+  abstract Object evaluate(Entity entity);
+
+  /** Whether the value does not depend on the entity. */
+  boolean isConstant() {
+    return false;
+  }
+
+  /** Returns the text of the literal this operand has been compiled from, or <code>null</code>. */
+  String getLiteral() {
+    return null;
+  }
+
+  /** Returns the type of the property this operand reads, or <code>null</code>. */
+  EdmPrimitiveType getType() {
+    return null;
+  }
+
+  static CompiledOperand constant(final Object value, final Kind kind) {
+    return new Constant(value, kind, null);
+  }
+
+  static CompiledOperand literal(final Object value, final Kind kind, final String literal) {
+    return new Constant(value, kind, literal);
+  }
+
+  private static final class Constant extends CompiledOperand {
+    private final Object value;
+    private final String literal;
+
+    private Constant(final Object value, final Kind kind, final String literal) {
+      super(kind);
+      this.value = value;
+      this.literal = literal;
+    }
+
+    @Override
+    String getLiteral() {
+      return literal;
+    }
+
+    @Override
+    Object evaluate(final Entity entity) {
+      return value;
+    }
+
+    @Override
+    boolean isConstant() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.server.api.filter.EntityPredicate;
+import org.apache.olingo.server.api.filter.EntityQuery;
+
+/**
+ * Keeps at most skip plus top entities in a bounded heap if that is less than the number of entities;
+ * the insertion sequence breaks ties, so that the order is stable.
+ */
+public final class EntityQueryImpl implements EntityQuery {
+
+  private EntityPredicate filter;
+  private Comparator<Entity> orderBy;
+  private int skip;
+  private int top = Integer.MAX_VALUE;
+
+  @Override
+  public EntityQuery filter(final EntityPredicate filter) {
+    this.filter = filter;
+    return this;
+  }
+
+  @Override
+  public EntityQuery orderBy(final Comparator<Entity> orderBy) {
+    this.orderBy = orderBy;
+    return this;
+  }
+
+  @Override
+  public EntityQuery skip(final int skip) {
+    if (skip < 0) {
+      throw new IllegalArgumentException("Skip must not be negative.");
+    }
+    this.skip = skip;
+    return this;
+  }
+
+  @Override
+  public EntityQuery top(final int top) {
+    if (top < 0) {
+      throw new IllegalArgumentException("Top must not be negative.");
+    }
+    this.top = top;
+    return this;
+  }
+
+  @Override
+  public EntityCollection execute(final Iterable<Entity> entities) {
+    final long limit = (long) skip + top;
+    final int known = entities instanceof Collection ? ((Collection<?>) entities).size() : -1;
+    EntityCollection result = new EntityCollection();
+    if (orderBy == null) {
+      executeUnordered(entities, limit, result);
+    } else if (limit < Integer.MAX_VALUE && (known < 0 || limit < known)) {
+      executeTopK(entities, (int) limit, result);
+    } else {
+      executeSorted(entities, result);
+    }
+    return result;
+  }
+
+  private void executeUnordered(final Iterable<Entity> entities, final long limit, final EntityCollection result) {
+    final List<Entity> target = result.getEntities();
+    int count = 0;
+    for (final Entity entity : entities) {
+      if (filter == null || filter.matches(entity)) {
+        if (count >= skip && count < limit) {
+          target.add(entity);
+        }
+        count++;
+      }
+    }
+    result.setCount(count);
+  }
+
+  private void executeSorted(final Iterable<Entity> entities, final EntityCollection result) {
+    List<Entity> matches = new ArrayList<Entity>();
+    for (final Entity entity : entities) {
+      if (filter == null || filter.matches(entity)) {
+        matches.add(entity);
+      }
+    }
+    // Collections.sort is stable.
+    Collections.sort(matches, orderBy);
+    addWindow(matches, result);
+    result.setCount(matches.size());
+  }
+
+  private void executeTopK(final Iterable<Entity> entities, final int limit, final EntityCollection result) {
+    int count = 0;
+    if (limit > 0) {
+      // The head of the heap is the last of the best entities seen so far.
+      final Comparator<Ranked> ranking = new Comparator<Ranked>() {
+        @Override
+        public int compare(final Ranked r1, final Ranked r2) {
+          final int order = orderBy.compare(r1.entity, r2.entity);
+          return order == 0 ? r1.sequence - r2.sequence : order;
+        }
+      };
+      PriorityQueue<Ranked> heap = new PriorityQueue<Ranked>(Math.min(limit, 1024) + 1,
+          Collections.reverseOrder(ranking));
+      for (final Entity entity : entities) {
+        if (filter == null || filter.matches(entity)) {
+          if (heap.size() < limit) {
+            heap.add(new Ranked(entity, count));
+          } else if (orderBy.compare(entity, heap.peek().entity) < 0) {
+            // Later entities lose ties, so only strictly better ones replace the head.
+            heap.poll();
+            heap.add(new Ranked(entity, count));
+          }
+          count++;
+        }
+      }
+      Ranked[] ranked = heap.toArray(new Ranked[heap.size()]);
+      Arrays.sort(ranked, ranking);
+      List<Entity> sorted = new ArrayList<Entity>(ranked.length);
+      for (final Ranked entry : ranked) {
+        sorted.add(entry.entity);
+      }
+      addWindow(sorted, result);
+    } else {
+      for (final Entity entity : entities) {
+        if (filter == null || filter.matches(entity)) {
+          count++;
+        }
+      }
+    }
+    result.setCount(count);
+  }
+
+  private void addWindow(final List<Entity> sorted, final EntityCollection result) {
+    if (skip < sorted.size()) {
+      result.getEntities().addAll(sorted.subList(skip, (int) Math.min(sorted.size(), (long) skip + top)));
+    }
+  }
+
+  private static final class Ranked {
+    private final Entity entity;
+    private final int sequence;
+
+    private Ranked(final Entity entity, final int sequence) {
+      this.entity = entity;
+      this.sequence = sequence;
+    }
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.filter;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.PropertyIndex;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
+import org.apache.olingo.commons.api.edm.constants.EdmTypeKind;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.filter.EntityPredicate;
+import org.apache.olingo.server.api.filter.FilterCompiler;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitor;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
+import org.apache.olingo.server.core.filter.CompiledOperand.Kind;
+
+/**
+ * Compiles filter expressions by visiting them once; see {@link CompiledOperand}.
+ */
+public class FilterCompilerImpl implements FilterCompiler {
+
+  @Override
+  public EntityPredicate compile(final FilterOption filterOption, final EdmStructuredType type)
+      throws ODataApplicationException {
+    return compile(filterOption.getExpression(), type);
+  }
+
+  @Override
+  public EntityPredicate compile(final Expression expression, final EdmStructuredType type)
+      throws ODataApplicationException {
+    final CompiledOperand operand;
+    try {
+      operand = expression.accept(new OperandCompiler(type));
+    } catch (final ExpressionVisitException e) {
+      throw new ODataApplicationException("Exception in filter evaluation",
+          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT);
+    }
+    if (operand.getKind() != Kind.BOOLEAN && operand.getKind() != Kind.NULL) {
+      throw Operators.badRequest("The filter expression must be a Boolean expression");
+    }
+    return new EntityPredicate() {
+      @Override
+      public boolean matches(final Entity entity) {
+        return Boolean.TRUE.equals(operand.evaluate(entity));
+      }
+    };
+  }
+
+  @Override
+  public Comparator<Entity> compile(final OrderByOption orderByOption, final EdmStructuredType type)
+      throws ODataApplicationException {
+    final List<OrderByItem> items = orderByOption.getOrders();
+    CompiledOperand[] operands = new CompiledOperand[items.size()];
+    List<Comparator<Object>> comparators = new ArrayList<Comparator<Object>>(items.size());
+    boolean[] descending = new boolean[items.size()];
+    for (int i = 0; i < items.size(); i++) {
+      try {
+        operands[i] = items.get(i).getExpression().accept(new OperandCompiler(type));
+      } catch (final ExpressionVisitException e) {
+        throw new ODataApplicationException("Exception in orderBy evaluation",
+            HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT);
+      }
+      comparators.add(Operators.ordering(operands[i].getKind()));
+      descending[i] = items.get(i).isDescending();
+    }
+    return new OrderByComparator(operands, comparators, descending);
+  }
+
+  private static final class OperandCompiler implements ExpressionVisitor<CompiledOperand> {
+    private final EdmStructuredType type;
+
+    private OperandCompiler(final EdmStructuredType type) {
+      this.type = type;
+    }
+
+    @Override
+    public CompiledOperand visitBinaryOperator(final BinaryOperatorKind operator, final CompiledOperand left,
+        final CompiledOperand right) throws ODataApplicationException {
+      return Operators.binary(operator, left, right);
+    }
+
+    @Override
+    public CompiledOperand visitUnaryOperator(final UnaryOperatorKind operator, final CompiledOperand operand)
+        throws ODataApplicationException {
+      return Operators.unary(operator, operand);
+    }
+
+    @Override
+    public CompiledOperand visitMethodCall(final MethodKind methodCall, final List<CompiledOperand> parameters)
+        throws ODataApplicationException {
+      return MethodCalls.compile(methodCall, parameters);
+    }
+
+    @Override
+    public CompiledOperand visitLambdaExpression(final String lambdaFunction, final String lambdaVariable,
+        final Expression expression) throws ODataApplicationException {
+      throw Operators.notImplemented();
+    }
+
+    @Override
+    public CompiledOperand visitLiteral(final String literal) throws ODataApplicationException {
+      return compileLiteral(literal);
+    }
+
+    @Override
+    public CompiledOperand visitMember(final UriInfoResource member) throws ODataApplicationException {
+      final List<UriResource> parts = member.getUriResourceParts();
+      final String[] path = new String[parts.size()];
+      EdmProperty property = null;
+      for (int i = 0; i < parts.size(); i++) {
+        if (!(parts.get(i) instanceof UriResourceProperty) || property != null && property.isPrimitive()) {
+          throw Operators.notImplemented();
+        }
+        property = ((UriResourceProperty) parts.get(i)).getProperty();
+        if (property.isCollection()) {
+          throw Operators.notImplemented();
+        }
+        path[i] = property.getName();
+      }
+      EdmType propertyType = property.getType();
+      if (propertyType instanceof EdmTypeDefinition) {
+        propertyType = ((EdmTypeDefinition) propertyType).getUnderlyingType();
+      }
+      if (propertyType.getKind() != EdmTypeKind.PRIMITIVE) {
+        throw Operators.notImplemented();
+      }
+      final EdmPrimitiveType primitiveType = (EdmPrimitiveType) propertyType;
+      return new Member(path, type, primitiveType,
+          Kind.of(EdmPrimitiveTypeKind.valueOfFQN(primitiveType.getFullQualifiedName())));
+    }
+
+    @Override
+    public CompiledOperand visitAlias(final String aliasName) throws ODataApplicationException {
+      throw Operators.notImplemented();
+    }
+
+    @Override
+    public CompiledOperand visitTypeLiteral(final EdmType type) throws ODataApplicationException {
+      throw Operators.notImplemented();
+    }
+
+    @Override
+    public CompiledOperand visitLambdaReference(final String variableName) throws ODataApplicationException {
+      throw Operators.notImplemented();
+    }
+
+    @Override
+    public CompiledOperand visitEnum(final EdmEnumType type, final List<String> enumValues)
+        throws ODataApplicationException {
+      throw Operators.notImplemented();
+    }
+  }
+
+  /** Compares entities by the values of the orderby expressions; <code>null</code> comes first. */
+  private static final class OrderByComparator implements Comparator<Entity> {
+    private final CompiledOperand[] operands;
+    private final List<Comparator<Object>> comparators;
+    private final boolean[] descending;
+
+    private OrderByComparator(final CompiledOperand[] operands, final List<Comparator<Object>> comparators,
+        final boolean[] descending) {
+      this.operands = operands;
+      this.comparators = comparators;
+      this.descending = descending;
+    }
+
+    @Override
+    public int compare(final Entity e1, final Entity e2) {
+      for (int i = 0; i < operands.length; i++) {
+        final Object value1 = operands[i].evaluate(e1);
+        final Object value2 = operands[i].evaluate(e2);
+        final int result = value1 == null || value2 == null ?
+            (value1 == null ? 0 : 1) - (value2 == null ? 0 : 1) :
+            comparators.get(i).compare(value1, value2);
+        if (result != 0) {
+          return descending[i] ? -Integer.signum(result) : result;
+        }
+      }
+      return 0;
+    }
+  }
+
+  /** The literal types tried in this order; integers are represented as longs. */
+  private static final EdmPrimitiveTypeKind[] LITERAL_TYPES = {
+      EdmPrimitiveTypeKind.String,
+      EdmPrimitiveTypeKind.Boolean,
+      EdmPrimitiveTypeKind.DateTimeOffset,
+      EdmPrimitiveTypeKind.Date,
+      EdmPrimitiveTypeKind.TimeOfDay,
+      EdmPrimitiveTypeKind.Duration,
+      EdmPrimitiveTypeKind.Int64,
+      EdmPrimitiveTypeKind.Decimal,
+      EdmPrimitiveTypeKind.Double };
+
+  private static final Class<?>[] LITERAL_JAVA_TYPES = {
+      String.class, Boolean.class, Timestamp.class, Calendar.class, Calendar.class, BigDecimal.class,
+      Long.class, BigDecimal.class, Double.class };
+
+  /**
+   * Determines the type of a literal and parses its value.
+   * Literals of other types, e.g., GUIDs, are typed once they are compared with a property.
+   */
+  static CompiledOperand compileLiteral(final String literal) {
+    if ("null".equals(literal)) {
+      return CompiledOperand.literal(null, Kind.NULL, literal);
+    }
+    for (int i = 0; i < LITERAL_TYPES.length; i++) {
+      final EdmPrimitiveType type = EdmPrimitiveTypeFactory.getInstance(LITERAL_TYPES[i]);
+      try {
+        final Object value = type.valueOfString(type.fromUriLiteral(literal), null, null, null, null, null,
+            LITERAL_JAVA_TYPES[i]);
+        return CompiledOperand.literal(value, Kind.of(LITERAL_TYPES[i]), literal);
+      } catch (final EdmPrimitiveTypeException e) {
+        // Try the next type.
+      }
+    }
+    return CompiledOperand.literal(literal, Kind.OTHER, literal);
+  }
+
+  /**
+   * Reads the value of a primitive property, possibly within complex properties.
+   * Entities bound to the property index of the filtered type are read by ordinal.
+   */
+  private static final class Member extends CompiledOperand {
+    private final String[] path;
+    private final PropertyIndex index;
+    private final int ordinal;
+    private final EdmPrimitiveType type;
+
+    private Member(final String[] path, final EdmStructuredType structuredType, final EdmPrimitiveType type,
+        final Kind kind) {
+      super(kind);
+      this.path = path;
+      this.type = type;
+      index = structuredType == null ? null : PropertyIndex.of(structuredType);
+      ordinal = index == null ? -1 : index.getPropertyOrdinal(path[0]);
+    }
+
+    @Override
+    Object evaluate(final Entity entity) {
+      Property property = ordinal >= 0 && entity.getPropertyIndex() == index ?
+          entity.getProperty(ordinal) :
+          entity.getProperty(path[0]);
+      for (int i = 1; i < path.length && property != null; i++) {
+        property = property.isComplex() ? property.asComplex().getProperty(path[i]) : null;
+      }
+      return property == null ? null : property.getValue();
+    }
+
+    @Override
+    EdmPrimitiveType getType() {
+      return type;
+    }
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.filter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+import org.apache.olingo.server.core.filter.CompiledOperand.Kind;
+
+/**
+ * Compiles calls of the built-in string, date, and arithmetic functions.
+ */
+final class MethodCalls {
+
+  private MethodCalls() {}
+
+  static CompiledOperand compile(final MethodKind method, final List<CompiledOperand> parameters)
+      throws ODataApplicationException {
+    switch (method) {
+    case CONTAINS:
+      return stringFunction(parameters, Kind.BOOLEAN, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          return first.contains(second);
+        }
+      });
+    case STARTSWITH:
+      return stringFunction(parameters, Kind.BOOLEAN, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          return first.startsWith(second);
+        }
+      });
+    case ENDSWITH:
+      return stringFunction(parameters, Kind.BOOLEAN, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          return first.endsWith(second);
+        }
+      });
+    case INDEXOF:
+      return stringFunction(parameters, Kind.INTEGER, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          // If the first string does not contain the second string, -1 is returned; see OASIS JIRA ODATA-780.
+          return first.indexOf(second);
+        }
+      });
+    case CONCAT:
+      return stringFunction(parameters, Kind.STRING, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          return first.concat(second);
+        }
+      });
+    case LENGTH:
+      return stringFunction(parameters, Kind.INTEGER, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          return first.length();
+        }
+      });
+    case TOLOWER:
+      return stringFunction(parameters, Kind.STRING, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          return first.toLowerCase(Locale.ROOT);
+        }
+      });
+    case TOUPPER:
+      return stringFunction(parameters, Kind.STRING, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          return first.toUpperCase(Locale.ROOT);
+        }
+      });
+    case TRIM:
+      return stringFunction(parameters, Kind.STRING, new StringFunction() {
+        @Override
+        Object apply(final String first, final String second) {
+          return first.trim();
+        }
+      });
+    case SUBSTRING:
+      return substring(parameters);
+    case YEAR:
+      return dateFunction(parameters, Calendar.YEAR, Kind.DATE_TIME_OFFSET, Kind.DATE);
+    case MONTH:
+      return dateFunction(parameters, Calendar.MONTH, Kind.DATE_TIME_OFFSET, Kind.DATE);
+    case DAY:
+      return dateFunction(parameters, Calendar.DAY_OF_MONTH, Kind.DATE_TIME_OFFSET, Kind.DATE);
+    case HOUR:
+      return dateFunction(parameters, Calendar.HOUR_OF_DAY, Kind.DATE_TIME_OFFSET, Kind.TIME_OF_DAY);
+    case MINUTE:
+      return dateFunction(parameters, Calendar.MINUTE, Kind.DATE_TIME_OFFSET, Kind.TIME_OF_DAY);
+    case SECOND:
+      return dateFunction(parameters, Calendar.SECOND, Kind.DATE_TIME_OFFSET, Kind.TIME_OF_DAY);
+    case FRACTIONALSECONDS:
+      return dateFunction(parameters, Calendar.MILLISECOND, Kind.DATE_TIME_OFFSET, Kind.TIME_OF_DAY);
+    case ROUND:
+      return rounding(parameters, RoundingMode.HALF_UP);
+    case FLOOR:
+      return rounding(parameters, RoundingMode.FLOOR);
+    case CEILING:
+      return rounding(parameters, RoundingMode.CEILING);
+    default:
+      throw Operators.notImplemented();
+    }
+  }
+
+  private abstract static class StringFunction {
+    /**
+     * Applies the function to non-null parameters.
+     * @param second the second parameter, or <code>null</code> for functions with one parameter
+     */
+    abstract Object apply(String first, String second);
+  }
+
+  private static CompiledOperand stringFunction(final List<CompiledOperand> parameters, final Kind resultKind,
+      final StringFunction function) throws ODataApplicationException {
+    for (final CompiledOperand parameter : parameters) {
+      if (parameter.getKind() == Kind.NULL) {
+        return CompiledOperand.constant(null, resultKind);
+      } else if (parameter.getKind() != Kind.STRING) {
+        throw Operators.badRequest("Invalid parameter. Expected Edm.String");
+      }
+    }
+    final CompiledOperand first = parameters.get(0);
+    final CompiledOperand second = parameters.size() > 1 ? parameters.get(1) : null;
+    return fold(new CompiledOperand(resultKind) {
+      @Override
+      Object evaluate(final Entity entity) {
+        final String firstValue = (String) first.evaluate(entity);
+        if (firstValue == null) {
+          return null;
+        }
+        final String secondValue = second == null ? null : (String) second.evaluate(entity);
+        return second != null && secondValue == null ? null : function.apply(firstValue, secondValue);
+      }
+    }, parameters);
+  }
+
+  private static CompiledOperand substring(final List<CompiledOperand> parameters)
+      throws ODataApplicationException {
+    // See OASIS JIRA ODATA-781.
+    final CompiledOperand value = parameters.get(0);
+    final CompiledOperand start = parameters.get(1);
+    final CompiledOperand length = parameters.size() == 3 ? parameters.get(2) : null;
+    if (value.getKind() == Kind.NULL || start.getKind() == Kind.NULL
+        || length != null && length.getKind() == Kind.NULL) {
+      return CompiledOperand.constant(null, Kind.STRING);
+    } else if (value.getKind() != Kind.STRING || start.getKind() != Kind.INTEGER
+        || length != null && length.getKind() != Kind.INTEGER) {
+      throw Operators.badRequest("Substring has invalid parameters. First parameter should be Edm.String,"
+          + " second parameter should be Edm.Int32");
+    }
+    return fold(new CompiledOperand(Kind.STRING) {
+      @Override
+      Object evaluate(final Entity entity) {
+        final String string = (String) value.evaluate(entity);
+        final Number startValue = (Number) start.evaluate(entity);
+        final Number lengthValue = length == null ? null : (Number) length.evaluate(entity);
+        if (string == null || startValue == null || length != null && lengthValue == null) {
+          return null;
+        }
+        final int begin = Math.max(0, (int) Math.min(startValue.longValue(), string.length()));
+        final int end = lengthValue == null ? string.length() :
+            (int) Math.max(begin, Math.min(begin + lengthValue.longValue(), string.length()));
+        return string.substring(begin, end);
+      }
+    }, parameters);
+  }
+
+  private static CompiledOperand dateFunction(final List<CompiledOperand> parameters, final int field,
+      final Kind... expectedKinds) throws ODataApplicationException {
+    final CompiledOperand operand = parameters.get(0);
+    final Kind resultKind = field == Calendar.MILLISECOND ? Kind.DECIMAL : Kind.INTEGER;
+    if (operand.getKind() == Kind.NULL) {
+      return CompiledOperand.constant(null, resultKind);
+    } else if (operand.getKind() != expectedKinds[0] && operand.getKind() != expectedKinds[1]) {
+      throw Operators.badRequest("Invalid type");
+    }
+    return fold(new CompiledOperand(resultKind) {
+      @Override
+      Object evaluate(final Entity entity) {
+        final Object value = operand.evaluate(entity);
+        return value == null ? null :
+            field == Calendar.MILLISECOND ? Values.getFractionalSeconds(value) : Values.getField(value, field);
+      }
+    }, parameters);
+  }
+
+  private static CompiledOperand rounding(final List<CompiledOperand> parameters, final RoundingMode mode)
+      throws ODataApplicationException {
+    final CompiledOperand operand = parameters.get(0);
+    final Kind kind = operand.getKind();
+    if (kind == Kind.NULL || kind == Kind.INTEGER) {
+      return operand;
+    } else if (kind != Kind.FLOATING && kind != Kind.DECIMAL) {
+      throw Operators.badRequest("Invalid type");
+    }
+    return fold(new CompiledOperand(kind) {
+      @Override
+      Object evaluate(final Entity entity) {
+        final Object value = operand.evaluate(entity);
+        if (value == null) {
+          return null;
+        } else if (kind == Kind.DECIMAL) {
+          return Values.toBigDecimal(value).setScale(0, mode);
+        }
+        final double number = Values.toDouble(value);
+        return mode == RoundingMode.FLOOR ? Math.floor(number) :
+            mode == RoundingMode.CEILING ? Math.ceil(number) :
+            Math.signum(number) * Math.floor(Math.abs(number) + 0.5);
+      }
+    }, parameters);
+  }
+
+  private static CompiledOperand fold(final CompiledOperand operation, final List<CompiledOperand> parameters) {
+    return Operators.fold(operation, parameters.toArray(new CompiledOperand[parameters.size()]));
+  }
+}
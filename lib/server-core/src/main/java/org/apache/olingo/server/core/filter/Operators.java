@@ -0,0 +1,539 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.filter;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Comparator;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
+import org.apache.olingo.server.core.filter.CompiledOperand.Kind;
+
+/**
+ * Compiles unary and binary operators.
+ * The implementation of each operator is chosen according to the kinds of its operands;
+ * operators with constant operands are evaluated immediately.
+ */
+final class Operators {
+
+  private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+  private static final BigDecimal SECONDS_PER_DAY = BigDecimal.valueOf(24L * 60 * 60);
+
+  private Operators() {}
+
+  static CompiledOperand binary(final BinaryOperatorKind operator, final CompiledOperand left,
+      final CompiledOperand right) throws ODataApplicationException {
+    switch (operator) {
+    case AND:
+    case OR:
+      return fold(logical(operator, left, right), left, right);
+    case EQ:
+    case NE:
+    case GE:
+    case GT:
+    case LE:
+    case LT:
+      return comparison(operator, left, right);
+    case ADD:
+    case SUB:
+    case MUL:
+    case DIV:
+    case MOD:
+      return arithmetic(operator, left, right);
+    default:
+      throw notImplemented();
+    }
+  }
+
+  static CompiledOperand unary(final UnaryOperatorKind operator, final CompiledOperand operand)
+      throws ODataApplicationException {
+    final Kind kind = operand.getKind();
+    if (kind == Kind.NULL) {
+      return operand;
+    }
+    if (operator == UnaryOperatorKind.NOT && kind == Kind.BOOLEAN) {
+      return fold(new CompiledOperand(Kind.BOOLEAN) {
+        @Override
+        Object evaluate(final Entity entity) {
+          final Object value = operand.evaluate(entity);
+          return value == null ? null : Boolean.valueOf(!((Boolean) value));
+        }
+      }, operand);
+    } else if (operator == UnaryOperatorKind.MINUS && (kind.isNumeric() || kind == Kind.DURATION)) {
+      return fold(new CompiledOperand(kind) {
+        @Override
+        Object evaluate(final Entity entity) {
+          final Object value = operand.evaluate(entity);
+          if (value == null) {
+            return null;
+          } else if (getKind() == Kind.FLOATING) {
+            return -Values.toDouble(value);
+          } else if (Values.isLong(value) && ((Number) value).longValue() != Long.MIN_VALUE) {
+            return -((Number) value).longValue();
+          } else {
+            return Values.toBigDecimal(value).negate();
+          }
+        }
+      }, operand);
+    } else {
+      throw badRequest("Unsupported type");
+    }
+  }
+
+  private static CompiledOperand logical(final BinaryOperatorKind operator, final CompiledOperand left,
+      final CompiledOperand right) throws ODataApplicationException {
+    if (!isBooleanOrNull(left) || !isBooleanOrNull(right)) {
+      throw badRequest(operator == BinaryOperatorKind.AND ?
+          "And operator needs two binary operands" : "Or operator needs two binary operands");
+    }
+    // Three-valued logic: the second operand decides only if the first one does not.
+    final Boolean decisive = operator == BinaryOperatorKind.OR;
+    return new CompiledOperand(Kind.BOOLEAN) {
+      @Override
+      Object evaluate(final Entity entity) {
+        final Object leftValue = left.evaluate(entity);
+        if (decisive.equals(leftValue)) {
+          return decisive;
+        }
+        final Object rightValue = right.evaluate(entity);
+        if (decisive.equals(rightValue)) {
+          return decisive;
+        }
+        return leftValue == null || rightValue == null ? null : Boolean.valueOf(!decisive);
+      }
+    };
+  }
+
+  private static boolean isBooleanOrNull(final CompiledOperand operand) {
+    return operand.getKind() == Kind.BOOLEAN || operand.getKind() == Kind.NULL;
+  }
+
+  private static CompiledOperand comparison(final BinaryOperatorKind operator, final CompiledOperand leftOperand,
+      final CompiledOperand rightOperand) throws ODataApplicationException {
+    final CompiledOperand left = coerceLiteral(leftOperand, rightOperand);
+    final CompiledOperand right = coerceLiteral(rightOperand, left);
+    final Kind kind = commonKind(left, right);
+    final ValueComparator comparator = comparator(kind);
+    if (comparator == ValueComparator.EQUALITY && operator != BinaryOperatorKind.EQ
+        && operator != BinaryOperatorKind.NE && kind != Kind.NULL) {
+      throw badRequest("The operands can only be compared for equality");
+    }
+    return fold(new Comparison(operator, convert(left, kind), convert(right, kind), comparator), left, right);
+  }
+
+  /**
+   * Determines the kind of values both operands are compared or calculated as.
+   * Numbers are compared as integers, as floating-point numbers (also against decimal literals),
+   * or as decimals otherwise.
+   */
+  private static Kind commonKind(final CompiledOperand left, final CompiledOperand right)
+      throws ODataApplicationException {
+    final Kind leftKind = left.getKind();
+    final Kind rightKind = right.getKind();
+    if (leftKind == Kind.NULL) {
+      return rightKind;
+    } else if (rightKind == Kind.NULL || leftKind == rightKind) {
+      return leftKind;
+    } else if (leftKind.isNumeric() && rightKind.isNumeric()) {
+      if ((leftKind == Kind.FLOATING || rightKind == Kind.FLOATING)
+          && !(leftKind == Kind.DECIMAL && !left.isConstant())
+          && !(rightKind == Kind.DECIMAL && !right.isConstant())) {
+        return Kind.FLOATING;
+      } else if (leftKind == Kind.INTEGER && rightKind == Kind.INTEGER) {
+        return Kind.INTEGER;
+      } else {
+        return Kind.DECIMAL;
+      }
+    } else {
+      throw badRequest("Incompatible types " + leftKind + " and " + rightKind);
+    }
+  }
+
+  /** Converts constant numbers into the common kind, so that this happens only once. */
+  private static CompiledOperand convert(final CompiledOperand operand, final Kind kind) {
+    if (!operand.isConstant() || operand.getKind() == kind || operand.getKind() == Kind.NULL) {
+      return operand;
+    }
+    final Object value = operand.evaluate(null);
+    return CompiledOperand.constant(value == null ? null :
+        kind == Kind.FLOATING ? (Object) Values.toDouble(value) : Values.toBigDecimal(value), kind);
+  }
+
+  /**
+   * Converts a literal compared with a property into the type of the property
+   * if the literal on its own has another type, e.g., a GUID literal.
+   */
+  private static CompiledOperand coerceLiteral(final CompiledOperand operand, final CompiledOperand other)
+      throws ODataApplicationException {
+    final String literal = operand.getLiteral();
+    final EdmPrimitiveType type = other.getType();
+    if (literal == null || type == null || operand.getKind() == Kind.NULL
+        || operand.getKind() == other.getKind() && operand.getKind() != Kind.OTHER) {
+      return operand;
+    }
+    try {
+      return CompiledOperand.constant(
+          type.valueOfString(type.fromUriLiteral(literal), null, null, null, null, null,
+              javaType(other.getKind(), type)),
+          other.getKind());
+    } catch (final EdmPrimitiveTypeException e) {
+      if (operand.getKind() == Kind.OTHER) {
+        throw badRequest("Could not determine type for literal " + literal);
+      }
+      return operand;
+    }
+  }
+
+  static Class<?> javaType(final Kind kind, final EdmPrimitiveType type) {
+    switch (kind) {
+    case INTEGER:
+      return Long.class;
+    case FLOATING:
+      return Double.class;
+    case DECIMAL:
+    case DURATION:
+      return BigDecimal.class;
+    default:
+      return type.getDefaultType();
+    }
+  }
+
+  private static ValueComparator comparator(final Kind kind) {
+    switch (kind) {
+    case INTEGER:
+      return ValueComparator.INTEGER;
+    case FLOATING:
+      return ValueComparator.FLOATING;
+    case DECIMAL:
+    case DURATION:
+      return ValueComparator.DECIMAL;
+    case STRING:
+    case BOOLEAN:
+      return ValueComparator.NATURAL;
+    case DATE:
+      return ValueComparator.DATE;
+    case DATE_TIME_OFFSET:
+      return ValueComparator.DATE_TIME_OFFSET;
+    case TIME_OF_DAY:
+      return ValueComparator.TIME_OF_DAY;
+    default:
+      return ValueComparator.EQUALITY;
+    }
+  }
+
+  private static CompiledOperand arithmetic(final BinaryOperatorKind operator, final CompiledOperand left,
+      final CompiledOperand right) throws ODataApplicationException {
+    final Kind leftKind = left.getKind();
+    final Kind rightKind = right.getKind();
+    if (leftKind == Kind.NULL || rightKind == Kind.NULL) {
+      // Like the null literal, the result can be compared with operands of any type.
+      return CompiledOperand.constant(null, Kind.NULL);
+    } else if (leftKind.isNumeric() && rightKind.isNumeric()) {
+      final Kind kind = commonKind(left, right);
+      if (operator == BinaryOperatorKind.MOD && kind != Kind.INTEGER) {
+        throw badRequest("Operator not valid");
+      }
+      return fold(new Arithmetic(operator, convert(left, kind), convert(right, kind), kind), left, right);
+    }
+
+    final boolean addOrSub = operator == BinaryOperatorKind.ADD || operator == BinaryOperatorKind.SUB;
+    final int sign = operator == BinaryOperatorKind.SUB ? -1 : 1;
+    if (leftKind == Kind.DATE && rightKind == Kind.DATE && operator == BinaryOperatorKind.SUB) {
+      return fold(new BinaryOperation(left, right, Kind.DURATION) {
+        @Override
+        Object apply(final Object leftValue, final Object rightValue) {
+          return BigDecimal.valueOf(Values.getEpochDay(leftValue) - Values.getEpochDay(rightValue))
+              .multiply(SECONDS_PER_DAY);
+        }
+      }, left, right);
+    } else if ((leftKind == Kind.DATE || leftKind == Kind.DATE_TIME_OFFSET) && rightKind == Kind.DURATION
+        && addOrSub) {
+      return fold(new BinaryOperation(left, right, Kind.DATE_TIME_OFFSET) {
+        @Override
+        Object apply(final Object leftValue, final Object rightValue) {
+          final long millis = left.getKind() == Kind.DATE ?
+              Values.getEpochDay(leftValue) * MILLIS_PER_DAY :
+              Values.getEpochMillis(leftValue);
+          return Values.toTimestamp(millis + sign * Values.toBigDecimal(rightValue).movePointRight(3).longValue());
+        }
+      }, left, right);
+    } else if (leftKind == Kind.DATE_TIME_OFFSET && rightKind == Kind.DATE_TIME_OFFSET
+        && operator == BinaryOperatorKind.SUB) {
+      return fold(new BinaryOperation(left, right, Kind.DURATION) {
+        @Override
+        Object apply(final Object leftValue, final Object rightValue) {
+          return BigDecimal.valueOf(Values.getEpochMillis(leftValue) - Values.getEpochMillis(rightValue), 3)
+              .add(BigDecimal.valueOf(Values.getSubMillisNanos(leftValue) - Values.getSubMillisNanos(rightValue), 9));
+        }
+      }, left, right);
+    } else if (leftKind == Kind.DURATION && rightKind == Kind.DURATION && addOrSub) {
+      return fold(new BinaryOperation(left, right, Kind.DURATION) {
+        @Override
+        Object apply(final Object leftValue, final Object rightValue) {
+          return sign > 0 ?
+              Values.toBigDecimal(leftValue).add(Values.toBigDecimal(rightValue)) :
+              Values.toBigDecimal(leftValue).subtract(Values.toBigDecimal(rightValue));
+        }
+      }, left, right);
+    } else {
+      throw badRequest("Invalid operation / operand");
+    }
+  }
+
+  /**
+   * Replaces an operation on constant operands with its result.
+   * Operations failing for these operands, e.g., divisions by zero, are kept to fail on evaluation.
+   */
+  static CompiledOperand fold(final CompiledOperand operation, final CompiledOperand... operands) {
+    for (final CompiledOperand operand : operands) {
+      if (!operand.isConstant()) {
+        return operation;
+      }
+    }
+    try {
+      return CompiledOperand.constant(operation.evaluate(null), operation.getKind());
+    } catch (final RuntimeException e) {
+      return operation;
+    }
+  }
+
+  static ODataApplicationException badRequest(final String message) {
+    return new ODataApplicationException(message, HttpStatusCode.BAD_REQUEST.getStatusCode(), Locale.ROOT);
+  }
+
+  static ODataApplicationException notImplemented() {
+    return new ODataApplicationException("Not implemented", HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(),
+        Locale.ROOT);
+  }
+
+  /** An operation with two operands resulting in <code>null</code> if one of the operands is <code>null</code>. */
+  private abstract static class BinaryOperation extends CompiledOperand {
+    private final CompiledOperand left;
+    private final CompiledOperand right;
+
+    private BinaryOperation(final CompiledOperand left, final CompiledOperand right, final Kind kind) {
+      super(kind);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    Object evaluate(final Entity entity) {
+      final Object leftValue = left.evaluate(entity);
+      if (leftValue == null) {
+        return null;
+      }
+      final Object rightValue = right.evaluate(entity);
+      return rightValue == null ? null : apply(leftValue, rightValue);
+    }
+
+    abstract Object apply(Object leftValue, Object rightValue);
+  }
+
+  private static final class Arithmetic extends BinaryOperation {
+    private final BinaryOperatorKind operator;
+
+    private Arithmetic(final BinaryOperatorKind operator, final CompiledOperand left, final CompiledOperand right,
+        final Kind kind) {
+      super(left, right, kind);
+      this.operator = operator;
+    }
+
+    @Override
+    Object apply(final Object leftValue, final Object rightValue) {
+      if (getKind() == Kind.FLOATING) {
+        return applyDouble(Values.toDouble(leftValue), Values.toDouble(rightValue));
+      } else if (getKind() == Kind.INTEGER && Values.isLong(leftValue) && Values.isLong(rightValue)) {
+        final Object result = applyLong(((Number) leftValue).longValue(), ((Number) rightValue).longValue());
+        if (result != null) {
+          return result;
+        }
+      }
+      return applyDecimal(Values.toBigDecimal(leftValue), Values.toBigDecimal(rightValue));
+    }
+
+    private Double applyDouble(final double left, final double right) {
+      switch (operator) {
+      case ADD:
+        return left + right;
+      case SUB:
+        return left - right;
+      case MUL:
+        return left * right;
+      case DIV:
+        return left / right;
+      default:
+        return left % right;
+      }
+    }
+
+    /** Calculates with longs; returns <code>null</code> if the result does not fit into a long. */
+    private Long applyLong(final long left, final long right) {
+      final long result;
+      switch (operator) {
+      case ADD:
+        result = left + right;
+        return ((left ^ result) & (right ^ result)) < 0 ? null : result;
+      case SUB:
+        result = left - right;
+        return ((left ^ right) & (left ^ result)) < 0 ? null : result;
+      case MUL:
+        result = left * right;
+        return left != 0 && (result / left != right || left == -1 && right == Long.MIN_VALUE) ? null : result;
+      case DIV:
+        return left == Long.MIN_VALUE && right == -1 ? null : left / right;
+      default:
+        return left % right;
+      }
+    }
+
+    private BigDecimal applyDecimal(final BigDecimal left, final BigDecimal right) {
+      switch (operator) {
+      case ADD:
+        return left.add(right);
+      case SUB:
+        return left.subtract(right);
+      case MUL:
+        return left.multiply(right);
+      case DIV:
+        return getKind() == Kind.INTEGER ?
+            left.divideToIntegralValue(right) :
+            left.divide(right, MathContext.DECIMAL128);
+      default:
+        return left.remainder(right);
+      }
+    }
+  }
+
+  private static final class Comparison extends CompiledOperand {
+    private final CompiledOperand left;
+    private final CompiledOperand right;
+    private final ValueComparator comparator;
+    private final Boolean lessResult;
+    private final Boolean equalResult;
+    private final Boolean greaterResult;
+    private final Boolean oneNullResult;
+
+    private Comparison(final BinaryOperatorKind operator, final CompiledOperand left, final CompiledOperand right,
+        final ValueComparator comparator) {
+      super(Kind.BOOLEAN);
+      this.left = left;
+      this.right = right;
+      this.comparator = comparator;
+      lessResult = operator == BinaryOperatorKind.LT || operator == BinaryOperatorKind.LE
+          || operator == BinaryOperatorKind.NE;
+      equalResult = operator == BinaryOperatorKind.EQ || operator == BinaryOperatorKind.LE
+          || operator == BinaryOperatorKind.GE;
+      greaterResult = operator == BinaryOperatorKind.GT || operator == BinaryOperatorKind.GE
+          || operator == BinaryOperatorKind.NE;
+      // null is equal to null, and only equal to null
+      oneNullResult = operator == BinaryOperatorKind.NE;
+    }
+
+    @Override
+    Object evaluate(final Entity entity) {
+      final Object leftValue = left.evaluate(entity);
+      final Object rightValue = right.evaluate(entity);
+      if (leftValue == null || rightValue == null) {
+        return leftValue == rightValue ? equalResult : oneNullResult;
+      }
+      final int result = comparator.compare(leftValue, rightValue);
+      return result < 0 ? lessResult : result == 0 ? equalResult : greaterResult;
+    }
+  }
+
+  /**
+   * Returns the comparator for $orderby on values of the given kind.
+   * Values without an order are compared only if they are comparable and of the same class.
+   */
+  static Comparator<Object> ordering(final Kind kind) {
+    final ValueComparator comparator = comparator(kind);
+    return comparator == ValueComparator.EQUALITY ? ValueComparator.COMPARABLE : comparator;
+  }
+
+  /** Compares two non-null values of the same kind. */
+  private enum ValueComparator implements Comparator<Object> {
+    INTEGER {
+      @Override
+      public int compare(final Object left, final Object right) {
+        return Values.isLong(left) && Values.isLong(right) ?
+            Values.compareLongs(((Number) left).longValue(), ((Number) right).longValue()) :
+            DECIMAL.compare(left, right);
+      }
+    },
+    FLOATING {
+      @Override
+      public int compare(final Object left, final Object right) {
+        return Double.compare(Values.toDouble(left), Values.toDouble(right));
+      }
+    },
+    DECIMAL {
+      @Override
+      public int compare(final Object left, final Object right) {
+        return Values.toBigDecimal(left).compareTo(Values.toBigDecimal(right));
+      }
+    },
+    NATURAL {
+      @Override
+      @SuppressWarnings("unchecked")
+      public int compare(final Object left, final Object right) {
+        return ((Comparable<Object>) left).compareTo(right);
+      }
+    },
+    DATE {
+      @Override
+      public int compare(final Object left, final Object right) {
+        return Values.compareLongs(Values.getEpochDay(left), Values.getEpochDay(right));
+      }
+    },
+    DATE_TIME_OFFSET {
+      @Override
+      public int compare(final Object left, final Object right) {
+        return Values.compareInstants(left, right);
+      }
+    },
+    TIME_OF_DAY {
+      @Override
+      public int compare(final Object left, final Object right) {
+        return Values.compareLongs(Values.getNanosOfDay(left), Values.getNanosOfDay(right));
+      }
+    },
+    EQUALITY {
+      @Override
+      public int compare(final Object left, final Object right) {
+        return left.equals(right) ? 0 : 1;
+      }
+    },
+    COMPARABLE {
+      @Override
+      @SuppressWarnings("unchecked")
+      public int compare(final Object left, final Object right) {
+        return left.getClass() == right.getClass() && left instanceof Comparable ?
+            ((Comparable<Object>) left).compareTo(right) : 0;
+      }
+    }
+  }
+}
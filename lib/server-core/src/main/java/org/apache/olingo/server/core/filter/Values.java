@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.filter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Conversions of the values of compiled operands.
+ * Values of the Java types {@link java.util.Date} and {@link Timestamp} are interpreted in UTC;
+ * calendars in their own time zone.
+ */
+final class Values {
+
+  private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+  private static final long NANOS_PER_MILLI = 1000L * 1000;
+
+  private Values() {}
+
+  /** Whether the value is an integer number which fits into a long without conversion. */
+  static boolean isLong(final Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+
+  static double toDouble(final Object value) {
+    // The decimal representation of a float is what it stands for, e.g., 1.1 and not 1.100000023841858.
+    return value instanceof Float ? Double.parseDouble(value.toString()) : ((Number) value).doubleValue();
+  }
+
+  static BigDecimal toBigDecimal(final Object value) {
+    if (value instanceof BigDecimal) {
+      return (BigDecimal) value;
+    } else if (isLong(value)) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    } else if (value instanceof BigInteger) {
+      return new BigDecimal((BigInteger) value);
+    } else {
+      return new BigDecimal(value.toString());
+    }
+  }
+
+  static int compareLongs(final long left, final long right) {
+    return left < right ? -1 : left == right ? 0 : 1;
+  }
+
+  /** Gets a field of a date or time value like {@link Calendar#get(int)}, but with months starting at 1. */
+  static int getField(final Object value, final int field) {
+    if (value instanceof Calendar) {
+      final int fieldValue = ((Calendar) value).get(field);
+      return field == Calendar.MONTH ? fieldValue + 1 : fieldValue;
+    }
+    final long millis = ((Date) value).getTime();
+    final long days = floorDiv(millis, MILLIS_PER_DAY);
+    final long millisOfDay = millis - days * MILLIS_PER_DAY;
+    switch (field) {
+    case Calendar.HOUR_OF_DAY:
+      return (int) (millisOfDay / (60 * 60 * 1000));
+    case Calendar.MINUTE:
+      return (int) (millisOfDay / (60 * 1000) % 60);
+    case Calendar.SECOND:
+      return (int) (millisOfDay / 1000 % 60);
+    case Calendar.MILLISECOND:
+      return (int) (millisOfDay % 1000);
+    default:
+      final int[] date = civilFromDays(days);
+      return field == Calendar.YEAR ? date[0] : field == Calendar.MONTH ? date[1] : date[2];
+    }
+  }
+
+  /** Returns the fractional seconds of a date or time value. */
+  static BigDecimal getFractionalSeconds(final Object value) {
+    if (value instanceof Timestamp) {
+      return BigDecimal.valueOf(((Timestamp) value).getNanos(), 9);
+    }
+    return BigDecimal.valueOf(getField(value, Calendar.MILLISECOND), 3);
+  }
+
+  /** Returns the day of a date value as number of days since 1970-01-01. */
+  static long getEpochDay(final Object value) {
+    return daysFromCivil(getField(value, Calendar.YEAR), getField(value, Calendar.MONTH),
+        getField(value, Calendar.DAY_OF_MONTH));
+  }
+
+  /** Returns the time of a time-of-day value as nanoseconds since midnight. */
+  static long getNanosOfDay(final Object value) {
+    final long millis = ((getField(value, Calendar.HOUR_OF_DAY) * 60L + getField(value, Calendar.MINUTE)) * 60
+        + getField(value, Calendar.SECOND)) * 1000 + getField(value, Calendar.MILLISECOND);
+    return millis * NANOS_PER_MILLI + getSubMillisNanos(value);
+  }
+
+  /** Returns the point in time of a date-time value as milliseconds since 1970-01-01T00:00Z. */
+  static long getEpochMillis(final Object value) {
+    return value instanceof Calendar ? ((Calendar) value).getTimeInMillis() : ((Date) value).getTime();
+  }
+
+  /** Returns the nanoseconds of a date-time value not already contained in its milliseconds. */
+  static int getSubMillisNanos(final Object value) {
+    return value instanceof Timestamp ? (int) (((Timestamp) value).getNanos() % NANOS_PER_MILLI) : 0;
+  }
+
+  static int compareInstants(final Object left, final Object right) {
+    final int result = compareLongs(getEpochMillis(left), getEpochMillis(right));
+    return result == 0 ? compareLongs(getSubMillisNanos(left), getSubMillisNanos(right)) : result;
+  }
+
+  static Timestamp toTimestamp(final long epochMillis) {
+    return new Timestamp(epochMillis);
+  }
+
+  private static long floorDiv(final long dividend, final long divisor) {
+    final long quotient = dividend / divisor;
+    return dividend % divisor < 0 ? quotient - 1 : quotient;
+  }
+
+  /** Converts days since 1970-01-01 into year, month, and day of the proleptic Gregorian calendar. */
+  private static int[] civilFromDays(final long epochDays) {
+    final long days = epochDays + 719468;
+    final long era = floorDiv(days, 146097);
+    final long dayOfEra = days - era * 146097;
+    final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+    final int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+    final int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+    final int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+    return new int[] { year, month, day };
+  }
+
+  /** Converts a date of the proleptic Gregorian calendar into days since 1970-01-01. */
+  private static long daysFromCivil(final int year, final int month, final int day) {
+    final long y = month <= 2 ? year - 1 : year;
+    final long era = floorDiv(y, 400);
+    final long yearOfEra = y - era * 400;
+    final long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+}
@@ -19,14 +19,11 @@
 package org.apache.olingo.server.core.serializer;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.WritableByteChannel;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -35,11 +32,14 @@ import org.apache.olingo.commons.api.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.serializer.BatchSerializerException;
 import org.apache.olingo.server.api.serializer.BatchSerializerException.MessageKeys;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
+import org.apache.olingo.server.core.serializer.utils.ContentBuffer;
+import org.apache.olingo.server.core.serializer.utils.ContentBuffer.ContentInputStream;
 
 public class BatchResponseSerializer {
   private static final int BUFFER_SIZE = 4096;
@@ -50,16 +50,45 @@ public class BatchResponseSerializer {
 
   public InputStream serialize(final List<ODataResponsePart> responses, final String boundary)
       throws BatchSerializerException {
-    BodyBuilder builder = createBody(responses, boundary);
+    final ContentBuffer buffer = new ContentBuffer();
+    try {
+      createBody(responses.iterator(), boundary, buffer.getOutputStream());
+    } catch (final IOException e) {
+      throw new ODataRuntimeException("Error on writing batch response", e);
+    }
 
-    return new ByteArrayInputStream(builder.getContent());
+    return buffer.getInputStream();
   }
 
-  private BodyBuilder createBody(final List<ODataResponsePart> batchResponses, final String boundary)
-      throws BatchSerializerException {
-    final BodyBuilder builder = new BodyBuilder();
+  /**
+   * Serializes the response parts into the output stream while they are requested from the iterator.
+   * Each part is written and flushed before the next one is requested,
+   * so only the body of the current response is held in memory.
+   * @param responses the response parts
+   * @param boundary the boundary between the parts
+   * @return the content to be written into the response
+   */
+  public ODataContent serializeStreamed(final Iterator<ODataResponsePart> responses, final String boundary) {
+    return new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          createBody(responses, boundary, stream);
+        } catch (final BatchSerializerException e) {
+          throw new ODataRuntimeException("Error on writing batch response", e);
+        } catch (final IOException e) {
+          throw new ODataRuntimeException("Error on writing batch response", e);
+        }
+      }
+    };
+  }
+
+  private void createBody(final Iterator<ODataResponsePart> batchResponses, final String boundary,
+      final OutputStream output) throws BatchSerializerException, IOException {
+    final BodyBuilder builder = new BodyBuilder(output);
 
-    for (final ODataResponsePart part : batchResponses) {
+    while (batchResponses.hasNext()) {
+      final ODataResponsePart part = batchResponses.next();
       builder.append(getDashBoundary(boundary));
 
       if (part.isChangeSet()) {
@@ -67,14 +96,14 @@ public class BatchResponseSerializer {
       } else {
         appendBodyPart(part.getResponses().get(0), builder, false);
       }
+      builder.flush();
     }
     builder.append(getCloseDelimiter(boundary));
-
-    return builder;
+    builder.flush();
   }
 
   private void appendChangeSet(final ODataResponsePart part, final BodyBuilder builder)
-      throws BatchSerializerException {
+      throws BatchSerializerException, IOException {
     final String changeSetBoundary = generateBoundary("changeset");
 
     appendChangeSetHeader(builder, changeSetBoundary);
@@ -89,7 +118,7 @@ public class BatchResponseSerializer {
   }
 
   private void appendBodyPart(final ODataResponse response, final BodyBuilder builder, final boolean isChangeSet)
-      throws BatchSerializerException {
+      throws BatchSerializerException, IOException {
 
     appendBodyPartHeader(response, builder, isChangeSet);
     builder.append(CRLF);
@@ -166,91 +195,98 @@ public class BatchResponseSerializer {
   }
 
   /**
-   * Builder class to create the body and the header.
+   * Builder class to write the body and the header.
+   * Header text is collected until a body or the end of a part is reached.
    */
   private class BodyBuilder {
     private final Charset CHARSET_ISO_8859_1 = Charset.forName("iso-8859-1");
-    private ByteBuffer buffer = ByteBuffer.allocate(8192);
-    private boolean isClosed = false;
-
-    public byte[] getContent() {
-      isClosed = true;
-      byte[] tmp = new byte[buffer.position()];
-      buffer.flip();
-      buffer.get(tmp, 0, buffer.limit());
-      return tmp;
+    private final OutputStream output;
+    private final StringBuilder text = new StringBuilder();
+
+    public BodyBuilder(final OutputStream output) {
+      this.output = output;
     }
 
-    public BodyBuilder append(String string) {
-      byte [] b = string.getBytes(CHARSET_ISO_8859_1);
-      put(b);
+    public BodyBuilder append(final String string) {
+      text.append(string);
       return this;
     }
 
-    private void put(byte[] b) {
-      if(isClosed) {
-        throw new RuntimeException("BodyBuilder is closed.");
-      }
-      if(buffer.remaining() < b.length) {
-        buffer.flip();
-        ByteBuffer tmp = ByteBuffer.allocate(buffer.limit() *2);
-        tmp.put(buffer);
-        buffer = tmp;
-      }
-      buffer.put(b);
+    public BodyBuilder append(final int statusCode) {
+      text.append(statusCode);
+      return this;
     }
 
-    public BodyBuilder append(int statusCode) {
-      return append(String.valueOf(statusCode));
+    public BodyBuilder append(final Body body) throws IOException {
+      writeText();
+      body.writeTo(output);
+      return this;
     }
 
-    public BodyBuilder append(Body body) {
-      put(body.getContent());
-      return this;
+    /**
+     * Writes the collected text and flushes the output stream
+     * so that the part is sent before the next part is produced.
+     */
+    public void flush() throws IOException {
+      writeText();
+      output.flush();
     }
 
-    public String toString() {
-      return new String(buffer.array(), 0, buffer.position());
+    private void writeText() throws IOException {
+      if (text.length() > 0) {
+        output.write(text.toString().getBytes(CHARSET_ISO_8859_1));
+        text.setLength(0);
+      }
     }
   }
 
   /**
    * Body part which is read and stored as bytes (no charset conversion).
+   * Content which is already held in memory is not copied.
    */
   private class Body {
-    private final byte[] content;
+    private final ByteArrayInputStream content;
 
-    public Body(ODataResponse response) {
-      this.content = getBody(response);
+    public Body(final ODataResponse response) {
+      content = getBody(response);
     }
 
     public int getLength() {
-      return content.length;
+      return content == null ? 0 : content.available();
     }
 
-    public byte[] getContent() {
-      return content;
+    public void writeTo(final OutputStream output) throws IOException {
+      if (content instanceof ContentInputStream) {
+        ((ContentInputStream) content).writeTo(output);
+      } else if (content != null) {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int count;
+        while ((count = content.read(buffer)) > -1) {
+          output.write(buffer, 0, count);
+        }
+      }
     }
 
-    private byte[] getBody(final ODataResponse response) {
-      if (response == null || response.getContent() == null) {
-        return new byte[0];
+    private ByteArrayInputStream getBody(final ODataResponse response) {
+      final InputStream input = response == null ? null : response.getContent();
+      if (input == null) {
+        return null;
+      } else if (input instanceof ByteArrayInputStream) {
+        return (ByteArrayInputStream) input;
       }
 
       try {
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        ByteBuffer inBuffer = ByteBuffer.allocate(BUFFER_SIZE);
-        ReadableByteChannel ic = Channels.newChannel(response.getContent());
-        WritableByteChannel oc = Channels.newChannel(output);
-        while (ic.read(inBuffer) > 0) {
-          inBuffer.flip();
-          oc.write(inBuffer);
-          inBuffer.rewind();
+        ContentBuffer buffer = new ContentBuffer(BUFFER_SIZE);
+        OutputStream output = buffer.getOutputStream();
+        byte[] inBuffer = new byte[BUFFER_SIZE];
+        int count;
+        while ((count = input.read(inBuffer)) > -1) {
+          output.write(inBuffer, 0, count);
         }
-        return output.toByteArray();
+        return buffer.getInputStream();
       } catch (IOException e) {
         throw new ODataRuntimeException("Error on reading request content");
       }
     }
   }
-}
\ No newline at end of file
+}
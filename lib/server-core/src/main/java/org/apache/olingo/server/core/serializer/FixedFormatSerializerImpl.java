@@ -21,10 +21,12 @@ package org.apache.olingo.server.core.serializer;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.serializer.BatchSerializerException;
@@ -75,4 +77,10 @@ public class FixedFormatSerializerImpl implements FixedFormatSerializer {
 
     return serializer.serialize(batchResponses, boundary);
   }
+
+  @Override
+  public ODataContent batchResponseStreamed(final Iterator<ODataResponsePart> batchResponses,
+      final String boundary) {
+    return new BatchResponseSerializer().serializeStreamed(batchResponses, boundary);
+  }
 }
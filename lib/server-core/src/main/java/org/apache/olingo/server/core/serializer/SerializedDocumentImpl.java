@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.olingo.commons.api.ODataRuntimeException;
+import org.apache.olingo.server.api.serializer.SerializedDocument;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.serializer.SerializerResult;
+
+/**
+ * Serialized document kept in memory.
+ */
+public final class SerializedDocumentImpl implements SerializedDocument {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final byte[] content;
+  private final String eTag;
+  private final List<String> applicationETags;
+  private volatile byte[] gzippedContent;
+
+  /**
+   * @param result           the result of the serializer; its content is read completely
+   * @param applicationETag  the application-specific entity tag of the document or <code>null</code>
+   * @param applicationETags all application-specific entity tags the content depends on
+   */
+  public SerializedDocumentImpl(final SerializerResult result, final String applicationETag,
+      final List<String> applicationETags) throws SerializerException {
+    content = read(result.getContent());
+    eTag = applicationETag == null ? computeETag(content) : applicationETag;
+    this.applicationETags = applicationETags;
+  }
+
+  /**
+   * Checks whether this document has been serialized for the given application-specific entity tags.
+   * @param applicationETags the current application-specific entity tags
+   */
+  public boolean isCurrent(final List<String> applicationETags) {
+    return this.applicationETags.equals(applicationETags);
+  }
+
+  @Override
+  public InputStream getContent() {
+    return new ByteArrayInputStream(content);
+  }
+
+  @Override
+  public String getETag() {
+    return eTag;
+  }
+
+  @Override
+  public InputStream getGzippedContent() {
+    byte[] gzipped = gzippedContent;
+    if (gzipped == null) {
+      gzipped = gzip(content);
+      gzippedContent = gzipped;
+    }
+    return new ByteArrayInputStream(gzipped);
+  }
+
+  private static byte[] read(final InputStream input) throws SerializerException {
+    try {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int count;
+      while ((count = input.read(buffer)) >= 0) {
+        output.write(buffer, 0, count);
+      }
+      input.close();
+      return output.toByteArray();
+    } catch (final IOException e) {
+      throw new SerializerException("An I/O exception occurred.", e,
+          SerializerException.MessageKeys.IO_EXCEPTION);
+    }
+  }
+
+  private static String computeETag(final byte[] content) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("MD5").digest(content);
+      StringBuilder result = new StringBuilder(digest.length * 2 + 2).append('"');
+      for (final byte b : digest) {
+        result.append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+      }
+      return result.append('"').toString();
+    } catch (final NoSuchAlgorithmException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  private static byte[] gzip(final byte[] content) {
+    try {
+      ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 4 + 64);
+      GZIPOutputStream gzipOutput = new GZIPOutputStream(output);
+      gzipOutput.write(content);
+      gzipOutput.close();
+      return output.toByteArray();
+    } catch (final IOException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+}
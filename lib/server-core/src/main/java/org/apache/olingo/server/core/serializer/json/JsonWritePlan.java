@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.olingo.commons.api.data.PropertyIndex;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Describes how instances of one structured type are written for a given combination
+ * of $select and $expand options: the selected properties in the order of the type,
+ * their pre-encoded JSON names, and the plans for the expanded navigation properties.
+ * <br/>Plans are immutable apart from the lazily filled map of derived-type plans, which is thread-safe.
+ * Plans for options with a known text are shared between the requests of a service,
+ * see {@link JsonWritePlanCache}.
+ */
+final class JsonWritePlan {
+
+  private final EdmStructuredType type;
+  private final String typeName;
+  private final SerializableString typeAnnotation;
+  private final PropertyIndex propertyIndex;
+  private final SelectOption select;
+  private final ExpandOption expand;
+  private final PropertyPlan[] properties;
+  private final NavigationPlan[] navigationProperties;
+  private final Map<String, JsonWritePlan> derivedPlans = new ConcurrentHashMap<String, JsonWritePlan>();
+
+  private JsonWritePlan(final EdmStructuredType type, final String derivedTypeName,
+      final SelectOption select, final ExpandOption expand) throws SerializerException {
+    this.type = type;
+    typeName = type.getFullQualifiedName().getFullQualifiedNameAsString();
+    typeAnnotation = derivedTypeName == null ? null : new SerializedString("#" + derivedTypeName);
+    this.select = select;
+    this.expand = expand;
+    propertyIndex = PropertyIndex.of(type);
+
+    final boolean all = ExpandSelectHelper.isAll(select);
+    final Set<String> selected = all ? null :
+        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
+    List<PropertyPlan> propertyPlans = new ArrayList<PropertyPlan>();
+    for (final String propertyName : type.getPropertyNames()) {
+      if (all || selected.contains(propertyName)) {
+        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
+        propertyPlans.add(new PropertyPlan(edmProperty, propertyIndex.getPropertyOrdinal(propertyName),
+            all || edmProperty.isPrimitive() ? null :
+                ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName)));
+      }
+    }
+    properties = propertyPlans.toArray(new PropertyPlan[propertyPlans.size()]);
+
+    List<NavigationPlan> navigationPlans = new ArrayList<NavigationPlan>();
+    if (ExpandSelectHelper.hasExpand(expand)) {
+      final boolean expandAll = ExpandSelectHelper.isExpandAll(expand);
+      final Set<String> expanded = expandAll ? null :
+          ExpandSelectHelper.getExpandedPropertyNames(expand.getExpandItems());
+      for (final String propertyName : type.getNavigationPropertyNames()) {
+        if (expandAll || expanded.contains(propertyName)) {
+          final EdmNavigationProperty property = type.getNavigationProperty(propertyName);
+          final ExpandItem innerOptions = expandAll ? null :
+              ExpandSelectHelper.getExpandItem(expand.getExpandItems(), propertyName);
+          navigationPlans.add(new NavigationPlan(property,
+              innerOptions != null && innerOptions.getLevelsOption() != null,
+              new JsonWritePlan(property.getType(), null,
+                  innerOptions == null ? null : innerOptions.getSelectOption(),
+                  innerOptions == null ? null : innerOptions.getExpandOption())));
+        }
+      }
+    }
+    navigationProperties = navigationPlans.toArray(new NavigationPlan[navigationPlans.size()]);
+  }
+
+  /**
+   * Returns the plan for the given type and options, from the cache if possible.
+   * @param cache   the cache of the service or <code>null</code>
+   * @param type    the structured type
+   * @param select  the $select option or <code>null</code>
+   * @param expand  the $expand option or <code>null</code>
+   */
+  static JsonWritePlan get(final JsonWritePlanCache cache, final EdmStructuredType type,
+      final SelectOption select, final ExpandOption expand) throws SerializerException {
+    final boolean hasSelect = ExpandSelectHelper.hasSelect(select);
+    final boolean hasExpand = ExpandSelectHelper.hasExpand(expand);
+    if (cache == null || hasSelect && select.getText() == null || hasExpand && expand.getText() == null) {
+      // Options built without a text cannot be compared; the plan is only used for this request.
+      return new JsonWritePlan(type, null, select, expand);
+    }
+    final String selectText = hasSelect ? select.getText() : null;
+    final String expandText = hasExpand ? expand.getText() : null;
+    JsonWritePlan plan = cache.get(type, selectText, expandText);
+    if (plan == null) {
+      plan = new JsonWritePlan(type, null, select, expand);
+      cache.put(type, selectText, expandText, plan);
+    }
+    return plan;
+  }
+
+  EdmStructuredType getType() {
+    return type;
+  }
+
+  /** Returns the property index of the type; values bound to it can be read by ordinal. */
+  PropertyIndex getPropertyIndex() {
+    return propertyIndex;
+  }
+
+  /**
+   * Returns the annotation value with the name of the derived type this plan has been built for
+   * or <code>null</code> if the plan is for the type requested by the caller.
+   */
+  SerializableString getTypeAnnotation() {
+    return typeAnnotation;
+  }
+
+  /**
+   * Returns whether the given type name (as found in the data) denotes the type of this plan.
+   * @param derivedTypeName type name or <code>null</code>
+   */
+  boolean isOwnType(final String derivedTypeName) {
+    return derivedTypeName == null || typeName.equals(derivedTypeName);
+  }
+
+  /**
+   * Returns the plan for the given derived type if it has been built before.
+   * @param derivedTypeName the type name as found in the data
+   */
+  JsonWritePlan getDerivedPlan(final String derivedTypeName) {
+    return derivedPlans.get(derivedTypeName);
+  }
+
+  /**
+   * Builds and remembers the plan for a derived type with the same options as this plan.
+   * @param derivedTypeName the type name as found in the data
+   * @param derivedType     the type the name has been resolved to
+   */
+  JsonWritePlan addDerivedPlan(final String derivedTypeName, final EdmStructuredType derivedType)
+      throws SerializerException {
+    final JsonWritePlan plan = new JsonWritePlan(derivedType, derivedTypeName, select, expand);
+    derivedPlans.put(derivedTypeName, plan);
+    return plan;
+  }
+
+  /** Returns the $select option the plan has been built for or <code>null</code>. */
+  SelectOption getSelect() {
+    return select;
+  }
+
+  /** Returns the $expand option the plan has been built for or <code>null</code>. */
+  ExpandOption getExpand() {
+    return expand;
+  }
+
+  PropertyPlan[] getProperties() {
+    return properties;
+  }
+
+  NavigationPlan[] getNavigationProperties() {
+    return navigationProperties;
+  }
+
+  /** A selected structural property. */
+  static final class PropertyPlan {
+    private final EdmProperty edmProperty;
+    private final int ordinal;
+    private final String name;
+    private final SerializableString jsonName;
+    private final Set<List<String>> selectedPaths;
+
+    private PropertyPlan(final EdmProperty edmProperty, final int ordinal, final Set<List<String>> selectedPaths) {
+      this.edmProperty = edmProperty;
+      this.ordinal = ordinal;
+      name = edmProperty.getName();
+      jsonName = new SerializedString(name);
+      this.selectedPaths = selectedPaths;
+    }
+
+    EdmProperty getEdmProperty() {
+      return edmProperty;
+    }
+
+    /** Returns the ordinal of the property in the property index of the plan's type. */
+    int getOrdinal() {
+      return ordinal;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    SerializableString getJsonName() {
+      return jsonName;
+    }
+
+    Set<List<String>> getSelectedPaths() {
+      return selectedPaths;
+    }
+  }
+
+  /** An expanded navigation property. */
+  static final class NavigationPlan {
+    private final EdmNavigationProperty property;
+    private final SerializableString jsonName;
+    private final boolean hasLevels;
+    private final JsonWritePlan targetPlan;
+
+    private NavigationPlan(final EdmNavigationProperty property, final boolean hasLevels,
+        final JsonWritePlan targetPlan) {
+      this.property = property;
+      jsonName = new SerializedString(property.getName());
+      this.hasLevels = hasLevels;
+      this.targetPlan = targetPlan;
+    }
+
+    EdmNavigationProperty getProperty() {
+      return property;
+    }
+
+    SerializableString getJsonName() {
+      return jsonName;
+    }
+
+    boolean hasLevels() {
+      return hasLevels;
+    }
+
+    JsonWritePlan getTargetPlan() {
+      return targetPlan;
+    }
+  }
+}
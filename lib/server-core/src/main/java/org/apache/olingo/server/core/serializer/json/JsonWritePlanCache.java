@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+
+/**
+ * Write plans of the JSON serializer for the structured types of one service, shared between its requests.
+ * <br/>The cache is held by the service metadata, so it never outlives the Entity Data Model its plans refer to.
+ * Once it is full, new plans are used for their request only.
+ */
+public final class JsonWritePlanCache {
+
+  private static final int MAX_CACHED_PLANS = 1000;
+
+  private final ConcurrentMap<Key, JsonWritePlan> plans = new ConcurrentHashMap<Key, JsonWritePlan>();
+
+  JsonWritePlan get(final EdmStructuredType type, final String select, final String expand) {
+    return plans.get(new Key(type, select, expand));
+  }
+
+  void put(final EdmStructuredType type, final String select, final String expand, final JsonWritePlan plan) {
+    if (plans.size() < MAX_CACHED_PLANS) {
+      plans.putIfAbsent(new Key(type, select, expand), plan);
+    }
+  }
+
+  private static final class Key {
+    private final EdmStructuredType type;
+    private final String select;
+    private final String expand;
+    private final int hashCode;
+
+    private Key(final EdmStructuredType type, final String select, final String expand) {
+      this.type = type;
+      this.select = select == null ? "" : select;
+      this.expand = expand == null ? "" : expand;
+      hashCode = 31 * (31 * System.identityHashCode(type) + this.select.hashCode()) + this.expand.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return type == other.type && select.equals(other.select) && expand.equals(other.expand);
+    }
+  }
+}
@@ -19,15 +19,24 @@
 package org.apache.olingo.server.core.serializer.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.Set;
 
 import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.ODataRuntimeException;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Property;
@@ -43,6 +52,7 @@ import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
@@ -54,12 +64,14 @@ import org.apache.olingo.server.api.serializer.ReferenceCollectionSerializerOpti
 import org.apache.olingo.server.api.serializer.ReferenceSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.UriHelper;
-import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
 import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.ServiceMetadataImpl;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
-import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
+import org.apache.olingo.server.core.serializer.SerializerStreamResultImpl;
+import org.apache.olingo.server.core.serializer.utils.ContentBuffer;
 import org.apache.olingo.server.core.serializer.utils.ContentTypeHelper;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
@@ -73,24 +85,46 @@ import com.fasterxml.jackson.core.JsonGenerator;
 public class ODataJsonSerializer implements ODataSerializer {
 
   private static final Logger log = LoggerFactory.getLogger(ODataJsonSerializer.class);
+  /** Shared by all serializer instances; every write creates its own generator from it. */
+  private static final JsonFactory FACTORY = new JsonFactory();
+  private static final Set<String> WRITE_HOOKS = new HashSet<String>(Arrays.asList(
+      "writeEntitySet", "writeEntity", "writeProperties", "writeNavigationProperties",
+      "writeExpandedNavigationProperty", "writeProperty"));
 
   private final boolean isIEEE754Compatible;
   private final boolean isODataMetadataNone;
+  private final boolean usesWritePlans;
 
   public ODataJsonSerializer(final ContentType contentType) {
     this.isIEEE754Compatible = isODataIEEE754Compatible(contentType);
     this.isODataMetadataNone = ContentTypeHelper.isODataMetadataNone(contentType);
+    usesWritePlans = getClass() == ODataJsonSerializer.class || !overridesWriteHooks(getClass());
+  }
+
+  /**
+   * Returns whether a subclass overrides one of the protected methods writing entities and their properties.
+   * Entities are then written through these methods instead of directly from the compiled {@link JsonWritePlan}.
+   */
+  private static boolean overridesWriteHooks(final Class<?> serializerClass) {
+    for (Class<?> type = serializerClass; type != ODataJsonSerializer.class; type = type.getSuperclass()) {
+      for (final Method method : type.getDeclaredMethods()) {
+        if (WRITE_HOOKS.contains(method.getName())) {
+          return true;
+        }
+      }
+    }
+    return false;
   }
 
   @Override
   public SerializerResult serviceDocument(final ServiceMetadata metadata, final String serviceRoot)
       throws SerializerException {
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     JsonGenerator gen = null;
 
     try {
-      buffer = new CircleStreamBuffer();
-      gen = new JsonFactory().createGenerator(buffer.getOutputStream());
+      buffer = new ContentBuffer();
+      gen = FACTORY.createGenerator(buffer.getOutputStream());
 
       new ServiceDocumentJsonSerializer(metadata, serviceRoot, isODataMetadataNone).writeServiceDocument(gen);
 
@@ -122,9 +156,9 @@ public class ODataJsonSerializer implements ODataSerializer {
 
   @Override
   public SerializerResult error(final ODataServerError error) throws SerializerException {
-    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    ContentBuffer buffer = new ContentBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
       new ODataErrorSerializer().writeErrorDocument(json, error);
       json.close();
     } catch (final IOException e) {
@@ -138,9 +172,9 @@ public class ODataJsonSerializer implements ODataSerializer {
   public SerializerResult entityCollection(final ServiceMetadata metadata,
       final EdmEntityType entityType, final EntityCollection entitySet,
       final EntityCollectionSerializerOptions options) throws SerializerException {
-    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    ContentBuffer buffer = new ContentBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
 
       final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
@@ -149,7 +183,7 @@ public class ODataJsonSerializer implements ODataSerializer {
       writeMetadataETag(metadata, json);
 
       if (options != null && options.getCount() != null && options.getCount().getValue()) {
-        writeCount(entitySet, json);
+        writeCount(entitySet.getCount(), json);
       }
       json.writeFieldName(Constants.VALUE);
       if (options == null) {
@@ -158,7 +192,7 @@ public class ODataJsonSerializer implements ODataSerializer {
         writeEntitySet(metadata, entityType, entitySet,
             options.getExpand(), options.getSelect(), options.onlyReferences(), json);
       }
-      writeNextLink(entitySet, json);
+      writeNextLink(entitySet.getNext(), json);
       json.close();
     } catch (final IOException e) {
       throw new SerializerException("An I/O exception occurred.", e,
@@ -167,13 +201,53 @@ public class ODataJsonSerializer implements ODataSerializer {
     return SerializerResultImpl.with().content(buffer.getInputStream()).build();
   }
 
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(final ServiceMetadata metadata,
+      final EdmEntityType entityType, final EntityIterator entities,
+      final EntityCollectionSerializerOptions options) throws SerializerException {
+    final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
+    final boolean isCountRequested = options != null && options.getCount() != null
+        && options.getCount().getValue();
+    final JsonWritePlan plan = JsonWritePlan.get(planCache(metadata), entityType,
+        options == null ? null : options.getSelect(),
+        options == null ? null : options.getExpand());
+    final boolean onlyReferences = options == null ? false : options.onlyReferences();
+    return SerializerStreamResultImpl.with().content(new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          JsonGenerator json = FACTORY.createGenerator(stream);
+          json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+          json.writeStartObject();
+          writeContextURL(contextURL, json);
+          writeMetadataETag(metadata, json);
+          // The count is written in front of the entities if it is already known.
+          final Integer count = isCountRequested ? entities.getCount() : null;
+          writeCount(count, json);
+          json.writeFieldName(Constants.VALUE);
+          writeEntities(metadata, plan, entities, onlyReferences, json);
+          if (isCountRequested && count == null) {
+            writeCount(entities.getCount(), json);
+          }
+          writeNextLink(entities.getNext(), json);
+          json.writeEndObject();
+          json.close();
+        } catch (final IOException e) {
+          throw new ODataRuntimeException(e);
+        } catch (final SerializerException e) {
+          throw new ODataRuntimeException(e);
+        }
+      }
+    }).build();
+  }
+
   @Override
   public SerializerResult entity(final ServiceMetadata metadata, final EdmEntityType entityType,
       final Entity entity, final EntitySerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    ContentBuffer buffer = new ContentBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
       writeEntity(metadata, entityType, entity, contextURL,
           options == null ? null : options.getExpand(),
           options == null ? null : options.getSelect(),
@@ -187,6 +261,11 @@ public class ODataJsonSerializer implements ODataSerializer {
     return SerializerResultImpl.with().content(buffer.getInputStream()).build();
   }
 
+  /** Returns the plan cache of the service or <code>null</code> if the metadata have none. */
+  private static JsonWritePlanCache planCache(final ServiceMetadata metadata) {
+    return metadata instanceof ServiceMetadataImpl ? ((ServiceMetadataImpl) metadata).getJsonWritePlans() : null;
+  }
+
   private ContextURL checkContextURL(final ContextURL contextURL) throws SerializerException {
     if (isODataMetadataNone) {
       return null;
@@ -200,14 +279,25 @@ public class ODataJsonSerializer implements ODataSerializer {
       final EntityCollection entitySet, final ExpandOption expand, final SelectOption select,
       final boolean onlyReference, final JsonGenerator json) throws IOException,
       SerializerException {
+    writeEntities(metadata, JsonWritePlan.get(planCache(metadata), entityType, select, expand),
+        entitySet.getEntities().iterator(), onlyReference, json);
+  }
+
+  private void writeEntities(final ServiceMetadata metadata, final JsonWritePlan plan,
+      final Iterator<Entity> entities, final boolean onlyReference, final JsonGenerator json)
+      throws IOException, SerializerException {
     json.writeStartArray();
-    for (final Entity entity : entitySet.getEntities()) {
+    while (entities.hasNext()) {
+      final Entity entity = entities.next();
       if (onlyReference) {
         json.writeStartObject();
         json.writeStringField(Constants.JSON_ID, entity.getId().toASCIIString());
         json.writeEndObject();
+      } else if (usesWritePlans) {
+        writeEntity(metadata, plan, entity, null, false, json);
       } else {
-        writeEntity(metadata, entityType, entity, null, expand, select, false, json);
+        writeEntity(metadata, (EdmEntityType) plan.getType(), entity, null, plan.getExpand(), plan.getSelect(),
+            false, json);
       }
     }
     json.writeEndArray();
@@ -217,6 +307,14 @@ public class ODataJsonSerializer implements ODataSerializer {
       final Entity entity, final ContextURL contextURL, final ExpandOption expand,
       final SelectOption select, final boolean onlyReference, final JsonGenerator json)
       throws IOException, SerializerException {
+    writeEntity(metadata, JsonWritePlan.get(planCache(metadata), entityType, select, expand), entity, contextURL,
+        onlyReference, json);
+  }
+
+  private void writeEntity(final ServiceMetadata metadata, final JsonWritePlan plan,
+      final Entity entity, final ContextURL contextURL, final boolean onlyReference, final JsonGenerator json)
+      throws IOException, SerializerException {
+    final EdmEntityType entityType = (EdmEntityType) plan.getType();
     json.writeStartObject();
     if (!isODataMetadataNone) {
       if (contextURL != null) { // top-level entity
@@ -244,16 +342,41 @@ public class ODataJsonSerializer implements ODataSerializer {
     if (onlyReference) {
       json.writeStringField(Constants.JSON_ID, entity.getId().toASCIIString());
     } else {
-      final EdmEntityType resolvedType = resolveEntityType(metadata, entityType, entity.getType());
-      if (!isODataMetadataNone && !resolvedType.equals(entityType)) {
-        json.writeStringField(Constants.JSON_TYPE, "#" + entity.getType());
+      final JsonWritePlan resolvedPlan = resolveEntityPlan(metadata, plan, entity.getType());
+      if (!isODataMetadataNone && resolvedPlan.getTypeAnnotation() != null) {
+        json.writeFieldName(Constants.JSON_TYPE);
+        json.writeString(resolvedPlan.getTypeAnnotation());
+      }
+      if (!usesWritePlans) {
+        writeProperties(resolvedPlan.getType(), entity.getProperties(), resolvedPlan.getSelect(), json);
+        writeNavigationProperties(metadata, resolvedPlan.getType(), entity, resolvedPlan.getExpand(), json);
+      } else if (entity.getPropertyIndex() == resolvedPlan.getPropertyIndex()) {
+        writeIndexedProperties(resolvedPlan, entity, json);
+        writeNavigationProperties(metadata, resolvedPlan, entity, json);
+      } else {
+        writeProperties(resolvedPlan, entity.getProperties(), json);
+        writeNavigationProperties(metadata, resolvedPlan, entity, json);
       }
-      writeProperties(resolvedType, entity.getProperties(), select, json);
-      writeNavigationProperties(metadata, resolvedType, entity, expand, json);
       json.writeEndObject();
     }
   }
 
+  /**
+   * Returns the plan for the type of an entity, which may be derived from the type of the given plan.
+   * The type name is resolved only once per plan and derived type.
+   */
+  private JsonWritePlan resolveEntityPlan(final ServiceMetadata metadata, final JsonWritePlan plan,
+      final String derivedTypeName) throws SerializerException {
+    if (plan.isOwnType(derivedTypeName)) {
+      return plan;
+    }
+    final JsonWritePlan derivedPlan = plan.getDerivedPlan(derivedTypeName);
+    return derivedPlan == null ?
+        plan.addDerivedPlan(derivedTypeName,
+            resolveEntityType(metadata, (EdmEntityType) plan.getType(), derivedTypeName)) :
+        derivedPlan;
+  }
+
   protected EdmEntityType resolveEntityType(final ServiceMetadata metadata, final EdmEntityType baseType,
       final String derivedTypeName) throws SerializerException {
     if (derivedTypeName == null ||
@@ -305,17 +428,38 @@ public class ODataJsonSerializer implements ODataSerializer {
   protected void writeProperties(final EdmStructuredType type, final List<Property> properties,
       final SelectOption select, final JsonGenerator json)
       throws IOException, SerializerException {
-    final boolean all = ExpandSelectHelper.isAll(select);
-    final Set<String> selected = all ? null :
-        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
-    for (final String propertyName : type.getPropertyNames()) {
-      if (all || selected.contains(propertyName)) {
-        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
-        final Property property = findProperty(propertyName, properties);
-        final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
-            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
-        writeProperty(edmProperty, property, selectedPaths, json);
+    int position = 0;
+    for (final JsonWritePlan.PropertyPlan propertyPlan : JsonWritePlan.get(null, type, select, null).getProperties()) {
+      final int index = findProperty(propertyPlan.getName(), properties, position);
+      if (index >= 0) {
+        position = index + 1;
+      }
+      writeProperty(propertyPlan.getEdmProperty(), index < 0 ? null : properties.get(index),
+          propertyPlan.getSelectedPaths(), json);
+    }
+  }
+
+  private void writeProperties(final JsonWritePlan plan, final List<Property> properties,
+      final JsonGenerator json) throws IOException, SerializerException {
+    int position = 0;
+    for (final JsonWritePlan.PropertyPlan propertyPlan : plan.getProperties()) {
+      final int index = findProperty(propertyPlan.getName(), properties, position);
+      if (index >= 0) {
+        position = index + 1;
       }
+      json.writeFieldName(propertyPlan.getJsonName());
+      writePropertyContent(propertyPlan.getEdmProperty(), index < 0 ? null : properties.get(index),
+          propertyPlan.getSelectedPaths(), json);
+    }
+  }
+
+  /** Writes the properties of an entity bound to the property index of the plan's type. */
+  private void writeIndexedProperties(final JsonWritePlan plan, final Entity entity, final JsonGenerator json)
+      throws IOException, SerializerException {
+    for (final JsonWritePlan.PropertyPlan propertyPlan : plan.getProperties()) {
+      json.writeFieldName(propertyPlan.getJsonName());
+      writePropertyContent(propertyPlan.getEdmProperty(), entity.getProperty(propertyPlan.getOrdinal()),
+          propertyPlan.getSelectedPaths(), json);
     }
   }
 
@@ -323,23 +467,15 @@ public class ODataJsonSerializer implements ODataSerializer {
       final EdmStructuredType type, final Linked linked, final ExpandOption expand,
       final JsonGenerator json) throws SerializerException, IOException {
     if (ExpandSelectHelper.hasExpand(expand)) {
-      final boolean expandAll = ExpandSelectHelper.isExpandAll(expand);
-      final Set<String> expanded = expandAll ? null :
-          ExpandSelectHelper.getExpandedPropertyNames(expand.getExpandItems());
-      for (final String propertyName : type.getNavigationPropertyNames()) {
-        if (expandAll || expanded.contains(propertyName)) {
-          final EdmNavigationProperty property = type.getNavigationProperty(propertyName);
-          final Link navigationLink = linked.getNavigationLink(property.getName());
-          final ExpandItem innerOptions = expandAll ? null :
-              ExpandSelectHelper.getExpandItem(expand.getExpandItems(), propertyName);
-          if (innerOptions != null && innerOptions.getLevelsOption() != null) {
-            throw new SerializerException("Expand option $levels is not supported.",
-                SerializerException.MessageKeys.NOT_IMPLEMENTED);
-          }
-          writeExpandedNavigationProperty(metadata, property, navigationLink,
-              innerOptions == null ? null : innerOptions.getExpandOption(),
-              innerOptions == null ? null : innerOptions.getSelectOption(), json);
+      for (final JsonWritePlan.NavigationPlan navigationPlan
+          : JsonWritePlan.get(planCache(metadata), type, null, expand).getNavigationProperties()) {
+        if (navigationPlan.hasLevels()) {
+          throw new SerializerException("Expand option $levels is not supported.",
+              SerializerException.MessageKeys.NOT_IMPLEMENTED);
         }
+        final EdmNavigationProperty property = navigationPlan.getProperty();
+        writeExpandedNavigationProperty(metadata, property, linked.getNavigationLink(property.getName()),
+            navigationPlan.getTargetPlan().getExpand(), navigationPlan.getTargetPlan().getSelect(), json);
       }
     }
   }
@@ -366,10 +502,44 @@ public class ODataJsonSerializer implements ODataSerializer {
     }
   }
 
+  private void writeNavigationProperties(final ServiceMetadata metadata, final JsonWritePlan plan,
+      final Linked linked, final JsonGenerator json) throws SerializerException, IOException {
+    for (final JsonWritePlan.NavigationPlan navigationPlan : plan.getNavigationProperties()) {
+      if (navigationPlan.hasLevels()) {
+        throw new SerializerException("Expand option $levels is not supported.",
+            SerializerException.MessageKeys.NOT_IMPLEMENTED);
+      }
+      final EdmNavigationProperty property = navigationPlan.getProperty();
+      final Link navigationLink = linked.getNavigationLink(property.getName());
+      json.writeFieldName(navigationPlan.getJsonName());
+      if (property.isCollection()) {
+        if (navigationLink == null || navigationLink.getInlineEntitySet() == null) {
+          json.writeStartArray();
+          json.writeEndArray();
+        } else {
+          writeEntities(metadata, navigationPlan.getTargetPlan(),
+              navigationLink.getInlineEntitySet().getEntities().iterator(), false, json);
+        }
+      } else {
+        if (navigationLink == null || navigationLink.getInlineEntity() == null) {
+          json.writeNull();
+        } else {
+          writeEntity(metadata, navigationPlan.getTargetPlan(), navigationLink.getInlineEntity(), null, false, json);
+        }
+      }
+    }
+  }
+
   protected void writeProperty(final EdmProperty edmProperty, final Property property,
       final Set<List<String>> selectedPaths, final JsonGenerator json)
       throws IOException, SerializerException {
     json.writeFieldName(edmProperty.getName());
+    writePropertyContent(edmProperty, property, selectedPaths, json);
+  }
+
+  private void writePropertyContent(final EdmProperty edmProperty, final Property property,
+      final Set<List<String>> selectedPaths, final JsonGenerator json)
+      throws IOException, SerializerException {
     if (property == null || property.isNull()) {
       if (edmProperty.isNullable() == Boolean.FALSE) {
         throw new SerializerException("Non-nullable property not present!",
@@ -503,10 +673,14 @@ public class ODataJsonSerializer implements ODataSerializer {
       final Set<List<String>> selectedPaths, final JsonGenerator json)
       throws IOException, EdmPrimitiveTypeException, SerializerException {
     json.writeStartObject();
+    int position = 0;
     for (final String propertyName : type.getPropertyNames()) {
-      final Property property = findProperty(propertyName, properties);
       if (selectedPaths == null || ExpandSelectHelper.isSelected(selectedPaths, propertyName)) {
-        writeProperty((EdmProperty) type.getProperty(propertyName), property,
+        final int index = findProperty(propertyName, properties, position);
+        if (index >= 0) {
+          position = index + 1;
+        }
+        writeProperty((EdmProperty) type.getProperty(propertyName), index < 0 ? null : properties.get(index),
             selectedPaths == null ? null : ExpandSelectHelper.getReducedSelectedPaths(selectedPaths, propertyName),
             json);
       }
@@ -514,22 +688,39 @@ public class ODataJsonSerializer implements ODataSerializer {
     json.writeEndObject();
   }
 
-  private Property findProperty(final String propertyName, final List<Property> properties) {
-    for (final Property property : properties) {
-      if (propertyName.equals(property.getName())) {
-        return property;
+  /**
+   * Returns the index of the property with the given name or -1 if there is none.
+   * The search starts at the given position and wraps around, so that properties
+   * stored in the order of their type are found without scanning the whole list.
+   */
+  private int findProperty(final String propertyName, final List<Property> properties, final int start) {
+    final int size = properties.size();
+    if (properties instanceof RandomAccess) {
+      for (int i = 0; i < size; i++) {
+        final int index = (start + i) % size;
+        if (propertyName.equals(properties.get(index).getName())) {
+          return index;
+        }
+      }
+    } else {
+      int index = 0;
+      for (final Property property : properties) {
+        if (propertyName.equals(property.getName())) {
+          return index;
+        }
+        index++;
       }
     }
-    return null;
+    return -1;
   }
 
   @Override
   public SerializerResult primitive(final ServiceMetadata metadata, final EdmPrimitiveType type,
       final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    ContentBuffer buffer = new ContentBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -561,9 +752,9 @@ public class ODataJsonSerializer implements ODataSerializer {
   public SerializerResult complex(final ServiceMetadata metadata, final EdmComplexType type,
       final Property property, final ComplexSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    ContentBuffer buffer = new ContentBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -573,10 +764,19 @@ public class ODataJsonSerializer implements ODataSerializer {
       }
       final List<Property> values =
           property.isNull() ? Collections.<Property> emptyList() : property.asComplex().getValue();
-      writeProperties(type, values, options == null ? null : options.getSelect(), json);
-      if (!property.isNull() && property.isComplex()) {
-        writeNavigationProperties(metadata, type, property.asComplex(),
-            options == null ? null : options.getExpand(), json);
+      final JsonWritePlan plan = JsonWritePlan.get(planCache(metadata), type,
+          options == null ? null : options.getSelect(),
+          options == null ? null : options.getExpand());
+      if (usesWritePlans) {
+        writeProperties(plan, values, json);
+        if (!property.isNull() && property.isComplex()) {
+          writeNavigationProperties(metadata, plan, property.asComplex(), json);
+        }
+      } else {
+        writeProperties(type, values, plan.getSelect(), json);
+        if (!property.isNull() && property.isComplex()) {
+          writeNavigationProperties(metadata, type, property.asComplex(), plan.getExpand(), json);
+        }
       }
       json.writeEndObject();
       json.close();
@@ -591,9 +791,9 @@ public class ODataJsonSerializer implements ODataSerializer {
   public SerializerResult primitiveCollection(final ServiceMetadata metadata, final EdmPrimitiveType type,
       final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    ContentBuffer buffer = new ContentBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -621,9 +821,9 @@ public class ODataJsonSerializer implements ODataSerializer {
   public SerializerResult complexCollection(final ServiceMetadata metadata, final EdmComplexType type,
       final Property property, final ComplexSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    ContentBuffer buffer = new ContentBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       writeContextURL(contextURL, json);
       writeMetadataETag(metadata, json);
@@ -646,11 +846,11 @@ public class ODataJsonSerializer implements ODataSerializer {
   public SerializerResult reference(final ServiceMetadata metadata, final EdmEntitySet edmEntitySet,
       final Entity entity, final ReferenceSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    final CircleStreamBuffer buffer = new CircleStreamBuffer();
+    final ContentBuffer buffer = new ContentBuffer();
     final UriHelper uriHelper = new UriHelperImpl();
 
     try {
-      final JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      final JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
 
       json.writeStartObject();
       writeContextURL(contextURL, json);
@@ -670,16 +870,16 @@ public class ODataJsonSerializer implements ODataSerializer {
       final EntityCollection entityCollection, final ReferenceCollectionSerializerOptions options)
       throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    final CircleStreamBuffer buffer = new CircleStreamBuffer();
+    final ContentBuffer buffer = new ContentBuffer();
     final UriHelper uriHelper = new UriHelperImpl();
 
     try {
-      final JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      final JsonGenerator json = FACTORY.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
 
       writeContextURL(contextURL, json);
       if (options != null && options.getCount() != null && options.getCount().getValue()) {
-        writeCount(entityCollection, json);
+        writeCount(entityCollection.getCount(), json);
       }
 
       json.writeArrayFieldStart(Constants.VALUE);
@@ -690,7 +890,7 @@ public class ODataJsonSerializer implements ODataSerializer {
       }
       json.writeEndArray();
 
-      writeNextLink(entityCollection, json);
+      writeNextLink(entityCollection.getNext(), json);
 
       json.writeEndObject();
       json.close();
@@ -717,19 +917,19 @@ public class ODataJsonSerializer implements ODataSerializer {
     }
   }
 
-  private void writeCount(final EntityCollection entityCollection, JsonGenerator json) throws IOException {
-    if (entityCollection.getCount() != null) {
+  private void writeCount(final Integer count, JsonGenerator json) throws IOException {
+    if (count != null) {
       if (isIEEE754Compatible) {
-        json.writeStringField(Constants.JSON_COUNT, entityCollection.getCount().toString());
+        json.writeStringField(Constants.JSON_COUNT, count.toString());
       } else {
-        json.writeNumberField(Constants.JSON_COUNT, entityCollection.getCount());
+        json.writeNumberField(Constants.JSON_COUNT, count);
       }
     }
   }
 
-  private void writeNextLink(final EntityCollection entitySet, JsonGenerator json) throws IOException {
-    if (entitySet.getNext() != null) {
-      json.writeStringField(Constants.JSON_NEXT_LINK, entitySet.getNext().toASCIIString());
+  private void writeNextLink(final URI next, JsonGenerator json) throws IOException {
+    if (next != null) {
+      json.writeStringField(Constants.JSON_NEXT_LINK, next.toASCIIString());
     }
   }
 
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Buffer for serialized content which is written completely before it is read.
+ * <p>In contrast to the {@link CircleStreamBuffer}, the content is kept in one array without any locking,
+ * so that it can be handed over to the output stream of the response in one single write operation;
+ * see {@link ContentInputStream#writeTo(OutputStream)}.</p>
+ */
+public class ContentBuffer {
+
+  private static final int DEFAULT_CAPACITY = 8192;
+
+  private byte[] buffer;
+  private int count = 0;
+  private final OutputStream outStream = new OutputStream() {
+    @Override
+    public void write(final int b) {
+      ensureCapacity(count + 1);
+      buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      ensureCapacity(count + len);
+      System.arraycopy(b, off, buffer, count, len);
+      count += len;
+    }
+  };
+
+  /**
+   * Creates a {@link ContentBuffer} with default initial capacity.
+   */
+  public ContentBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a {@link ContentBuffer} with given initial capacity in bytes.
+   * @param initialCapacity the initial capacity
+   */
+  public ContentBuffer(final int initialCapacity) {
+    buffer = new byte[initialCapacity];
+  }
+
+  private void ensureCapacity(final int capacity) {
+    if (capacity > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, capacity));
+    }
+  }
+
+  /**
+   * Gets {@link OutputStream} for data write access.
+   * @return the stream
+   */
+  public OutputStream getOutputStream() {
+    return outStream;
+  }
+
+  /**
+   * Gets {@link InputStream} for read access to the data written so far;
+   * the data are not copied.
+   * @return the stream
+   */
+  public ContentInputStream getInputStream() {
+    return new ContentInputStream(buffer, count);
+  }
+
+  /**
+   * Input stream on the content of a {@link ContentBuffer}.
+   */
+  public static class ContentInputStream extends ByteArrayInputStream {
+
+    private ContentInputStream(final byte[] buffer, final int length) {
+      super(buffer, 0, length);
+    }
+
+    /**
+     * Writes the content not yet read into the given stream with one single write operation.
+     * @param output the target stream
+     * @return the number of bytes written
+     */
+    public synchronized int writeTo(final OutputStream output) throws IOException {
+      final int length = count - pos;
+      output.write(buf, pos, length);
+      pos = count;
+      return length;
+    }
+  }
+}
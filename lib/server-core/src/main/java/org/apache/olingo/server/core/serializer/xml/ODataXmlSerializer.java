@@ -18,6 +18,8 @@
  */
 package org.apache.olingo.server.core.serializer.xml;
 
+import java.io.OutputStream;
+import java.net.URI;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -28,11 +30,13 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.ODataRuntimeException;
 import org.apache.olingo.commons.api.ODataErrorDetail;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Property;
@@ -49,6 +53,7 @@ import org.apache.olingo.commons.api.edm.EdmType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmString;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
@@ -60,15 +65,19 @@ import org.apache.olingo.server.api.serializer.ReferenceCollectionSerializerOpti
 import org.apache.olingo.server.api.serializer.ReferenceSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
 import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
-import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
+import org.apache.olingo.server.core.serializer.SerializerStreamResultImpl;
+import org.apache.olingo.server.core.serializer.utils.ContentBuffer;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
 
 public class ODataXmlSerializer implements ODataSerializer {
+  /** Looked up only once since the lookup is expensive; thread-safe once configured. */
+  private static final XMLOutputFactory FACTORY = XMLOutputFactory.newInstance();
   private static final String DATA = "d";
   private static final String CONTEXT = "context";
   /** The default character set is UTF-8. */
@@ -83,12 +92,12 @@ public class ODataXmlSerializer implements ODataSerializer {
   @Override
   public SerializerResult serviceDocument(final ServiceMetadata metadata, final String serviceRoot)
       throws SerializerException {
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter xmlStreamWriter = null;
     SerializerException cachedException = null;
     try {
-      buffer = new CircleStreamBuffer();
-      xmlStreamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(),
+      buffer = new ContentBuffer();
+      xmlStreamWriter = FACTORY.createXMLStreamWriter(buffer.getOutputStream(),
           DEFAULT_CHARSET);
       ServiceDocumentXmlSerializer serializer = new ServiceDocumentXmlSerializer(metadata, serviceRoot);
       serializer.writeServiceDocument(xmlStreamWriter);
@@ -118,12 +127,12 @@ public class ODataXmlSerializer implements ODataSerializer {
 
   @Override
   public SerializerResult metadataDocument(final ServiceMetadata serviceMetadata) throws SerializerException {
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter xmlStreamWriter = null;
     SerializerException cachedException = null;
     try {
-      buffer = new CircleStreamBuffer();
-      xmlStreamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(),
+      buffer = new ContentBuffer();
+      xmlStreamWriter = FACTORY.createXMLStreamWriter(buffer.getOutputStream(),
           DEFAULT_CHARSET);
       MetadataDocumentXmlSerializer serializer = new MetadataDocumentXmlSerializer(serviceMetadata);
       serializer.writeMetadataDocument(xmlStreamWriter);
@@ -153,7 +162,7 @@ public class ODataXmlSerializer implements ODataSerializer {
 
   @Override
   public SerializerResult error(final ODataServerError error) throws SerializerException {
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
 
     if (error == null) {
@@ -162,8 +171,8 @@ public class ODataXmlSerializer implements ODataSerializer {
     }
 
     try {
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(),
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(),
           DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
 
@@ -220,11 +229,11 @@ public class ODataXmlSerializer implements ODataSerializer {
       return entityReferenceCollection(metadata, entityType, entitySet, rso);
     }
 
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
     try {
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(ATOM, "feed", NS_ATOM);
       writer.writeNamespace(ATOM, NS_ATOM);
@@ -241,10 +250,10 @@ public class ODataXmlSerializer implements ODataSerializer {
 
       if (options != null && options.getCount() != null && options.getCount().getValue()
           && entitySet.getCount() != null) {
-        writeCount(entitySet, writer);
+        writeCount(entitySet.getCount(), writer);
       }
       if (entitySet.getNext() != null) {
-        writeNextLink(entitySet, writer);
+        writeNextLink(entitySet.getNext(), writer);
       }
 
       writeEntitySet(metadata, entityType, entitySet,
@@ -261,6 +270,70 @@ public class ODataXmlSerializer implements ODataSerializer {
     }
   }
 
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(final ServiceMetadata metadata,
+      final EdmEntityType entityType, final EntityIterator entities,
+      final EntityCollectionSerializerOptions options) throws SerializerException {
+    final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
+    final boolean isCountRequested = options != null && options.getCount() != null
+        && options.getCount().getValue();
+    final boolean onlyReferences = options != null && options.onlyReferences();
+    return SerializerStreamResultImpl.with().content(new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          XMLStreamWriter writer = FACTORY.createXMLStreamWriter(stream, DEFAULT_CHARSET);
+          writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
+          writer.writeStartElement(ATOM, "feed", NS_ATOM);
+          writer.writeNamespace(ATOM, NS_ATOM);
+          writer.writeNamespace(METADATA, NS_METADATA);
+          writer.writeNamespace(DATA, NS_DATA);
+
+          writer.writeAttribute(METADATA, NS_METADATA, CONTEXT,
+              ContextURLBuilder.create(contextURL).toASCIIString());
+          writeMetadataETag(metadata, writer);
+
+          if (options != null && options.getId() != null) {
+            writer.writeStartElement(ATOM, "id", NS_ATOM);
+            writer.writeCharacters(options.getId());
+            writer.writeEndElement();
+          }
+
+          // The count is written in front of the entities if it is already known.
+          final Integer count = isCountRequested ? entities.getCount() : null;
+          if (count != null) {
+            writeCount(count, writer);
+          }
+          while (entities.hasNext()) {
+            if (onlyReferences) {
+              writeReference(metadata, entityType, entities.next(), contextURL, writer, false);
+            } else {
+              writeEntity(metadata, entityType, entities.next(), null,
+                  options == null ? null : options.getExpand(),
+                  options == null ? null : options.getSelect(),
+                  false, writer, false);
+            }
+          }
+          if (isCountRequested && count == null && entities.getCount() != null) {
+            writeCount(entities.getCount(), writer);
+          }
+          if (entities.getNext() != null) {
+            writeNextLink(entities.getNext(), writer);
+          }
+
+          writer.writeEndElement();
+          writer.writeEndDocument();
+          writer.flush();
+          writer.close();
+        } catch (final XMLStreamException e) {
+          throw new ODataRuntimeException(e);
+        } catch (final SerializerException e) {
+          throw new ODataRuntimeException(e);
+        }
+      }
+    }).build();
+  }
+
   @Override
   public SerializerResult entity(final ServiceMetadata metadata, final EdmEntityType entityType,
       final Entity entity, final EntitySerializerOptions options) throws SerializerException {
@@ -272,11 +345,11 @@ public class ODataXmlSerializer implements ODataSerializer {
       return entityReference(metadata, entityType, entity, rso);
     }
 
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
     try {
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writeEntity(metadata, entityType, entity, contextURL,
           options == null ? null : options.getExpand(),
@@ -775,12 +848,12 @@ public class ODataXmlSerializer implements ODataSerializer {
   public SerializerResult primitive(final ServiceMetadata metadata, final EdmPrimitiveType type,
       final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
 
     try {
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
 
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, "value", NS_METADATA);
@@ -828,12 +901,12 @@ public class ODataXmlSerializer implements ODataSerializer {
   public SerializerResult complex(final ServiceMetadata metadata, final EdmComplexType type,
       final Property property, final ComplexSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
     try {
       EdmComplexType resolvedType = resolveComplexType(metadata, type, property.getType());
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, "value", NS_METADATA);
       writer.writeNamespace(METADATA, NS_METADATA);
@@ -863,12 +936,12 @@ public class ODataXmlSerializer implements ODataSerializer {
   public SerializerResult primitiveCollection(final ServiceMetadata metadata, final EdmPrimitiveType type,
       final Property property, final PrimitiveSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
 
     try {
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
 
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, "value", NS_METADATA);
@@ -913,12 +986,12 @@ public class ODataXmlSerializer implements ODataSerializer {
   public SerializerResult complexCollection(final ServiceMetadata metadata, final EdmComplexType type,
       final Property property, final ComplexSerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
 
     try {
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
 
       writer.writeStartElement(METADATA, "value", NS_METADATA);
       writer.writeNamespace(METADATA, NS_METADATA);
@@ -951,11 +1024,11 @@ public class ODataXmlSerializer implements ODataSerializer {
 
   protected SerializerResult entityReference(final ServiceMetadata metadata, final EdmEntityType entityType,
       final Entity entity, ReferenceSerializerOptions options) throws SerializerException {
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
     try {
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writeReference(metadata, entityType, entity, options.getContextURL(), writer, true);
       writer.writeEndDocument();
@@ -992,11 +1065,11 @@ public class ODataXmlSerializer implements ODataSerializer {
   protected SerializerResult entityReferenceCollection(final ServiceMetadata metadata,
       final EdmEntityType entityType, final EntityCollection entitySet,
       ReferenceCollectionSerializerOptions options) throws SerializerException {
-    CircleStreamBuffer buffer;
+    ContentBuffer buffer;
     XMLStreamWriter writer = null;
     try {
-      buffer = new CircleStreamBuffer();
-      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      buffer = new ContentBuffer();
+      writer = FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
       writer.writeStartDocument(ODataSerializer.DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(ATOM, "feed", NS_ATOM);
       writer.writeNamespace(ATOM, NS_ATOM);
@@ -1007,10 +1080,10 @@ public class ODataXmlSerializer implements ODataSerializer {
       }
       if (options != null && options.getCount() != null && options.getCount().getValue()
           && entitySet.getCount() != null) {
-        writeCount(entitySet, writer);
+        writeCount(entitySet.getCount(), writer);
       }
       if (entitySet.getNext() != null) {
-        writeNextLink(entitySet, writer);
+        writeNextLink(entitySet.getNext(), writer);
       }
       for (final Entity entity : entitySet.getEntities()) {
         writeReference(metadata, entityType, entity, options.getContextURL(), writer, false);
@@ -1026,18 +1099,18 @@ public class ODataXmlSerializer implements ODataSerializer {
     }
   }
 
-  private void writeCount(final EntityCollection entitySet, XMLStreamWriter writer)
+  private void writeCount(final Integer count, XMLStreamWriter writer)
       throws XMLStreamException {
     writer.writeStartElement(METADATA, "count", NS_METADATA);
-    writer.writeCharacters(String.valueOf(entitySet.getCount()));
+    writer.writeCharacters(String.valueOf(count));
     writer.writeEndElement();
   }
 
-  private void writeNextLink(final EntityCollection entitySet, XMLStreamWriter writer)
+  private void writeNextLink(final URI next, XMLStreamWriter writer)
       throws XMLStreamException {
     writer.writeStartElement(ATOM, "link", NS_ATOM);
     writer.writeAttribute("rel", "next");
-    writer.writeAttribute("href", entitySet.getNext().toASCIIString());
+    writer.writeAttribute("href", next.toASCIIString());
     writer.writeEndElement();
   }
 }
@@ -19,7 +19,10 @@
 package org.apache.olingo.server.core.uri.parser;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.BailErrorStrategy;
@@ -71,16 +74,72 @@ public class Parser {
   private static final String JSON = "json";
   private static final String XML = "xml";
   int logLevel = 0;
+  boolean simpleQueryOptionParsing = true;
 
-  private enum ParserEntryRules {
+  public enum ParserEntryRules {
     All, Batch, CrossJoin, Entity, ExpandItems, FilterExpression, Metadata, PathSegment, Orderby, Select
   }
 
+  /*
+   * The generated ANTLR parser keeps its DFA and prediction-context caches in static fields,
+   * so they are shared by all parser instances; these counters show how often the
+   * fast SLL stage had to be repeated with full LL prediction.
+   */
+  private static final Map<ParserEntryRules, AtomicLong> parseCounts = createCounters();
+  private static final Map<ParserEntryRules, AtomicLong> stage2Counts = createCounters();
+
+  private static Map<ParserEntryRules, AtomicLong> createCounters() {
+    Map<ParserEntryRules, AtomicLong> counters = new EnumMap<ParserEntryRules, AtomicLong>(ParserEntryRules.class);
+    for (final ParserEntryRules rule : ParserEntryRules.values()) {
+      counters.put(rule, new AtomicLong());
+    }
+    return counters;
+  }
+
+  /**
+   * Gets the number of times the given entry rule has been parsed since the last reset.
+   * @param entryRule the entry rule of the grammar
+   * @return number of parser invocations
+   */
+  public static long getParseCount(final ParserEntryRules entryRule) {
+    return parseCounts.get(entryRule).get();
+  }
+
+  /**
+   * Gets the number of times parsing the given entry rule needed the slower second stage
+   * (full LL prediction) since the last reset.
+   * @param entryRule the entry rule of the grammar
+   * @return number of second-stage parser invocations
+   */
+  public static long getStage2Count(final ParserEntryRules entryRule) {
+    return stage2Counts.get(entryRule).get();
+  }
+
+  /**
+   * Resets the parser statistics.
+   */
+  public static void resetStatistics() {
+    for (final ParserEntryRules rule : ParserEntryRules.values()) {
+      parseCounts.get(rule).set(0);
+      stage2Counts.get(rule).set(0);
+    }
+  }
+
   public Parser setLogLevel(final int logLevel) {
     this.logLevel = logLevel;
     return this;
   }
 
+  /**
+   * Enables or disables the parsing of simple $filter, $orderby, and $select expressions
+   * without ANTLR (enabled by default).
+   * @see SimpleQueryOptionParser
+   */
+  public Parser setSimpleQueryOptionParsing(final boolean enabled) {
+    simpleQueryOptionParsing = enabled;
+    return this;
+  }
+
   public UriInfo parseUri(final String path, final String query, final String fragment, final Edm edm)
       throws UriParserException {
 
@@ -170,10 +229,14 @@ public class Parser {
         if (option.name.startsWith("$")) {
           SystemQueryOption systemOption = null;
           if (option.name.equals(SystemQueryOptionKind.FILTER.toString())) {
-            FilterExpressionEOFContext ctxFilterExpression =
-                (FilterExpressionEOFContext) parseRule(option.value, ParserEntryRules.FilterExpression);
+            systemOption = simpleQueryOptionParsing ?
+                SimpleQueryOptionParser.parseFilter(option.value, context) : null;
+            if (systemOption == null) {
+              FilterExpressionEOFContext ctxFilterExpression =
+                  (FilterExpressionEOFContext) parseRule(option.value, ParserEntryRules.FilterExpression);
 
-            systemOption = (FilterOptionImpl) uriParseTreeVisitor.visitFilterExpressionEOF(ctxFilterExpression);
+              systemOption = (FilterOptionImpl) uriParseTreeVisitor.visitFilterExpressionEOF(ctxFilterExpression);
+            }
 
           } else if (option.name.equals(SystemQueryOptionKind.FORMAT.toString())) {
             FormatOptionImpl formatOption = new FormatOptionImpl();
@@ -206,17 +269,25 @@ public class Parser {
             throw new UriParserSyntaxException("System query option '$levels' is allowed only inside '$expand'!",
                 UriParserSyntaxException.MessageKeys.SYSTEM_QUERY_OPTION_LEVELS_NOT_ALLOWED_HERE);
           } else if (option.name.equals(SystemQueryOptionKind.ORDERBY.toString())) {
-            OrderByEOFContext ctxOrderByExpression =
-                (OrderByEOFContext) parseRule(option.value, ParserEntryRules.Orderby);
+            systemOption = simpleQueryOptionParsing ?
+                SimpleQueryOptionParser.parseOrderBy(option.value, context) : null;
+            if (systemOption == null) {
+              OrderByEOFContext ctxOrderByExpression =
+                  (OrderByEOFContext) parseRule(option.value, ParserEntryRules.Orderby);
 
-            systemOption = (OrderByOptionImpl) uriParseTreeVisitor.visitOrderByEOF(ctxOrderByExpression);
+              systemOption = (OrderByOptionImpl) uriParseTreeVisitor.visitOrderByEOF(ctxOrderByExpression);
+            }
           } else if (option.name.equals(SystemQueryOptionKind.SEARCH.toString())) {
             throw new RuntimeException("System query option '$search' not implemented!");
           } else if (option.name.equals(SystemQueryOptionKind.SELECT.toString())) {
-            SelectEOFContext ctxSelectEOF =
-                (SelectEOFContext) parseRule(option.value, ParserEntryRules.Select);
+            systemOption = simpleQueryOptionParsing ?
+                SimpleQueryOptionParser.parseSelect(option.value, context) : null;
+            if (systemOption == null) {
+              SelectEOFContext ctxSelectEOF =
+                  (SelectEOFContext) parseRule(option.value, ParserEntryRules.Select);
 
-            systemOption = (SelectOptionImpl) uriParseTreeVisitor.visitSelectEOF(ctxSelectEOF);
+              systemOption = (SelectOptionImpl) uriParseTreeVisitor.visitSelectEOF(ctxSelectEOF);
+            }
           } else if (option.name.equals(SystemQueryOptionKind.SKIP.toString())) {
             SkipOptionImpl skipOption = new SkipOptionImpl();
             skipOption.setName(option.name);
@@ -308,6 +379,7 @@ public class Parser {
     // see https://github.com/antlr/antlr4/issues/192
 
     // stage = 1
+    parseCounts.get(entryPoint).incrementAndGet();
     try {
 
       // create parser
@@ -370,6 +442,7 @@ public class Parser {
 
     } catch (ParseCancellationException hardException) {
       // stage = 2
+      stage2Counts.get(entryPoint).incrementAndGet();
       try {
 
         // create parser
@@ -0,0 +1,394 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.olingo.commons.api.edm.EdmElement;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+import org.apache.olingo.server.core.uri.UriResourceComplexPropertyImpl;
+import org.apache.olingo.server.core.uri.UriResourcePrimitivePropertyImpl;
+import org.apache.olingo.server.core.uri.queryoption.FilterOptionImpl;
+import org.apache.olingo.server.core.uri.queryoption.OrderByItemImpl;
+import org.apache.olingo.server.core.uri.queryoption.OrderByOptionImpl;
+import org.apache.olingo.server.core.uri.queryoption.SelectItemImpl;
+import org.apache.olingo.server.core.uri.queryoption.SelectOptionImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.BinaryImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.ExpressionImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.LiteralImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.MemberImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.MethodImpl;
+
+/**
+ * <p>Recursive-descent parser for the most common, simple forms of the system query options
+ * $filter, $orderby, and $select.</p>
+ * <p>It understands
+ * <ul>
+ * <li>$filter: comparisons (<code>eq ne gt ge lt le</code>) of a primitive property of the current type
+ * with a string, integer, boolean, or null literal, calls of <code>contains</code>, <code>startswith</code>,
+ * and <code>endswith</code> with a primitive property and a string literal, and combinations of those
+ * with <code>and</code> and <code>or</code> (without parentheses),</li>
+ * <li>$orderby: a list of primitive properties, each optionally followed by <code>asc</code> or
+ * <code>desc</code>,</li>
+ * <li>$select: a list of structural properties or <code>*</code>.</li>
+ * </ul>
+ * The result is the same tree {@link UriParseTreeVisitor} creates for such input.
+ * For all other input <code>null</code> is returned and the caller has to use the ANTLR parser,
+ * which also provides the error handling.</p>
+ */
+final class SimpleQueryOptionParser {
+
+  /** Words the URI lexer recognizes as keywords or literals instead of identifiers. */
+  private static final Set<String> RESERVED_WORDS = new HashSet<String>(Arrays.asList(
+      "null", "max", "NaN", "INF", "asc", "desc", "mul", "div", "mod", "has", "add", "sub", "any", "all",
+      "gt", "ge", "lt", "le", "isof", "eq", "ne", "and", "or", "not"));
+
+  private final String input;
+  private final EdmStructuredType type;
+  private int index = 0;
+
+  private SimpleQueryOptionParser(final String input, final EdmStructuredType type) {
+    this.input = input;
+    this.type = type;
+  }
+
+  static FilterOptionImpl parseFilter(final String input, final UriContext context) {
+    final SimpleQueryOptionParser parser = create(input, context);
+    if (parser == null) {
+      return null;
+    }
+    final ExpressionImpl expression = parser.parseOrExpression();
+    return expression == null || !parser.isAtEnd() ? null : new FilterOptionImpl().setExpression(expression);
+  }
+
+  static OrderByOptionImpl parseOrderBy(final String input, final UriContext context) {
+    final SimpleQueryOptionParser parser = create(input, context);
+    if (parser == null) {
+      return null;
+    }
+    OrderByOptionImpl orderBy = new OrderByOptionImpl();
+    do {
+      final MemberImpl member = parser.parseMember();
+      if (member == null) {
+        return null;
+      }
+      OrderByItemImpl item = new OrderByItemImpl();
+      item.setExpression(member);
+      final int start = parser.index;
+      if (parser.skipWhitespace()) {
+        if (parser.skipWord("desc")) {
+          item.setDescending(true);
+        } else if (!parser.skipWord("asc")) {
+          parser.index = start;
+        }
+      }
+      orderBy.addOrder(item);
+    } while (parser.skipListSeparator(true));
+    return parser.isAtEnd() ? orderBy : null;
+  }
+
+  static SelectOptionImpl parseSelect(final String input, final UriContext context) {
+    final SimpleQueryOptionParser parser = create(input, context);
+    if (parser == null) {
+      return null;
+    }
+    List<SelectItemImpl> selectItems = new ArrayList<SelectItemImpl>();
+    do {
+      SelectItemImpl selectItem = new SelectItemImpl();
+      if (parser.skipChar('*')) {
+        selectItem.setStar(true);
+      } else {
+        final EdmProperty property = parser.parseProperty();
+        if (property == null) {
+          return null;
+        }
+        UriInfoImpl resourcePath = new UriInfoImpl().setKind(UriInfoKind.resource);
+        if (property.isPrimitive()) {
+          resourcePath.addResourcePart(new UriResourcePrimitivePropertyImpl().setProperty(property));
+        } else {
+          resourcePath.addResourcePart(new UriResourceComplexPropertyImpl().setProperty(property));
+        }
+        selectItem.setResourcePath(resourcePath);
+      }
+      selectItems.add(selectItem);
+    } while (parser.skipListSeparator(false));
+    if (!parser.isAtEnd()) {
+      return null;
+    }
+    SelectOptionImpl select = new SelectOptionImpl().setSelectItems(selectItems);
+    select.setText(input);
+    return select;
+  }
+
+  private static SimpleQueryOptionParser create(final String input, final UriContext context) {
+    // Percent signs could be encoded whitespace or signs which only the ANTLR lexer handles.
+    if (input == null || input.isEmpty() || input.indexOf('%') >= 0
+        || context.contextTypes == null || context.contextTypes.isEmpty()) {
+      return null;
+    }
+    final EdmType type = context.contextTypes.peek().type;
+    return type instanceof EdmStructuredType ? new SimpleQueryOptionParser(input, (EdmStructuredType) type) : null;
+  }
+
+  private ExpressionImpl parseOrExpression() {
+    ExpressionImpl left = parseAndExpression();
+    while (left != null && skipOperator("or")) {
+      left = createBinary(BinaryOperatorKind.OR, left, parseAndExpression());
+    }
+    return left;
+  }
+
+  private ExpressionImpl parseAndExpression() {
+    ExpressionImpl left = parseBooleanTerm();
+    while (left != null && skipOperator("and")) {
+      left = createBinary(BinaryOperatorKind.AND, left, parseBooleanTerm());
+    }
+    return left;
+  }
+
+  private ExpressionImpl parseBooleanTerm() {
+    if (skipWord("contains(")) {
+      return parseMethodCall(MethodKind.CONTAINS);
+    } else if (skipWord("startswith(")) {
+      return parseMethodCall(MethodKind.STARTSWITH);
+    } else if (skipWord("endswith(")) {
+      return parseMethodCall(MethodKind.ENDSWITH);
+    }
+
+    final MemberImpl member = parseMember();
+    if (member == null) {
+      return null;
+    }
+    BinaryOperatorKind operator = null;
+    if (skipOperator("eq")) {
+      operator = BinaryOperatorKind.EQ;
+    } else if (skipOperator("ne")) {
+      operator = BinaryOperatorKind.NE;
+    } else if (skipOperator("gt")) {
+      operator = BinaryOperatorKind.GT;
+    } else if (skipOperator("ge")) {
+      operator = BinaryOperatorKind.GE;
+    } else if (skipOperator("lt")) {
+      operator = BinaryOperatorKind.LT;
+    } else if (skipOperator("le")) {
+      operator = BinaryOperatorKind.LE;
+    }
+    return operator == null ? null : createBinary(operator, member, parseLiteral());
+  }
+
+  private ExpressionImpl parseMethodCall(final MethodKind methodKind) {
+    skipWhitespace();
+    final MemberImpl member = parseMember();
+    if (member == null) {
+      return null;
+    }
+    skipWhitespace();
+    if (!skipChar(',')) {
+      return null;
+    }
+    skipWhitespace();
+    final LiteralImpl literal = index < input.length() && input.charAt(index) == '\'' ? parseLiteral() : null;
+    if (literal == null) {
+      return null;
+    }
+    skipWhitespace();
+    return skipChar(')') ? new MethodImpl().setMethod(methodKind).addParameter(member).addParameter(literal) : null;
+  }
+
+  private BinaryImpl createBinary(final BinaryOperatorKind operator, final ExpressionImpl left,
+      final ExpressionImpl right) {
+    if (right == null) {
+      return null;
+    }
+    BinaryImpl binary = new BinaryImpl();
+    binary.setOperator(operator);
+    binary.setLeftOperand(left);
+    binary.setRightOperand(right);
+    return binary;
+  }
+
+  private MemberImpl parseMember() {
+    final EdmProperty property = parseProperty();
+    if (property == null || !property.isPrimitive()) {
+      return null;
+    }
+    UriInfoImpl resourcePath = new UriInfoImpl().setKind(UriInfoKind.resource);
+    resourcePath.addResourcePart(new UriResourcePrimitivePropertyImpl().setProperty(property));
+    MemberImpl member = new MemberImpl();
+    member.setResourcePath(resourcePath);
+    return member;
+  }
+
+  private EdmProperty parseProperty() {
+    final String name = readIdentifier();
+    if (name == null || isReserved(name) || index < input.length() && input.charAt(index) == '(') {
+      return null;
+    }
+    final EdmElement element = type.getProperty(name);
+    return element instanceof EdmProperty ? (EdmProperty) element : null;
+  }
+
+  private LiteralImpl parseLiteral() {
+    if (index >= input.length()) {
+      return null;
+    }
+    final int start = index;
+    final char first = input.charAt(index);
+    if (first == '\'') {
+      index++;
+      while (index < input.length()) {
+        if (input.charAt(index) == '\'') {
+          if (index + 1 < input.length() && input.charAt(index + 1) == '\'') {
+            index += 2;
+          } else {
+            index++;
+            return new LiteralImpl().setText(input.substring(start, index));
+          }
+        } else {
+          index++;
+        }
+      }
+      return null;
+    } else if (first == '-' || isDigit(first)) {
+      index++;
+      while (index < input.length() && isDigit(input.charAt(index))) {
+        index++;
+      }
+      // Decimals, dates, times, and GUIDs continue with other characters.
+      return index > start + (first == '-' ? 1 : 0) && isTokenEnd() ?
+          new LiteralImpl().setText(input.substring(start, index)) :
+          null;
+    } else {
+      final String word = readIdentifier();
+      if ("null".equals(word)) {
+        return new LiteralImpl().setText("null");
+      } else if ("true".equalsIgnoreCase(word) || "false".equalsIgnoreCase(word)) {
+        return new LiteralImpl().setText(word.toLowerCase())
+            .setType(EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean));
+      }
+      return null;
+    }
+  }
+
+  private String readIdentifier() {
+    final int start = index;
+    if (index < input.length() && (isLetter(input.charAt(index)) || input.charAt(index) == '_')) {
+      index++;
+      while (index < input.length()
+          && (isLetter(input.charAt(index)) || isDigit(input.charAt(index)) || input.charAt(index) == '_')) {
+        index++;
+      }
+      return input.substring(start, index);
+    }
+    return null;
+  }
+
+  private boolean isReserved(final String word) {
+    return RESERVED_WORDS.contains(word) || "true".equalsIgnoreCase(word) || "false".equalsIgnoreCase(word);
+  }
+
+  /** Skips a binary operator surrounded by whitespace; the position is unchanged if there is none. */
+  private boolean skipOperator(final String operator) {
+    final int start = index;
+    if (skipWhitespace() && skipWord(operator) && skipWhitespace()) {
+      return true;
+    }
+    index = start;
+    return false;
+  }
+
+  /** Skips a comma, in $orderby optionally surrounded by whitespace. */
+  private boolean skipListSeparator(final boolean whitespaceAllowed) {
+    final int start = index;
+    if (whitespaceAllowed) {
+      skipWhitespace();
+    }
+    if (skipChar(',')) {
+      if (whitespaceAllowed) {
+        skipWhitespace();
+      }
+      return true;
+    }
+    index = start;
+    return false;
+  }
+
+  private boolean skipWord(final String word) {
+    if (input.startsWith(word, index)) {
+      final int end = index + word.length();
+      if (word.endsWith("(") || end >= input.length() || !isIdentifierPart(input.charAt(end))) {
+        index = end;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean skipChar(final char c) {
+    if (index < input.length() && input.charAt(index) == c) {
+      index++;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean skipWhitespace() {
+    final int start = index;
+    while (index < input.length() && input.charAt(index) == ' ') {
+      index++;
+    }
+    return index > start;
+  }
+
+  private boolean isTokenEnd() {
+    if (index >= input.length()) {
+      return true;
+    }
+    final char c = input.charAt(index);
+    return c == ' ' || c == ',' || c == ')';
+  }
+
+  private boolean isAtEnd() {
+    return index == input.length();
+  }
+
+  private static boolean isIdentifierPart(final char c) {
+    return isLetter(c) || isDigit(c) || c == '_';
+  }
+
+  private static boolean isLetter(final char c) {
+    return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+
+/**
+ * Least-recently-used cache of parsed URIs.
+ * The entries are keyed by the identity of the Entity Data Model and the raw resource path and query.
+ */
+public class UriInfoCacheImpl implements UriInfoCache {
+
+  private final int maxSize;
+  private final Map<Key, UriInfo> entries;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public UriInfoCacheImpl(final int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("The maximum size of the URI cache must be positive.");
+    }
+    this.maxSize = maxSize;
+    entries = new LinkedHashMap<Key, UriInfo>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, UriInfo> eldest) {
+        return size() > UriInfoCacheImpl.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached result of parsing the given URI parts against the given EDM
+   * or parses the URI and caches the result.
+   * Exceptions are not cached.
+   */
+  public UriInfo parseUri(final String path, final String query, final Edm edm) throws UriParserException {
+    final Key key = new Key(edm, path, query);
+    UriInfo uriInfo;
+    synchronized (entries) {
+      uriInfo = entries.get(key);
+    }
+    if (uriInfo == null) {
+      misses.incrementAndGet();
+      uriInfo = new Parser().parseUri(path, query, null, edm);
+      synchronized (entries) {
+        entries.put(key, uriInfo);
+      }
+    } else {
+      hits.incrementAndGet();
+    }
+    return uriInfo;
+  }
+
+  @Override
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  @Override
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @Override
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  @Override
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  @Override
+  public void invalidate(final Edm edm) {
+    synchronized (entries) {
+      for (final Iterator<Key> iterator = entries.keySet().iterator(); iterator.hasNext();) {
+        if (iterator.next().edm == edm) {
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+    hits.set(0);
+    misses.set(0);
+  }
+
+  private static final class Key {
+    private final Edm edm;
+    private final String path;
+    private final String query;
+    private final int hashCode;
+
+    private Key(final Edm edm, final String path, final String query) {
+      this.edm = edm;
+      this.path = path == null ? "" : path;
+      this.query = query == null ? "" : query;
+      hashCode = 31 * (31 * System.identityHashCode(edm) + this.path.hashCode()) + this.query.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return edm == other.edm && path.equals(other.path) && query.equals(other.query);
+    }
+  }
+}
@@ -20,14 +20,36 @@ package org.apache.olingo.server.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataLibraryException;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.encoding.ResponseCompression;
 import org.junit.Test;
 
 public class ODataHttpHandlerImplTest {
@@ -168,4 +190,140 @@ public class ODataHttpHandlerImplTest {
       assertEquals(rawServiceResolutionUri, odr.getRawServiceResolutionUri());
     }
   }
+
+  @Test
+  public void convertToHttpWritesODataContent() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public void write(final int b) throws IOException {
+        output.write(b);
+      }
+    });
+
+    ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setODataContent(new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          stream.write("content".getBytes("UTF-8"));
+        } catch (final IOException e) {
+          fail();
+        }
+      }
+    });
+    ODataHttpHandlerImpl.convertToHttp(response, odResponse);
+
+    verify(response).setStatus(HttpStatusCode.OK.getStatusCode());
+    assertEquals("content", output.toString("UTF-8"));
+  }
+
+  @Test
+  public void compressesResponse() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final HttpServletResponse response = mockResponse(output);
+    final String content = createContent(2000);
+
+    createCompressingHandler().writeResponse(createRequest("deflate;q=0.5, gzip"), response,
+        createResponse(ContentType.JSON, content));
+
+    verify(response).setHeader(HttpHeader.CONTENT_ENCODING, "gzip");
+    verify(response).setHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
+    assertEquals(content, IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())),
+        "UTF-8"));
+  }
+
+  @Test
+  public void doesNotCompressSmallResponse() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final HttpServletResponse response = mockResponse(output);
+
+    createCompressingHandler().writeResponse(createRequest("gzip"), response,
+        createResponse(ContentType.JSON, "{}"));
+
+    verify(response, never()).setHeader(eq(HttpHeader.CONTENT_ENCODING), anyString());
+    assertEquals("{}", output.toString("UTF-8"));
+  }
+
+  @Test
+  public void doesNotCompressMedia() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final HttpServletResponse response = mockResponse(output);
+    final String content = createContent(2000);
+
+    createCompressingHandler().writeResponse(createRequest("gzip"), response,
+        createResponse(ContentType.create("image/png"), content));
+
+    verify(response, never()).setHeader(eq(HttpHeader.CONTENT_ENCODING), anyString());
+    assertEquals(content, output.toString("UTF-8"));
+  }
+
+  @Test
+  public void doesNotCompressWithoutAcceptedCoding() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final HttpServletResponse response = mockResponse(output);
+    final String content = createContent(2000);
+
+    createCompressingHandler().writeResponse(createRequest("gzip;q=0, br"), response,
+        createResponse(ContentType.JSON, content));
+
+    verify(response, never()).setHeader(eq(HttpHeader.CONTENT_ENCODING), anyString());
+    verify(response).setHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
+    assertEquals(content, output.toString("UTF-8"));
+  }
+
+  private ODataHttpHandlerImpl createCompressingHandler() {
+    ODataHttpHandlerImpl handler = new ODataHttpHandlerImpl(OData.newInstance(), mock(ServiceMetadata.class));
+    ResponseCompression compression = new ResponseCompression();
+    compression.setMinimumSize(100);
+    handler.register(compression);
+    return handler;
+  }
+
+  private HttpServletResponse mockResponse(final ByteArrayOutputStream output) throws IOException {
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+      @Override
+      public void write(final int b) throws IOException {
+        output.write(b);
+      }
+    });
+    return response;
+  }
+
+  private ODataRequest createRequest(final String acceptEncoding) {
+    ODataRequest request = new ODataRequest();
+    request.addHeader(HttpHeader.ACCEPT_ENCODING, Collections.singletonList(acceptEncoding));
+    return request;
+  }
+
+  private ODataResponse createResponse(final ContentType contentType, final String content) {
+    ODataResponse odResponse = new ODataResponse();
+    odResponse.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    odResponse.setHeader(HttpHeader.CONTENT_TYPE, contentType.toContentTypeString());
+    odResponse.setODataContent(new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          // Write in small pieces, like a serializer does.
+          for (final String piece : content.split("(?<=,)")) {
+            stream.write(piece.getBytes("UTF-8"));
+          }
+        } catch (final IOException e) {
+          fail();
+        }
+      }
+    });
+    return odResponse;
+  }
+
+  private String createContent(final int count) {
+    StringBuilder content = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      content.append(i).append(',');
+    }
+    return content.append(']').toString();
+  }
 }
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.batchhandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.olingo.commons.api.http.HttpHeader;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.batch.BatchExecution;
+import org.apache.olingo.server.api.batch.BatchFacade;
+import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
+import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.apache.olingo.server.core.ODataHandler;
+import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResponsePartIteratorTest {
+
+  private ExecutorService executor;
+  private ODataHandler handler;
+  private final ODataRequest batchRequest = request(HttpMethod.POST, "$batch");
+
+  @Before
+  public void setup() {
+    executor = Executors.newCachedThreadPool();
+    final OData odata = OData.newInstance();
+    handler = new ODataHandler(odata, null, new ServerCoreDebugger(odata));
+  }
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void retrieveRequestsRunConcurrently() throws Exception {
+    final CountDownLatch allStarted = new CountDownLatch(3);
+    final TestFacade facade = new TestFacade() {
+      @Override
+      protected void execute(final ODataRequest request) throws InterruptedException {
+        allStarted.countDown();
+        // Only completes if all three requests are executed at the same time.
+        assertTrue(allStarted.await(10, TimeUnit.SECONDS));
+      }
+    };
+
+    final List<String> paths = paths(facade.handle(new ResponsePartIterator(facade, handler, batchRequest,
+        parts(get("ESAllPrim(1)"), get("ESAllPrim(2)"), get("ESAllPrim(3)")), false,
+        new BatchExecution(executor))));
+    assertEquals(3, paths.size());
+    assertEquals("ESAllPrim(1)", paths.get(0));
+    assertEquals("ESAllPrim(2)", paths.get(1));
+    assertEquals("ESAllPrim(3)", paths.get(2));
+  }
+
+  @Test
+  public void changeSetWaitsForPreviousParts() throws Exception {
+    final TestFacade facade = new TestFacade();
+    final List<String> paths = paths(facade.handle(new ResponsePartIterator(facade, handler, batchRequest,
+        parts(get("ESAllPrim(1)"), get("ESAllPrim(2)"),
+            new BatchRequestPart(true, request(HttpMethod.PATCH, "ESAllPrim(1)")),
+            get("ESAllPrim(1)")),
+        false, new BatchExecution(executor))));
+    assertEquals(4, paths.size());
+    assertEquals("ESAllPrim(1)", paths.get(3));
+
+    // The change set is executed after both previous parts have been finished
+    // and before the following part is started.
+    assertEquals(8, facade.events.size());
+    assertEquals("start PATCH ESAllPrim(1)", facade.events.get(4));
+    assertEquals("end PATCH ESAllPrim(1)", facade.events.get(5));
+    assertEquals("start GET ESAllPrim(1)", facade.events.get(6));
+  }
+
+  @Test
+  public void stopAfterError() throws Exception {
+    final TestFacade facade = new TestFacade();
+    final List<String> paths = paths(facade.handle(new ResponsePartIterator(facade, handler, batchRequest,
+        parts(get("ESAllPrim(1)"), get("Unknown"), get("ESAllPrim(2)")), false,
+        new BatchExecution(executor))));
+    assertEquals(2, paths.size());
+    assertEquals("Unknown", paths.get(1));
+  }
+
+  @Test
+  public void exceptionBecomesErrorPart() throws Exception {
+    final TestFacade facade = new TestFacade();
+    final List<ODataResponsePart> responseParts = facade.handle(new ResponsePartIterator(facade, handler, batchRequest,
+        parts(get("ESAllPrim(1)"), get("Failing"), get("ESAllPrim(2)")), false,
+        new BatchExecution(executor)));
+    assertEquals(2, responseParts.size());
+    final ODataResponse response = responseParts.get(1).getResponses().get(0);
+    assertEquals(HttpStatusCode.CONFLICT.getStatusCode(), response.getStatusCode());
+    assertEquals("Failing", response.getHeaders().get(HttpHeader.CONTENT_ID));
+    assertNotNull(response.getContent());
+  }
+
+  @Test
+  public void readErrorBecomesLastPart() throws Exception {
+    final BatchRequestPartIterator parts = parts(get("ESAllPrim(1)"), get("ESAllPrim(2)"));
+    final TestFacade facade = new TestFacade();
+    final List<ODataResponsePart> responseParts = facade.handle(new ResponsePartIterator(facade, handler,
+        batchRequest,
+        new BatchRequestPartIterator() {
+          @Override
+          public boolean hasNext() throws BatchDeserializerException {
+            if (parts.hasNext()) {
+              return true;
+            }
+            throw new BatchDeserializerException("Missing close boundary delimiter",
+                BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER, "1");
+          }
+
+          @Override
+          public BatchRequestPart next() throws BatchDeserializerException {
+            return parts.next();
+          }
+        }, true, new BatchExecution(executor)));
+    assertEquals(3, responseParts.size());
+    assertEquals("ESAllPrim(2)", responseParts.get(1).getResponses().get(0).getHeaders().get(HttpHeader.CONTENT_ID));
+    assertEquals(HttpStatusCode.BAD_REQUEST.getStatusCode(),
+        responseParts.get(2).getResponses().get(0).getStatusCode());
+  }
+
+  @Test
+  public void continueOnError() throws Exception {
+    final TestFacade facade = new TestFacade();
+    assertEquals(3, paths(facade.handle(new ResponsePartIterator(facade, handler, batchRequest,
+        parts(get("ESAllPrim(1)"), get("Unknown"), get("ESAllPrim(2)")), true,
+        new BatchExecution(executor)))).size());
+  }
+
+  @Test
+  public void sequentialWithoutExecution() throws Exception {
+    final TestFacade facade = new TestFacade();
+    assertEquals(2, paths(facade.handle(new ResponsePartIterator(facade, handler, batchRequest,
+        parts(get("ESAllPrim(1)"), get("ESAllPrim(2)")), false, null))).size());
+    assertEquals(Thread.currentThread().getName(), facade.threads.get(0));
+    assertEquals(Thread.currentThread().getName(), facade.threads.get(1));
+  }
+
+  @Test
+  public void independentParts() {
+    assertTrue(ResponsePartIterator.isIndependent(get("ESAllPrim(1)")));
+    assertTrue(ResponsePartIterator.isIndependent(get("$metadata")));
+    assertFalse(ResponsePartIterator.isIndependent(get("$1/NavPropertyETTwoPrimMany")));
+    assertFalse(ResponsePartIterator.isIndependent(
+        new BatchRequestPart(false, request(HttpMethod.POST, "ESAllPrim"))));
+    assertFalse(ResponsePartIterator.isIndependent(
+        new BatchRequestPart(true, request(HttpMethod.GET, "ESAllPrim"))));
+  }
+
+  private static BatchRequestPart get(final String path) {
+    return new BatchRequestPart(false, request(HttpMethod.GET, path));
+  }
+
+  private static ODataRequest request(final HttpMethod method, final String path) {
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.setRawODataPath(path);
+    request.addHeader(HttpHeader.CONTENT_ID, Collections.singletonList(path));
+    return request;
+  }
+
+  private static BatchRequestPartIterator parts(final BatchRequestPart... parts) {
+    final Iterator<BatchRequestPart> iterator = Arrays.asList(parts).iterator();
+    return new BatchRequestPartIterator() {
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public BatchRequestPart next() {
+        return iterator.next();
+      }
+    };
+  }
+
+  private static List<String> paths(final List<ODataResponsePart> responseParts) {
+    List<String> paths = new ArrayList<String>();
+    for (final ODataResponsePart part : responseParts) {
+      paths.add(part.getResponses().get(0).getHeaders().get(HttpHeader.CONTENT_ID));
+    }
+    return paths;
+  }
+
+  /** Records the execution of the requests; the path "Unknown" fails, and "Failing" throws an exception. */
+  private static class TestFacade implements BatchFacade {
+    private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+    private final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+
+    protected void execute(final ODataRequest request) throws InterruptedException {
+      Thread.sleep(20);
+    }
+
+    public List<ODataResponsePart> handle(final Iterator<ODataResponsePart> iterator) {
+      List<ODataResponsePart> parts = new ArrayList<ODataResponsePart>();
+      while (iterator.hasNext()) {
+        parts.add(iterator.next());
+      }
+      return parts;
+    }
+
+    @Override
+    public ODataResponse handleODataRequest(final ODataRequest request) {
+      final String event = request.getMethod() + " " + request.getRawODataPath();
+      events.add("start " + event);
+      threads.add(Thread.currentThread().getName());
+      try {
+        execute(request);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      final ODataResponse response = new ODataResponse();
+      response.setStatusCode("Unknown".equals(request.getRawODataPath()) ?
+          HttpStatusCode.NOT_FOUND.getStatusCode() : HttpStatusCode.OK.getStatusCode());
+      response.setHeader(HttpHeader.CONTENT_ID, request.getHeader(HttpHeader.CONTENT_ID));
+      events.add("end " + event);
+      return response;
+    }
+
+    @Override
+    public ODataResponsePart handleBatchRequest(final BatchRequestPart part) throws ODataApplicationException {
+      if ("Failing".equals(part.getRequests().get(0).getRawODataPath())) {
+        throw new ODataApplicationException("Failing", HttpStatusCode.CONFLICT.getStatusCode(), Locale.ROOT);
+      }
+      return new ODataResponsePart(handleODataRequest(part.getRequests().get(0)), part.isChangeSet());
+    }
+
+    @Override
+    public Iterator<ODataResponsePart> handleBatchRequests(final BatchRequestPartIterator parts,
+        final boolean continueOnError) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String extractBoundaryFromContentType(final String contentType) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
 import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
 import org.apache.olingo.server.api.deserializer.batch.BatchDeserializerException.MessageKeys;
 import org.junit.Test;
 
@@ -1236,6 +1237,48 @@ public class BatchRequestParserTest {
     parseInvalidBatchBody(batch, MessageKeys.FORBIDDEN_HEADER);
   }
 
+  @Test
+  public void streamedPartsAreReturnedBeforeTheRestIsRead() throws Exception {
+    final String batch = ""
+        + "--batch_8194-cf13-1f56" + CRLF
+        + GET_REQUEST
+        + "--batch_8194-cf13-1f56" + CRLF
+        + MIME_HEADERS
+        + CRLF
+        + "GET Employees('2')/EmployeeName HTTP/1.1" + CRLF
+        + CRLF;
+    final BatchOptions options = BatchOptions.with().rawBaseUri(SERVICE_ROOT).build();
+    final BatchRequestPartIterator parts =
+        new BatchParser().parseBatchRequestStreamed(IOUtils.toInputStream(batch), BOUNDARY, options);
+
+    assertTrue(parts.hasNext());
+    final BatchRequestPart part = parts.next();
+    assertFalse(part.isChangeSet());
+    assertEquals("/Employees('1')/EmployeeName", part.getRequests().get(0).getRawODataPath());
+    try {
+      parts.hasNext();
+      fail("No exception thrown. Expect: " + MessageKeys.MISSING_CLOSE_DELIMITER);
+    } catch (final BatchDeserializerException e) {
+      assertMessageKey(e, MessageKeys.MISSING_CLOSE_DELIMITER);
+    }
+  }
+
+  @Test
+  public void streamedPartsOfLargeBatch() throws Exception {
+    final BatchOptions options = BatchOptions.with().rawBaseUri(SERVICE_ROOT).build();
+    final BatchRequestPartIterator parts =
+        new BatchParser().parseBatchRequestStreamed(readFile("/batchWithPost.batch"), BOUNDARY, options);
+    final List<BatchRequestPart> expected = parse(readFile("/batchWithPost.batch"));
+
+    for (final BatchRequestPart expectedPart : expected) {
+      assertTrue(parts.hasNext());
+      final BatchRequestPart part = parts.next();
+      assertEquals(expectedPart.isChangeSet(), part.isChangeSet());
+      assertEquals(expectedPart.getRequests().size(), part.getRequests().size());
+    }
+    assertFalse(parts.hasNext());
+  }
+
   private List<BatchRequestPart> parse(final InputStream in, final boolean isStrict) throws Exception {
     final BatchParser parser = new BatchParser();
     final BatchOptions options = BatchOptions.with().isStrict(isStrict).rawBaseUri(SERVICE_ROOT).build();
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.filter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.server.api.filter.EntityPredicate;
+import org.junit.Test;
+
+public class EntityQueryImplTest {
+
+  private static final Comparator<Entity> BY_VALUE = new Comparator<Entity>() {
+    @Override
+    public int compare(final Entity e1, final Entity e2) {
+      return value(e1) - value(e2);
+    }
+  };
+
+  private static final EntityPredicate EVEN = new EntityPredicate() {
+    @Override
+    public boolean matches(final Entity entity) {
+      return value(entity) % 2 == 0;
+    }
+  };
+
+  @Test
+  public void noOptions() {
+    final List<Entity> entities = entities(3, 1, 2);
+    final EntityCollection result = new EntityQueryImpl().execute(entities);
+    assertEquals(entities, result.getEntities());
+    assertEquals(Integer.valueOf(3), result.getCount());
+  }
+
+  @Test
+  public void filterSkipTop() {
+    final EntityCollection result = new EntityQueryImpl().filter(EVEN).skip(1).top(2)
+        .execute(entities(1, 2, 3, 4, 5, 6, 7, 8, 10));
+    assertEquals(Arrays.asList(4, 6), values(result));
+    assertEquals(Integer.valueOf(5), result.getCount());
+  }
+
+  @Test
+  public void topK() {
+    final EntityCollection result = new EntityQueryImpl().filter(EVEN).orderBy(BY_VALUE).skip(1).top(2)
+        .execute(entities(8, 3, 6, 10, 2, 7, 4));
+    assertEquals(Arrays.asList(4, 6), values(result));
+    assertEquals(Integer.valueOf(5), result.getCount());
+  }
+
+  @Test
+  public void topZero() {
+    final EntityCollection result = new EntityQueryImpl().orderBy(BY_VALUE).top(0).execute(entities(2, 1));
+    assertEquals(Collections.<Integer> emptyList(), values(result));
+    assertEquals(Integer.valueOf(2), result.getCount());
+  }
+
+  @Test
+  public void skipBeyondEnd() {
+    assertEquals(Collections.<Integer> emptyList(),
+        values(new EntityQueryImpl().orderBy(BY_VALUE).skip(5).top(2).execute(entities(2, 1, 3))));
+    assertEquals(Collections.<Integer> emptyList(),
+        values(new EntityQueryImpl().orderBy(BY_VALUE).skip(5).execute(entities(2, 1, 3))));
+  }
+
+  @Test
+  public void stableOrder() {
+    final Comparator<Entity> byTens = new Comparator<Entity>() {
+      @Override
+      public int compare(final Entity e1, final Entity e2) {
+        return value(e1) / 10 - value(e2) / 10;
+      }
+    };
+    assertEquals(Arrays.asList(13, 11, 12, 25, 21),
+        values(new EntityQueryImpl().orderBy(byTens).top(5).execute(entities(25, 13, 31, 11, 21, 12, 30))));
+  }
+
+  /** Compares the single-pass query with sorting and trimming the complete list. */
+  @Test
+  public void sameAsFullSort() {
+    final Random random = new Random(42);
+    for (int run = 0; run < 200; run++) {
+      final int size = random.nextInt(50);
+      List<Entity> entities = new ArrayList<Entity>();
+      for (int i = 0; i < size; i++) {
+        entities.add(entity(random.nextInt(20)));
+      }
+      final int skip = random.nextInt(10);
+      final int top = random.nextInt(10);
+
+      List<Entity> expected = new ArrayList<Entity>();
+      for (final Entity entity : entities) {
+        if (EVEN.matches(entity)) {
+          expected.add(entity);
+        }
+      }
+      final int count = expected.size();
+      Collections.sort(expected, BY_VALUE);
+      expected = expected.subList(Math.min(skip, count), Math.min(skip + top, count));
+
+      // An Iterable which is not a collection hides its size.
+      final List<Entity> source = entities;
+      final EntityCollection result = new EntityQueryImpl().filter(EVEN).orderBy(BY_VALUE).skip(skip).top(top)
+          .execute(new Iterable<Entity>() {
+            @Override
+            public Iterator<Entity> iterator() {
+              return source.iterator();
+            }
+          });
+      assertEquals(expected, result.getEntities());
+      assertEquals(Integer.valueOf(count), result.getCount());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeSkip() {
+    new EntityQueryImpl().skip(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeTop() {
+    new EntityQueryImpl().top(-1);
+  }
+
+  private static int value(final Entity entity) {
+    return (Integer) entity.getProperty("Value").getValue();
+  }
+
+  private static Entity entity(final int value) {
+    return new Entity().addProperty(new Property(null, "Value", ValueType.PRIMITIVE, value));
+  }
+
+  private static List<Entity> entities(final int... values) {
+    List<Entity> entities = new ArrayList<Entity>();
+    for (final int value : values) {
+      entities.add(entity(value));
+    }
+    return entities;
+  }
+
+  private static List<Integer> values(final EntityCollection collection) {
+    List<Integer> values = new ArrayList<Integer>();
+    for (final Entity entity : collection.getEntities()) {
+      values.add(value(entity));
+    }
+    return values;
+  }
+}
@@ -23,9 +23,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -438,4 +440,47 @@ public class BatchResponseSerializerTest {
     assertTrue(body.get(line++).contains("--changeset_"));
     assertTrue(body.get(line++).contains("--batch_"));
   }
+
+  @Test
+  public void testBatchResponseStreamed() throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final Iterator<ODataResponsePart> parts = new Iterator<ODataResponsePart>() {
+      private int count = 0;
+
+      @Override
+      public boolean hasNext() {
+        return count < 2;
+      }
+
+      @Override
+      public ODataResponsePart next() {
+        // The previous part must have been written before the next part is requested.
+        assertTrue(count == 0 ? output.size() == 0 : output.toString().endsWith("Part " + (count - 1) + CRLF));
+        ODataResponse response = new ODataResponse();
+        response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+        response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.TEXT_PLAIN.toContentTypeString());
+        response.setContent(IOUtils.toInputStream("Part " + count++));
+        return new ODataResponsePart(response, false);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    new BatchResponseSerializer().serializeStreamed(parts, BOUNDARY).write(output);
+
+    final BatchLineReader reader = new BatchLineReader(new ByteArrayInputStream(output.toByteArray()));
+    final List<String> body = reader.toList();
+    reader.close();
+
+    assertEquals(19, body.size());
+    assertEquals("--" + BOUNDARY + CRLF, body.get(0));
+    assertEquals("Content-Length: 6" + CRLF, body.get(6));
+    assertEquals("Part 0" + CRLF, body.get(8));
+    assertEquals("--" + BOUNDARY + CRLF, body.get(9));
+    assertEquals("Part 1" + CRLF, body.get(17));
+    assertEquals("--" + BOUNDARY + "--" + CRLF, body.get(18));
+  }
 }
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.server.core.serializer.utils.ContentBuffer.ContentInputStream;
+import org.junit.Test;
+
+public class ContentBufferTest {
+
+  @Test
+  public void writeAndRead() throws Exception {
+    ContentBuffer buffer = new ContentBuffer(4);
+    OutputStream output = buffer.getOutputStream();
+    output.write('a');
+    output.write("bcdefghij".getBytes("UTF-8"));
+    output.write("0123456789".getBytes("UTF-8"), 5, 3);
+    output.close();
+
+    assertEquals("abcdefghij567", IOUtils.toString(buffer.getInputStream(), "UTF-8"));
+    assertEquals("abcdefghij567", IOUtils.toString(buffer.getInputStream(), "UTF-8"));
+  }
+
+  @Test
+  public void writeTo() throws Exception {
+    ContentBuffer buffer = new ContentBuffer();
+    buffer.getOutputStream().write("content".getBytes("UTF-8"));
+    ContentInputStream input = buffer.getInputStream();
+    assertEquals('c', input.read());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    assertEquals(6, input.writeTo(output));
+    assertEquals("ontent", output.toString("UTF-8"));
+    assertEquals(-1, input.read());
+  }
+
+  @Test
+  public void empty() throws Exception {
+    assertEquals(-1, new ContentBuffer().getInputStream().read());
+  }
+}
@@ -37,6 +37,7 @@ import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Property;
+import org.apache.olingo.commons.api.data.PropertyIndex;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
@@ -631,8 +632,10 @@ public class DataCreator {
   }
 
   private void setEntityType(EntityCollection entityCollection, EdmEntityType type) {
+    final PropertyIndex propertyIndex = PropertyIndex.of(type);
     for (Entity entity:entityCollection.getEntities()) {
       entity.setType(type.getFullQualifiedName().getFullQualifiedNameAsString());
+      entity.setPropertyIndex(propertyIndex);
     }
   }
 
@@ -65,12 +65,9 @@ import org.apache.olingo.server.tecsvc.async.TechnicalAsyncService;
 import org.apache.olingo.server.tecsvc.data.DataProvider;
 import org.apache.olingo.server.tecsvc.data.RequestValidator;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.ExpandSystemQueryOptionHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.CountHandler;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.options.EntityQueryHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.FilterHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.OrderByHandler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.options.ServerSidePagingHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.SkipHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.TopHandler;
 
 /**
  * Technical Processor for entity-related functionality.
@@ -486,11 +483,8 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
     entitySet.getEntities().addAll(entitySetInitial.getEntities());
 
     // Apply system query options
-    FilterHandler.applyFilterSystemQuery(uriInfo.getFilterOption(), entitySet, edmEntitySet);
-    CountHandler.applyCountSystemQueryOption(uriInfo.getCountOption(), entitySet);
-    OrderByHandler.applyOrderByOption(uriInfo.getOrderByOption(), entitySet, edmEntitySet);
-    SkipHandler.applySkipSystemQueryHandler(uriInfo.getSkipOption(), entitySet);
-    TopHandler.applyTopSystemQueryOption(uriInfo.getTopOption(), entitySet);
+    EntityQueryHandler.applyQueryOptions(uriInfo.getFilterOption(), uriInfo.getCountOption(),
+        uriInfo.getOrderByOption(), uriInfo.getSkipOption(), uriInfo.getTopOption(), entitySet, edmEntitySet);
 
     final Integer pageSize = odata.createPreferences(request.getHeaders(HttpHeader.PREFER)).getMaxPageSize();
     final Integer serverPageSize = ServerSidePagingHandler.applyServerSidePaging(uriInfo.getSkipTokenOption(),
@@ -41,11 +41,7 @@ import org.apache.olingo.server.api.uri.queryoption.FilterOption;
 import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
 import org.apache.olingo.server.api.uri.queryoption.SkipOption;
 import org.apache.olingo.server.api.uri.queryoption.TopOption;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.CountHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.FilterHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.OrderByHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.SkipHandler;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.options.TopHandler;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.options.EntityQueryHandler;
 
 public class ExpandSystemQueryOptionHandler {
 
@@ -104,11 +100,8 @@ public class ExpandSystemQueryOptionHandler {
       final SkipOption skipOption, final TopOption topOption, final ExpandOption expandOption)
       throws ODataApplicationException {
 
-    FilterHandler.applyFilterSystemQuery(filterOption, entitySet, edmBindingTarget);
-    OrderByHandler.applyOrderByOption(orderByOption, entitySet, edmBindingTarget);
-    CountHandler.applyCountSystemQueryOption(countOption, entitySet);
-    SkipHandler.applySkipSystemQueryHandler(skipOption, entitySet);
-    TopHandler.applyTopSystemQueryOption(topOption, entitySet);
+    EntityQueryHandler.applyQueryOptions(filterOption, countOption, orderByOption, skipOption, topOption,
+        entitySet, edmBindingTarget);
 
     // Apply nested expand system query options to remaining entities
     if (expandOption != null) {
@@ -189,12 +189,9 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
     for (int i = 1; i < uriResourceParts.size(); i++) {
       if (currentProperty.isComplex()) {
         currentEdmProperty = ((UriResourceProperty) uriResourceParts.get(i)).getProperty();
-        final List<Property> complex = currentProperty.asComplex().getValue();
-        for (final Property innerProperty : complex) {
-          if (innerProperty.getName().equals(currentEdmProperty.getName())) {
-            currentProperty = innerProperty;
-            break;
-          }
+        final Property innerProperty = currentProperty.asComplex().getProperty(currentEdmProperty.getName());
+        if (innerProperty != null) {
+          currentProperty = innerProperty;
         }
       }
     }
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
+
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.EdmBindingTarget;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.filter.EntityQuery;
+import org.apache.olingo.server.api.uri.queryoption.CountOption;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.SkipOption;
+import org.apache.olingo.server.api.uri.queryoption.TopOption;
+
+/**
+ * Applies $filter, $count, $orderby, $skip, and $top together in a single pass;
+ * with $top, only the requested entities are sorted.
+ */
+public class EntityQueryHandler {
+
+  public static void applyQueryOptions(final FilterOption filterOption, final CountOption countOption,
+      final OrderByOption orderByOption, final SkipOption skipOption, final TopOption topOption,
+      final EntityCollection entitySet, final EdmBindingTarget edmBindingTarget) throws ODataApplicationException {
+
+    if (filterOption == null && orderByOption == null && skipOption == null && topOption == null) {
+      CountHandler.applyCountSystemQueryOption(countOption, entitySet);
+      return;
+    }
+
+    EntityQuery query = FilterHandler.odata.createEntityQuery();
+    if (filterOption != null) {
+      query.filter(FilterHandler.filterCompiler.compile(filterOption, edmBindingTarget.getEntityType()));
+    }
+    if (orderByOption != null) {
+      query.orderBy(FilterHandler.filterCompiler.compile(orderByOption, edmBindingTarget.getEntityType()));
+    }
+    if (skipOption != null) {
+      if (skipOption.getValue() < 0) {
+        throw new ODataApplicationException("Skip value must be positive", HttpStatusCode.BAD_REQUEST.getStatusCode(),
+            Locale.ROOT);
+      }
+      query.skip(skipOption.getValue());
+    }
+    if (topOption != null) {
+      if (topOption.getValue() < 0) {
+        throw new ODataApplicationException("Top value must be positive", HttpStatusCode.BAD_REQUEST.getStatusCode(),
+            Locale.ROOT);
+      }
+      query.top(topOption.getValue());
+    }
+
+    final EntityCollection result = query.execute(entitySet.getEntities());
+    entitySet.getEntities().clear();
+    entitySet.getEntities().addAll(result.getEntities());
+    if (countOption != null && countOption.getValue()) {
+      entitySet.setCount(result.getCount());
+    }
+  }
+}
@@ -19,31 +19,20 @@
 package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
 
 import java.util.Iterator;
-import java.util.Locale;
 
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.edm.EdmBindingTarget;
-import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
-import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
-import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.filter.EntityPredicate;
+import org.apache.olingo.server.api.filter.FilterCompiler;
 import org.apache.olingo.server.api.uri.queryoption.FilterOption;
-import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.VisitorOperand;
 
 public class FilterHandler {
 
-  protected static final OData oData;
-  protected static final EdmPrimitiveType primBoolean;
-
-  static {
-    oData = OData.newInstance();
-    primBoolean = oData.createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Boolean);
-  }
+  protected static final OData odata = OData.newInstance();
+  protected static final FilterCompiler filterCompiler = odata.createFilterCompiler();
 
   public static void applyFilterSystemQuery(final FilterOption filterOption, final EntityCollection entitySet,
       final EdmBindingTarget edmEntitySet) throws ODataApplicationException {
@@ -52,23 +41,13 @@ public class FilterHandler {
       return;
     }
 
-    try {
-      final Iterator<Entity> iter = entitySet.getEntities().iterator();
-
-      while (iter.hasNext()) {
-        final VisitorOperand operand = filterOption.getExpression()
-            .accept(new ExpressionVisitorImpl(iter.next(), edmEntitySet));
-        final TypedOperand typedOperand = operand.asTypedOperand();
-
-        if (!(typedOperand.is(primBoolean)
-        && Boolean.TRUE.equals(typedOperand.getTypedValue(Boolean.class)))) {
-          iter.remove();
-        }
+    // The expression is compiled once and then evaluated for each entity.
+    final EntityPredicate predicate = filterCompiler.compile(filterOption, edmEntitySet.getEntityType());
+    final Iterator<Entity> iter = entitySet.getEntities().iterator();
+    while (iter.hasNext()) {
+      if (!predicate.matches(iter.next())) {
+        iter.remove();
       }
-
-    } catch (ExpressionVisitException e) {
-      throw new ODataApplicationException("Exception in filter evaluation",
-          HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT);
     }
   }
 }
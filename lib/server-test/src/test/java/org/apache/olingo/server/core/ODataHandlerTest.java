@@ -21,6 +21,10 @@ package org.apache.olingo.server.core;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
@@ -29,11 +33,21 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.ODataException;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmProvider;
@@ -45,12 +59,18 @@ import org.apache.olingo.commons.api.http.HttpMethod;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataLibraryException;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.batch.BatchExecution;
 import org.apache.olingo.server.api.batch.BatchFacade;
+import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPartIterator;
+import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.encoding.RequestDecompression;
 import org.apache.olingo.server.api.processor.ActionComplexCollectionProcessor;
 import org.apache.olingo.server.api.processor.ActionComplexProcessor;
 import org.apache.olingo.server.api.processor.ActionEntityCollectionProcessor;
@@ -77,7 +97,15 @@ import org.apache.olingo.server.api.processor.ReferenceCollectionProcessor;
 import org.apache.olingo.server.api.processor.ReferenceProcessor;
 import org.apache.olingo.server.api.processor.ServiceDocumentProcessor;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoCache;
+import org.apache.olingo.server.api.uri.UriResourceEntitySet;
 import org.apache.olingo.server.core.debug.ServerCoreDebugger;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.core.uri.parser.Parser.ParserEntryRules;
+import org.apache.olingo.server.core.uri.parser.UriInfoCacheImpl;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.TechnicalBatchProcessor;
+import org.apache.olingo.server.tecsvc.processor.TechnicalEntityProcessor;
 import org.apache.olingo.server.tecsvc.provider.ContainerProvider;
 import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
 import org.junit.Test;
@@ -150,6 +178,50 @@ public class ODataHandlerTest {
         containsString("<edmx:Edmx Version=\"4.0\""));
   }
 
+  @Test
+  public void metadataETag() throws Exception {
+    final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    final String eTag = response.getHeaders().get(HttpHeader.ETAG);
+    assertNotNull(eTag);
+    assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+
+    final ODataResponse notModified = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.IF_NONE_MATCH, eTag, null);
+    assertEquals(HttpStatusCode.NOT_MODIFIED.getStatusCode(), notModified.getStatusCode());
+    assertEquals(eTag, notModified.getHeaders().get(HttpHeader.ETAG));
+    assertNull(notModified.getContent());
+  }
+
+  @Test
+  public void metadataGzipped() throws Exception {
+    final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.ACCEPT_ENCODING, "deflate, gzip;q=0.8", null);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    assertEquals("gzip", response.getHeaders().get(HttpHeader.CONTENT_ENCODING));
+    assertEquals(HttpHeader.ACCEPT_ENCODING, response.getHeaders().get(HttpHeader.VARY));
+    assertThat(IOUtils.toString(new GZIPInputStream(response.getContent())),
+        containsString("<edmx:Edmx Version=\"4.0\""));
+    final String gzipETag = response.getHeaders().get(HttpHeader.ETAG);
+    assertTrue(gzipETag.endsWith("-gzip\""));
+
+    final ODataResponse notGzipped = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.ACCEPT_ENCODING, "gzip;q=0", null);
+    assertNull(notGzipped.getHeaders().get(HttpHeader.CONTENT_ENCODING));
+    assertEquals(HttpHeader.ACCEPT_ENCODING, notGzipped.getHeaders().get(HttpHeader.VARY));
+    final String eTag = notGzipped.getHeaders().get(HttpHeader.ETAG);
+    assertEquals(gzipETag, eTag.substring(0, eTag.length() - 1) + "-gzip\"");
+
+    final ODataResponse identity = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.IF_NONE_MATCH, gzipETag, null);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), identity.getStatusCode());
+
+    final ODataResponse wildcard = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.ACCEPT_ENCODING, "br, *;q=0.5", null);
+    assertEquals("gzip", wildcard.getHeaders().get(HttpHeader.CONTENT_ENCODING));
+    assertEquals(gzipETag, wildcard.getHeaders().get(HttpHeader.ETAG));
+  }
+
   @Test
   public void maxVersionNone() {
     final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null);
@@ -255,6 +327,28 @@ public class ODataHandlerTest {
     dispatchMethodNotAllowed(HttpMethod.DELETE, uri, processor);
   }
 
+  @Test
+  public void batchResponseStreamed() throws Exception {
+    final ODataResponse response = dispatchBatch("GET ESAllPrim(32767) HTTP/1.1");
+    assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), response.getStatusCode());
+    assertNotNull(response.getODataContent());
+    assertThat(IOUtils.toString(response.getContent(), "UTF-8"), containsString("HTTP/1.1 200 OK"));
+  }
+
+  @Test
+  public void batchWithInvalidRelativeUri() throws Exception {
+    final ODataResponse response = dispatchBatch("GET /ESAllPrim(32767) HTTP/1.1");
+    assertEquals(HttpStatusCode.BAD_REQUEST.getStatusCode(), response.getStatusCode());
+    assertNull(response.getODataContent());
+  }
+
+  @Test
+  public void batchWithInvalidHost() throws Exception {
+    final ODataResponse response = dispatchBatch("GET http://otherhost/odata/ESAllPrim(32767) HTTP/1.1");
+    assertEquals(HttpStatusCode.BAD_REQUEST.getStatusCode(), response.getStatusCode());
+    assertNull(response.getODataContent());
+  }
+
   @Test
   public void dispatchEntitySet() throws Exception {
     final String uri = "ESAllPrim";
@@ -698,6 +792,339 @@ public class ODataHandlerTest {
         any(ContentType.class));
   }
 
+  @Test
+  public void reusableHandler() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final ODataHandler handler = new ODataHandler(odata, metadata, new ServerCoreDebugger(odata), true);
+    final EntityCollectionProcessor processor = mock(EntityCollectionProcessor.class);
+    handler.register(processor);
+    verify(processor).init(odata, metadata);
+
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("ESAllPrim");
+    final ODataRequestContext first = new ODataRequestContext(new ServerCoreDebugger(odata));
+    handler.process(request, first);
+    request.setRawODataPath("ESTwoPrim");
+    final ODataRequestContext second = new ODataRequestContext(new ServerCoreDebugger(odata));
+    handler.process(request, second);
+
+    verify(processor, times(2)).readEntityCollection(
+        any(ODataRequest.class), any(ODataResponse.class), any(UriInfo.class), any(ContentType.class));
+    verify(processor).init(odata, metadata);
+    assertEquals("ESAllPrim",
+        first.getUriInfo().asUriInfoResource().getUriResourceParts().get(0).toString());
+    assertEquals("ESTwoPrim",
+        second.getUriInfo().asUriInfoResource().getUriResourceParts().get(0).toString());
+  }
+
+  @Test
+  public void batchExecutionInitializesProcessorsOnce() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final ODataHandler handler = new ODataHandler(odata, metadata, new ServerCoreDebugger(odata));
+    final EntityCollectionProcessor processor = mock(EntityCollectionProcessor.class);
+    handler.register(processor);
+    handler.register(new BatchExecution(mock(Executor.class)));
+    verify(processor).init(odata, metadata);
+    final EntityProcessor laterProcessor = mock(EntityProcessor.class);
+    handler.register(laterProcessor);
+    verify(laterProcessor).init(odata, metadata);
+
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("ESAllPrim");
+    handler.process(request);
+    handler.process(request);
+
+    verify(processor, times(2)).readEntityCollection(
+        any(ODataRequest.class), any(ODataResponse.class), any(UriInfo.class), any(ContentType.class));
+    verify(processor).init(odata, metadata);
+  }
+
+  @Test
+  public void uriInfoCache() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final UriInfoCache cache = odata.createUriInfoCache(2);
+    final ODataHandler handler = new ODataHandler(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register((UriInfoCacheImpl) cache);
+    handler.register(mock(EntityCollectionProcessor.class));
+
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.GET);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("ESAllPrim");
+    request.setRawQueryPath("$filter=PropertyInt16%20eq%201");
+    handler.process(request);
+    final UriInfo first = handler.getUriInfo();
+    handler.process(request);
+    assertSame(first, handler.getUriInfo());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.size());
+
+    request.setRawQueryPath("$filter=PropertyInt16%20eq%202");
+    handler.process(request);
+    assertNotSame(first, handler.getUriInfo());
+    request.setRawQueryPath("$top=1");
+    handler.process(request);
+    assertEquals(2, cache.size());
+    assertEquals(3, cache.getMissCount());
+
+    // Syntax errors are not cached.
+    request.setRawQueryPath("$top=x");
+    handler.process(request);
+    assertEquals(2, cache.size());
+
+    cache.invalidate(metadata.getEdm());
+    assertEquals(0, cache.size());
+    cache.clear();
+    assertEquals(0, cache.getHitCount());
+  }
+
+  @Test
+  public void warmUp() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final UriInfoCache cache = odata.createUriInfoCache(10);
+    final ODataHandler handler = new ODataHandler(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register((UriInfoCacheImpl) cache);
+
+    final long filterCount = Parser.getParseCount(ParserEntryRules.FilterExpression);
+    assertEquals(3, handler.warmUp(Arrays.asList(
+        "ESAllPrim?$filter=PropertyInt16%20add%201%20eq%202",
+        "ESAllPrim(1)",
+        "ESAllPrim?$expand=NavPropertyETTwoPrimOne&$select=PropertyString",
+        "Unknown?$top=1")));
+    assertTrue(Parser.getParseCount(ParserEntryRules.FilterExpression) > filterCount);
+    assertTrue(Parser.getStage2Count(ParserEntryRules.FilterExpression)
+        <= Parser.getParseCount(ParserEntryRules.FilterExpression));
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void compressedRequestBody() throws Exception {
+    final RequestDecompression decompression = new RequestDecompression();
+    final BodyReadingProcessor processor = new BodyReadingProcessor();
+    final ODataResponse response = dispatchBody(gzip(ENTITY_BODY), "gzip", decompression, processor);
+    assertEquals(HttpStatusCode.CREATED.getStatusCode(), response.getStatusCode());
+    assertEquals("Second", processor.entity.getProperty("PropertyString").getValue());
+    assertEquals(1, decompression.getDecodedRequestCount());
+    assertEquals(ENTITY_BODY.length(), decompression.getDecodedBytes());
+    assertTrue(decompression.getCompressedBytes() > 0);
+
+    final ODataResponse identity = dispatchBody(ENTITY_BODY.getBytes("UTF-8"), null, decompression,
+        new BodyReadingProcessor());
+    assertEquals(HttpStatusCode.CREATED.getStatusCode(), identity.getStatusCode());
+    assertEquals(1, decompression.getDecodedRequestCount());
+  }
+
+  @Test
+  public void unsupportedContentEncoding() throws Exception {
+    final BodyReadingProcessor processor = new BodyReadingProcessor();
+    final ODataResponse response = dispatchBody(ENTITY_BODY.getBytes("UTF-8"), "br",
+        new RequestDecompression(), processor);
+    assertEquals(HttpStatusCode.UNSUPPORTED_MEDIA_TYPE.getStatusCode(), response.getStatusCode());
+    assertNull(processor.entity);
+  }
+
+  @Test
+  public void compressedRequestBodyTooLarge() throws Exception {
+    final RequestDecompression decompression = new RequestDecompression();
+    decompression.setMaximumSize(16);
+    final BodyReadingProcessor processor = new BodyReadingProcessor();
+    final ODataResponse response = dispatchBody(gzip(ENTITY_BODY), "gzip", decompression, processor);
+    assertEquals(HttpStatusCode.REQUEST_ENTITY_TOO_LARGE.getStatusCode(), response.getStatusCode());
+    assertNull(processor.entity);
+  }
+
+  @Test
+  public void compressedBatchBody() throws Exception {
+    final ODataResponse response = dispatchBatch(gzip(batchBody("GET ESAllPrim(32767) HTTP/1.1")), "gzip",
+        new RequestDecompression(), new StreamingBatchProcessor());
+    assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), response.getStatusCode());
+    assertThat(IOUtils.toString(response.getContent(), "UTF-8"), containsString("HTTP/1.1 200 OK"));
+  }
+
+  @Test
+  public void compressedBatchBodyTooLarge() throws Exception {
+    final RequestDecompression decompression = new RequestDecompression();
+    decompression.setMaximumSize(16);
+    final ODataResponse response = dispatchBatch(gzip(batchBody("GET ESAllPrim(32767) HTTP/1.1")), "gzip",
+        decompression, null);
+    assertEquals(HttpStatusCode.REQUEST_ENTITY_TOO_LARGE.getStatusCode(), response.getStatusCode());
+    assertNull(response.getODataContent());
+  }
+
+  @Test
+  public void compressedBatchBodyTooLargeAfterFirstPart() throws Exception {
+    final String[] requestLines = new String[200];
+    Arrays.fill(requestLines, "GET ESAllPrim(32767) HTTP/1.1");
+    final RequestDecompression decompression = new RequestDecompression();
+    decompression.setMaximumSize(16 * 1024);
+    final ODataResponse response = dispatchBatch(gzip(batchBody(requestLines)), "gzip",
+        decompression, new StreamingBatchProcessor());
+    // The status has been set before the limit is exceeded, so the error is reported in the last part.
+    assertEquals(HttpStatusCode.ACCEPTED.getStatusCode(), response.getStatusCode());
+    final String content = IOUtils.toString(response.getContent(), "UTF-8");
+    assertThat(content, containsString("HTTP/1.1 200 OK"));
+    assertThat(content, containsString("HTTP/1.1 413"));
+  }
+
+  private static final String ENTITY_BODY = "{\"PropertyInt16\":2,\"PropertyString\":\"Second\"}";
+
+  private static byte[] gzip(final String content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+    gzip.write(content.getBytes("UTF-8"));
+    gzip.close();
+    return bytes.toByteArray();
+  }
+
+  private ODataResponse dispatchBody(final byte[] body, final String contentEncoding,
+      final RequestDecompression decompression, final Processor processor) {
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.POST);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("ESAllPrim");
+    request.addHeader(HttpHeader.CONTENT_TYPE, Collections.singletonList(ContentType.JSON.toContentTypeString()));
+    if (contentEncoding != null) {
+      request.addHeader(HttpHeader.CONTENT_ENCODING, Collections.singletonList(contentEncoding));
+    }
+    request.setBody(new ByteArrayInputStream(body));
+
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    ODataHandler handler = new ODataHandler(odata, metadata, new ServerCoreDebugger(odata));
+    handler.register(decompression);
+    handler.register(processor);
+
+    final ODataResponse response = handler.process(request);
+    assertNotNull(response);
+    return response;
+  }
+
+  private ODataResponse dispatchBatch(final String requestLine) throws Exception {
+    return dispatchBatch(batchBody(requestLine).getBytes("UTF-8"), null, null, null);
+  }
+
+  private static String batchBody(final String... requestLines) {
+    final StringBuilder body = new StringBuilder();
+    for (final String requestLine : requestLines) {
+      body.append("--batch_123" + CRLF
+          + "Content-Type: application/http" + CRLF
+          + "Content-Transfer-Encoding: binary" + CRLF
+          + CRLF
+          + requestLine + CRLF
+          + CRLF
+          + CRLF);
+    }
+    return body.append("--batch_123--").toString();
+  }
+
+  /** Dispatches a batch request to the technical batch processor or to the given one. */
+  private ODataResponse dispatchBatch(final byte[] body, final String contentEncoding,
+      final RequestDecompression decompression, final BatchProcessor batchProcessor) throws Exception {
+    ODataRequest request = new ODataRequest();
+    request.setMethod(HttpMethod.POST);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawServiceResolutionUri("");
+    request.setRawODataPath("$batch");
+    request.addHeader(HttpHeader.CONTENT_TYPE, Collections.singletonList("multipart/mixed;boundary=batch_123"));
+    if (contentEncoding != null) {
+      request.addHeader(HttpHeader.CONTENT_ENCODING, Collections.singletonList(contentEncoding));
+    }
+    request.setBody(new ByteArrayInputStream(body));
+
+    final OData odata = OData.newInstance();
+    final ServiceMetadata metadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final DataProvider dataProvider = new DataProvider(metadata.getEdm());
+    ODataHandler handler = new ODataHandler(odata, metadata, new ServerCoreDebugger(odata));
+    if (decompression != null) {
+      handler.register(decompression);
+    }
+    handler.register(batchProcessor == null ? new TechnicalBatchProcessor(dataProvider) : batchProcessor);
+    handler.register(new TechnicalEntityProcessor(dataProvider, metadata));
+
+    final ODataResponse response = handler.process(request);
+    assertNotNull(response);
+    return response;
+  }
+
+  private static final String CRLF = "\r\n";
+
+  /** Commits the status and reads the batch request part by part while the response is written. */
+  private static class StreamingBatchProcessor implements BatchProcessor {
+    private OData odata;
+
+    @Override
+    public void init(final OData odata, final ServiceMetadata serviceMetadata) {
+      this.odata = odata;
+    }
+
+    @Override
+    public void processBatch(final BatchFacade facade, final ODataRequest request, final ODataResponse response) {
+      final BatchRequestPartIterator parts = odata.createFixedFormatDeserializer().parseBatchRequestStreamed(
+          request.getBody(), "batch_123", BatchOptions.with().rawBaseUri(request.getRawBaseUri()).build());
+      response.setODataContent(odata.createFixedFormatSerializer().batchResponseStreamed(
+          facade.handleBatchRequests(parts, false), "batch_456"));
+      response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
+    }
+
+    @Override
+    public ODataResponsePart processChangeSet(final BatchFacade facade, final List<ODataRequest> requests) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /** Deserializes the request body of an entity creation. */
+  private static class BodyReadingProcessor implements EntityProcessor {
+    private OData odata;
+    private Entity entity;
+
+    @Override
+    public void init(final OData odata, final ServiceMetadata serviceMetadata) {
+      this.odata = odata;
+    }
+
+    @Override
+    public void createEntity(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
+        final ContentType requestFormat, final ContentType responseFormat)
+        throws ODataApplicationException, ODataLibraryException {
+      final EdmEntityType entityType =
+          ((UriResourceEntitySet) uriInfo.getUriResourceParts().get(0)).getEntitySet().getEntityType();
+      entity = odata.createDeserializer(requestFormat).entity(request.getBody(), entityType).getEntity();
+      response.setStatusCode(HttpStatusCode.CREATED.getStatusCode());
+    }
+
+    @Override
+    public void readEntity(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
+        final ContentType responseFormat) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateEntity(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
+        final ContentType requestFormat, final ContentType responseFormat) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deleteEntity(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
   private ODataResponse dispatch(final HttpMethod method, final String path, final String query,
       final String headerName, final String headerValue, final Processor processor) {
     ODataRequest request = new ODataRequest();
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
+import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.serializer.SerializedDocument;
+import org.apache.olingo.server.tecsvc.provider.EntityTypeProvider;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.apache.olingo.server.tecsvc.provider.FunctionProvider;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ServiceMetadataImplTest {
+
+  @Test
+  public void preloadedEdmDoesNotCallProvider() throws Exception {
+    final CsdlEdmProvider provider = Mockito.spy(new EdmTechProvider());
+    final Edm edm = new ServiceMetadataImpl(provider, Collections.<EdmxReference> emptyList(), null, true)
+        .getEdm();
+    Mockito.reset(provider);
+
+    final EdmEntityType entityType = edm.getEntityType(EntityTypeProvider.nameETTwoKeyNav);
+    assertNotNull(entityType);
+    assertSame(entityType, edm.getEntityContainer().getEntitySet("ESTwoKeyNav").getEntityType());
+    assertNotNull(entityType.getNavigationProperty("NavPropertyETKeyNavOne").getType());
+    assertNotNull(edm.getBoundFunction(FunctionProvider.nameBFCESTwoKeyNavRTString,
+        EntityTypeProvider.nameETTwoKeyNav, true, null));
+    assertNotNull(edm.getEntityContainer().getFunctionImport("FINRTInt16"));
+
+    Mockito.verifyZeroInteractions(provider);
+  }
+
+  @Test
+  public void lazyEdm() throws Exception {
+    final Edm edm = new ServiceMetadataImpl(new EdmTechProvider(), Collections.<EdmxReference> emptyList(), null)
+        .getEdm();
+    assertSame(edm.getEntityType(EntityTypeProvider.nameETTwoKeyNav),
+        edm.getEntityContainer().getEntitySet("ESTwoKeyNav").getEntityType());
+  }
+
+  @Test
+  public void documentsAreSerializedOnce() throws Exception {
+    final ServiceMetadata metadata =
+        new ServiceMetadataImpl(new EdmTechProvider(), Collections.<EdmxReference> emptyList(), null);
+    final OData odata = Mockito.spy(OData.newInstance());
+    final SerializedDocument document = metadata.getMetadataDocument(odata, ContentType.APPLICATION_XML);
+    assertSame(document, metadata.getMetadataDocument(odata, ContentType.APPLICATION_XML));
+    assertNotNull(document.getETag());
+    Mockito.verify(odata, Mockito.times(1)).createSerializer(ContentType.APPLICATION_XML);
+    assertNotSame(metadata.getServiceDocument(odata, ContentType.JSON),
+        metadata.getServiceDocument(odata, ContentType.JSON_NO_METADATA));
+  }
+}
@@ -250,4 +250,31 @@ public class ODataDeserializerEntityCollectionTest extends AbstractODataDeserial
       throw e;
     }
   }
+
+  @Test(expected = DeserializerException.class)
+  public void unknownContentBeforeValue() throws Exception {
+    String entityCollectionString = "{\"unknown\":{\"nested\":[1,2]},"
+        + "\"value\" : [{\"PropertyInt16\":1}]"
+        + "}";
+    InputStream stream = new ByteArrayInputStream(entityCollectionString.getBytes());
+    EdmEntityType edmEntityType = edm.getEntityType(new FullQualifiedName("Namespace1_Alias", "ETAllPrim"));
+    try {
+      OData.newInstance().createDeserializer(CONTENT_TYPE_JSON).entityCollection(stream, edmEntityType);
+    } catch (DeserializerException e) {
+      assertEquals(DeserializerException.MessageKeys.UNKNOWN_CONTENT, e.getMessageKey());
+      throw e;
+    }
+  }
+
+  @Test(expected = DeserializerException.class)
+  public void arrayInsteadOfObject() throws Exception {
+    InputStream stream = new ByteArrayInputStream("[{\"PropertyInt16\":1}]".getBytes());
+    EdmEntityType edmEntityType = edm.getEntityType(new FullQualifiedName("Namespace1_Alias", "ETAllPrim"));
+    try {
+      OData.newInstance().createDeserializer(CONTENT_TYPE_JSON).entityCollection(stream, edmEntityType);
+    } catch (DeserializerException e) {
+      assertEquals(DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION, e.getMessageKey());
+      throw e;
+    }
+  }
 }
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.ValueType;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.filter.EntityPredicate;
+import org.apache.olingo.server.api.filter.FilterCompiler;
+import org.apache.olingo.server.api.uri.queryoption.FilterOption;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.VisitorOperand;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class FilterCompilerTest {
+
+  private static final OData odata = OData.newInstance();
+  private static final Edm edm = odata.createServiceMetadata(
+      new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+  private final FilterCompiler compiler = odata.createFilterCompiler();
+  private final DataProvider data = new DataProvider(edm);
+
+  @Test
+  public void comparison() throws Exception {
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "PropertyInt16 eq 32767"));
+    assertEquals(Arrays.asList(-32768, 0), filter("ESAllPrim", "PropertyInt16 ne 32767"));
+    assertEquals(Arrays.asList(32767, 0), filter("ESAllPrim", "PropertyInt16 ge 0"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "PropertyInt64 lt 0"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "PropertyDecimal gt 33.5"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "PropertyDouble eq -179000"));
+    assertEquals(Arrays.asList(32767, 0), filter("ESAllPrim", "PropertyBoolean eq true and PropertyByte gt 100"
+        + " or PropertyInt16 eq 0"));
+  }
+
+  @Test
+  public void stringComparison() throws Exception {
+    assertEquals(Arrays.asList(32767, 0), filter("ESAllPrim", "PropertyString lt 'G'"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "PropertyString gt 'G'"));
+    assertEquals(Arrays.asList(0), filter("ESAllPrim", "PropertyString eq ''"));
+  }
+
+  @Test
+  public void dateAndTime() throws Exception {
+    assertEquals(Arrays.asList(32767, 0), filter("ESAllPrim", "PropertyDate lt 2013-01-01"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "PropertyDateTimeOffset gt 2010-01-01T00:00:00Z"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "PropertyTimeOfDay ge 12:00:00"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "PropertyDuration gt duration'PT8S'"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "year(PropertyDate) eq 2012"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "month(PropertyDate) eq 11 and day(PropertyDate) eq 5"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "hour(PropertyDateTimeOffset) eq 7"
+        + " and minute(PropertyDateTimeOffset) eq 16 and second(PropertyDateTimeOffset) eq 23"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim",
+        "PropertyDate sub 2012-12-01 eq duration'P2D'"));
+  }
+
+  @Test
+  public void arithmetic() throws Exception {
+    assertEquals(Arrays.asList(0), filter("ESAllPrim", "PropertyInt16 add 1 eq 1"));
+    assertEquals(Arrays.asList(32767, 0), filter("ESAllPrim", "PropertyInt64 add 1 gt 0"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "PropertyDecimal div 4 eq 8.5"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "PropertyInt16 mod 2 eq 0 and -PropertyInt16 gt 0"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "round(PropertyDecimal div 4) eq 9"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "floor(PropertyDecimal div 4) eq 8"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "ceiling(PropertyDecimal div 4) eq -8"));
+  }
+
+  @Test
+  public void stringFunctions() throws Exception {
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "startswith(PropertyString,'First')"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "endswith(PropertyString,'negative values')"));
+    assertEquals(Arrays.asList(32767, -32768), filter("ESAllPrim", "contains(PropertyString,'Resource')"));
+    assertEquals(Arrays.asList(0), filter("ESAllPrim", "length(PropertyString) eq 0"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "indexof(PropertyString,'Resource') eq 6"));
+    assertEquals(Arrays.asList(32767), filter("ESAllPrim", "tolower(substring(PropertyString,0,5)) eq 'first'"));
+    assertEquals(Arrays.asList(-32768), filter("ESAllPrim", "toupper(substring(PropertyString,7,8)) eq 'RESOURCE'"));
+    assertEquals(Arrays.asList(0), filter("ESAllPrim", "concat(trim(PropertyString),'x') eq 'x'"));
+  }
+
+  @Test
+  public void complexProperty() throws Exception {
+    assertEquals(Arrays.asList(32767),
+        filter("ESCompAllPrim", "PropertyComp/PropertyString eq 'First Resource - first'"));
+    assertEquals(Arrays.asList(7), filter("ESCompAllPrim", "PropertyComp/PropertyInt16 eq 25"));
+  }
+
+  @Test
+  public void literalInPropertyType() throws Exception {
+    assertEquals(Arrays.asList(-32768),
+        filter("ESAllPrim", "PropertyGuid eq 76543201-23ab-cdef-0123-456789dddfff"));
+    assertEquals(Arrays.asList(32767, 0),
+        filter("ESAllPrim", "PropertyGuid ne 76543201-23ab-cdef-0123-456789dddfff"));
+  }
+
+  @Test
+  public void nullValues() throws Exception {
+    final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet("ESAllPrim");
+    final Entity entity = data.readAll(entitySet).getEntities().get(0);
+    entity.getProperty("PropertyString").setValue(ValueType.PRIMITIVE, null);
+    assertTrue(compile(entitySet, "PropertyString eq null").matches(entity));
+    assertFalse(compile(entitySet, "PropertyString ne null").matches(entity));
+    assertFalse(compile(entitySet, "PropertyString eq 'First'").matches(entity));
+    assertTrue(compile(entitySet, "not (PropertyString eq 'First')").matches(entity));
+    assertTrue(compile(entitySet, "PropertyString eq 'First' or PropertyInt16 eq 32767").matches(entity));
+    assertFalse(compile(entitySet, "length(PropertyString) eq 0").matches(entity));
+    assertFalse(compile(entitySet, "PropertyBoolean eq 0 add -(5 add null)").matches(entity));
+    assertTrue(compile(entitySet, "PropertyString eq PropertyInt16 add null").matches(entity));
+  }
+
+  @Test
+  public void constantFolding() throws Exception {
+    assertEquals(Arrays.asList(32767, -32768, 0), filter("ESAllPrim", "1 add 2 eq 3"));
+    assertEquals(Collections.<Integer> emptyList(), filter("ESAllPrim", "length('abc') eq 4"));
+  }
+
+  @Test
+  public void sameResultAsVisitor() throws Exception {
+    for (final String expression : Arrays.asList(
+        "PropertyInt16 eq 32767",
+        "PropertyInt32 gt 0 and PropertyBoolean eq true",
+        "PropertyString eq 'First Resource - positive values' or PropertyByte le 0",
+        "startswith(PropertyString,'Second')",
+        "PropertyInt16 add PropertyByte gt 100",
+        "length(PropertyString) gt 10")) {
+      final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet("ESAllPrim");
+      final FilterOption filterOption = parse("ESAllPrim", expression);
+      final EntityPredicate predicate = compiler.compile(filterOption, entitySet.getEntityType());
+      for (final Entity entity : data.readAll(entitySet).getEntities()) {
+        final VisitorOperand operand = filterOption.getExpression()
+            .accept(new ExpressionVisitorImpl(entity, entitySet));
+        assertEquals(expression, Boolean.TRUE.equals(operand.getValue()), predicate.matches(entity));
+      }
+    }
+  }
+
+  @Test
+  public void orderBy() throws Exception {
+    assertEquals(Arrays.asList(-32768, 0, 32767), orderBy("ESAllPrim", "PropertyInt16"));
+    assertEquals(Arrays.asList(32767, 0, -32768), orderBy("ESAllPrim", "PropertyInt64 desc"));
+    assertEquals(Arrays.asList(0, 32767, -32768), orderBy("ESAllPrim", "PropertyString"));
+    assertEquals(Arrays.asList(0, 32767, -32768), orderBy("ESAllPrim", "PropertyDate"));
+    assertEquals(Arrays.asList(32767, 0, -32768), orderBy("ESAllPrim", "PropertyBoolean desc,PropertyInt16 desc"));
+    assertEquals(Arrays.asList(-32768, 32767, 0), orderBy("ESAllPrim", "length(PropertyString) desc"));
+    assertEquals(Arrays.asList(32767, 0, -32768), orderBy("ESAllPrim", "PropertyGuid"));
+  }
+
+  @Test
+  public void orderByNull() throws Exception {
+    final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet("ESAllPrim");
+    List<Entity> entities = new ArrayList<Entity>(data.readAll(entitySet).getEntities());
+    entities.get(2).getProperty("PropertyString").setValue(ValueType.PRIMITIVE, null);
+    final Comparator<Entity> comparator = compiler.compile(
+        new Parser().parseUri("ESAllPrim", "$orderby=PropertyString desc", null, edm).getOrderByOption(),
+        entitySet.getEntityType());
+    assertTrue(comparator.compare(entities.get(2), entities.get(0)) > 0);
+    assertTrue(comparator.compare(entities.get(0), entities.get(1)) > 0);
+    assertEquals(0, comparator.compare(entities.get(2), entities.get(2)));
+  }
+
+  @Test
+  public void errors() throws Exception {
+    expectError("ESAllPrim", "PropertyString eq 1", HttpStatusCode.BAD_REQUEST);
+    expectError("ESAllPrim", "PropertyInt16 add 1", HttpStatusCode.BAD_REQUEST);
+    expectError("ESAllPrim", "PropertyDouble mod 5 eq 0", HttpStatusCode.BAD_REQUEST);
+    expectError("ESAllPrim", "contains(PropertyInt16,'1')", HttpStatusCode.BAD_REQUEST);
+    expectError("ESMixPrimCollComp", "CollPropertyString/any(d:d eq 'a')", HttpStatusCode.NOT_IMPLEMENTED);
+    expectError("ESAllPrim", "geo.length(geography'SRID=4326;LineString(1 1,2 2)') gt 0",
+        HttpStatusCode.NOT_IMPLEMENTED);
+  }
+
+  private void expectError(final String entitySetName, final String expression, final HttpStatusCode status)
+      throws Exception {
+    try {
+      compile(edm.getEntityContainer().getEntitySet(entitySetName), expression);
+      fail("Expected an exception for " + expression);
+    } catch (final ODataApplicationException e) {
+      assertEquals(expression, status.getStatusCode(), e.getStatusCode());
+    }
+  }
+
+  private List<Integer> filter(final String entitySetName, final String expression) throws Exception {
+    final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet(entitySetName);
+    final EntityPredicate predicate = compile(entitySet, expression);
+    List<Integer> keys = new ArrayList<Integer>();
+    for (final Entity entity : data.readAll(entitySet).getEntities()) {
+      if (predicate.matches(entity)) {
+        keys.add(((Number) entity.getProperty("PropertyInt16").getValue()).intValue());
+      }
+    }
+    return keys;
+  }
+
+  private List<Integer> orderBy(final String entitySetName, final String orderBy) throws Exception {
+    final EdmEntitySet entitySet = edm.getEntityContainer().getEntitySet(entitySetName);
+    List<Entity> entities = new ArrayList<Entity>(data.readAll(entitySet).getEntities());
+    Collections.sort(entities, compiler.compile(
+        new Parser().parseUri(entitySetName, "$orderby=" + orderBy, null, edm).getOrderByOption(),
+        entitySet.getEntityType()));
+    List<Integer> keys = new ArrayList<Integer>();
+    for (final Entity entity : entities) {
+      keys.add(((Number) entity.getProperty("PropertyInt16").getValue()).intValue());
+    }
+    return keys;
+  }
+
+  private EntityPredicate compile(final EdmEntitySet entitySet, final String expression) throws Exception {
+    return compiler.compile(parse(entitySet.getName(), expression), entitySet.getEntityType());
+  }
+
+  private FilterOption parse(final String path, final String expression) throws Exception {
+    return new Parser().parseUri(path, "$filter=" + expression, null, edm).getFilterOption();
+  }
+}
@@ -18,16 +18,22 @@
  */
 package org.apache.olingo.server.core.serializer.json;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.ContextURL.Suffix;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
@@ -37,6 +43,7 @@ import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
@@ -65,6 +72,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 public class ODataJsonSerializerTest {
   private static final ServiceMetadata metadata = new ServiceMetadataImpl(
       new EdmTechProvider(), Collections.<EdmxReference> emptyList(), new MetadataETagSupport("W/\"metadataETag\""));
@@ -330,6 +339,56 @@ public class ODataJsonSerializerTest {
     Assert.assertEquals(expectedResult, resultString);
   }
 
+  @Test
+  public void entitySetTwoPrimStreamed() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final Iterator<Entity> source = data.readAll(edmEntitySet).getEntities().iterator();
+    final EntityIterator entities = new EntityIterator() {
+      private int read = 0;
+
+      @Override
+      public boolean hasNext() {
+        return source.hasNext();
+      }
+
+      @Override
+      public Entity next() {
+        read++;
+        return source.next();
+      }
+
+      @Override
+      public Integer getCount() {
+        return source.hasNext() ? null : read;
+      }
+
+      @Override
+      public URI getNext() {
+        return URI.create("/next");
+      }
+    };
+    CountOption countOption = Mockito.mock(CountOption.class);
+    Mockito.when(countOption.getValue()).thenReturn(true);
+    final ODataContent content = serializerNoMetadata.entityCollectionStreamed(
+        metadata, edmEntitySet.getEntityType(), entities,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .count(countOption)
+            .build()).getODataContent();
+    Assert.assertTrue(source.hasNext());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    content.write(output);
+    Assert.assertEquals("{\"value\":["
+        + "{\"PropertyInt16\":32766,\"PropertyString\":\"Test String1\"},"
+        + "{\"PropertyInt16\":-365,\"PropertyString\":\"Test String2\"},"
+        + "{\"PropertyInt16\":-32766,\"PropertyString\":null},"
+        + "{\"PropertyInt16\":32767,\"PropertyString\":\"Test String4\"}],"
+        + "\"@odata.count\":4,"
+        + "\"@odata.nextLink\":\"/next\"}",
+        output.toString("UTF-8"));
+  }
+
   @Test
   public void entityMedia() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESMedia");
@@ -496,6 +555,32 @@ public class ODataJsonSerializerTest {
         resultString);
   }
 
+  @Test
+  public void selectWithTextInSubsequentRequests() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final EdmEntityType entityType = edmEntitySet.getEntityType();
+    final EntityCollection entitySet = data.readAll(edmEntitySet);
+    final String expectedResult = "{"
+        + "\"@odata.context\":\"$metadata#ESTwoPrim(PropertyString)\","
+        + "\"@odata.metadataEtag\":\"W/\\\"metadataETag\\\"\","
+        + "\"value\":[{\"PropertyString\":\"Test String1\"},{\"PropertyString\":\"Test String2\"},"
+        + "{\"PropertyString\":null},{\"PropertyString\":\"Test String4\"}]}";
+    for (int request = 0; request < 2; request++) {
+      final SelectOption select = ExpandSelectMock.mockSelectOption(Arrays.asList(
+          ExpandSelectMock.mockSelectItem(edmEntitySet, "PropertyString")));
+      Mockito.when(select.getText()).thenReturn("PropertyString");
+      final String resultString = IOUtils.toString(serializer
+          .entityCollection(metadata, entityType, entitySet,
+              EntityCollectionSerializerOptions.with()
+                  .contextURL(ContextURL.with().entitySet(edmEntitySet)
+                      .selectList(helper.buildContextURLSelectList(entityType, null, select))
+                      .build())
+                  .select(select)
+                  .build()).getContent());
+      Assert.assertEquals(expectedResult, resultString);
+    }
+  }
+
   @Test
   public void expand() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
@@ -557,6 +642,40 @@ public class ODataJsonSerializerTest {
         resultString);
   }
 
+  @Test
+  public void overriddenWriteProperty() throws Exception {
+    final ODataSerializer serializer = new ODataJsonSerializer(ContentType.JSON) {
+      @Override
+      protected void writeProperty(final EdmProperty edmProperty, final Property property,
+          final Set<List<String>> selectedPaths, final JsonGenerator json)
+          throws IOException, SerializerException {
+        if (!edmProperty.getName().equals("PropertyString") && !edmProperty.getName().equals("PropertyDate")) {
+          super.writeProperty(edmProperty, property, selectedPaths, json);
+        }
+      }
+    };
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final EdmEntityType entityType = edmEntitySet.getEntityType();
+    final Entity entity = data.readAll(edmEntitySet).getEntities().get(3);
+    final SelectOption select = ExpandSelectMock.mockSelectOption(Arrays.asList(
+        ExpandSelectMock.mockSelectItem(entityContainer.getEntitySet("ESAllPrim"), "PropertyDate")));
+    ExpandItem expandItem = ExpandSelectMock.mockExpandItem(edmEntitySet, "NavPropertyETAllPrimOne");
+    Mockito.when(expandItem.getSelectOption()).thenReturn(select);
+    final ExpandOption expand = ExpandSelectMock.mockExpandOption(Arrays.asList(expandItem));
+    final String resultString = IOUtils.toString(serializer
+        .entity(metadata, entityType, entity,
+            EntitySerializerOptions.with()
+                .contextURL(ContextURL.with().entitySet(edmEntitySet).suffix(Suffix.ENTITY).build())
+                .expand(expand)
+                .build()).getContent());
+    Assert.assertEquals("{"
+        + "\"@odata.context\":\"$metadata#ESTwoPrim/$entity\","
+        + "\"@odata.metadataEtag\":\"W/\\\"metadataETag\\\"\","
+        + "\"PropertyInt16\":32767,"
+        + "\"NavPropertyETAllPrimOne\":{}}",
+        resultString);
+  }
+
   @Test
   public void expandAll() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
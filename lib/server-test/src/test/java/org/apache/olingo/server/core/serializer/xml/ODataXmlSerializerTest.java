@@ -18,6 +18,7 @@
  */
 package org.apache.olingo.server.core.serializer.xml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -26,12 +27,14 @@ import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.ContextURL.Suffix;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
@@ -41,6 +44,7 @@ import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmProperty;
 import org.apache.olingo.commons.api.format.ContentType;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
@@ -1829,6 +1833,57 @@ public class ODataXmlSerializerTest {
     checkXMLEqual(expected, resultString);
   }
 
+  @Test
+  public void entityCollectionReferenceStreamed() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final Iterator<Entity> source = data.readAll(edmEntitySet).getEntities().iterator();
+    final EntityIterator entities = new EntityIterator() {
+      @Override
+      public boolean hasNext() {
+        return source.hasNext();
+      }
+
+      @Override
+      public Entity next() {
+        return source.next();
+      }
+
+      @Override
+      public Integer getCount() {
+        return source.hasNext() ? null : 3;
+      }
+
+      @Override
+      public URI getNext() {
+        return URI.create("/next");
+      }
+    };
+    CountOption countOption = Mockito.mock(CountOption.class);
+    Mockito.when(countOption.getValue()).thenReturn(true);
+    final ODataContent content = serializer.entityCollectionStreamed(metadata, edmEntitySet.getEntityType(), entities,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().asCollection().suffix(Suffix.REFERENCE).build())
+            .count(countOption)
+            .setWriteOnlyReferences(true)
+            .build()).getODataContent();
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    content.write(output);
+    final String expected = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+        "<a:feed xmlns:a=\"http://www.w3.org/2005/Atom\"\n" +
+        "  xmlns:m=\"http://docs.oasis-open.org/odata/ns/metadata\"\n" +
+        "  xmlns:d=\"http://docs.oasis-open.org/odata/ns/data\"\n" +
+        "  m:context=\"$metadata#Collection($ref)\"\n" +
+        "  m:metadata-etag=\"WmetadataETag\">\n" +
+        "  <m:ref id=\"ESAllPrim(32767)\" />\n" +
+        "  <m:ref id=\"ESAllPrim(-32768)\" />\n" +
+        "  <m:ref id=\"ESAllPrim(0)\" />\n" +
+        "  <m:count>3</m:count>\n" +
+        "  <a:link rel=\"next\" href=\"/next\" />\n" +
+        "</a:feed>";
+    checkXMLEqual(expected, output.toString("UTF-8"));
+  }
+
   private void checkXMLEqual(String resultString, String expected) throws SAXException, IOException {
     Diff diff = XMLUnit.compareXML(expected, resultString);
     diff.overrideDifferenceListener(DIFFERENCE_LISTENER);
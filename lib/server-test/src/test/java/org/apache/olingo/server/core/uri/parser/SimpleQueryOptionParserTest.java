@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.core.edm.EdmProviderImpl;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourcePartTyped;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.SelectItem;
+import org.apache.olingo.server.api.uri.queryoption.expression.Binary;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.Literal;
+import org.apache.olingo.server.api.uri.queryoption.expression.Member;
+import org.apache.olingo.server.api.uri.queryoption.expression.Method;
+import org.apache.olingo.server.core.uri.parser.Parser.ParserEntryRules;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+/**
+ * Differential tests: the simple query-option parser must produce the same trees as the ANTLR parser.
+ */
+public class SimpleQueryOptionParserTest {
+
+  private static final Edm edm = new EdmProviderImpl(new EdmTechProvider());
+
+  /** Inputs handled by the simple parser. */
+  private static final List<String> SIMPLE = Arrays.asList(
+      "ESAllPrim?$filter=PropertyInt16%20eq%201",
+      "ESAllPrim?$filter=PropertyInt16%20ne%20-1",
+      "ESAllPrim?$filter=PropertyInt32%20gt%2010%20and%20PropertyInt64%20le%20100",
+      "ESAllPrim?$filter=PropertyInt16%20ge%201%20and%20PropertyInt16%20lt%202%20and%20PropertyByte%20eq%203",
+      "ESAllPrim?$filter=PropertyInt16%20eq%201%20or%20PropertyInt16%20eq%202%20and%20PropertyByte%20eq%203",
+      "ESAllPrim?$filter=PropertyString%20eq%20'O''Neil'",
+      "ESAllPrim?$filter=PropertyString%20eq%20'a%20b'",
+      "ESAllPrim?$filter=PropertyString%20eq%20null",
+      "ESAllPrim?$filter=PropertyBoolean%20eq%20true",
+      "ESAllPrim?$filter=PropertyBoolean%20ne%20False",
+      "ESAllPrim?$filter=PropertyInt16%20%20eq%20%201",
+      "ESAllPrim?$filter=contains(PropertyString,'x')",
+      "ESAllPrim?$filter=startswith(%20PropertyString%20,%20'x'%20)",
+      "ESAllPrim?$filter=endswith(PropertyString,'x')%20and%20PropertyInt16%20eq%201",
+      "ESAllPrim(1)?$filter=PropertyInt16%20eq%201",
+      "ESAllPrim?$orderby=PropertyInt16",
+      "ESAllPrim?$orderby=PropertyInt16%20desc,PropertyString%20asc",
+      "ESAllPrim?$orderby=PropertyInt16%20,%20PropertyString",
+      "ESAllPrim?$select=PropertyInt16,PropertyString",
+      "ESAllPrim?$select=*",
+      "ESCompAllPrim?$select=PropertyComp,PropertyInt16",
+      "ESTwoKeyNav?$select=PropertyInt16&$orderby=PropertyString%20desc&$filter=PropertyInt16%20lt%205");
+
+  /** Inputs the simple parser must leave to the ANTLR parser. */
+  private static final List<String> COMPLEX = Arrays.asList(
+      "ESAllPrim?$filter=(PropertyInt16%20eq%201)",
+      "ESAllPrim?$filter=not%20PropertyBoolean",
+      "ESAllPrim?$filter=PropertyInt16%20add%201%20eq%202",
+      "ESAllPrim?$filter=PropertyDecimal%20eq%201.5",
+      "ESAllPrim?$filter=PropertyDate%20eq%202012-12-03",
+      "ESAllPrim?$filter=PropertyTimeOfDay%20eq%2012:34:55",
+      "ESAllPrim?$filter=PropertyGuid%20eq%2012345678-1234-1234-1234-123456789012",
+      "ESAllPrim?$filter=contains(PropertyString,PropertyString)",
+      "ESAllPrim?$filter=PropertyInt16%20eq%20PropertyInt32",
+      "ESTwoKeyNav?$filter=PropertyComp/PropertyInt16%20eq%201",
+      "ESAllPrim?$orderby=PropertyInt16%20sub%201",
+      "ESTwoKeyNav?$select=PropertyComp/PropertyInt16");
+
+  @Test
+  public void sameResultAsAntlr() throws Exception {
+    for (final String uri : SIMPLE) {
+      final long antlrCalls = countAntlrCalls();
+      final String fast = dump(parse(uri, true));
+      assertEquals("ANTLR has been used for " + uri, antlrCalls, countAntlrCalls());
+      assertEquals(uri, dump(parse(uri, false)), fast);
+    }
+  }
+
+  @Test
+  public void fallbackToAntlr() throws Exception {
+    for (final String uri : COMPLEX) {
+      final long antlrCalls = countAntlrCalls();
+      final String fast = dump(parse(uri, true));
+      assertEquals("ANTLR has not been used for " + uri, antlrCalls + 1, countAntlrCalls());
+      assertEquals(uri, dump(parse(uri, false)), fast);
+    }
+  }
+
+  @Test
+  public void errorsFromAntlr() throws Exception {
+    for (final String uri : Arrays.asList(
+        "ESAllPrim?$filter=PropertyInt16%20eq",
+        "ESAllPrim?$filter=Unknown%20eq%201",
+        "ESAllPrim?$filter=PropertyString%20eq%20'open",
+        "ESAllPrim?$orderby=PropertyInt16%20",
+        "ESAllPrim?$select=PropertyInt16,",
+        "ESTwoKeyNav?$select=NavPropertyETKeyNavOne",
+        "ESAllPrim?$select=Unknown")) {
+      try {
+        parse(uri, true);
+        fail("Expected exception for " + uri);
+      } catch (final UriParserException e) {
+        // expected
+      }
+    }
+  }
+
+  private UriInfo parse(final String uri, final boolean simple) throws UriParserException {
+    final int queryStart = uri.indexOf('?');
+    return new Parser().setSimpleQueryOptionParsing(simple)
+        .parseUri(uri.substring(0, queryStart), uri.substring(queryStart + 1), null, edm);
+  }
+
+  private long countAntlrCalls() {
+    return Parser.getParseCount(ParserEntryRules.FilterExpression)
+        + Parser.getParseCount(ParserEntryRules.Orderby)
+        + Parser.getParseCount(ParserEntryRules.Select);
+  }
+
+  private String dump(final UriInfo uriInfo) {
+    StringBuilder result = new StringBuilder();
+    if (uriInfo.getFilterOption() != null) {
+      result.append("filter:").append(dump(uriInfo.getFilterOption().getExpression())).append('\n');
+    }
+    if (uriInfo.getOrderByOption() != null) {
+      result.append("orderby:");
+      for (final OrderByItem item : uriInfo.getOrderByOption().getOrders()) {
+        result.append(item.isDescending() ? "desc" : "asc").append(dump(item.getExpression()));
+      }
+      result.append('\n');
+    }
+    if (uriInfo.getSelectOption() != null) {
+      result.append("select(").append(uriInfo.getSelectOption().getText()).append("):");
+      for (final SelectItem item : uriInfo.getSelectOption().getSelectItems()) {
+        result.append('[').append(item.isStar()).append(',').append(item.isAllOperationsInSchema())
+            .append(',').append(item.getStartTypeFilter()).append(',')
+            .append(item.getResourcePath() == null ? "" : dump(item.getResourcePath())).append(']');
+      }
+      result.append('\n');
+    }
+    return result.toString();
+  }
+
+  private String dump(final Expression expression) {
+    if (expression instanceof Binary) {
+      final Binary binary = (Binary) expression;
+      return "<" + dump(binary.getLeftOperand()) + " " + binary.getOperator() + " "
+          + dump(binary.getRightOperand()) + ">";
+    } else if (expression instanceof Method) {
+      final Method method = (Method) expression;
+      StringBuilder result = new StringBuilder("<").append(method.getMethod()).append('(');
+      for (final Expression parameter : method.getParameters()) {
+        result.append(dump(parameter)).append(',');
+      }
+      return result.append(")>").toString();
+    } else if (expression instanceof Member) {
+      final Member member = (Member) expression;
+      return "<" + member.getStartTypeFilter() + "," + dump(member.getResourcePath()) + ">";
+    } else if (expression instanceof Literal) {
+      final Literal literal = (Literal) expression;
+      return "<" + literal.getText() + ":" + (literal.getType() == null ? null : literal.getType().getName()) + ">";
+    } else {
+      return "<" + expression.getClass().getSimpleName() + ">";
+    }
+  }
+
+  private String dump(final UriInfoResource resource) {
+    StringBuilder result = new StringBuilder();
+    for (final UriResource part : resource.getUriResourceParts()) {
+      result.append(part.getClass().getSimpleName()).append(':').append(part.getKind()).append(':')
+          .append(part instanceof UriResourcePartTyped ? ((UriResourcePartTyped) part).toString(true) : part)
+          .append('/');
+    }
+    return result.toString();
+  }
+}